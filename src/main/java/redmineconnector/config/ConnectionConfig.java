@@ -26,6 +26,21 @@ public class ConnectionConfig {
     public String columnVisibility;
     public String pinnedTaskIds;
 
+    // HTTP transport
+    public int maxConnections;
+    public boolean warmUp;
+    public boolean gzipRequests;
+    public int retryAttempts;
+    public int retryDelayMs;
+    public boolean retryPuts;
+
+    // Async execution: platform | virtual | auto
+    public String asyncThreads;
+
+    // Delta sync
+    public boolean deltaSync;
+    public int fullSyncMinutes;
+
     public ConnectionConfig(String prefix, Properties props) {
         this.prefix = prefix;
         this.url = props.getProperty(prefix + ".url", "https://redmine.ejemplo.com/");
@@ -53,6 +68,19 @@ public class ConnectionConfig {
         this.columnVisibility = props.getProperty(prefix + ".columnVisibility", "");
         this.pinnedTaskIds = props.getProperty(prefix + ".pinnedTaskIds", "");
         this.isDetached = "true".equalsIgnoreCase(props.getProperty(prefix + ".isDetached", "false"));
+        this.maxConnections = parseSafeInt(props.getProperty(prefix + ".http.maxConnections"),
+                redmineconnector.util.AppConstants.MAX_CONCURRENT_REQUESTS);
+        this.warmUp = "true".equalsIgnoreCase(props.getProperty(prefix + ".http.warmup", "true"));
+        this.gzipRequests = "true".equalsIgnoreCase(props.getProperty(prefix + ".http.gzipRequests", "false"));
+        this.retryAttempts = parseSafeInt(props.getProperty(prefix + ".http.retries"),
+                redmineconnector.util.AppConstants.MAX_RETRY_ATTEMPTS);
+        this.retryDelayMs = parseSafeInt(props.getProperty(prefix + ".http.retryDelay"),
+                redmineconnector.util.AppConstants.RETRY_DELAY_MS);
+        this.retryPuts = "true".equalsIgnoreCase(props.getProperty(prefix + ".http.retryPuts", "true"));
+        this.asyncThreads = props.getProperty(prefix + ".async.threads", "auto");
+        this.deltaSync = "true".equalsIgnoreCase(props.getProperty(prefix + ".sync.delta", "true"));
+        this.fullSyncMinutes = parseSafeInt(props.getProperty(prefix + ".sync.fullEvery"),
+                redmineconnector.util.AppConstants.DEFAULT_FULL_SYNC_INTERVAL_MIN);
     }
 
     private int parseSafeInt(String val, int def) {
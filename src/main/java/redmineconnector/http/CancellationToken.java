@@ -0,0 +1,169 @@
+package redmineconnector.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import redmineconnector.util.LoggerUtil;
+
+/**
+ * Cancellation signal shared by a group of requests, e.g. every call of one
+ * refresh of the task list.
+ *
+ * <p>
+ * The token travels with the thread rather than through the
+ * {@code DataService} signatures: the code issuing the calls binds it with
+ * {@link #bind(CancellationToken)} and the transports look it up with
+ * {@link #current()}. Once {@link #cancel()} is called:
+ *
+ * <ul>
+ * <li>requests not yet sent fail with {@link RequestCancelledException};</li>
+ * <li>open connections are {@code disconnect()}-ed, so a blocked read returns
+ * at once instead of waiting for the server or the read timeout;</li>
+ * <li>retry backoffs are cut short.</li>
+ * </ul>
+ *
+ * <pre>
+ * CancellationToken token = new CancellationToken();
+ * CancellationToken.Scope scope = CancellationToken.bind(token);
+ * try {
+ *     service.fetchTasks(pid, false, 0);
+ * } finally {
+ *     scope.close();
+ * }
+ * // from another thread
+ * token.cancel();
+ * </pre>
+ *
+ * @author Redmine Connector Team
+ * @version 1.0
+ */
+public final class CancellationToken {
+
+    private static final ThreadLocal<CancellationToken> CURRENT = new ThreadLocal<>();
+
+    /** Restores the previous binding (or deregisters a callback) when closed. */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+    private final List<Runnable> callbacks = new ArrayList<>(); // guarded by this
+
+    /** Token bound to the calling thread, or null. */
+    public static CancellationToken current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds {@code token} (null for none) to the calling thread until the
+     * returned scope is closed.
+     */
+    public static Scope bind(CancellationToken token) {
+        CancellationToken previous = CURRENT.get();
+        if (token == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(token);
+        }
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Cancels the token and runs the registered callbacks (aborting the open
+     * connections). Further calls do nothing.
+     */
+    public void cancel() {
+        List<Runnable> actions;
+        synchronized (this) {
+            if (isCancelled()) {
+                return;
+            }
+            cancelled.countDown();
+            actions = new ArrayList<>(callbacks);
+            callbacks.clear();
+        }
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                LoggerUtil.logDebug("CancellationToken", "Cancel callback failed: " + e);
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled.getCount() == 0;
+    }
+
+    /**
+     * Runs {@code action} on {@link #cancel()}, or right away if the token is
+     * already cancelled. Closing the returned scope deregisters it.
+     */
+    public Scope onCancel(Runnable action) {
+        synchronized (this) {
+            if (!isCancelled()) {
+                callbacks.add(action);
+                return () -> {
+                    synchronized (this) {
+                        callbacks.remove(action);
+                    }
+                };
+            }
+        }
+        action.run();
+        return () -> {
+        };
+    }
+
+    /**
+     * @throws RequestCancelledException if the token is cancelled
+     */
+    public void throwIfCancelled(Object what) throws RequestCancelledException {
+        if (isCancelled()) {
+            throw new RequestCancelledException("Request cancelled: " + what);
+        }
+    }
+
+    /**
+     * Sleeps {@code ms} (a retry backoff), ending early if the token bound to
+     * the calling thread is cancelled or the thread is interrupted.
+     *
+     * @throws RequestCancelledException if the bound token is cancelled
+     */
+    public static void sleep(long ms, Object what) throws IOException {
+        CancellationToken token = current();
+        if (ms <= 0) {
+            return;
+        }
+        try {
+            if (token == null) {
+                Thread.sleep(ms);
+            } else if (token.await(ms)) {
+                throw new RequestCancelledException("Request cancelled: " + what);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during retry backoff");
+        }
+    }
+
+    /**
+     * Waits up to {@code ms} for the token to be cancelled.
+     *
+     * @return true if it was cancelled
+     */
+    public boolean await(long ms) throws InterruptedException {
+        return cancelled.await(ms, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,287 @@
+package redmineconnector.http;
+
+import java.io.IOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import redmineconnector.util.AppConstants;
+import redmineconnector.util.LoggerUtil;
+
+/**
+ * Per-server circuit breaker: stops sending requests to a server that is not
+ * answering and lets them fail immediately instead of waiting out the
+ * connect/read timeout.
+ *
+ * <ul>
+ * <li><b>CLOSED</b> - normal operation. After
+ * {@link AppConstants#CIRCUIT_FAILURE_THRESHOLD} consecutive network failures
+ * (connection refused/reset, timeouts, unknown host) or gateway errors
+ * (502/503/504) the circuit opens.</li>
+ * <li><b>OPEN</b> - every request fails fast with
+ * {@link CircuitOpenException}. When the cool-down expires a single probe
+ * request is let through.</li>
+ * <li><b>HALF_OPEN</b> - the probe is in flight; other requests still fail
+ * fast. Success closes the circuit, failure opens it again with twice the
+ * cool-down (up to {@link AppConstants#CIRCUIT_MAX_OPEN_MS}).</li>
+ * </ul>
+ *
+ * <p>
+ * The probe is either the next real request or, if the transport registered
+ * one with {@link #setProbe(Runnable)}, a background request sent as soon as
+ * the cool-down expires, so the circuit closes again even when nothing else is
+ * being requested. State changes are published to listeners (the UI switches
+ * offline mode with them).
+ *
+ * <p>
+ * Breakers are shared process-wide per origin (scheme, host and port), like
+ * the pooled transports of {@link HttpClientPool}.
+ *
+ * @author Redmine Connector Team
+ * @version 1.0
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final Map<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    private static final ScheduledExecutorService PROBER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "circuit-probe");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final String origin;
+    private final int failureThreshold;
+    private final long baseOpenMs;
+    private final long maxOpenMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openMs;
+    private long openUntil;
+    private Thread probeThread;
+    private volatile Runnable probe;
+
+    private final List<Consumer<State>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong openings = new AtomicLong();
+
+    /**
+     * Standalone breaker (tests, custom transports); shared breakers come from
+     * {@link #forUrl(String)}.
+     */
+    public CircuitBreaker(String origin, int failureThreshold, long openMs, long maxOpenMs) {
+        this.origin = origin;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.baseOpenMs = Math.max(0, openMs);
+        this.maxOpenMs = Math.max(this.baseOpenMs, maxOpenMs);
+        this.openMs = this.baseOpenMs;
+    }
+
+    /**
+     * Breaker for the origin of {@code url}, created with the default settings
+     * on first use.
+     */
+    public static CircuitBreaker forUrl(String url) {
+        return BREAKERS.computeIfAbsent(HttpClientPool.originOf(url),
+                o -> new CircuitBreaker(o, AppConstants.CIRCUIT_FAILURE_THRESHOLD, AppConstants.CIRCUIT_OPEN_MS,
+                        AppConstants.CIRCUIT_MAX_OPEN_MS));
+    }
+
+    /**
+     * All shared breakers by origin (for diagnostics).
+     */
+    public static Map<String, CircuitBreaker> all() {
+        return Collections.unmodifiableMap(new TreeMap<>(BREAKERS));
+    }
+
+    /**
+     * Network failures that say the server is unreachable. Cancellations,
+     * TLS and protocol errors do not count.
+     */
+    public static boolean isFailure(IOException e) {
+        return e instanceof SocketException || e instanceof SocketTimeoutException
+                || e instanceof UnknownHostException;
+    }
+
+    /** Gateway errors from a proxy in front of a server that is down. */
+    public static boolean isFailureStatus(int status) {
+        return status == 502 || status == 503 || status == 504;
+    }
+
+    /**
+     * Called before sending a request.
+     *
+     * @throws CircuitOpenException if the request must not be sent
+     */
+    public void acquire() throws CircuitOpenException {
+        State changed = null;
+        synchronized (this) {
+            if (state == State.OPEN && System.currentTimeMillis() >= openUntil) {
+                state = State.HALF_OPEN;
+                probeThread = Thread.currentThread();
+                changed = state;
+            } else if (state != State.CLOSED) {
+                rejected.incrementAndGet();
+                throw new CircuitOpenException(origin, Math.max(0, openUntil - System.currentTimeMillis()));
+            }
+        }
+        fire(changed);
+    }
+
+    /**
+     * Fails a request that was allowed earlier but waited (e.g. for a
+     * connection permit) while the circuit opened.
+     */
+    public void checkNotOpen() throws CircuitOpenException {
+        synchronized (this) {
+            if (state == State.OPEN) {
+                rejected.incrementAndGet();
+                throw new CircuitOpenException(origin, Math.max(0, openUntil - System.currentTimeMillis()));
+            }
+        }
+    }
+
+    /** The server answered. */
+    public void recordSuccess() {
+        State changed = null;
+        synchronized (this) {
+            consecutiveFailures = 0;
+            if (state != State.CLOSED) {
+                state = State.CLOSED;
+                openMs = baseOpenMs;
+                probeThread = null;
+                changed = state;
+            }
+        }
+        fire(changed);
+    }
+
+    /** The server could not be reached. */
+    public void recordFailure() {
+        State changed = null;
+        synchronized (this) {
+            if (state == State.HALF_OPEN) {
+                if (probeThread == Thread.currentThread()) {
+                    openMs = Math.min(openMs * 2, maxOpenMs);
+                    changed = open();
+                }
+            } else if (state == State.CLOSED && ++consecutiveFailures >= failureThreshold) {
+                changed = open();
+            }
+        }
+        fire(changed);
+    }
+
+    /**
+     * Called when a request ends, whatever the outcome. A probe that ended
+     * without success or failure (cancelled, interrupted) hands the circuit
+     * back to OPEN so another probe can be tried.
+     */
+    public void release() {
+        State changed = null;
+        synchronized (this) {
+            if (probeThread == Thread.currentThread()) {
+                probeThread = null;
+                if (state == State.HALF_OPEN) {
+                    changed = open();
+                }
+            }
+        }
+        fire(changed);
+    }
+
+    private State open() {
+        state = State.OPEN;
+        probeThread = null;
+        openUntil = System.currentTimeMillis() + openMs;
+        openings.incrementAndGet();
+        if (probe != null) {
+            PROBER.schedule(this::runProbe, openMs, TimeUnit.MILLISECONDS);
+        }
+        return state;
+    }
+
+    private void runProbe() {
+        Runnable p = probe;
+        boolean due;
+        synchronized (this) {
+            due = state == State.OPEN && System.currentTimeMillis() >= openUntil;
+        }
+        if (p != null && due) {
+            try {
+                p.run();
+            } catch (RuntimeException e) {
+                LoggerUtil.logDebug("CircuitBreaker", "Probe to " + origin + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void fire(State changed) {
+        if (changed == null) {
+            return;
+        }
+        LoggerUtil.logDebug("CircuitBreaker", origin + " -> " + changed);
+        for (Consumer<State> l : listeners) {
+            try {
+                l.accept(changed);
+            } catch (RuntimeException e) {
+                LoggerUtil.logError("CircuitBreaker", "Listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Request sent in the background when the cool-down expires. It must go
+     * through the guarded transport so its outcome is recorded here.
+     */
+    public void setProbe(Runnable probe) {
+        this.probe = probe;
+    }
+
+    public void addListener(Consumer<State> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<State> listener) {
+        listeners.remove(listener);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    /** Requests failed fast since start. */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /** Times the circuit has opened since start. */
+    public long getOpenCount() {
+        return openings.get();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return origin + " [" + state + ", " + consecutiveFailures + " failures]";
+    }
+}
@@ -0,0 +1,28 @@
+package redmineconnector.http;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of sending a request while the {@link CircuitBreaker} of the
+ * server is open. The request never left the client, so it is never retried.
+ *
+ * @author Redmine Connector Team
+ * @version 1.0
+ */
+public class CircuitOpenException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryInMs;
+
+    public CircuitOpenException(String origin, long retryInMs) {
+        super("Server unreachable, requests suspended: " + origin + " (next attempt in "
+                + (retryInMs + 999) / 1000 + " s)");
+        this.retryInMs = retryInMs;
+    }
+
+    /** Time left until the next probe. */
+    public long getRetryInMs() {
+        return retryInMs;
+    }
+}
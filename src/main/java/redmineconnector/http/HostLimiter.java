@@ -0,0 +1,175 @@
+package redmineconnector.http;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import redmineconnector.util.AppConstants;
+
+/**
+ * Process-wide limit of simultaneous requests per Redmine host.
+ *
+ * <p>
+ * Every {@link UrlConnectionTransport} takes a permit here before opening a
+ * connection, so all {@code InstanceController} tabs, auto-refreshes, bulk
+ * updates and downloads aimed at the same host share one budget
+ * ({@link AppConstants#MAX_CONCURRENT_REQUESTS} by default). Permits are handed
+ * out in FIFO order; callers beyond the limit wait instead of opening more
+ * connections.
+ *
+ * <p>
+ * The limiter is keyed by host name only, so {@code http://} and
+ * {@code https://} (or different ports) of the same server count together.
+ * In-flight requests, current and peak queue depth and accumulated wait time
+ * are observable per host.
+ *
+ * @author Redmine Connector Team
+ * @version 1.0
+ */
+public final class HostLimiter {
+
+    private static final Map<String, HostLimiter> LIMITERS = new ConcurrentHashMap<>();
+
+    private final String host;
+    private final ResizableSemaphore permits;
+    private volatile int limit;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger peakWaiting = new AtomicInteger();
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong totalWaitMs = new AtomicLong();
+
+    private HostLimiter(String host, int limit) {
+        this.host = host;
+        this.limit = Math.max(1, limit);
+        this.permits = new ResizableSemaphore(this.limit);
+    }
+
+    /**
+     * Limiter for the host of {@code url}, created with the default limit on
+     * first use.
+     */
+    public static HostLimiter forUrl(String url) {
+        return forUrl(url, AppConstants.MAX_CONCURRENT_REQUESTS);
+    }
+
+    /**
+     * Limiter for the host of {@code url}; {@code initialLimit} only applies if
+     * the limiter does not exist yet.
+     */
+    public static HostLimiter forUrl(String url, int initialLimit) {
+        String host = hostOf(url);
+        return LIMITERS.computeIfAbsent(host, h -> new HostLimiter(h, initialLimit));
+    }
+
+    /**
+     * All known limiters by host name (for diagnostics).
+     */
+    public static Map<String, HostLimiter> all() {
+        return Collections.unmodifiableMap(new TreeMap<>(LIMITERS));
+    }
+
+    static String hostOf(String url) {
+        try {
+            return new URL(url).getHost().toLowerCase();
+        } catch (Exception e) {
+            return url != null ? url.toLowerCase() : "";
+        }
+    }
+
+    /**
+     * Waits for a free permit. Every successful call must be paired with
+     * {@link #release()}.
+     */
+    public void acquire() throws InterruptedException {
+        // Timed tryAcquire honours fairness (the untimed one barges ahead of waiters)
+        if (!permits.tryAcquire(0, TimeUnit.SECONDS)) {
+            int depth = waiting.incrementAndGet();
+            peakWaiting.accumulateAndGet(depth, Math::max);
+            long start = System.currentTimeMillis();
+            try {
+                permits.acquire();
+            } finally {
+                waiting.decrementAndGet();
+                totalWaitMs.addAndGet(System.currentTimeMillis() - start);
+            }
+        }
+        acquired.incrementAndGet();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * Changes the limit. Requests already in flight are not affected; a lower
+     * limit takes effect as they complete.
+     */
+    public synchronized void setLimit(int max) {
+        int target = Math.max(1, max);
+        int delta = target - limit;
+        if (delta > 0) {
+            permits.release(delta);
+        } else if (delta < 0) {
+            permits.reducePermits(-delta);
+        }
+        limit = target;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /** Requests currently holding a permit. */
+    public int getInFlight() {
+        return limit - permits.availablePermits();
+    }
+
+    /** Requests currently waiting for a permit. */
+    public int getQueueDepth() {
+        return waiting.get();
+    }
+
+    /** Highest queue depth seen since start. */
+    public int getPeakQueueDepth() {
+        return peakWaiting.get();
+    }
+
+    /** Permits handed out since start. */
+    public long getAcquiredCount() {
+        return acquired.get();
+    }
+
+    /** Total time requests spent waiting for a permit. */
+    public long getTotalWaitMs() {
+        return totalWaitMs.get();
+    }
+
+    @Override
+    public String toString() {
+        return host + " [" + getInFlight() + "/" + limit + " in flight, " + getQueueDepth() + " queued]";
+    }
+
+    private static final class ResizableSemaphore extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        ResizableSemaphore(int permits) {
+            super(permits, true);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
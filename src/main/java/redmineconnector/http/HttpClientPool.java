@@ -0,0 +1,120 @@
+package redmineconnector.http;
+
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import redmineconnector.util.AppConstants;
+import redmineconnector.util.LoggerUtil;
+
+/**
+ * Process-wide registry holding one {@link HttpTransport} per server origin
+ * ({@code scheme://host:port}).
+ *
+ * <p>
+ * All {@code HttpDataService} instances and the static {@code HttpUtils} helpers
+ * resolve their transport here, so several {@code InstanceController} tabs
+ * pointing to the same Redmine share the same keep-alive connections and the
+ * same connection limit.
+ *
+ * <pre>
+ * HttpClientPool.configure(config.url, config.maxConnections);
+ * HttpClientPool.warmUpAsync(config.url);
+ * HttpTransport t = HttpClientPool.forUrl(config.url);
+ * </pre>
+ *
+ * @author Redmine Connector Team
+ * @version 1.0
+ */
+public final class HttpClientPool {
+
+    private static final Map<String, HttpTransport> TRANSPORTS = new ConcurrentHashMap<>();
+
+    static {
+        // Size of the JDK keep-alive cache per destination (default is 5). Must be
+        // set before the first HttpURLConnection is used.
+        if (System.getProperty("http.maxConnections") == null) {
+            System.setProperty("http.maxConnections",
+                    String.valueOf(AppConstants.DEFAULT_MAX_CONNECTIONS_PER_HOST));
+        }
+    }
+
+    private HttpClientPool() {
+    }
+
+    /**
+     * Returns the shared transport for the origin of {@code url}, creating it
+     * with the default settings on first use.
+     */
+    public static HttpTransport forUrl(String url) {
+        return TRANSPORTS.computeIfAbsent(originOf(url), origin -> new UrlConnectionTransport(origin,
+                AppConstants.MAX_CONCURRENT_REQUESTS, AppConstants.HTTP_TIMEOUT_MS));
+    }
+
+    /**
+     * Applies the per-host request limit ({@link HostLimiter}) for the host of
+     * {@code url}. Values &lt;= 0 keep the current limit.
+     */
+    public static void configure(String url, int maxConnections) {
+        if (maxConnections <= 0) {
+            return;
+        }
+        HttpTransport transport = forUrl(url);
+        if (transport instanceof UrlConnectionTransport) {
+            ((UrlConnectionTransport) transport).setMaxConnections(maxConnections);
+        }
+    }
+
+    /**
+     * Applies the connection limit and enables or disables gzip compression of
+     * request bodies for the origin of {@code url}.
+     */
+    public static void configure(String url, int maxConnections, boolean compressRequests) {
+        configure(url, maxConnections);
+        HttpTransport transport = forUrl(url);
+        if (transport instanceof UrlConnectionTransport) {
+            ((UrlConnectionTransport) transport).setCompressRequests(compressRequests);
+        }
+    }
+
+    /**
+     * Replaces the transport used for an origin (custom engines, tests).
+     */
+    public static void register(String url, HttpTransport transport) {
+        HttpTransport old = TRANSPORTS.put(originOf(url), transport);
+        if (old != null && old != transport) {
+            old.shutdown();
+        }
+    }
+
+    /**
+     * Opens the first connection to the server on a daemon thread.
+     */
+    public static void warmUpAsync(String url) {
+        HttpTransport transport = forUrl(url);
+        Thread t = new Thread(transport::warmUp, "http-warmup");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * Releases all transports. Called on application exit.
+     */
+    public static void shutdownAll() {
+        for (HttpTransport t : TRANSPORTS.values()) {
+            t.shutdown();
+        }
+        TRANSPORTS.clear();
+    }
+
+    static String originOf(String url) {
+        try {
+            URL u = new URL(url);
+            int port = u.getPort() != -1 ? u.getPort() : u.getDefaultPort();
+            return u.getProtocol().toLowerCase() + "://" + u.getHost().toLowerCase() + ":" + port;
+        } catch (Exception e) {
+            LoggerUtil.logWarning("HttpClientPool", "Invalid URL for pool key: " + url);
+            return url;
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package redmineconnector.http;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import redmineconnector.util.JsonParser;
+
+/**
+ * Process-wide latency and traffic metrics per Redmine endpoint.
+ *
+ * <p>
+ * Every exchange of {@link UrlConnectionTransport} is recorded under its
+ * method and endpoint template: the URL path with ids, project identifiers,
+ * wiki page titles and file names replaced by placeholders and the query
+ * string dropped, e.g. {@code GET /issues/{id}.json} or
+ * {@code GET /projects/{project}/memberships.json}. Per endpoint the registry
+ * keeps:
+ *
+ * <ul>
+ * <li>a latency histogram (p50/p95/p99, mean and max) of the exchanges that
+ * got an HTTP answer;</li>
+ * <li>the count per status code, and the failures without an answer
+ * (timeouts, refused connections, open circuit);</li>
+ * <li>bytes received and sent on the wire;</li>
+ * <li>retries ({@link RetryingTransport}) and validator cache hits (conditional
+ * GETs answered with {@code 304}).</li>
+ * </ul>
+ *
+ * <p>
+ * Recording is lock-free and allocation-free for a URL seen recently (the
+ * endpoint of the last {@value #MAX_CACHED_URLS} URLs per method is kept, so
+ * polls and metadata reloads skip building the template): counters are
+ * {@link LongAdder}s, status codes below 600 are counted in a fixed array and
+ * the histogram is a fixed array of buckets growing
+ * by a factor of 2<sup>1/4</sup> (about 19% per bucket) from 0.1 ms to about
+ * 2 minutes, so percentiles are reported as the upper bound of their bucket.
+ * The overhead is a few hundred nanoseconds per request, negligible next to a
+ * network round trip, so the registry is always on.
+ *
+ * @author Redmine Connector Team
+ * @version 1.0
+ */
+public final class HttpMetrics {
+
+    /** Upper bounds of the histogram buckets, in nanoseconds */
+    private static final long[] BOUNDS = new long[82];
+
+    static {
+        for (int i = 0; i < BOUNDS.length; i++) {
+            BOUNDS[i] = Math.round(100_000 * Math.pow(2, i / 4.0));
+        }
+    }
+
+    /** URLs whose endpoint is remembered, per method; the cache starts over when full */
+    static final int MAX_CACHED_URLS = 1024;
+
+    /** Status codes counted without allocating; others (non-standard) go to a map */
+    private static final int STATUS_SLOTS = 600;
+
+    private static final HttpMetrics GLOBAL = new HttpMetrics();
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    // method -> URL -> endpoint
+    private final Map<String, Map<String, Endpoint>> byUrl = new ConcurrentHashMap<>();
+    private volatile long since = System.currentTimeMillis();
+
+    /**
+     * Standalone registry (tests); the transports record into {@link #global()}.
+     */
+    public HttpMetrics() {
+    }
+
+    /** Registry shared by every transport of the process. */
+    public static HttpMetrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Records an exchange that got an HTTP answer.
+     *
+     * @param cacheHit the body was served from the validator cache after a 304
+     */
+    public void record(HttpRequest request, int status, long nanos, long bytesIn, long bytesOut, boolean cacheHit) {
+        Endpoint e = endpoint(request);
+        e.count.increment();
+        e.totalNanos.add(nanos);
+        e.maxNanos.accumulateAndGet(nanos, Math::max);
+        e.buckets.incrementAndGet(bucketOf(nanos));
+        if (status >= 0 && status < STATUS_SLOTS) {
+            e.statuses.incrementAndGet(status);
+        } else {
+            e.otherStatuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+        e.bytesIn.add(bytesIn);
+        e.bytesOut.add(bytesOut);
+        if (cacheHit) {
+            e.cacheHits.increment();
+        }
+    }
+
+    /** Records an exchange that failed without an HTTP answer. */
+    public void recordFailure(HttpRequest request, long bytesIn, long bytesOut) {
+        Endpoint e = endpoint(request);
+        e.failures.increment();
+        e.bytesIn.add(bytesIn);
+        e.bytesOut.add(bytesOut);
+    }
+
+    /** Records a retry of {@code request} (not counting the first attempt). */
+    public void recordRetry(HttpRequest request) {
+        endpoint(request).retries.increment();
+    }
+
+    private Endpoint endpoint(HttpRequest request) {
+        Map<String, Endpoint> urls = byUrl.get(request.getMethod());
+        if (urls == null) {
+            urls = byUrl.computeIfAbsent(request.getMethod(), m -> new ConcurrentHashMap<>());
+        }
+        Endpoint e = urls.get(request.getUrl());
+        if (e != null) {
+            return e;
+        }
+        e = endpoints.computeIfAbsent(request.getMethod() + " " + templateOf(request.getUrl()), Endpoint::new);
+        if (urls.size() >= MAX_CACHED_URLS) {
+            urls.clear();
+        }
+        urls.put(request.getUrl(), e);
+        return e;
+    }
+
+    private static int bucketOf(long nanos) {
+        int lo = 0;
+        int hi = BOUNDS.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (BOUNDS[mid] < nanos) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Endpoint template of a URL: path only, with numeric segments as
+     * {@code {id}}, the segment after {@code projects} as {@code {project}},
+     * the segment after {@code wiki} (except {@code index.json}) as
+     * {@code {page}} and the file name of {@code attachments/download/{id}} as
+     * {@code {file}}. A {@code .json} suffix is kept.
+     */
+    public static String templateOf(String url) {
+        if (url == null) {
+            return "";
+        }
+        int start = url.indexOf("://");
+        start = start < 0 ? 0 : url.indexOf('/', start + 3);
+        if (start < 0) {
+            return "/";
+        }
+        int end = url.length();
+        int q = url.indexOf('?', start);
+        if (q >= 0) {
+            end = q;
+        }
+        int hash = url.indexOf('#', start);
+        if (hash >= 0 && hash < end) {
+            end = hash;
+        }
+        String[] segments = url.substring(start + 1, end).split("/", -1);
+        StringBuilder sb = new StringBuilder(end - start + 16);
+        for (int i = 0; i < segments.length; i++) {
+            String seg = segments[i];
+            String prev = i > 0 ? segments[i - 1] : "";
+            boolean json = seg.endsWith(".json");
+            String name = json ? seg.substring(0, seg.length() - 5) : seg;
+            String placeholder = null;
+            if ("projects".equals(prev) && !name.isEmpty()) {
+                placeholder = "{project}";
+            } else if ("wiki".equals(prev) && !name.isEmpty() && !"index".equals(name)) {
+                placeholder = "{page}";
+            } else if (i > 1 && "download".equals(segments[i - 2]) && !name.isEmpty()) {
+                placeholder = "{file}";
+            } else if (isNumber(name)) {
+                placeholder = "{id}";
+            }
+            sb.append('/');
+            if (placeholder == null) {
+                sb.append(seg);
+            } else {
+                sb.append(placeholder);
+                if (json) {
+                    sb.append(".json");
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean isNumber(String s) {
+        if (s.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (!Character.isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Recorded endpoints sorted by key ({@code METHOD template}). */
+    public List<Endpoint> getEndpoints() {
+        List<Endpoint> list = new ArrayList<>(endpoints.values());
+        Collections.sort(list, (a, b) -> a.key.compareTo(b.key));
+        return list;
+    }
+
+    /** Endpoint recorded under {@code METHOD template}, or null. */
+    public Endpoint getEndpoint(String key) {
+        return endpoints.get(key);
+    }
+
+    /** Start of the recording period (creation or last {@link #reset()}). */
+    public long getSince() {
+        return since;
+    }
+
+    /** Drops every endpoint and starts a new recording period. */
+    public void reset() {
+        byUrl.clear();
+        endpoints.clear();
+        since = System.currentTimeMillis();
+    }
+
+    /**
+     * JSON dump of every endpoint, for support requests and offline analysis.
+     */
+    public String toJson() {
+        SimpleDateFormat iso = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ");
+        StringBuilder sb = new StringBuilder(256 + endpoints.size() * 320);
+        sb.append("{\"since\":\"").append(iso.format(new Date(since)))
+                .append("\",\"generated\":\"").append(iso.format(new Date())).append("\",\"endpoints\":[");
+        boolean first = true;
+        for (Endpoint e : getEndpoints()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            sb.append("{\"endpoint\":\"").append(JsonParser.escapeJsonString(e.key)).append('"')
+                    .append(",\"count\":").append(e.getCount())
+                    .append(",\"failures\":").append(e.getFailureCount())
+                    .append(",\"p50_ms\":").append(ms(e.percentileNanos(50)))
+                    .append(",\"p95_ms\":").append(ms(e.percentileNanos(95)))
+                    .append(",\"p99_ms\":").append(ms(e.percentileNanos(99)))
+                    .append(",\"mean_ms\":").append(ms(e.getMeanNanos()))
+                    .append(",\"max_ms\":").append(ms(e.getMaxNanos()))
+                    .append(",\"bytes_in\":").append(e.getBytesIn())
+                    .append(",\"bytes_out\":").append(e.getBytesOut())
+                    .append(",\"retries\":").append(e.getRetryCount())
+                    .append(",\"cache_hits\":").append(e.getCacheHitCount())
+                    .append(",\"status\":{");
+            boolean firstStatus = true;
+            for (Map.Entry<Integer, Long> s : e.getStatusCounts().entrySet()) {
+                if (!firstStatus) {
+                    sb.append(',');
+                }
+                firstStatus = false;
+                sb.append('"').append(s.getKey()).append("\":").append(s.getValue());
+            }
+            sb.append("}}");
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static String ms(long nanos) {
+        return String.valueOf(Math.round(nanos / 10_000.0) / 100.0);
+    }
+
+    /**
+     * Counters of one endpoint. Reads are not atomic across counters, which is
+     * fine for diagnostics.
+     */
+    public static final class Endpoint {
+        private final String key;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS.length);
+        private final AtomicLongArray statuses = new AtomicLongArray(STATUS_SLOTS);
+        private final Map<Integer, LongAdder> otherStatuses = new ConcurrentHashMap<>();
+        private final LongAdder bytesIn = new LongAdder();
+        private final LongAdder bytesOut = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+
+        private Endpoint(String key) {
+            this.key = key;
+        }
+
+        /** {@code METHOD template} */
+        public String getKey() {
+            return key;
+        }
+
+        /** Exchanges that got an HTTP answer. */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /** Exchanges that failed without an HTTP answer. */
+        public long getFailureCount() {
+            return failures.sum();
+        }
+
+        public long getBytesIn() {
+            return bytesIn.sum();
+        }
+
+        public long getBytesOut() {
+            return bytesOut.sum();
+        }
+
+        public long getRetryCount() {
+            return retries.sum();
+        }
+
+        /** Conditional GETs served from the validator cache. */
+        public long getCacheHitCount() {
+            return cacheHits.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public long getMeanNanos() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalNanos.sum() / n;
+        }
+
+        /**
+         * Latency below which {@code percent}% of the answered exchanges fall
+         * (upper bound of the bucket, capped at the maximum seen).
+         */
+        public long percentileNanos(double percent) {
+            long n = 0;
+            long[] snapshot = new long[BOUNDS.length];
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i] = buckets.get(i);
+                n += snapshot[i];
+            }
+            if (n == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(n * percent / 100.0);
+            long seen = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return Math.min(BOUNDS[i], maxNanos.get());
+                }
+            }
+            return maxNanos.get();
+        }
+
+        /** Answers per HTTP status code. */
+        public Map<Integer, Long> getStatusCounts() {
+            Map<Integer, Long> result = new TreeMap<>();
+            for (int i = 0; i < STATUS_SLOTS; i++) {
+                long n = statuses.get(i);
+                if (n > 0) {
+                    result.put(i, n);
+                }
+            }
+            for (Map.Entry<Integer, LongAdder> s : otherStatuses.entrySet()) {
+                result.put(s.getKey(), s.getValue().sum());
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return key + " [" + getCount() + " requests, p95 " + percentileNanos(95) / 1_000_000 + " ms]";
+        }
+    }
+}
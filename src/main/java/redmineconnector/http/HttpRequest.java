@@ -0,0 +1,208 @@
+package redmineconnector.http;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import redmineconnector.util.JsonWriter;
+
+/**
+ * Immutable-by-convention description of a single HTTP exchange sent through an
+ * {@link HttpTransport}.
+ *
+ * <p>
+ * Instances are created with the static factories and configured with the
+ * fluent setters:
+ *
+ * <pre>
+ * HttpResponse resp = transport.execute(HttpRequest.put(url)
+ *         .apiKey(key)
+ *         .jsonBody(payload));
+ * </pre>
+ *
+ * @author Redmine Connector Team
+ * @version 1.0
+ */
+public final class HttpRequest {
+
+    private final String method;
+    private final String url;
+    private String apiKey;
+    private byte[] body;
+    private Path bodyFile;
+    private JsonWriter.Body bodyWriter;
+    private String contentType;
+    private TransferListener progress = TransferListener.NONE;
+    private boolean followRedirects = true;
+    private boolean revalidate;
+    private boolean idempotent;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+
+    private HttpRequest(String method, String url) {
+        this.method = method;
+        this.url = url;
+    }
+
+    public static HttpRequest get(String url) {
+        return new HttpRequest("GET", url);
+    }
+
+    public static HttpRequest head(String url) {
+        return new HttpRequest("HEAD", url);
+    }
+
+    public static HttpRequest post(String url) {
+        return new HttpRequest("POST", url);
+    }
+
+    public static HttpRequest put(String url) {
+        return new HttpRequest("PUT", url);
+    }
+
+    public static HttpRequest delete(String url) {
+        return new HttpRequest("DELETE", url);
+    }
+
+    /**
+     * Sets the Redmine API key sent in the {@code X-Redmine-API-Key} header.
+     * Empty or null keys are ignored.
+     */
+    public HttpRequest apiKey(String key) {
+        this.apiKey = key;
+        return this;
+    }
+
+    public HttpRequest body(byte[] data, String type) {
+        this.body = data;
+        this.bodyFile = null;
+        this.bodyWriter = null;
+        this.contentType = type;
+        return this;
+    }
+
+    /**
+     * Uses the content of {@code file} as body. The transport streams it from
+     * disk with a fixed length instead of loading it in memory, and reopens the
+     * file if the request is retried.
+     */
+    public HttpRequest body(Path file, String type) {
+        this.body = null;
+        this.bodyFile = file;
+        this.bodyWriter = null;
+        this.contentType = type;
+        return this;
+    }
+
+    /**
+     * Receives upload progress of a file body and may cancel it.
+     */
+    public HttpRequest progress(TransferListener listener) {
+        this.progress = listener != null ? listener : TransferListener.NONE;
+        return this;
+    }
+
+    public HttpRequest jsonBody(String json) {
+        return body(json != null ? json.getBytes(StandardCharsets.UTF_8) : new byte[0], "application/json");
+    }
+
+    /**
+     * JSON body written by {@code writer} straight to the connection, so large
+     * texts (wiki pages) are never held as a payload string or byte array. The
+     * transport runs the writer once to measure the length and again to send,
+     * and again on every retry.
+     */
+    public HttpRequest jsonBody(JsonWriter.Body writer) {
+        this.body = null;
+        this.bodyFile = null;
+        this.bodyWriter = writer;
+        this.contentType = "application/json";
+        return this;
+    }
+
+    public HttpRequest header(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    public HttpRequest followRedirects(boolean follow) {
+        this.followRedirects = follow;
+        return this;
+    }
+
+    /**
+     * Marks a GET as cacheable with validators: the transport keeps the body
+     * with its {@code ETag}/{@code Last-Modified} and revalidates it with a
+     * conditional request next time (see {@link ValidatorCache}).
+     */
+    public HttpRequest revalidate() {
+        this.revalidate = true;
+        return this;
+    }
+
+    /**
+     * Declares that sending this request twice has the same effect as sending
+     * it once, so a {@link RetryPolicy} may retry it (GET/HEAD are always
+     * considered idempotent; PUTs and POSTs must opt in).
+     */
+    public HttpRequest idempotent() {
+        this.idempotent = true;
+        return this;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getApiKey() {
+        return apiKey;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    /** File streamed as body, or null when the body is in memory. */
+    public Path getBodyFile() {
+        return bodyFile;
+    }
+
+    /** Streamed JSON body, or null. */
+    public JsonWriter.Body getBodyWriter() {
+        return bodyWriter;
+    }
+
+    public TransferListener getProgress() {
+        return progress;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public boolean isFollowRedirects() {
+        return followRedirects;
+    }
+
+    public boolean isIdempotent() {
+        return idempotent || "GET".equals(method) || "HEAD".equals(method);
+    }
+
+    public boolean isRevalidate() {
+        return revalidate;
+    }
+
+    public Map<String, String> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + url;
+    }
+}
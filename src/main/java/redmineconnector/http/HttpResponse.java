@@ -0,0 +1,123 @@
+package redmineconnector.http;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fully buffered response returned by an {@link HttpTransport}.
+ *
+ * <p>
+ * The body is always drained from the socket before the response is handed
+ * back, so the underlying connection can go back to the keep-alive pool as
+ * soon as {@link HttpTransport#execute(HttpRequest)} returns.
+ *
+ * @author Redmine Connector Team
+ * @version 1.0
+ */
+public final class HttpResponse {
+
+    private final int status;
+    private final String url;
+    private final Map<String, List<String>> headers;
+    private final byte[] body;
+    private final boolean notModified;
+
+    public HttpResponse(int status, String url, Map<String, List<String>> headers, byte[] body) {
+        this(status, url, headers, body, false);
+    }
+
+    /**
+     * @param notModified true when the server answered 304 and the body comes
+     *                    from the {@link ValidatorCache}
+     */
+    public HttpResponse(int status, String url, Map<String, List<String>> headers, byte[] body,
+            boolean notModified) {
+        this.status = status;
+        this.url = url;
+        this.headers = headers != null ? headers : Collections.<String, List<String>>emptyMap();
+        this.body = body != null ? body : new byte[0];
+        this.notModified = notModified;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getBodyAsString() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * True if the resource was revalidated with a conditional GET and is
+     * unchanged since the cached copy; callers may reuse what they parsed
+     * from it last time.
+     */
+    public boolean isNotModified() {
+        return notModified;
+    }
+
+    public boolean isSuccess() {
+        return status >= 200 && status < 300;
+    }
+
+    public boolean isRedirect() {
+        return status >= 300 && status < 400;
+    }
+
+    /**
+     * Returns the first value of a response header (case-insensitive), or null.
+     */
+    public String getHeader(String name) {
+        for (Map.Entry<String, List<String>> e : headers.entrySet()) {
+            if (e.getKey() != null && e.getKey().equalsIgnoreCase(name) && !e.getValue().isEmpty()) {
+                return e.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Validator identifying the version of the body, usable in
+     * {@code If-Range}: the {@code ETag} unless it is weak, else
+     * {@code Last-Modified}, else null.
+     */
+    public String getRangeValidator() {
+        String etag = getHeader("ETag");
+        if (etag != null && !etag.startsWith("W/")) {
+            return etag;
+        }
+        return getHeader("Last-Modified");
+    }
+
+    /**
+     * Throws the same error the legacy {@code HttpUtils} raised for HTTP errors
+     * so that callers matching on the message keep working.
+     *
+     * @return this response when the status is below 400
+     * @throws IOException when the server answered with an error status
+     */
+    public HttpResponse ensureSuccess() throws IOException {
+        if (status >= 400) {
+            if (body.length == 0) {
+                throw new IOException("HTTP Error " + status + " (No response body)");
+            }
+            throw new IOException("HTTP Error " + status + " for URL: " + url + " - Detalle: " + getBodyAsString());
+        }
+        return this;
+    }
+}
@@ -0,0 +1,95 @@
+package redmineconnector.http;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Pluggable HTTP engine used by {@link redmineconnector.util.HttpUtils} and
+ * {@link redmineconnector.service.HttpDataService}.
+ *
+ * <p>
+ * One transport instance is kept per Redmine server by {@link HttpClientPool},
+ * so every {@code InstanceController} pointing at the same host shares the
+ * same connections. Implementations must be thread-safe.
+ *
+ * @author Redmine Connector Team
+ * @version 1.0
+ * @see UrlConnectionTransport
+ * @see HttpClientPool
+ */
+public interface HttpTransport {
+
+    /**
+     * Sends the request and returns the fully read response. HTTP error statuses
+     * are returned, not thrown; use {@link HttpResponse#ensureSuccess()} when an
+     * exception is wanted.
+     *
+     * @param request request to send
+     * @return buffered response
+     * @throws IOException on network failures
+     */
+    HttpResponse execute(HttpRequest request) throws IOException;
+
+    /**
+     * Sends the request and writes a successful (2xx) body to {@code target}
+     * instead of buffering it in memory. Error and redirect responses are
+     * returned with their (small) body buffered as usual; for 2xx the returned
+     * response has an empty body.
+     *
+     * <p>
+     * A {@code 206 Partial Content} response (to a request with a
+     * {@code Range} header) is written at the start of its
+     * {@code Content-Range}, keeping the bytes already in {@code target}.
+     *
+     * <p>
+     * The default implementation buffers through {@link #execute(HttpRequest)};
+     * transports able to stream override it.
+     *
+     * @param listener progress/cancellation hook, never null
+     * @throws java.io.InterruptedIOException if the listener cancels the transfer
+     */
+    default HttpResponse download(HttpRequest request, Path target, TransferListener listener) throws IOException {
+        HttpResponse response = execute(request);
+        if (!response.isSuccess()) {
+            return response;
+        }
+        listener.onHeaders(new HttpResponse(response.getStatus(), response.getUrl(), response.getHeaders(), null));
+        byte[] body = response.getBody();
+        if (listener.isCancelled()) {
+            throw new java.io.InterruptedIOException("Download cancelled");
+        }
+        if (response.getStatus() == 206) {
+            long[] range = UrlConnectionTransport.parseContentRange(response.getHeader("Content-Range"));
+            long onDisk = Files.exists(target) ? Files.size(target) : 0;
+            if (range == null || range[0] > onDisk) {
+                throw new IOException("Unusable Content-Range for " + request.getUrl() + ": "
+                        + response.getHeader("Content-Range"));
+            }
+            try (FileChannel ch = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                ch.truncate(range[0]);
+            }
+            Files.write(target, body, StandardOpenOption.APPEND);
+            listener.onProgress(range[0] + body.length, range[0] + body.length);
+        } else {
+            Files.write(target, body);
+            listener.onProgress(body.length, body.length);
+        }
+        return new HttpResponse(response.getStatus(), response.getUrl(), response.getHeaders(), null);
+    }
+
+    /**
+     * Opens (and keeps alive) a first connection to the server so the TCP and TLS
+     * handshakes are already paid when the first real request is issued.
+     */
+    default void warmUp() {
+    }
+
+    /**
+     * Releases any resources held by the transport.
+     */
+    default void shutdown() {
+    }
+}
@@ -0,0 +1,21 @@
+package redmineconnector.http;
+
+import java.io.InterruptedIOException;
+
+/**
+ * Thrown when a request is abandoned because its {@link CancellationToken} was
+ * cancelled: before it was sent, while waiting for a connection or a retry, or
+ * mid-exchange after the connection was aborted. The caller no longer wants
+ * the answer, so it is never retried and does not count as a server failure.
+ *
+ * @author Redmine Connector Team
+ * @version 1.0
+ */
+public class RequestCancelledException extends InterruptedIOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public RequestCancelledException(String message) {
+        super(message);
+    }
+}
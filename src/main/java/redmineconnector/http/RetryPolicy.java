@@ -0,0 +1,141 @@
+package redmineconnector.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.net.ssl.SSLHandshakeException;
+
+import redmineconnector.util.AppConstants;
+
+/**
+ * When and how long to wait before retrying a failed request.
+ *
+ * <p>
+ * Only idempotent requests are retried: GET and HEAD always, PUT only when the
+ * caller marked it with {@link HttpRequest#idempotent()} (a PUT that adds a
+ * journal note or consumes upload tokens must not be sent twice) and
+ * {@code retryPuts} is enabled. POSTs are retried only when marked idempotent,
+ * e.g. file uploads, where a repeated attempt just yields a new token.
+ *
+ * <p>
+ * Retried failures are transient I/O errors (connection refused or reset, read
+ * timeouts) and the statuses 429, 502, 503 and 504. The delay doubles with
+ * every attempt, capped at {@code maxDelayMs}, with "equal jitter": half of the
+ * delay is fixed and the other half random, so clients that failed together do
+ * not retry together. A {@code Retry-After} header on 429/503 replaces the
+ * computed delay unless it exceeds {@link #MAX_RETRY_AFTER_MS}.
+ *
+ * @author Redmine Connector Team
+ * @version 1.0
+ */
+public final class RetryPolicy {
+
+    /** Longer server-requested waits are not honoured; the response is returned */
+    public static final long MAX_RETRY_AFTER_MS = 60_000;
+
+    /** Policy that never retries. */
+    public static final RetryPolicy NONE = new RetryPolicy(0, 0, 0, false);
+
+    private final int maxRetries;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final boolean retryPuts;
+
+    /**
+     * @param maxRetries  retries after the first attempt (0 disables retrying)
+     * @param baseDelayMs delay before the first retry
+     * @param maxDelayMs  upper bound for the exponential delay
+     * @param retryPuts   whether PUTs marked idempotent are retried
+     */
+    public RetryPolicy(int maxRetries, long baseDelayMs, long maxDelayMs, boolean retryPuts) {
+        this.maxRetries = Math.max(0, maxRetries);
+        this.baseDelayMs = Math.max(0, baseDelayMs);
+        this.maxDelayMs = Math.max(this.baseDelayMs, maxDelayMs);
+        this.retryPuts = retryPuts;
+    }
+
+    /**
+     * {@code MAX_RETRY_ATTEMPTS} retries starting at {@code RETRY_DELAY_MS}.
+     */
+    public static RetryPolicy defaults() {
+        return new RetryPolicy(AppConstants.MAX_RETRY_ATTEMPTS, AppConstants.RETRY_DELAY_MS,
+                AppConstants.RETRY_DELAY_MS * 16L, true);
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public long getBaseDelayMs() {
+        return baseDelayMs;
+    }
+
+    public boolean isRetryPuts() {
+        return retryPuts;
+    }
+
+    public boolean isRetryable(HttpRequest request) {
+        String method = request.getMethod();
+        if (!request.isIdempotent()) {
+            return false;
+        }
+        return retryPuts || !"PUT".equals(method);
+    }
+
+    public static boolean isRetryableStatus(int status) {
+        return status == 429 || status == 502 || status == 503 || status == 504;
+    }
+
+    /**
+     * Transient network failures. Unknown hosts, TLS handshake failures, thread
+     * interruption and an open circuit are permanent for the purpose of a
+     * retry.
+     */
+    public static boolean isRetryableException(IOException e) {
+        if (e instanceof UnknownHostException || e instanceof SSLHandshakeException
+                || e instanceof CircuitOpenException) {
+            return false;
+        }
+        return !(e instanceof InterruptedIOException) || e instanceof SocketTimeoutException;
+    }
+
+    /**
+     * Delay before retry number {@code retry} (1-based).
+     */
+    public long backoffMs(int retry) {
+        long delay = baseDelayMs << Math.min(retry - 1, 20);
+        delay = Math.min(delay, maxDelayMs);
+        long half = delay / 2;
+        return half + (half > 0 ? ThreadLocalRandom.current().nextLong(half + 1) : 0);
+    }
+
+    /**
+     * Parses {@code Retry-After} (delta-seconds or HTTP-date).
+     *
+     * @return delay in milliseconds, or -1 if absent or unparseable
+     */
+    public static long parseRetryAfter(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return -1;
+        }
+        String v = value.trim();
+        try {
+            return Math.max(0, Long.parseLong(v)) * 1000L;
+        } catch (NumberFormatException ignored) {
+            // HTTP-date form
+        }
+        try {
+            SimpleDateFormat fmt = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+            Date date = fmt.parse(v);
+            return Math.max(0, date.getTime() - System.currentTimeMillis());
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+}
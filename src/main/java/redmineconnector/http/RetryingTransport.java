@@ -0,0 +1,141 @@
+package redmineconnector.http;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import redmineconnector.util.LoggerUtil;
+
+/**
+ * {@link HttpTransport} decorator that retries transient failures according
+ * to a {@link RetryPolicy}.
+ *
+ * <pre>
+ * HttpTransport t = new RetryingTransport(HttpClientPool.forUrl(url),
+ *         new RetryPolicy(3, 1000, 16000, true));
+ * </pre>
+ *
+ * <p>
+ * The number of retries, the requests that still failed after the last retry
+ * and the total time spent waiting in backoff are counted so the policy can be
+ * tuned from real traffic.
+ *
+ * @author Redmine Connector Team
+ * @version 1.0
+ */
+public class RetryingTransport implements HttpTransport {
+
+    private final HttpTransport delegate;
+    private final RetryPolicy policy;
+
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+    private final AtomicLong backoffMs = new AtomicLong();
+
+    public RetryingTransport(HttpTransport delegate, RetryPolicy policy) {
+        this.delegate = delegate;
+        this.policy = policy != null ? policy : RetryPolicy.NONE;
+    }
+
+    @Override
+    public HttpResponse execute(HttpRequest request) throws IOException {
+        if (policy.getMaxRetries() == 0 || !policy.isRetryable(request)) {
+            return delegate.execute(request);
+        }
+        for (int retry = 1;; retry++) {
+            long delay;
+            try {
+                HttpResponse response = delegate.execute(request);
+                if (!RetryPolicy.isRetryableStatus(response.getStatus())) {
+                    return response;
+                }
+                if (retry > policy.getMaxRetries()) {
+                    exhausted.incrementAndGet();
+                    return response;
+                }
+                delay = policy.backoffMs(retry);
+                int status = response.getStatus();
+                if (status == 429 || status == 503) {
+                    long retryAfter = RetryPolicy.parseRetryAfter(response.getHeader("Retry-After"));
+                    if (retryAfter > RetryPolicy.MAX_RETRY_AFTER_MS) {
+                        exhausted.incrementAndGet();
+                        return response;
+                    }
+                    if (retryAfter >= 0) {
+                        delay = retryAfter;
+                    }
+                }
+                LoggerUtil.logDebug("RetryingTransport", request + " -> HTTP " + status + ", retry " + retry
+                        + " in " + delay + " ms");
+            } catch (IOException e) {
+                if (!RetryPolicy.isRetryableException(e)) {
+                    throw e;
+                }
+                if (retry > policy.getMaxRetries()) {
+                    exhausted.incrementAndGet();
+                    throw e;
+                }
+                delay = policy.backoffMs(retry);
+                LoggerUtil.logDebug("RetryingTransport", request + " failed (" + e.getMessage() + "), retry "
+                        + retry + " in " + delay + " ms");
+            }
+            sleep(request, delay);
+            retries.incrementAndGet();
+            HttpMetrics.global().recordRetry(request);
+        }
+    }
+
+    /**
+     * Backoff between attempts; a {@link CancellationToken} bound to the thread
+     * ends it early with {@link RequestCancelledException}.
+     */
+    private void sleep(HttpRequest request, long delay) throws IOException {
+        CancellationToken.sleep(delay, request);
+        if (delay > 0) {
+            backoffMs.addAndGet(delay);
+        }
+    }
+
+    /**
+     * Downloads are not retried here: a partial file may already have been
+     * written.
+     */
+    @Override
+    public HttpResponse download(HttpRequest request, Path target, TransferListener listener) throws IOException {
+        return delegate.download(request, target, listener);
+    }
+
+    @Override
+    public void warmUp() {
+        delegate.warmUp();
+    }
+
+    @Override
+    public void shutdown() {
+        // The delegate is usually the shared pooled transport; its lifecycle is
+        // owned by HttpClientPool.
+    }
+
+    public HttpTransport getDelegate() {
+        return delegate;
+    }
+
+    public RetryPolicy getPolicy() {
+        return policy;
+    }
+
+    /** Retries performed (not counting first attempts). */
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    /** Requests that still failed after the last allowed retry. */
+    public long getExhaustedCount() {
+        return exhausted.get();
+    }
+
+    /** Total time spent sleeping between attempts. */
+    public long getBackoffMs() {
+        return backoffMs.get();
+    }
+}
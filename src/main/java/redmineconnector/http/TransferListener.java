@@ -0,0 +1,44 @@
+package redmineconnector.http;
+
+import java.io.IOException;
+
+/**
+ * Progress and cancellation hook for streamed transfers
+ * ({@link HttpTransport#download}).
+ *
+ * <p>
+ * {@link #onProgress(long, long)} is called from the transferring thread after
+ * every buffer, so implementations that touch Swing must hop to the EDT and
+ * should throttle their own updates. Returning {@code true} from
+ * {@link #isCancelled()} aborts the transfer with an
+ * {@link java.io.InterruptedIOException}; interrupting the thread has the same
+ * effect.
+ *
+ * @author Redmine Connector Team
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface TransferListener {
+
+    /** Listener that ignores progress and never cancels. */
+    TransferListener NONE = (transferred, total) -> {
+    };
+
+    /**
+     * @param transferred bytes written so far
+     * @param total       expected size, or -1 if the server did not send it
+     */
+    void onProgress(long transferred, long total);
+
+    default boolean isCancelled() {
+        return false;
+    }
+
+    /**
+     * Called with the status and headers of a 2xx response before its body is
+     * written (the response passed has no body). Throwing aborts the transfer
+     * without touching the target file.
+     */
+    default void onHeaders(HttpResponse response) throws IOException {
+    }
+}
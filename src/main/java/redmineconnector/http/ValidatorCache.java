@@ -0,0 +1,127 @@
+package redmineconnector.http;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP validator cache for conditional GETs ({@code ETag} /
+ * {@code Last-Modified}).
+ *
+ * <p>
+ * For requests marked with {@link HttpRequest#revalidate()} the transport
+ * stores the last successful body together with its validators and, on the
+ * next request for the same URL, sends {@code If-None-Match} /
+ * {@code If-Modified-Since}. A {@code 304 Not Modified} answer is served from
+ * here, so revalidating an unchanged resource costs one empty round trip
+ * instead of a full download.
+ *
+ * <p>
+ * Entries are keyed by API key and URL, so bodies are never shared between
+ * users, and evicted in LRU order once {@link #MAX_ENTRIES} or
+ * {@link #MAX_BYTES} is exceeded.
+ *
+ * @author Redmine Connector Team
+ * @version 1.0
+ */
+public final class ValidatorCache {
+
+    public static final int MAX_ENTRIES = 256;
+    public static final long MAX_BYTES = 8L * 1024 * 1024;
+
+    /** Stored representation of one resource. */
+    static final class Entry {
+        final String etag;
+        final String lastModified;
+        final Map<String, List<String>> headers;
+        final byte[] body;
+
+        Entry(String etag, String lastModified, Map<String, List<String>> headers, byte[] body) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    static String keyOf(HttpRequest request) {
+        return (request.getApiKey() != null ? request.getApiKey() : "") + " " + request.getUrl();
+    }
+
+    synchronized Entry lookup(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Stores a 2xx response if it carries a validator. Responses without
+     * {@code ETag} or {@code Last-Modified} cannot be revalidated and are not
+     * kept.
+     */
+    synchronized void store(String key, HttpResponse response) {
+        String etag = response.getHeader("ETag");
+        String lastModified = response.getHeader("Last-Modified");
+        Entry old;
+        if (etag == null && lastModified == null) {
+            old = entries.remove(key);
+        } else {
+            byte[] body = response.getBody();
+            if (body.length > MAX_BYTES / 4) {
+                old = entries.remove(key);
+            } else {
+                old = entries.put(key, new Entry(etag, lastModified, response.getHeaders(), body));
+                totalBytes += body.length;
+            }
+        }
+        if (old != null) {
+            totalBytes -= old.body.length;
+        }
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while ((entries.size() > MAX_ENTRIES || totalBytes > MAX_BYTES) && it.hasNext()) {
+            totalBytes -= it.next().getValue().body.length;
+            it.remove();
+        }
+    }
+
+    void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    /** Conditional requests answered with 304 and served from the cache. */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /** Conditional requests that had to download the full body. */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+    }
+}
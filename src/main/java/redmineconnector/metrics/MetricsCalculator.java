@@ -118,11 +118,10 @@ public class MetricsCalculator {
      */
     public static Map<String, Integer> countByCreationDate(List<Task> tasks) {
         Map<String, Integer> counts = new HashMap<>();
-        java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("yyyy-MM-dd");
 
         for (Task task : tasks) {
-            if (task.createdOn != null) {
-                String date = sdf.format(task.createdOn);
+            if (task.createdOn != 0) {
+                String date = redmineconnector.util.DateCodec.isoDate(task.createdOn);
                 counts.put(date, counts.getOrDefault(date, 0) + 1);
             }
         }
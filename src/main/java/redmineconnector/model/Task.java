@@ -1,16 +1,21 @@
 package redmineconnector.model;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 public class Task implements Serializable {
-    private static final long serialVersionUID = 2L; // Updated for new field
+    private static final long serialVersionUID = 3L; // createdOn as epoch millis
     public int id;
     public boolean isFullDetails = false;
     public String subject = "";
-    public String description = "";
     public String status = "";
     public String priority = "";
     public String tracker = "";
@@ -24,24 +29,34 @@ public class Task implements Serializable {
     public int parentId = 0;
     public String parentName = "";
     public int doneRatio;
-    public Date createdOn;
+    /** Epoch milliseconds, 0 if unknown (see {@code DateCodec}) */
+    public long createdOn;
+    public String updatedOn = ""; // Raw Redmine timestamp, used as delta-sync mark
     public String webUrl;
     public double spentHours;
-    public List<Attachment> attachments = new ArrayList<>();
-    public List<Journal> journals = new ArrayList<>();
-    public List<Changeset> changesets = new ArrayList<>();
-    public List<UploadToken> pendingUploads = new ArrayList<>();
+    // Empty collections are the shared immutable Collections.emptyList()
+    public List<Attachment> attachments = Collections.emptyList();
+    public List<Changeset> changesets = Collections.emptyList();
+    public List<UploadToken> pendingUploads = Collections.emptyList();
     public List<CustomField> customFields = new ArrayList<>();
+    private String description = "";
+    private List<Journal> journals = Collections.emptyList();
+    private Baseline baseline;
+
+    // Decoders of values kept in their JSON form until first read; null once
+    // decoded. Written before being cleared under the task lock.
+    private transient volatile Supplier<String> lazyDescription;
+    private transient volatile Supplier<List<Journal>> lazyJournals;
 
     public Task() {
-        createdOn = new Date();
+        createdOn = System.currentTimeMillis();
     }
 
     public Task(Task other) {
         this.id = 0;
         this.subject = other.subject;
         this.projectId = other.projectId;
-        this.description = other.description;
+        this.description = other.getDescription();
         this.status = "Nueva";
         this.statusId = 0;
         this.priority = other.priority;
@@ -58,7 +73,7 @@ public class Task implements Serializable {
         this.authorEmail = other.authorEmail;
         this.parentId = other.parentId;
         this.parentName = other.parentName;
-        this.createdOn = new Date();
+        this.createdOn = System.currentTimeMillis();
         this.spentHours = 0.0;
         this.doneRatio = 0;
         this.doneRatio = 0;
@@ -71,6 +86,168 @@ public class Task implements Serializable {
         }
     }
 
+    /**
+     * Description, decoded on first call if it was parsed lazily.
+     */
+    public String getDescription() {
+        if (lazyDescription != null) {
+            decodeDescription();
+        }
+        return description;
+    }
+
+    private synchronized void decodeDescription() {
+        Supplier<String> lazy = lazyDescription;
+        if (lazy != null) {
+            description = lazy.get();
+            lazyDescription = null;
+        }
+    }
+
+    /** The description is still the parsed value, not decoded (nor changed) yet. */
+    public boolean isDescriptionDeferred() {
+        return lazyDescription != null;
+    }
+
+    public synchronized void setDescription(String description) {
+        this.description = description;
+        lazyDescription = null;
+    }
+
+    /**
+     * Defers the description to {@code decoder}, called once on first
+     * {@link #getDescription()}. Used by the parser so list rows never decode
+     * descriptions nobody reads.
+     */
+    public synchronized void setDescription(Supplier<String> decoder) {
+        this.description = "";
+        lazyDescription = decoder;
+    }
+
+    /**
+     * Journals, decoded on first call if they were parsed lazily. Only issue
+     * details include them; list rows have the empty list.
+     */
+    public List<Journal> getJournals() {
+        if (lazyJournals != null) {
+            decodeJournals();
+        }
+        return journals;
+    }
+
+    private synchronized void decodeJournals() {
+        Supplier<List<Journal>> lazy = lazyJournals;
+        if (lazy != null) {
+            journals = lazy.get();
+            lazyJournals = null;
+        }
+    }
+
+    public synchronized void setJournals(List<Journal> journals) {
+        this.journals = journals;
+        lazyJournals = null;
+    }
+
+    /** Same as {@link #setDescription(Supplier)} for the journals. */
+    public synchronized void setJournals(Supplier<List<Journal>> decoder) {
+        this.journals = Collections.emptyList();
+        lazyJournals = decoder;
+    }
+
+    /** Queues uploads to attach on the next save. */
+    public void addPendingUploads(Collection<UploadToken> tokens) {
+        if (pendingUploads.isEmpty()) {
+            pendingUploads = new ArrayList<>(tokens);
+        } else {
+            pendingUploads.addAll(tokens);
+        }
+    }
+
+    /** Queues one upload to attach on the next save. */
+    public void addPendingUpload(UploadToken token) {
+        addPendingUploads(Collections.singletonList(token));
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getDescription();
+        getJournals();
+        out.defaultWriteObject();
+    }
+
+    /**
+     * Values of the writable fields as last seen on the server. Updates send
+     * only the fields that differ from it (see
+     * {@code JsonParser.serializeTaskChanges}).
+     */
+    public static final class Baseline implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public final String subject;
+        private String description;
+        /** Description not decoded yet when the baseline was taken, or null */
+        private transient volatile Supplier<String> lazyDescription;
+        public final int priorityId, trackerId, statusId, assignedToId, categoryId, targetVersionId, parentId;
+        public final int doneRatio;
+        /** Custom field values by id */
+        public final Map<Integer, String> customFields;
+
+        Baseline(Task t) {
+            subject = t.subject;
+            synchronized (t) {
+                description = t.description;
+                lazyDescription = t.lazyDescription;
+            }
+            priorityId = t.priorityId;
+            trackerId = t.trackerId;
+            statusId = t.statusId;
+            assignedToId = t.assignedToId;
+            categoryId = t.categoryId;
+            targetVersionId = t.targetVersionId;
+            parentId = t.parentId;
+            doneRatio = t.doneRatio;
+            customFields = new HashMap<>();
+            if (t.customFields != null) {
+                for (CustomField cf : t.customFields) {
+                    customFields.put(cf.id, cf.value);
+                }
+            }
+        }
+
+        /** Description as last seen on the server, decoded on first call. */
+        public String getDescription() {
+            if (lazyDescription != null) {
+                decodeDescription();
+            }
+            return description;
+        }
+
+        private synchronized void decodeDescription() {
+            Supplier<String> lazy = lazyDescription;
+            if (lazy != null) {
+                description = lazy.get();
+                lazyDescription = null;
+            }
+        }
+
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            getDescription();
+            out.defaultWriteObject();
+        }
+    }
+
+    /**
+     * Records the current values as the server state; called after parsing and
+     * after a successful update.
+     */
+    public void markClean() {
+        baseline = new Baseline(this);
+    }
+
+    /** Server state of the writable fields, or null for tasks not loaded from Redmine. */
+    public Baseline getBaseline() {
+        return baseline;
+    }
+
     @Override
     public String toString() {
         return subject;
@@ -2,16 +2,21 @@ package redmineconnector.service;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeoutException;
 
+import redmineconnector.http.CancellationToken;
 import redmineconnector.model.*;
 import redmineconnector.util.I18n;
+import redmineconnector.util.LoggerUtil;
+import redmineconnector.util.RequestScheduler;
+import redmineconnector.util.RequestScheduler.Lane;
 
 /**
  * Envoltorio asíncrono para DataService que proporciona operaciones basadas en
@@ -21,6 +26,18 @@ import redmineconnector.util.I18n;
  * hilo de la UI.
  * 
  * <p>
+ * En modo {@link ThreadMode#PLATFORM} las llamadas se encolan en el carril
+ * indicado del {@link RequestScheduler} compartido (por defecto
+ * {@link Lane#INTERACTIVE}); {@link #inLane(Lane)} devuelve una vista que usa
+ * otro carril. Con {@link ThreadMode#VIRTUAL} (JDK 21+) cada llamada bloqueante
+ * se ejecuta en su propio hilo virtual: no hay tamaño de pool que limite la
+ * concurrencia, que queda acotada por el {@code HostLimiter} de cada servidor,
+ * y una petición lenta no retiene a las demás en cola (al no haber cola, los
+ * carriles no se aplican). En JVM anteriores se usa el planificador. La API de
+ * hilos virtuales se invoca por reflexión porque el proyecto compila para
+ * Java 8.
+ * 
+ * <p>
  * Ejemplo de uso:
  * 
  * <pre>
@@ -37,21 +54,70 @@ import redmineconnector.util.I18n;
  * @version 2.0
  */
 public class AsyncDataService {
+
+    /**
+     * Modo de ejecución de las llamadas bloqueantes.
+     */
+    public enum ThreadMode {
+        /** Hilos de plataforma del RequestScheduler (cualquier JVM). */
+        PLATFORM,
+        /** Un hilo virtual por llamada; si el JDK no los soporta, PLATFORM. */
+        VIRTUAL,
+        /** Igual que VIRTUAL, pero sin avisar si no hay hilos virtuales. */
+        AUTO;
+
+        /**
+         * Interpreta el valor de configuración ({@code platform},
+         * {@code virtual} o {@code auto}); cualquier otro valor es AUTO.
+         */
+        public static ThreadMode parse(String value) {
+            if (value != null) {
+                for (ThreadMode m : values()) {
+                    if (m.name().equalsIgnoreCase(value.trim())) {
+                        return m;
+                    }
+                }
+            }
+            return AUTO;
+        }
+    }
+
     private final DataService delegate;
-    private final ExecutorService executorService;
+    private final Executor executor;
+    /** Ejecutor propio (virtual o personalizado) que se cierra en shutdown */
+    private final ExecutorService ownedExecutor;
+    private final Lane lane;
+    private final boolean virtualThreads;
 
     /**
-     * Crea un AsyncDataService con el pool de hilos por defecto (4 hilos).
+     * Crea un AsyncDataService sobre el carril interactivo del planificador
+     * compartido.
      * 
      * @param delegate el DataService subyacente a envolver
      */
     public AsyncDataService(DataService delegate) {
+        this(delegate, ThreadMode.PLATFORM, Lane.INTERACTIVE);
+    }
+
+    /**
+     * Crea un AsyncDataService con el modo de ejecución y el carril indicados.
+     * 
+     * @param delegate el DataService subyacente a envolver
+     * @param mode     hilos virtuales o hilos de plataforma del planificador
+     * @param lane     carril del planificador en modo plataforma
+     */
+    public AsyncDataService(DataService delegate, ThreadMode mode, Lane lane) {
+        ExecutorService virtual = mode != ThreadMode.PLATFORM ? createVirtualExecutor() : null;
+        if (virtual == null && mode == ThreadMode.VIRTUAL) {
+            LoggerUtil.logWarning("AsyncDataService",
+                    "Virtual threads need Java 21+ (running " + System.getProperty("java.version")
+                            + "), using the platform thread pool");
+        }
         this.delegate = delegate;
-        this.executorService = new ThreadPoolExecutor(
-                redmineconnector.util.AppConstants.ASYNC_CORE_POOL_SIZE,
-                redmineconnector.util.AppConstants.ASYNC_MAX_POOL_SIZE,
-                redmineconnector.util.AppConstants.THREAD_KEEP_ALIVE_SEC, TimeUnit.SECONDS,
-                new LinkedBlockingQueue<Runnable>());
+        this.lane = lane;
+        this.virtualThreads = virtual != null;
+        this.ownedExecutor = virtual;
+        this.executor = virtual != null ? virtual : RequestScheduler.shared().executor(lane);
     }
 
     /**
@@ -62,23 +128,121 @@ public class AsyncDataService {
      */
     public AsyncDataService(DataService delegate, ExecutorService executorService) {
         this.delegate = delegate;
-        this.executorService = executorService;
+        this.executor = executorService;
+        this.ownedExecutor = executorService;
+        this.lane = null;
+        this.virtualThreads = false;
+    }
+
+    /** Vista que comparte el delegado y no posee ejecutor propio. */
+    private AsyncDataService(DataService delegate, Executor executor, Lane lane, boolean virtualThreads) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.ownedExecutor = null;
+        this.lane = lane;
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Vista de este servicio que encola en otro carril del planificador. Con
+     * hilos virtuales o un ejecutor personalizado devuelve este mismo
+     * servicio. La vista comparte el delegado: no debe cerrarse con
+     * {@link #shutdown()}.
+     * 
+     * @param otherLane carril para las llamadas de la vista
+     * @return el servicio para ese carril
+     */
+    public AsyncDataService inLane(Lane otherLane) {
+        if (virtualThreads || lane == null || otherLane == lane) {
+            return this;
+        }
+        return new AsyncDataService(delegate, ThreadMode.PLATFORM, otherLane);
     }
 
     /**
-     * Crea el ejecutor por defecto con hilos daemon nombrados.
+     * Vista de este servicio cuyas llamadas se ejecutan con {@code token}
+     * vinculado al hilo: al cancelarlo se abortan las conexiones HTTP en curso
+     * y las llamadas aún en cola fallan sin enviarse. Como {@link #inLane(Lane)},
+     * la vista no debe cerrarse con {@link #shutdown()}.
+     * 
+     * @param token token de cancelación del grupo de llamadas
+     * @return el servicio ligado al token
      */
-    private static ExecutorService createDefaultExecutor() {
-        return Executors.newFixedThreadPool(4, new ThreadFactory() {
-            private final AtomicInteger counter = new AtomicInteger(0);
+    public AsyncDataService withCancellation(CancellationToken token) {
+        Executor base = executor;
+        return new AsyncDataService(delegate, task -> base.execute(() -> {
+            CancellationToken.Scope scope = CancellationToken.bind(token);
+            try {
+                task.run();
+            } finally {
+                scope.close();
+            }
+        }), lane, virtualThreads);
+    }
 
-            @Override
-            public Thread newThread(Runnable r) {
-                Thread t = new Thread(r, "AsyncDataService-" + counter.incrementAndGet());
-                t.setDaemon(true);
-                return t;
+    /** Temporizador de {@link #withDeadline}; solo completa futuros. */
+    private static final class Deadlines {
+        static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "AsyncDataService-deadline");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Futuro que termina como {@code future} o, si no lo ha hecho en
+     * {@code ms}, con {@link TimeoutException} (el {@code orTimeout} de Java 9).
+     * La llamada subyacente no se cancela: su resultado tardío sigue llegando a
+     * las cachés del servicio.
+     * 
+     * @param future futuro a vigilar
+     * @param ms     plazo en milisegundos
+     * @return futuro con plazo
+     */
+    public static <T> CompletableFuture<T> withDeadline(CompletableFuture<T> future, long ms) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        ScheduledFuture<?> timer = Deadlines.TIMER.schedule(
+                () -> result.completeExceptionally(new TimeoutException("No answer in " + ms + " ms")), ms,
+                TimeUnit.MILLISECONDS);
+        future.whenComplete((value, error) -> {
+            timer.cancel(false);
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
             }
         });
+        return result;
+    }
+
+    /**
+     * Crea un ejecutor de un hilo virtual por tarea
+     * ({@code Executors.newThreadPerTaskExecutor(Thread.ofVirtual().factory())}).
+     * 
+     * @return el ejecutor, o null si el JDK no soporta hilos virtuales (o solo
+     *         como preview)
+     */
+    static ExecutorService createVirtualExecutor() {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder,
+                    "AsyncDataService-virtual-", 1L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Indica si las llamadas se ejecutan en hilos virtuales.
+     * 
+     * @return true en modo virtual con un JDK que lo soporta
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
     }
 
     /**
@@ -96,7 +260,48 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.get("async.error.fetch_tasks"), e);
             }
-        }, executorService);
+        }, executor);
+    }
+
+    /**
+     * Obtiene de forma asíncrona las tareas modificadas desde una fecha
+     * (sincronización incremental).
+     * 
+     * @param pid   ID del proyecto
+     * @param since marca temporal de Redmine (updated_on) desde la que buscar
+     * @return CompletableFuture que contendrá las tareas modificadas
+     */
+    public CompletableFuture<List<Task>> fetchTasksUpdatedSinceAsync(String pid, String since) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return delegate.fetchTasksUpdatedSince(pid, since);
+            } catch (UnsupportedOperationException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(I18n.get("async.error.fetch_tasks"), e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Comprueba de forma asíncrona qué tareas devolvería una carga completa
+     * del proyecto (ver {@link DataService#fetchTaskListProbe}).
+     * 
+     * @param pid    ID del proyecto
+     * @param closed si se incluyen las tareas cerradas
+     * @param index  posición (desde 0) de la tarea cuyo ID se quiere
+     * @return CompletableFuture con {@code {total_count, id}}
+     */
+    public CompletableFuture<int[]> fetchTaskListProbeAsync(String pid, boolean closed, int index) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return delegate.fetchTaskListProbe(pid, closed, index);
+            } catch (UnsupportedOperationException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(I18n.get("async.error.fetch_tasks"), e);
+            }
+        }, executor);
     }
 
     /**
@@ -116,7 +321,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.format("async.error.fetch_metadata", type), e);
             }
-        }, executorService);
+        }, executor);
     }
 
     public CompletableFuture<List<CustomFieldDefinition>> fetchCustomFieldDefinitionsAsync() {
@@ -126,7 +331,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.get("async.error.fetch_custom_fields"), e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -142,7 +347,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.format("async.error.task_details", id), e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -159,7 +364,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.get("async.error.create_task"), e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -175,7 +380,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.format("async.error.update_task", task.id), e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -192,7 +397,27 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.get("async.error.upload_file"), e);
             }
-        }, executorService);
+        }, executor);
+    }
+
+    /**
+     * Sube un archivo desde disco de forma asíncrona, en streaming y sin
+     * cargarlo entero en memoria.
+     * 
+     * @param file        archivo a subir
+     * @param contentType tipo MIME
+     * @param listener    progreso y cancelación (puede ser null)
+     * @return CompletableFuture con el token de subida
+     */
+    public CompletableFuture<String> uploadFileAsync(java.nio.file.Path file, String contentType,
+            redmineconnector.http.TransferListener listener) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return delegate.uploadFile(file, contentType, listener);
+            } catch (Exception e) {
+                throw new RuntimeException(I18n.get("async.error.upload_file"), e);
+            }
+        }, executor);
     }
 
     /**
@@ -208,7 +433,27 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.format("async.error.download_attachment", att.filename), e);
             }
-        }, executorService);
+        }, executor);
+    }
+
+    /**
+     * Descarga un adjunto directamente a disco de forma asíncrona, sin cargarlo
+     * entero en memoria.
+     * 
+     * @param att      adjunto a descargar
+     * @param target   fichero de destino
+     * @param listener progreso y cancelación (puede ser null)
+     * @return CompletableFuture que se completa al terminar la descarga
+     */
+    public CompletableFuture<Void> downloadAttachmentToAsync(Attachment att, java.nio.file.Path target,
+            redmineconnector.http.TransferListener listener) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                delegate.downloadAttachmentTo(att, target, listener);
+            } catch (Exception e) {
+                throw new RuntimeException(I18n.format("async.error.download_attachment", att.filename), e);
+            }
+        }, executor);
     }
 
     /**
@@ -230,7 +475,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.format("async.error.log_time", issueId), e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -248,7 +493,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.get("async.error.fetch_time_entries"), e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -264,7 +509,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.format("async.error.fetch_versions", pid), e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -285,7 +530,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.format("async.error.create_version", name), e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -306,7 +551,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.format("async.error.update_version", id), e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -322,7 +567,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.format("async.error.delete_version", id), e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -339,7 +584,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.format("async.error.fetch_version_tasks", versionId), e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -357,7 +602,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.get("async.error.fetch_closed_tasks"), e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -373,7 +618,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.get("async.error.fetch_wiki_pages"), e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -390,7 +635,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.format("async.error.fetch_wiki_page", pageTitle), e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -410,7 +655,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.format("async.error.save_wiki_page", pageTitle), e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -425,7 +670,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.get("async.error.fetch_user"), e);
             }
-        }, executorService);
+        }, executor);
     }
 
     public CompletableFuture<SimpleEntity> fetchProjectAsync(String identifier) {
@@ -435,7 +680,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException("Error fetching project info", e);
             }
-        }, executorService);
+        }, executor);
     }
 
     public CompletableFuture<redmineconnector.model.ContextMetadata> fetchContextMetadataAsync(String projectId,
@@ -446,7 +691,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException("Failed to fetch context metadata", e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -463,7 +708,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.format("async.error.delete_wiki_page", pageTitle), e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -487,7 +732,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.format("async.error.upload_wiki_attachment", filename), e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -504,7 +749,7 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.format("async.error.fetch_wiki_history", pageTitle), e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -522,15 +767,18 @@ public class AsyncDataService {
             } catch (Exception e) {
                 throw new RuntimeException(I18n.format("async.error.revert_wiki_page", pageTitle), e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
-     * Cierra el servicio ejecutor.
+     * Cierra el ejecutor propio (hilos virtuales o personalizado; el
+     * planificador compartido sigue activo) y el delegado.
      * Debe llamarse cuando la aplicación se está cerrando.
      */
     public void shutdown() {
-        executorService.shutdown();
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
         delegate.shutdown();
     }
 
@@ -552,6 +800,6 @@ public class AsyncDataService {
                 String msg = e.getMessage() != null ? e.getMessage() : e.toString();
                 throw new RuntimeException(I18n.get("async.error.allowed_statuses") + ": " + msg, e);
             }
-        }, executorService);
+        }, executor);
     }
 }
@@ -0,0 +1,318 @@
+package redmineconnector.service;
+
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import redmineconnector.util.AppConstants;
+import redmineconnector.util.LoggerUtil;
+import redmineconnector.util.RequestScheduler;
+
+/**
+ * Runs the same write (update, close...) over many items with bounded
+ * concurrency per server, progress, per-item results, cancellation and retry of
+ * the failed items.
+ *
+ * <pre>
+ * BatchMutationEngine.Batch&lt;Task&gt; batch = BatchMutationEngine.forServer(url)
+ *         .submit("Bulk update", tasks, service::updateTask);
+ * batch.addListener(b -&gt; showProgress(b.getCompleted(), b.getTotal()));
+ * batch.completion().thenAccept(b -&gt; {
+ *     if (b.getFailedCount() &gt; 0)
+ *         b.retryFailed();
+ * });
+ * </pre>
+ *
+ * <p>
+ * Items of every batch against a server share one queue and at most
+ * {@link AppConstants#BATCH_MAX_CONCURRENCY_PER_SERVER} of them are in flight
+ * at a time, on the {@link RequestScheduler.Lane#BULK} lane. That stays below
+ * the server's {@code HostLimiter}, so a large batch leaves connections free
+ * for interactive requests and does not flood Redmine.
+ *
+ * <p>
+ * {@link Batch#cancel()} stops items that have not started; items already sent
+ * run to completion, because an aborted write leaves the server state unknown.
+ *
+ * @author Redmine Connector Team
+ * @version 1.0
+ */
+public final class BatchMutationEngine {
+
+    /** Write applied to each item. */
+    public interface Mutation<T> {
+        void apply(T item) throws Exception;
+    }
+
+    /** Outcome of one item. */
+    public enum Outcome {
+        PENDING, SUCCEEDED, FAILED, CANCELLED
+    }
+
+    private static final Map<String, BatchMutationEngine> ENGINES = new ConcurrentHashMap<>();
+
+    private final int maxConcurrent;
+    private final Executor executor;
+
+    private final Deque<Runnable> pending = new ArrayDeque<>(); // guarded by this
+    private int running; // guarded by this
+
+    /**
+     * Standalone engine (tests); the application uses {@link #forServer(String)}.
+     *
+     * @param maxConcurrent items in flight at a time
+     * @param executor      runs the items
+     */
+    public BatchMutationEngine(int maxConcurrent, Executor executor) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.executor = executor;
+    }
+
+    /** Engine shared by every batch against the host of {@code url}. */
+    public static BatchMutationEngine forServer(String url) {
+        return ENGINES.computeIfAbsent(hostOf(url),
+                h -> new BatchMutationEngine(AppConstants.BATCH_MAX_CONCURRENCY_PER_SERVER,
+                        RequestScheduler.shared().executor(RequestScheduler.Lane.BULK)));
+    }
+
+    private static String hostOf(String url) {
+        try {
+            return new URL(url).getHost().toLowerCase();
+        } catch (Exception e) {
+            return url != null ? url.toLowerCase() : "";
+        }
+    }
+
+    /**
+     * Queues {@code mutation} for every item.
+     *
+     * @param label    name of the operation, for progress and logs
+     * @param items    items to mutate, in order
+     * @param mutation write applied to each item
+     * @return the running batch
+     */
+    public <T> Batch<T> submit(String label, List<T> items, Mutation<T> mutation) {
+        Batch<T> batch = new Batch<>(this, label, items, mutation);
+        if (items.isEmpty()) {
+            batch.completion.complete(batch);
+            return batch;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            int index = i;
+            enqueue(() -> batch.runItem(index));
+        }
+        return batch;
+    }
+
+    private void enqueue(Runnable job) {
+        synchronized (this) {
+            if (running >= maxConcurrent) {
+                pending.add(job);
+                return;
+            }
+            running++;
+        }
+        dispatch(job);
+    }
+
+    private void dispatch(Runnable job) {
+        executor.execute(() -> {
+            try {
+                job.run();
+            } finally {
+                Runnable next;
+                synchronized (this) {
+                    next = pending.poll();
+                    if (next == null) {
+                        running--;
+                    }
+                }
+                if (next != null) {
+                    dispatch(next);
+                }
+            }
+        });
+    }
+
+    /** Items in flight. */
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    /** Items waiting for a slot. */
+    public synchronized int getQueued() {
+        return pending.size();
+    }
+
+    /** Result of one item of a batch. */
+    public static final class ItemResult<T> {
+        private final T item;
+        private volatile Outcome outcome = Outcome.PENDING;
+        private volatile Exception error;
+
+        ItemResult(T item) {
+            this.item = item;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        /** Failure cause, or null. */
+        public Exception getError() {
+            return error;
+        }
+    }
+
+    /**
+     * One submission: a fixed list of items and their results. Listeners are
+     * called on worker threads after each item.
+     */
+    public static final class Batch<T> {
+        private final BatchMutationEngine engine;
+        private final String label;
+        private final Mutation<T> mutation;
+        private final List<ItemResult<T>> results;
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final List<Consumer<Batch<T>>> listeners = new CopyOnWriteArrayList<>();
+        private final CompletableFuture<Batch<T>> completion = new CompletableFuture<>();
+        private volatile boolean cancelled;
+
+        Batch(BatchMutationEngine engine, String label, List<T> items, Mutation<T> mutation) {
+            this.engine = engine;
+            this.label = label;
+            this.mutation = mutation;
+            List<ItemResult<T>> list = new ArrayList<>(items.size());
+            for (T item : items) {
+                list.add(new ItemResult<>(item));
+            }
+            this.results = Collections.unmodifiableList(list);
+        }
+
+        private void runItem(int index) {
+            ItemResult<T> result = results.get(index);
+            if (cancelled) {
+                result.outcome = Outcome.CANCELLED;
+                skipped.incrementAndGet();
+            } else {
+                try {
+                    mutation.apply(result.item);
+                    result.outcome = Outcome.SUCCEEDED;
+                    succeeded.incrementAndGet();
+                } catch (Exception e) {
+                    result.error = e;
+                    result.outcome = Outcome.FAILED;
+                    failed.incrementAndGet();
+                }
+            }
+            boolean last = completed.incrementAndGet() == results.size();
+            for (Consumer<Batch<T>> listener : listeners) {
+                try {
+                    listener.accept(this);
+                } catch (RuntimeException e) {
+                    LoggerUtil.logError("BatchMutationEngine", "Listener failed: " + e);
+                }
+            }
+            if (last) {
+                completion.complete(this);
+            }
+        }
+
+        /** Called after each item; also once right away if already finished. */
+        public void addListener(Consumer<Batch<T>> listener) {
+            listeners.add(listener);
+            if (isDone()) {
+                listener.accept(this);
+            }
+        }
+
+        /** Items not started yet are skipped and reported as cancelled. */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * Submits the failed items again (not the cancelled ones).
+         *
+         * @return the new batch, empty if nothing failed
+         */
+        public Batch<T> retryFailed() {
+            return engine.submit(label, getItems(Outcome.FAILED), mutation);
+        }
+
+        /** Completes with this batch once every item has an outcome. */
+        public CompletableFuture<Batch<T>> completion() {
+            return completion;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public int getTotal() {
+            return results.size();
+        }
+
+        public int getCompleted() {
+            return completed.get();
+        }
+
+        public int getSucceededCount() {
+            return succeeded.get();
+        }
+
+        public int getFailedCount() {
+            return failed.get();
+        }
+
+        public int getCancelledCount() {
+            return skipped.get();
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isDone() {
+            return completed.get() == results.size();
+        }
+
+        /** Results in submission order. */
+        public List<ItemResult<T>> getResults() {
+            return results;
+        }
+
+        /** Items whose outcome is {@code outcome}, in submission order. */
+        public List<T> getItems(Outcome outcome) {
+            List<T> items = new ArrayList<>();
+            for (ItemResult<T> r : results) {
+                if (r.outcome == outcome) {
+                    items.add(r.item);
+                }
+            }
+            return items;
+        }
+
+        @Override
+        public String toString() {
+            return label + " [" + completed.get() + "/" + results.size() + ", " + failed.get() + " failed]";
+        }
+    }
+}
@@ -120,6 +120,18 @@ public class CachedDataService implements DataService {
         return result;
     }
 
+    @Override
+    public List<Task> fetchTasksUpdatedSince(String pid, String since) throws Exception {
+        // Deltas are relative to the caller's own state; never served from cache
+        return delegate.fetchTasksUpdatedSince(pid, since);
+    }
+
+    @Override
+    public int[] fetchTaskListProbe(String pid, boolean closed, int index) throws Exception {
+        // Checks the server's current state; never served from cache
+        return delegate.fetchTaskListProbe(pid, closed, index);
+    }
+
     @Override
     public Task fetchTaskDetails(int id) throws Exception {
         // Task details are NOT cached - they may be updated frequently
@@ -155,6 +167,19 @@ public class CachedDataService implements DataService {
         return delegate.downloadAttachment(att);
     }
 
+    @Override
+    public String uploadFile(java.nio.file.Path file, String contentType,
+            redmineconnector.http.TransferListener listener) throws Exception {
+        return delegate.uploadFile(file, contentType, listener);
+    }
+
+    @Override
+    public void downloadAttachmentTo(Attachment att, java.nio.file.Path target,
+            redmineconnector.http.TransferListener listener) throws Exception {
+        // Streamed to disk, never cached
+        delegate.downloadAttachmentTo(att, target, listener);
+    }
+
     @Override
     public void logTime(int issueId, String date, double hours, int userId, int activityId, String comment)
             throws Exception {
@@ -0,0 +1,321 @@
+package redmineconnector.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import redmineconnector.http.CancellationToken;
+import redmineconnector.http.RequestCancelledException;
+import redmineconnector.model.*;
+
+/**
+ * Decorator for DataService that merges identical concurrent reads
+ * ("single-flight").
+ *
+ * <p>
+ * When a read is already in flight for the same key, later callers do not
+ * issue their own HTTP request: they wait for the first one and receive the
+ * same result (or the same exception). Typical duplicates are a double-click,
+ * the Enter shortcut and QuickView asking for the same
+ * {@code fetchTaskDetails(id)} within milliseconds, or several tabs pointing
+ * to the same server refreshing the global statuses/priorities at once.
+ *
+ * <p>
+ * Nothing is kept once the request completes: this is not a cache, only a
+ * merge of overlapping requests. It sits below {@link CachedDataService}, so
+ * only cache misses are coalesced:
+ *
+ * <pre>
+ * DataService http = new HttpDataService(url, key, logger);
+ * DataService coalesced = new CoalescingDataService(http, url + "|" + key);
+ * DataService cached = new CachedDataService(coalesced, new SimpleCacheService());
+ * </pre>
+ *
+ * <p>
+ * In-flight requests are shared process-wide between instances created with
+ * the same {@code scope}, which must therefore identify both the server and
+ * the user (results are never shared between API keys). Writes are passed
+ * through unchanged.
+ *
+ * @author Redmine Connector Team
+ * @version 1.0
+ */
+public class CoalescingDataService implements DataService {
+
+    private static final Map<String, CompletableFuture<Object>> IN_FLIGHT = new ConcurrentHashMap<>();
+
+    private final DataService delegate;
+    private final String scope;
+
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * @param delegate underlying DataService
+     * @param scope    server and user identity; instances with the same scope
+     *                 share in-flight requests
+     */
+    public CoalescingDataService(DataService delegate, String scope) {
+        this.delegate = delegate;
+        this.scope = scope != null ? scope : "";
+    }
+
+    /**
+     * Joins the request in flight for {@code key} or sends it. A leader
+     * aborted through its {@link CancellationToken} fails only the callers
+     * that were cancelled too; the others send the request again.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(String key, Callable<T> call) throws Exception {
+        String flightKey = scope + " " + key;
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> leader;
+        while ((leader = IN_FLIGHT.putIfAbsent(flightKey, mine)) != null) {
+            coalesced.incrementAndGet();
+            try {
+                return (T) leader.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                CancellationToken token = CancellationToken.current();
+                if (cause instanceof RequestCancelledException && (token == null || !token.isCancelled())) {
+                    continue;
+                }
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+                throw (Error) cause;
+            }
+        }
+        issued.incrementAndGet();
+        try {
+            T result = call.call();
+            mine.complete(result);
+            return result;
+        } catch (Exception | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            IN_FLIGHT.remove(flightKey, mine);
+        }
+    }
+
+    // ========== READS (coalesced) ==========
+
+    @Override
+    public List<Task> fetchTasks(String pid, boolean closed, int limit) throws Exception {
+        return coalesce("tasks:" + pid + ":" + closed + ":" + limit, () -> delegate.fetchTasks(pid, closed, limit));
+    }
+
+    @Override
+    public List<Task> fetchTasksUpdatedSince(String pid, String since) throws Exception {
+        return coalesce("tasks_since:" + pid + ":" + since, () -> delegate.fetchTasksUpdatedSince(pid, since));
+    }
+
+    @Override
+    public int[] fetchTaskListProbe(String pid, boolean closed, int index) throws Exception {
+        return coalesce("tasks_probe:" + pid + ":" + closed + ":" + index,
+                () -> delegate.fetchTaskListProbe(pid, closed, index));
+    }
+
+    @Override
+    public Task fetchTaskDetails(int id) throws Exception {
+        return coalesce("task:" + id, () -> delegate.fetchTaskDetails(id));
+    }
+
+    @Override
+    public List<Task> fetchTasksByIds(List<Integer> ids) throws Exception {
+        return coalesce("tasks_ids:" + ids, () -> delegate.fetchTasksByIds(ids));
+    }
+
+    @Override
+    public List<SimpleEntity> fetchMetadata(String type, String pid) throws Exception {
+        return coalesce("metadata:" + type + ":" + (pid != null ? pid : "global"),
+                () -> delegate.fetchMetadata(type, pid));
+    }
+
+    @Override
+    public List<CustomFieldDefinition> fetchCustomFieldDefinitions() throws Exception {
+        return coalesce("custom_fields_defs", delegate::fetchCustomFieldDefinitions);
+    }
+
+    @Override
+    public List<SimpleEntity> fetchAllowedStatuses(String pid, int trackerId, int issueId) throws Exception {
+        return coalesce("allowed_statuses:" + pid + ":" + trackerId + ":" + issueId,
+                () -> delegate.fetchAllowedStatuses(pid, trackerId, issueId));
+    }
+
+    @Override
+    public SimpleEntity fetchCurrentUser() throws Exception {
+        return coalesce("current_user", delegate::fetchCurrentUser);
+    }
+
+    @Override
+    public SimpleEntity fetchProject(String identifier) throws Exception {
+        return coalesce("project:" + identifier, () -> delegate.fetchProject(identifier));
+    }
+
+    @Override
+    public ContextMetadata fetchContextMetadata(String projectId, int trackerId, int issueId) throws Exception {
+        return coalesce("context:" + projectId + ":" + trackerId + ":" + issueId,
+                () -> delegate.fetchContextMetadata(projectId, trackerId, issueId));
+    }
+
+    @Override
+    public List<TimeEntry> fetchTimeEntries(String pid, String dateFrom, String dateTo) throws Exception {
+        return coalesce("time_entries:" + pid + ":" + dateFrom + ":" + dateTo,
+                () -> delegate.fetchTimeEntries(pid, dateFrom, dateTo));
+    }
+
+    @Override
+    public List<VersionDTO> fetchVersionsFull(String pid) throws Exception {
+        return coalesce("versions:" + pid, () -> delegate.fetchVersionsFull(pid));
+    }
+
+    @Override
+    public List<Task> fetchTasksByVersion(String pid, int versionId) throws Exception {
+        return coalesce("tasks_version:" + pid + ":" + versionId, () -> delegate.fetchTasksByVersion(pid, versionId));
+    }
+
+    @Override
+    public List<Task> fetchClosedTasks(String pid, String dateFrom, String dateTo) throws Exception {
+        return coalesce("tasks_closed:" + pid + ":" + dateFrom + ":" + dateTo,
+                () -> delegate.fetchClosedTasks(pid, dateFrom, dateTo));
+    }
+
+    @Override
+    public List<WikiPageDTO> fetchWikiPages(String projectId) throws Exception {
+        return coalesce("wiki:index:" + projectId, () -> delegate.fetchWikiPages(projectId));
+    }
+
+    @Override
+    public WikiPageDTO fetchWikiPageContent(String projectId, String pageTitle) throws Exception {
+        return coalesce("wiki:page:" + projectId + ":" + pageTitle,
+                () -> delegate.fetchWikiPageContent(projectId, pageTitle));
+    }
+
+    @Override
+    public List<WikiVersionDTO> fetchWikiHistory(String projectId, String pageTitle) throws Exception {
+        return coalesce("wiki:history:" + projectId + ":" + pageTitle,
+                () -> delegate.fetchWikiHistory(projectId, pageTitle));
+    }
+
+    // ========== WRITES AND TRANSFERS (passed through) ==========
+
+    @Override
+    public int createTask(String pid, Task task) throws Exception {
+        return delegate.createTask(pid, task);
+    }
+
+    @Override
+    public void updateTask(Task task) throws Exception {
+        delegate.updateTask(task);
+    }
+
+    @Override
+    public String uploadFile(byte[] data, String contentType) throws Exception {
+        return delegate.uploadFile(data, contentType);
+    }
+
+    @Override
+    public String uploadFile(java.nio.file.Path file, String contentType,
+            redmineconnector.http.TransferListener listener) throws Exception {
+        return delegate.uploadFile(file, contentType, listener);
+    }
+
+    @Override
+    public byte[] downloadAttachment(Attachment att) throws Exception {
+        return delegate.downloadAttachment(att);
+    }
+
+    @Override
+    public void downloadAttachmentTo(Attachment att, java.nio.file.Path target,
+            redmineconnector.http.TransferListener listener) throws Exception {
+        delegate.downloadAttachmentTo(att, target, listener);
+    }
+
+    @Override
+    public void logTime(int issueId, String date, double hours, int userId, int activityId, String comment)
+            throws Exception {
+        delegate.logTime(issueId, date, hours, userId, activityId, comment);
+    }
+
+    @Override
+    public void createVersion(String pid, String name, String status, String startDate, String dueDate)
+            throws Exception {
+        delegate.createVersion(pid, name, status, startDate, dueDate);
+    }
+
+    @Override
+    public void updateVersion(int id, String name, String status, String startDate, String dueDate) throws Exception {
+        delegate.updateVersion(id, name, status, startDate, dueDate);
+    }
+
+    @Override
+    public void deleteVersion(int id) throws Exception {
+        delegate.deleteVersion(id);
+    }
+
+    @Override
+    public void createOrUpdateWikiPage(String projectId, String pageTitle, String content, String comment)
+            throws Exception {
+        delegate.createOrUpdateWikiPage(projectId, pageTitle, content, comment);
+    }
+
+    @Override
+    public void revertWikiPage(String projectId, String pageTitle, int version) throws Exception {
+        delegate.revertWikiPage(projectId, pageTitle, version);
+    }
+
+    @Override
+    public void deleteWikiPage(String projectId, String pageTitle) throws Exception {
+        delegate.deleteWikiPage(projectId, pageTitle);
+    }
+
+    @Override
+    public void uploadWikiAttachment(String projectId, String pageTitle, String token, String filename,
+            String contentType, String currentText, int version) throws Exception {
+        delegate.uploadWikiAttachment(projectId, pageTitle, token, filename, contentType, currentText, version);
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    // ========== STATISTICS ==========
+
+    /**
+     * Reads actually sent to the delegate.
+     */
+    public long getIssuedCount() {
+        return issued.get();
+    }
+
+    /**
+     * Reads that joined a request already in flight instead of sending their
+     * own (requests saved).
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * Reads currently in flight across all scopes.
+     */
+    public static int getInFlightCount() {
+        return IN_FLIGHT.size();
+    }
+
+    /**
+     * Gets the underlying delegate service.
+     *
+     * @return the delegate DataService
+     */
+    public DataService getDelegate() {
+        return delegate;
+    }
+}
@@ -1,7 +1,11 @@
 package redmineconnector.service;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 
+import redmineconnector.http.TransferListener;
 import redmineconnector.model.Attachment;
 import redmineconnector.model.CustomFieldDefinition;
 import redmineconnector.model.SimpleEntity;
@@ -71,6 +75,52 @@ public interface DataService {
          */
         List<Task> fetchTasks(String pid, boolean closed, int limit) throws Exception;
 
+        /**
+         * Fetches the tasks of a project created or modified since a given instant
+         * (incremental / delta synchronization).
+         * 
+         * <p>
+         * Tasks are returned regardless of their status, so callers can detect tasks
+         * that were closed since the last synchronization. Deleted tasks and tasks
+         * moved to another project are <b>not</b> reported; use
+         * {@link #fetchTaskListProbe} to detect them.
+         * </p>
+         * 
+         * @param pid   Project ID or identifier
+         * @param since Redmine timestamp ({@code yyyy-MM-dd'T'HH:mm:ss'Z'}); tasks with
+         *              {@code updated_on >= since} are returned
+         * @return List of changed tasks (may be empty)
+         * @throws Exception                     if API call fails
+         * @throws UnsupportedOperationException if the implementation has no
+         *                                       incremental support (default)
+         */
+        default List<Task> fetchTasksUpdatedSince(String pid, String since) throws Exception {
+                throw new UnsupportedOperationException("Delta sync not supported");
+        }
+
+        /**
+         * Cheap membership check of the list {@link #fetchTasks} would return
+         * (without limit): its {@code total_count} and the id of the task at
+         * position {@code index} in id-descending order.
+         * 
+         * <p>
+         * Only one task is transferred. After a delta sync, comparing both with
+         * the merged list detects tasks moved to another project or deleted,
+         * which {@link #fetchTasksUpdatedSince} does not report.
+         * </p>
+         * 
+         * @param pid    Project ID or identifier
+         * @param closed same as in {@link #fetchTasks}
+         * @param index  0-based position of the task whose id is wanted
+         * @return {@code {total_count, id}}; id is 0 if there is no such task
+         * @throws Exception                     if API call fails
+         * @throws UnsupportedOperationException if the implementation has no
+         *                                       support (default)
+         */
+        default int[] fetchTaskListProbe(String pid, boolean closed, int index) throws Exception {
+                throw new UnsupportedOperationException("Task list probe not supported");
+        }
+
         /**
          * Fetches detailed information for a specific task.
          * 
@@ -238,6 +288,32 @@ public interface DataService {
          */
         String uploadFile(byte[] data, String contentType) throws Exception;
 
+        /**
+         * Uploads a file from disk without reading it into memory.
+         * <p>
+         * HTTP implementations stream the file with a fixed
+         * {@code Content-Length}; a retried attempt reopens the file instead of
+         * keeping a copy in the heap. Default implementation reads the file and
+         * calls {@link #uploadFile(byte[], String)}.
+         * 
+         * @param file        File to upload
+         * @param contentType MIME type (e.g., "image/png", "application/pdf")
+         * @param listener    Progress/cancellation callback, may be null
+         * @return Upload token to be used in task/wiki update
+         * @throws java.io.InterruptedIOException if the upload is cancelled
+         * @throws Exception                      if upload fails or file size
+         *                                        exceeds server limit
+         */
+        default String uploadFile(Path file, String contentType, TransferListener listener) throws Exception {
+                TransferListener l = listener != null ? listener : TransferListener.NONE;
+                if (l.isCancelled())
+                        throw new java.io.InterruptedIOException("Upload cancelled");
+                byte[] data = Files.readAllBytes(file);
+                String token = uploadFile(data, contentType);
+                l.onProgress(data.length, data.length);
+                return token;
+        }
+
         /**
          * Downloads attachment content from Redmine.
          * 
@@ -247,6 +323,45 @@ public interface DataService {
          */
         byte[] downloadAttachment(Attachment att) throws Exception;
 
+        /**
+         * Downloads attachment content straight to a file, without holding the
+         * whole file in memory.
+         * <p>
+         * The file is written under a temporary name and moved to {@code target}
+         * only when complete, so a failed or cancelled download never leaves a
+         * truncated file behind.
+         * <p>
+         * Default implementation buffers through {@link #downloadAttachment};
+         * HTTP implementations stream from the socket.
+         * 
+         * @param att      Attachment object with content URL
+         * @param target   Destination file (overwritten)
+         * @param listener Progress/cancellation callback, may be null
+         * @throws java.io.InterruptedIOException if the download is cancelled
+         * @throws Exception                      if attachment doesn't exist or
+         *                                        download fails
+         */
+        default void downloadAttachmentTo(Attachment att, Path target, TransferListener listener) throws Exception {
+                TransferListener l = listener != null ? listener : TransferListener.NONE;
+                byte[] data = downloadAttachment(att);
+                if (l.isCancelled())
+                        throw new java.io.InterruptedIOException("Download cancelled");
+                Path dir = target.toAbsolutePath().getParent();
+                Path tmp = Files.createTempFile(dir, target.getFileName().toString(), ".part");
+                try {
+                        Files.write(tmp, data);
+                        try {
+                                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING,
+                                                StandardCopyOption.ATOMIC_MOVE);
+                        } catch (java.nio.file.AtomicMoveNotSupportedException e) {
+                                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+                        }
+                } finally {
+                        Files.deleteIfExists(tmp);
+                }
+                l.onProgress(data.length, data.length);
+        }
+
         // ========== TIME TRACKING ==========
 
         /**
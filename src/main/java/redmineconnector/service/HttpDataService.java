@@ -1,20 +1,69 @@
 package redmineconnector.service;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
-
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import redmineconnector.http.CancellationToken;
+import redmineconnector.http.HttpClientPool;
+import redmineconnector.http.HttpRequest;
+import redmineconnector.http.HttpResponse;
+import redmineconnector.http.HttpTransport;
+import redmineconnector.http.RetryPolicy;
+import redmineconnector.http.RetryingTransport;
+import redmineconnector.http.TransferListener;
 import redmineconnector.model.*;
+import redmineconnector.util.AppConstants;
 import redmineconnector.util.HttpUtils;
 import redmineconnector.util.JsonParser;
+import redmineconnector.util.SymbolTable;
 
 public class HttpDataService implements DataService {
     private final String baseUrl, apiKey;
     private final Consumer<String> logger;
+    private final HttpTransport transport;
+    /** Repeated names of the parsed issues, shared by every service on this server */
+    private final SymbolTable symbols;
     private final java.util.Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    /** Validator of the response each interrupted {@code .part} file came from */
+    private final java.util.Map<Path, String> partValidators = new ConcurrentHashMap<>();
+
+    /**
+     * Shared pool for parallel page requests. Parallelism per listing is bounded
+     * separately; connections per host are bounded by the transport.
+     */
+    private static final ExecutorService PAGE_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "HttpDataService-page-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    });
 
     private static class CacheEntry {
         List<SimpleEntity> data;
@@ -31,44 +80,201 @@ public class HttpDataService implements DataService {
     }
 
     public HttpDataService(String url, String key, Consumer<String> logger) {
+        this(url, key, logger, null);
+    }
+
+    /**
+     * @param transport HTTP engine to use; null to use the shared pooled
+     *                  transport of the server ({@link HttpClientPool})
+     */
+    public HttpDataService(String url, String key, Consumer<String> logger, HttpTransport transport) {
         this.baseUrl = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
         this.apiKey = key;
         this.logger = logger;
+        this.transport = transport != null ? transport : HttpClientPool.forUrl(this.baseUrl);
+        this.symbols = SymbolTable.forUrl(this.baseUrl);
+    }
+
+    private String get(String uri) throws Exception {
+        return send(HttpRequest.get(uri));
+    }
+
+    private String send(HttpRequest request) throws Exception {
+        return transport.execute(request.apiKey(apiKey)).ensureSuccess().getBodyAsString();
+    }
+
+    /**
+     * GET returning the raw UTF-8 body, for the parsers that read bytes directly
+     * (listings, issue details, wiki pages).
+     */
+    private byte[] getBytes(String uri) throws Exception {
+        return transport.execute(HttpRequest.get(uri).apiKey(apiKey)).ensureSuccess().getBody();
+    }
+
+    /**
+     * Conditional GET for slow-changing resources (metadata, custom fields,
+     * wiki): an unchanged resource comes back as a 304 and is served from the
+     * transport's validator cache.
+     */
+    private HttpResponse getRevalidated(String uri) throws Exception {
+        return transport.execute(HttpRequest.get(uri).revalidate().apiKey(apiKey)).ensureSuccess();
     }
 
     @Override
     public List<Task> fetchTasks(String pid, boolean closed, int limit) throws Exception {
-        List<Task> all = new ArrayList<>();
         String status = closed ? "*" : "open";
-        int max = (limit <= 0) ? Integer.MAX_VALUE : limit;
-        int offset = 0, batch = redmineconnector.util.AppConstants.DEFAULT_FETCH_BATCH_SIZE;
         if (logger != null)
             logger.accept("DEBUG: Iniciando fetchTasks desde " + baseUrl + " (proj=" + pid + ")");
-        while (all.size() < max) {
+        List<Task> all = fetchAllPages(limit, (pageLimit, offset) -> String.format(
+                "%s/issues.json?project_id=%s&status_id=%s&limit=%d&offset=%d&sort=id:desc&include=attachments&key=%s",
+                baseUrl, pid, status, pageLimit, offset, apiKey),
+                body -> JsonParser.parseIssues(body, symbols), t -> t.id);
+        all.forEach(t -> t.webUrl = baseUrl + "/issues/" + t.id);
+        if (logger != null)
+            logger.accept("DEBUG: Fetch completado. Total tareas: " + all.size());
+        return all;
+    }
+
+    @Override
+    public List<Task> fetchTasksUpdatedSince(String pid, String since) throws Exception {
+        String sinceParam = URLEncoder.encode(">=" + since, StandardCharsets.UTF_8.toString());
+        if (logger != null)
+            logger.accept("DEBUG: Delta fetchTasks desde " + since + " (proj=" + pid + ")");
+        List<Task> changed = fetchAllPages(0, (pageLimit, offset) -> String.format(
+                "%s/issues.json?project_id=%s&status_id=*&updated_on=%s&limit=%d&offset=%d&sort=id:desc&include=attachments&key=%s",
+                baseUrl, pid, sinceParam, pageLimit, offset, apiKey),
+                body -> JsonParser.parseIssues(body, symbols), t -> t.id);
+        changed.forEach(t -> t.webUrl = baseUrl + "/issues/" + t.id);
+        if (logger != null)
+            logger.accept("DEBUG: Delta completado. Tareas modificadas: " + changed.size());
+        return changed;
+    }
+
+    @Override
+    public int[] fetchTaskListProbe(String pid, boolean closed, int index) throws Exception {
+        String uri = String.format("%s/issues.json?project_id=%s&status_id=%s&limit=1&offset=%d&sort=id:desc&key=%s",
+                baseUrl, pid, closed ? "*" : "open", index, apiKey);
+        byte[] body = getBytes(uri);
+        List<Task> page = JsonParser.parseIssues(body, symbols);
+        return new int[] { JsonParser.parseTotalCount(body), page.isEmpty() ? 0 : page.get(0).id };
+    }
+
+    /**
+     * Builds the URI of one page of a paginated listing.
+     */
+    private interface PageUri {
+        String build(int limit, int offset);
+    }
+
+    /**
+     * Paginated fetch driven by {@code total_count}.
+     * <p>
+     * The first page is requested alone; its {@code total_count} tells how many
+     * offsets remain, and those are pulled by at most
+     * {@code MAX_PARALLEL_PAGE_REQUESTS} workers on {@link #PAGE_EXECUTOR}.
+     * Pages are merged back in offset order, so the server sort order is kept,
+     * and items duplicated across page boundaries (an issue created while paging
+     * shifts the offsets) are dropped. If the server does not report
+     * {@code total_count}, pages are walked sequentially as before.
+     *
+     * @param limit maximum number of items; &lt;= 0 means all
+     */
+    private <T> List<T> fetchAllPages(int limit, PageUri pageUri, Function<byte[], List<T>> parser,
+            ToIntFunction<T> idOf) throws Exception {
+        int max = (limit <= 0) ? Integer.MAX_VALUE : limit;
+        int batch = AppConstants.DEFAULT_FETCH_BATCH_SIZE;
+
+        String firstUri = pageUri.build(Math.min(batch, max), 0);
+        if (logger != null)
+            logger.accept("DEBUG: GET " + firstUri);
+        byte[] firstBody = getBytes(firstUri);
+        List<T> first = parser.apply(firstBody);
+        if (logger != null)
+            logger.accept("DEBUG: Página obtenida. Items: " + first.size());
+        int total = JsonParser.parseTotalCount(firstBody);
+
+        if (total < 0)
+            return fetchRemainingSequential(first, max, batch, pageUri, parser);
+
+        int target = Math.min(total, max);
+        int pageCount = first.size() >= Math.min(batch, max) && target > first.size()
+                ? (target - first.size() + batch - 1) / batch
+                : 0;
+        List<List<T>> pages = new ArrayList<>(Collections.nCopies(pageCount, (List<T>) null));
+        if (pageCount > 0) {
+            AtomicInteger nextPage = new AtomicInteger();
+            CancellationToken token = CancellationToken.current();
+            int workers = Math.min(pageCount, AppConstants.MAX_PARALLEL_PAGE_REQUESTS);
+            List<Future<?>> running = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                running.add(PAGE_EXECUTOR.submit(() -> {
+                    // Pages belong to the caller's request: cancelling it aborts them too
+                    CancellationToken.Scope scope = CancellationToken.bind(token);
+                    try {
+                        int i;
+                        while ((i = nextPage.getAndIncrement()) < pageCount) {
+                            int offset = first.size() + i * batch;
+                            String uri = pageUri.build(Math.min(batch, target - offset), offset);
+                            if (logger != null)
+                                logger.accept("DEBUG: GET " + uri);
+                            pages.set(i, parser.apply(getBytes(uri)));
+                        }
+                    } finally {
+                        scope.close();
+                    }
+                    return null;
+                }));
+            }
+            try {
+                for (Future<?> f : running)
+                    f.get();
+            } catch (ExecutionException e) {
+                nextPage.set(pageCount); // stop remaining workers
+                running.forEach(f -> f.cancel(true));
+                Throwable cause = e.getCause();
+                throw cause instanceof Exception ? (Exception) cause : e;
+            }
+            if (logger != null)
+                logger.accept("DEBUG: Paginación paralela: " + (pageCount + 1) + " páginas, total_count=" + total);
+        }
+
+        List<T> all = new ArrayList<>(Math.min(target, 10_000));
+        Set<Integer> seen = new HashSet<>();
+        addUnique(all, seen, first, idOf, max);
+        for (List<T> page : pages)
+            addUnique(all, seen, page, idOf, max);
+        return all;
+    }
+
+    private <T> List<T> fetchRemainingSequential(List<T> first, int max, int batch, PageUri pageUri,
+            Function<byte[], List<T>> parser) throws Exception {
+        List<T> all = new ArrayList<>(first);
+        List<T> page = first;
+        while (!page.isEmpty() && page.size() >= Math.min(batch, max) && all.size() < max) {
             int needed = Math.min(batch, max - all.size());
-            if (needed <= 0)
-                break;
-            String uri = String.format(
-                    "%s/issues.json?project_id=%s&status_id=%s&limit=%d&offset=%d&sort=id:desc&include=attachments&key=%s",
-                    baseUrl, pid, status, needed, offset, apiKey);
+            String uri = pageUri.build(needed, all.size());
             if (logger != null)
                 logger.accept("DEBUG: GET " + uri);
-            List<Task> page = JsonParser.parseIssues(HttpUtils.get(uri));
+            page = parser.apply(getBytes(uri));
             if (logger != null)
                 logger.accept("DEBUG: Página obtenida. Items: " + page.size());
-            if (page.isEmpty())
-                break;
-            page.forEach(t -> t.webUrl = baseUrl + "/issues/" + t.id);
             all.addAll(page);
             if (page.size() < needed)
                 break;
-            offset += page.size();
         }
-        if (logger != null)
-            logger.accept("DEBUG: Fetch completado. Total tareas: " + all.size());
         return all;
     }
 
+    private static <T> void addUnique(List<T> all, Set<Integer> seen, List<T> page,
+            ToIntFunction<T> idOf, int max) {
+        for (T item : page) {
+            if (all.size() >= max)
+                return;
+            if (seen.add(idOf.applyAsInt(item)))
+                all.add(item);
+        }
+    }
+
     @Override
     public Task fetchTaskDetails(int id) throws Exception {
         String uri = String.format("%s/issues/%d.json?include=attachments,journals,changesets,custom_fields&key=%s",
@@ -76,7 +282,7 @@ public class HttpDataService implements DataService {
                 apiKey);
         if (logger != null)
             logger.accept("DEBUG: Obteniendo detalles ID " + id + ": " + uri);
-        List<Task> result = JsonParser.parseIssues(HttpUtils.get(uri));
+        List<Task> result = JsonParser.parseIssues(getBytes(uri), symbols);
         if (result.isEmpty())
             throw new Exception("Tarea no encontrada");
         Task t = result.get(0);
@@ -89,10 +295,11 @@ public class HttpDataService implements DataService {
     public List<SimpleEntity> fetchMetadata(String type, String pid) throws Exception {
         String cacheKey = type + ":" + (pid != null ? pid : "");
         long ttl = redmineconnector.util.AppConstants.CACHE_TTL_MS;
-        if (cache.containsKey(cacheKey) && !cache.get(cacheKey).isExpired(ttl)) {
+        CacheEntry previous = cache.get(cacheKey);
+        if (previous != null && !previous.isExpired(ttl)) {
             if (logger != null)
                 logger.accept("DEBUG: Metadata Cache HIT: " + type);
-            return cache.get(cacheKey).data;
+            return previous.data;
         }
 
         if (logger != null)
@@ -136,13 +343,21 @@ public class HttpDataService implements DataService {
         try {
             if (logger != null)
                 logger.accept("DEBUG: GET Metadata " + url);
-            String json = HttpUtils.get(url);
+            HttpResponse response = getRevalidated(url);
+            if (response.isNotModified() && previous != null) {
+                // Unchanged on the server: keep the parsed list, just renew its TTL
+                if (logger != null)
+                    logger.accept("DEBUG: Metadata no modificado (304): " + type);
+                cache.put(cacheKey, new CacheEntry(previous.data));
+                return previous.data;
+            }
+            String json = response.getBodyAsString();
             List<SimpleEntity> result;
             if ("users".equals(type))
-                result = JsonParser.parseMembers(json);
+                result = JsonParser.parseMembers(json, symbols);
             else if ("trackers".equals(type)) {
                 // Try to parse project-specific trackers first
-                result = JsonParser.parseProjectTrackers(json);
+                result = JsonParser.parseProjectTrackers(json, symbols);
                 // If parsing returns empty, it might be that the project ID was empty or
                 // invalid,
                 // or the project really has no specific trackers (unlikely).
@@ -150,8 +365,9 @@ public class HttpDataService implements DataService {
                 // Fallback to global trackers if empty.
                 if (result.isEmpty()) {
                     try {
-                        result = JsonParser.parseEntities(HttpUtils.get(baseUrl + "/trackers.json?key=" + apiKey),
-                                "trackers");
+                        result = JsonParser.parseEntities(
+                                getRevalidated(baseUrl + "/trackers.json?key=" + apiKey).getBodyAsString(),
+                                "trackers", symbols);
                     } catch (Exception e) {
                         // Keep empty result if fallback fails
                         if (logger != null)
@@ -159,9 +375,9 @@ public class HttpDataService implements DataService {
                     }
                 }
             } else if ("versions".equals(type))
-                result = JsonParser.parseOpenVersions(json);
+                result = JsonParser.parseOpenVersions(json, symbols);
             else
-                result = JsonParser.parseEntities(json, jsonKey);
+                result = JsonParser.parseEntities(json, jsonKey, symbols);
 
             cache.put(cacheKey, new CacheEntry(result));
             return result;
@@ -177,16 +393,17 @@ public class HttpDataService implements DataService {
         // Must include 'trackers' and 'projects' to avoid global-assumption in legacy
         // fallback logic
         String url = baseUrl + "/custom_fields.json?include=trackers,projects";
-        String json = HttpUtils.get(url, apiKey);
-        return JsonParser.parseCustomFieldDefinitions(json);
+        String json = getRevalidated(url).getBodyAsString();
+        List<CustomFieldDefinition> defs = JsonParser.parseCustomFieldDefinitions(json);
+        symbols.addCustomFields(defs);
+        return defs;
     }
 
     @Override
     public int createTask(String pid, Task t) throws Exception {
-        String json = JsonParser.serializeTaskForCreate(pid, t);
         if (logger != null)
-            logger.accept("DEBUG: Creando tarea payload: " + json);
-        String resp = HttpUtils.post(baseUrl + "/issues.json", apiKey, json, false);
+            logger.accept("DEBUG: Creando tarea en " + pid + ": " + t.subject);
+        String resp = send(HttpRequest.post(baseUrl + "/issues.json").jsonBody(JsonParser.taskBody(pid, t, false)));
         if (logger != null)
             logger.accept("DEBUG: Create Response: " + resp);
         return JsonParser.extractId(resp);
@@ -194,10 +411,21 @@ public class HttpDataService implements DataService {
 
     @Override
     public void updateTask(Task t) throws Exception {
-        String json = JsonParser.serializeTaskForUpdate(t);
+        // Only the fields changed since the task was loaded
+        String json = JsonParser.serializeTaskChanges(t);
+        if (json == null) {
+            if (logger != null)
+                logger.accept("DEBUG: Tarea #" + t.id + " sin cambios, no se envía");
+            return;
+        }
         if (logger != null)
             logger.accept("DEBUG: Actualizando tarea #" + t.id + ". Payload: " + json);
-        HttpUtils.put(baseUrl + "/issues/" + t.id + ".json", apiKey, json);
+        HttpRequest put = HttpRequest.put(baseUrl + "/issues/" + t.id + ".json").jsonBody(json);
+        // A note or an upload would be applied twice if the PUT were repeated
+        boolean addsJournal = t.comment != null && !t.comment.trim().isEmpty();
+        boolean consumesUploads = t.pendingUploads != null && !t.pendingUploads.isEmpty();
+        send(addsJournal || consumesUploads ? put : put.idempotent());
+        t.markClean();
         if (logger != null)
             logger.accept("DEBUG: Update completado para #" + t.id);
     }
@@ -207,7 +435,25 @@ public class HttpDataService implements DataService {
         String url = baseUrl + "/uploads.json?key=" + apiKey;
         if (logger != null)
             logger.accept("DEBUG: Subiendo archivo (" + data.length + " bytes) a " + url);
-        String token = JsonParser.extractToken(HttpUtils.postBinary(url, data, "application/octet-stream", apiKey));
+        String token = JsonParser.extractToken(send(HttpRequest.post(url).header("Accept", "application/json").body(data, "application/octet-stream")));
+        if (logger != null)
+            logger.accept("DEBUG: Upload token recibido: " + token);
+        return token;
+    }
+
+    /**
+     * Streams the file with a fixed length. The POST is marked idempotent so a
+     * transient failure is retried by reopening the file: a repeated upload
+     * only produces an extra token that is never attached.
+     */
+    @Override
+    public String uploadFile(Path file, String contentType, TransferListener listener) throws Exception {
+        String url = baseUrl + "/uploads.json?key=" + apiKey;
+        if (logger != null)
+            logger.accept("DEBUG: Subiendo archivo " + file.getFileName() + " (" + Files.size(file) + " bytes) a "
+                    + url);
+        String token = JsonParser.extractToken(send(HttpRequest.post(url).header("Accept", "application/json")
+                .body(file, "application/octet-stream").progress(listener).idempotent()));
         if (logger != null)
             logger.accept("DEBUG: Upload token recibido: " + token);
         return token;
@@ -215,6 +461,135 @@ public class HttpDataService implements DataService {
 
     @Override
     public byte[] downloadAttachment(Attachment att) throws Exception {
+        String url = attachmentUrl(att);
+        if (logger != null)
+            logger.accept("DEBUG: Descargando adjunto: " + url);
+        byte[] bytes = HttpUtils.downloadBytes(transport, url, apiKey);
+        if (logger != null)
+            logger.accept("DEBUG: Descarga finalizada (" + bytes.length + " bytes)");
+        return bytes;
+    }
+
+    /**
+     * Downloads into {@code <target>.part} and renames it once complete. An
+     * interrupted transfer keeps the partial file and the validator
+     * ({@code ETag}/{@code Last-Modified}) of the response it came from; the
+     * next attempt (a retry here or a later download to the same target through
+     * this service) only requests the missing bytes with {@code Range} and
+     * {@code If-Range}. A partial file of unknown version, or of a resource
+     * changed since, is downloaded again from the start. Attempts that made
+     * progress or failed at the socket level are retried with the backoff of
+     * the transport's {@link RetryPolicy}; the bound {@link CancellationToken}
+     * or the listener cut the wait short. The final size is checked against
+     * {@link Attachment#filesize} when the server reported one.
+     */
+    @Override
+    public void downloadAttachmentTo(Attachment att, Path target, TransferListener listener) throws Exception {
+        String url = attachmentUrl(att);
+        Path part = target.resolveSibling(target.getFileName() + ".part").toAbsolutePath();
+        TransferListener l = listener != null ? listener : TransferListener.NONE;
+        RetryPolicy policy = transport instanceof RetryingTransport ? ((RetryingTransport) transport).getPolicy()
+                : RetryPolicy.NONE;
+        if (logger != null)
+            logger.accept("DEBUG: Descargando adjunto a disco: " + url + " -> " + target);
+        if (att.filesize > 0 && Files.exists(part) && Files.size(part) > att.filesize) {
+            Files.delete(part);
+        }
+        for (int retry = 1;; retry++) {
+            String validator = partValidators.get(part);
+            if (validator == null) {
+                // Bytes of an unknown version cannot be resumed
+                Files.deleteIfExists(part);
+            }
+            long before = Files.exists(part) ? Files.size(part) : 0;
+            boolean[] changed = new boolean[1];
+            try {
+                if (before > 0 && logger != null)
+                    logger.accept("DEBUG: Reanudando descarga de " + att.filename + " desde el byte " + before);
+                if (att.filesize <= 0 || before < att.filesize) {
+                    String sent = before > 0 ? validator : null;
+                    HttpUtils.downloadTo(transport, url, apiKey, part, sent, new TransferListener() {
+                        @Override
+                        public void onHeaders(HttpResponse response) throws IOException {
+                            String current = response.getRangeValidator();
+                            if (response.getStatus() == 206 && (sent == null || !sent.equals(current))) {
+                                // If-Range ignored: the tail belongs to another version
+                                partValidators.remove(part);
+                                changed[0] = true;
+                                throw new IOException("El adjunto " + att.filename + " ha cambiado en el servidor");
+                            }
+                            if (current != null) {
+                                partValidators.put(part, current);
+                            } else {
+                                partValidators.remove(part);
+                            }
+                            l.onHeaders(response);
+                        }
+
+                        @Override
+                        public void onProgress(long transferred, long total) {
+                            l.onProgress(transferred, total);
+                        }
+
+                        @Override
+                        public boolean isCancelled() {
+                            return l.isCancelled();
+                        }
+                    });
+                }
+                long size = Files.size(part);
+                if (att.filesize > 0 && size < att.filesize) {
+                    throw new EOFException("Descarga incompleta de " + att.filename + ": " + size + " de "
+                            + att.filesize + " bytes");
+                }
+                if (att.filesize > 0 && size > att.filesize) {
+                    Files.delete(part);
+                    partValidators.remove(part);
+                    throw new IOException("Tamaño descargado de " + att.filename + " (" + size
+                            + " bytes) distinto del esperado (" + att.filesize + " bytes)");
+                }
+                break;
+            } catch (IOException e) {
+                long after = Files.exists(part) ? Files.size(part) : 0;
+                boolean progressed = after > before || changed[0];
+                boolean network = e instanceof EOFException || e instanceof SocketException
+                        || e instanceof SocketTimeoutException;
+                if (retry > policy.getMaxRetries() || !RetryPolicy.isRetryableException(e)
+                        || !(progressed || network)) {
+                    if (after == 0) {
+                        Files.deleteIfExists(part);
+                        partValidators.remove(part);
+                    }
+                    throw e;
+                }
+                long delay = policy.backoffMs(retry);
+                if (logger != null)
+                    logger.accept("DEBUG: Descarga interrumpida (" + e.getMessage() + "), reintento " + retry
+                            + " en " + delay + " ms");
+                backoff(delay, l, att.filename);
+            }
+        }
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+        partValidators.remove(part);
+        if (logger != null)
+            logger.accept("DEBUG: Descarga finalizada (" + Files.size(target) + " bytes)");
+    }
+
+    /**
+     * Retry backoff of a download; the bound {@link CancellationToken}, an
+     * interrupt or the listener end it early.
+     */
+    private static void backoff(long delay, TransferListener listener, String what) throws IOException {
+        long end = System.currentTimeMillis() + delay;
+        for (long left = delay; left > 0; left = end - System.currentTimeMillis()) {
+            if (listener.isCancelled()) {
+                throw new InterruptedIOException("Download cancelled: " + what);
+            }
+            CancellationToken.sleep(Math.min(left, 100), what);
+        }
+    }
+
+    private String attachmentUrl(Attachment att) {
         String url;
         if (att.contentUrl != null && !att.contentUrl.trim().isEmpty()) {
             url = att.contentUrl;
@@ -231,49 +606,30 @@ public class HttpDataService implements DataService {
             }
             url = String.format("%s/attachments/download/%d?key=%s", baseUrl, att.id, apiKey);
         }
-        if (logger != null)
-            logger.accept("DEBUG: Descargando adjunto: " + url);
-        byte[] bytes = HttpUtils.downloadBytes(url, apiKey);
-        if (logger != null)
-            logger.accept("DEBUG: Descarga finalizada (" + bytes.length + " bytes)");
-        return bytes;
+        return url;
     }
 
     @Override
     public void logTime(int issueId, String date, double hours, int userId, int activityId, String comment)
             throws Exception {
-        String json = JsonParser.serializeTimeEntry(issueId, date, hours, userId, activityId, comment);
         if (logger != null)
-            logger.accept("DEBUG: LogTime Req #" + issueId + ": " + json);
-        String resp = HttpUtils.post(baseUrl + "/time_entries.json", apiKey, json, false);
+            logger.accept("DEBUG: LogTime Req #" + issueId + ": " + hours + "h el " + date);
+        String resp = send(HttpRequest.post(baseUrl + "/time_entries.json")
+                .jsonBody(JsonParser.timeEntryBody(issueId, date, hours, userId, activityId, comment)));
         if (logger != null)
             logger.accept("DEBUG: LogTime Res: " + resp);
     }
 
     @Override
     public List<TimeEntry> fetchTimeEntries(String pid, String dateFrom, String dateTo) throws Exception {
-        List<TimeEntry> all = new ArrayList<>();
-        int limit = redmineconnector.util.AppConstants.DEFAULT_FETCH_BATCH_SIZE;
-        int offset = 0;
-        while (true) {
-            String uri;
+        return fetchAllPages(0, (limit, offset) -> {
             if (pid == null || pid.trim().isEmpty()) {
-                uri = String.format("%s/time_entries.json?from=%s&to=%s&limit=%d&offset=%d&key=%s",
+                return String.format("%s/time_entries.json?from=%s&to=%s&limit=%d&offset=%d&key=%s",
                         baseUrl, dateFrom, dateTo, limit, offset, apiKey);
-            } else {
-                uri = String.format("%s/time_entries.json?project_id=%s&from=%s&to=%s&limit=%d&offset=%d&key=%s",
-                        baseUrl, pid, dateFrom, dateTo, limit, offset, apiKey);
             }
-            if (logger != null)
-                logger.accept("DEBUG: Getting TimeEntries: " + uri);
-            String json = HttpUtils.get(uri);
-            List<TimeEntry> page = JsonParser.parseTimeEntries(json);
-            all.addAll(page);
-            if (page.size() < limit)
-                break;
-            offset += limit;
-        }
-        return all;
+            return String.format("%s/time_entries.json?project_id=%s&from=%s&to=%s&limit=%d&offset=%d&key=%s",
+                    baseUrl, pid, dateFrom, dateTo, limit, offset, apiKey);
+        }, JsonParser::parseTimeEntries, e -> e.id);
     }
 
     @Override
@@ -281,7 +637,7 @@ public class HttpDataService implements DataService {
         String uri = String.format("%s/projects/%s/versions.json?key=%s", baseUrl, pid, apiKey);
         if (logger != null)
             logger.accept("DEBUG: Get All Versions " + uri);
-        return JsonParser.parseVersionsFull(HttpUtils.get(uri));
+        return JsonParser.parseVersionsFull(get(uri));
     }
 
     @Override
@@ -291,7 +647,7 @@ public class HttpDataService implements DataService {
         String uri = String.format("%s/projects/%s/versions.json", baseUrl, pid);
         if (logger != null)
             logger.accept("DEBUG: Create Version: " + json + " at " + uri);
-        HttpUtils.post(uri, apiKey, json, false);
+        send(HttpRequest.post(uri).jsonBody(json));
     }
 
     @Override
@@ -300,7 +656,7 @@ public class HttpDataService implements DataService {
         String uri = String.format("%s/versions/%d.json", baseUrl, id);
         if (logger != null)
             logger.accept("DEBUG: Update Version #" + id + ": " + json);
-        HttpUtils.put(uri, apiKey, json);
+        send(HttpRequest.put(uri).jsonBody(json).idempotent());
     }
 
     @Override
@@ -308,7 +664,7 @@ public class HttpDataService implements DataService {
         String uri = String.format("%s/versions/%d.json", baseUrl, id);
         if (logger != null)
             logger.accept("DEBUG: Delete Version #" + id);
-        HttpUtils.delete(uri, apiKey);
+        send(HttpRequest.delete(uri));
     }
 
     @Override
@@ -318,27 +674,18 @@ public class HttpDataService implements DataService {
                 pid, versionId, apiKey);
         if (logger != null)
             logger.accept("DEBUG: Fetch Tasks for Version " + versionId);
-        return JsonParser.parseIssues(HttpUtils.get(uri));
+        return JsonParser.parseIssues(getBytes(uri), symbols);
     }
 
     @Override
     public List<Task> fetchClosedTasks(String pid, String dateFrom, String dateTo) throws Exception {
-        List<Task> all = new ArrayList<>();
-        int limit = redmineconnector.util.AppConstants.DEFAULT_FETCH_BATCH_SIZE, offset = 0;
         String dateFilter = "%3E%3C" + dateFrom + "%7C" + dateTo;
-        while (true) {
-            String uri = String.format(
-                    "%s/issues.json?project_id=%s&status_id=closed&closed_on=%s&limit=%d&offset=%d&sort=id:desc&key=%s",
-                    baseUrl, pid, dateFilter, limit, offset, apiKey);
-            if (logger != null)
-                logger.accept("DEBUG: Fetch Closed Tasks: " + uri);
-            List<Task> page = JsonParser.parseIssues(HttpUtils.get(uri));
-            all.addAll(page);
-            if (page.size() < limit)
-                break;
-            offset += limit;
-        }
-        return all;
+        if (logger != null)
+            logger.accept("DEBUG: Fetch Closed Tasks (proj=" + pid + ", " + dateFrom + " - " + dateTo + ")");
+        return fetchAllPages(0, (limit, offset) -> String.format(
+                "%s/issues.json?project_id=%s&status_id=closed&closed_on=%s&limit=%d&offset=%d&sort=id:desc&key=%s",
+                baseUrl, pid, dateFilter, limit, offset, apiKey),
+                body -> JsonParser.parseIssues(body, symbols), t -> t.id);
     }
 
     @Override
@@ -348,7 +695,7 @@ public class HttpDataService implements DataService {
                 apiKey);
         if (logger != null)
             logger.accept("DEBUG: Fetching Wiki History: " + uri);
-        return JsonParser.parseWikiHistory(HttpUtils.get(uri));
+        return JsonParser.parseWikiHistory(getRevalidated(uri).getBodyAsString());
     }
 
     @Override
@@ -364,7 +711,7 @@ public class HttpDataService implements DataService {
         String uri = String.format("%s/projects/%s/wiki/index.json?key=%s", baseUrl, projectId, apiKey);
         if (logger != null)
             logger.accept("DEBUG: Fetching Wiki Pages: " + uri);
-        return JsonParser.parseWikiPagesIndex(HttpUtils.get(uri));
+        return JsonParser.parseWikiPagesIndex(getRevalidated(uri).getBodyAsString());
     }
 
     @Override
@@ -374,7 +721,7 @@ public class HttpDataService implements DataService {
                 encodedTitle, apiKey);
         if (logger != null)
             logger.accept("DEBUG: Fetching Wiki Page Content: " + uri);
-        return JsonParser.parseWikiPageContent(HttpUtils.get(uri));
+        return JsonParser.parseWikiPageContent(getRevalidated(uri).getBody());
     }
 
     @Override
@@ -382,10 +729,12 @@ public class HttpDataService implements DataService {
             throws Exception {
         String encodedTitle = URLEncoder.encode(pageTitle, StandardCharsets.UTF_8.toString()).replace("+", "%20");
         String uri = String.format("%s/projects/%s/wiki/%s.json", baseUrl, projectId, encodedTitle);
-        String json = JsonParser.serializeWikiPage(content, comment);
         if (logger != null)
-            logger.accept("DEBUG: Create/Update Wiki Page: " + pageTitle + " with payload: " + json);
-        HttpUtils.put(uri, apiKey, json);
+            logger.accept("DEBUG: Create/Update Wiki Page: " + pageTitle + " ("
+                    + (content != null ? content.length() : 0) + " chars)");
+        // Streamed: the page text is not copied into a payload. Same text again
+        // does not create a new wiki version
+        send(HttpRequest.put(uri).jsonBody(JsonParser.wikiPageBody(content, comment)).idempotent());
     }
 
     @Override
@@ -394,7 +743,7 @@ public class HttpDataService implements DataService {
         String uri = String.format("%s/projects/%s/wiki/%s.json", baseUrl, projectId, encodedTitle);
         if (logger != null)
             logger.accept("DEBUG: Deleting Wiki Page: " + pageTitle);
-        HttpUtils.delete(uri, apiKey);
+        send(HttpRequest.delete(uri));
     }
 
     @Override
@@ -406,24 +755,17 @@ public class HttpDataService implements DataService {
         // Redmine JSON format: { "wiki_page": { "text": "...", "version": N, "uploads":
         // [{ "token": "...", "filename": "...", "content_type": "..." }], "comments":
         // "..." } }
-        // We must escape the text content properly for JSON
-        String escapedText = JsonParser.escapeJsonString(currentText != null ? currentText : "");
-        String escapedComment = "Adjuntado archivo: " + filename;
-
-        String json = String.format(
-                "{\"wiki_page\":{\"text\":\"%s\",\"version\":%d,\"uploads\":[{\"token\":\"%s\",\"filename\":\"%s\",\"content_type\":\"%s\"}],\"comments\":\"%s\"}}",
-                escapedText, version, token, filename, contentType, escapedComment);
-
         if (logger != null)
-            logger.accept("DEBUG: Uploading Attachment to Wiki Page: " + pageTitle + " payload: " + json);
+            logger.accept("DEBUG: Uploading Attachment to Wiki Page: " + pageTitle + " file: " + filename);
 
-        HttpUtils.put(uri, apiKey, json);
+        send(HttpRequest.put(uri).jsonBody(JsonParser.wikiAttachmentBody(currentText, version, token, filename,
+                contentType, "Adjuntado archivo: " + filename)));
     }
 
     @Override
     public SimpleEntity fetchCurrentUser() throws Exception {
         String url = baseUrl + "/users/current.json?key=" + apiKey;
-        String json = HttpUtils.get(url);
+        String json = get(url);
 
         SimpleEntity user = JsonParser.parseCurrentUser(json);
 
@@ -444,7 +786,7 @@ public class HttpDataService implements DataService {
         String url = baseUrl + "/projects/" + identifier + ".json?key=" + apiKey;
         if (logger != null)
             logger.accept("DEBUG: Fetching project info: " + url);
-        String json = HttpUtils.get(url);
+        String json = get(url);
         return JsonParser.parseProject(json);
     }
 
@@ -467,7 +809,7 @@ public class HttpDataService implements DataService {
 
             if (logger != null)
                 logger.accept("DEBUG: Bulk Fetch Tasks: IDs=" + idsStr);
-            result.addAll(JsonParser.parseIssues(HttpUtils.get(uri)));
+            result.addAll(JsonParser.parseIssues(getBytes(uri), symbols));
         }
         return result;
     }
@@ -485,7 +827,7 @@ public class HttpDataService implements DataService {
 
         if (logger != null)
             logger.accept("DEBUG: Obteniendo estados permitidos (ID=" + issueId + ", TID=" + trackerId + "): " + uri);
-        String json = HttpUtils.get(uri);
+        String json = get(uri);
         return JsonParser.parseAllowedStatuses(json);
     }
 
@@ -510,7 +852,7 @@ public class HttpDataService implements DataService {
         if (logger != null)
             logger.accept("DEBUG: Fetching Context Metadata (Statuses & CFs): " + uri);
 
-        String json = HttpUtils.get(uri);
+        String json = get(uri);
         return JsonParser.parseContextMetadata(json);
     }
 }
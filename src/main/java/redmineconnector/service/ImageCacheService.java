@@ -59,6 +59,18 @@ public class ImageCacheService {
         return null;
     }
 
+    /**
+     * File where an image is (or will be) cached, for callers that stream the
+     * download straight to disk instead of going through
+     * {@link #saveImage(String, byte[])}.
+     * 
+     * @param filename Original filename
+     * @return Cache file (may not exist yet)
+     */
+    public File cacheFileFor(String filename) {
+        return new File(cacheFolder, sanitize(filename));
+    }
+
     /**
      * Saves data to cache.
      * 
@@ -110,14 +110,14 @@ public class AppConstantsTest {
 
         runner.run("AppConstants - Thread pool configuration", () -> {
             SimpleTestRunner.assertTrue(
-                    AppConstants.ASYNC_CORE_POOL_SIZE > 0,
-                    "Core pool size should be positive");
+                    AppConstants.SCHEDULER_THREADS > 0,
+                    "Scheduler threads should be positive");
             SimpleTestRunner.assertTrue(
-                    AppConstants.ASYNC_MAX_POOL_SIZE >= AppConstants.ASYNC_CORE_POOL_SIZE,
-                    "Max pool size should be >= core pool size");
+                    AppConstants.SCHEDULER_RESERVED_THREADS < AppConstants.SCHEDULER_THREADS,
+                    "Reserved threads should leave threads for low-priority lanes");
             SimpleTestRunner.assertTrue(
-                    AppConstants.THREAD_KEEP_ALIVE_SEC > 0,
-                    "Thread keep-alive should be positive");
+                    AppConstants.SCHEDULER_AGING_MS >= 0,
+                    "Scheduler aging should not be negative");
         });
 
         runner.run("AppConstants - String constants not null", () -> {
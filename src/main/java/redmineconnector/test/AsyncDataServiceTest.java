@@ -1,15 +1,19 @@
 package redmineconnector.test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import redmineconnector.model.*;
 import redmineconnector.util.I18n;
 import redmineconnector.service.AsyncDataService;
 import redmineconnector.service.DataService;
+import redmineconnector.util.RequestScheduler;
 
 import static redmineconnector.test.SimpleTestRunner.*;
 
@@ -56,6 +60,62 @@ public class AsyncDataServiceTest {
                 throw new RuntimeException(e);
             }
         });
+        runner.run("testSlowCallsDoNotQueueBehindEachOther", () -> {
+            try {
+                testSlowCallsDoNotQueueBehindEachOther(AsyncDataService.ThreadMode.PLATFORM);
+                testSlowCallsDoNotQueueBehindEachOther(AsyncDataService.ThreadMode.AUTO);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        runner.run("testThreadModeParsing", () -> {
+            assertEquals(AsyncDataService.ThreadMode.VIRTUAL, AsyncDataService.ThreadMode.parse(" Virtual "),
+                    "Case-insensitive");
+            assertEquals(AsyncDataService.ThreadMode.PLATFORM, AsyncDataService.ThreadMode.parse("platform"),
+                    "Platform");
+            assertEquals(AsyncDataService.ThreadMode.AUTO, AsyncDataService.ThreadMode.parse("bogus"),
+                    "Unknown falls back to auto");
+            assertEquals(AsyncDataService.ThreadMode.AUTO, AsyncDataService.ThreadMode.parse(null), "Missing");
+        });
+        runner.run("testWithDeadline", () -> {
+            try {
+                testWithDeadline();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        runner.run("testDefaultDownloadReplacesTargetAtOnce", () -> {
+            try {
+                testDefaultDownloadReplacesTargetAtOnce();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    private static void testDefaultDownloadReplacesTargetAtOnce() throws Exception {
+        java.nio.file.Path dir = java.nio.file.Files.createTempDirectory("rc-download");
+        java.nio.file.Path target = dir.resolve("a.txt");
+        Attachment att = new Attachment(1, "a.txt", "", "text/plain", 0);
+        try {
+            java.nio.file.Files.write(target, "old".getBytes("UTF-8"));
+            try {
+                new FailingDataService().downloadAttachmentTo(att, target, null);
+                assertTrue(false, "Failure should propagate");
+            } catch (Exception expected) {
+                // target untouched
+            }
+            assertEquals("old", new String(java.nio.file.Files.readAllBytes(target), "UTF-8"), "Target kept");
+
+            new MockDataService().downloadAttachmentTo(att, target, null);
+            assertEquals(0L, java.nio.file.Files.size(target), "Target replaced");
+            try (java.util.stream.Stream<java.nio.file.Path> files = java.nio.file.Files.list(dir)) {
+                assertEquals(1L, files.count(), "No temporary file left");
+            }
+        } finally {
+            java.nio.file.Files.deleteIfExists(target);
+            java.nio.file.Files.deleteIfExists(dir);
+        }
     }
 
     private static void testFetchTasksAsync_Success() throws Exception {
@@ -117,6 +177,62 @@ public class AsyncDataServiceTest {
         }
     }
 
+    /**
+     * Every call blocks until all of them have started: passes only if the
+     * executor runs more calls at once than the old core pool size (3).
+     */
+    private static void testSlowCallsDoNotQueueBehindEachOther(AsyncDataService.ThreadMode mode)
+            throws Exception {
+        int calls = 6;
+        CountDownLatch started = new CountDownLatch(calls);
+        List<String> threadNames = Collections.synchronizedList(new ArrayList<>());
+        DataService slowService = new MockDataService() {
+            @Override
+            public Task fetchTaskDetails(int id) {
+                threadNames.add(Thread.currentThread().getName());
+                started.countDown();
+                try {
+                    started.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.fetchTaskDetails(id);
+            }
+        };
+        AsyncDataService asyncService = new AsyncDataService(slowService, mode, RequestScheduler.Lane.REFRESH);
+        try {
+            List<CompletableFuture<Task>> futures = new ArrayList<>();
+            for (int i = 0; i < calls; i++) {
+                futures.add(asyncService.fetchTaskDetailsAsync(i));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS), mode + ": all calls should run concurrently");
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+            String prefix = asyncService.isVirtualThreads() ? "AsyncDataService-virtual-" : "RequestScheduler-";
+            for (String name : threadNames) {
+                assertTrue(name.startsWith(prefix), "Unexpected thread " + name);
+            }
+        } finally {
+            asyncService.shutdown();
+        }
+    }
+
+    private static void testWithDeadline() throws Exception {
+        CompletableFuture<String> fast = CompletableFuture.completedFuture("ok");
+        assertEquals("ok", AsyncDataService.withDeadline(fast, 1000).get(5, TimeUnit.SECONDS), "Result passes");
+
+        CompletableFuture<String> slow = new CompletableFuture<>();
+        CompletableFuture<String> bounded = AsyncDataService.withDeadline(slow, 50);
+        try {
+            bounded.get(5, TimeUnit.SECONDS);
+            assertTrue(false, "Deadline should expire");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException, "Timed out: " + e.getCause());
+        }
+        assertTrue(!slow.isDone(), "Underlying call is left running");
+        slow.complete("late");
+        assertEquals("fallback", bounded.exceptionally(e -> "fallback").get(), "Deadline result stays");
+    }
+
     private static void testExceptionHandling() throws Exception {
         DataService failingService = new FailingDataService();
         AsyncDataService asyncService = new AsyncDataService(failingService);
@@ -0,0 +1,144 @@
+package redmineconnector.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import redmineconnector.service.BatchMutationEngine;
+import redmineconnector.service.BatchMutationEngine.Batch;
+import redmineconnector.service.BatchMutationEngine.Outcome;
+
+import static redmineconnector.test.SimpleTestRunner.*;
+
+/**
+ * Tests for BatchMutationEngine.
+ */
+public class BatchMutationEngineTest {
+
+    public static void runTests(SimpleTestRunner runner) {
+        System.out.println("\n=== BatchMutationEngine Tests ===");
+
+        runner.run("testConcurrencyIsBounded", () -> {
+            try {
+                testConcurrencyIsBounded();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        runner.run("testPerItemResultsAndRetryOfFailures", () -> {
+            try {
+                testPerItemResultsAndRetryOfFailures();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        runner.run("testCancelSkipsPendingItems", () -> {
+            try {
+                testCancelSkipsPendingItems();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    private static List<Integer> range(int n) {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 1; i <= n; i++) {
+            items.add(i);
+        }
+        return items;
+    }
+
+    private static void testConcurrencyIsBounded() throws Exception {
+        ExecutorService pool = Executors.newCachedThreadPool();
+        try {
+            BatchMutationEngine engine = new BatchMutationEngine(2, pool);
+            AtomicInteger inFlight = new AtomicInteger();
+            AtomicInteger peak = new AtomicInteger();
+            BatchMutationEngine.Mutation<Integer> slow = item -> {
+                peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                inFlight.decrementAndGet();
+            };
+            Batch<Integer> first = engine.submit("a", range(6), slow);
+            Batch<Integer> second = engine.submit("b", range(6), slow);
+            List<Integer> progress = Collections.synchronizedList(new ArrayList<>());
+            first.addListener(b -> progress.add(b.getCompleted()));
+
+            first.completion().get(5, TimeUnit.SECONDS);
+            second.completion().get(5, TimeUnit.SECONDS);
+            assertEquals(2, peak.get(), "Both batches share the two slots");
+            assertEquals(6, first.getSucceededCount(), "All items succeeded");
+            assertTrue(progress.contains(6), "Progress reported up to the last item: " + progress);
+            // The slot is released right after the last item completes the batch
+            long deadline = System.currentTimeMillis() + 5000;
+            while (engine.getRunning() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(0, engine.getRunning(), "Slots released");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void testPerItemResultsAndRetryOfFailures() throws Exception {
+        ExecutorService pool = Executors.newCachedThreadPool();
+        try {
+            BatchMutationEngine engine = new BatchMutationEngine(3, pool);
+            List<Integer> attempts = Collections.synchronizedList(new ArrayList<>());
+            AtomicInteger round = new AtomicInteger(1);
+            Batch<Integer> batch = engine.submit("update", range(5), item -> {
+                attempts.add(item);
+                if (item % 2 == 0 && round.get() == 1) {
+                    throw new IllegalStateException("HTTP 500 for " + item);
+                }
+            });
+            batch.completion().get(5, TimeUnit.SECONDS);
+            assertEquals(3, batch.getSucceededCount(), "Odd items succeeded");
+            assertEquals(2, batch.getFailedCount(), "Even items failed");
+            assertEquals(Outcome.FAILED, batch.getResults().get(1).getOutcome(), "Result kept per item");
+            assertTrue(batch.getResults().get(1).getError().getMessage().contains("500"), "Error kept");
+
+            round.set(2);
+            attempts.clear();
+            Batch<Integer> retry = batch.retryFailed();
+            retry.completion().get(5, TimeUnit.SECONDS);
+            Collections.sort(attempts);
+            assertEquals(Arrays.asList(2, 4), attempts, "Only failed items retried");
+            assertEquals(2, retry.getSucceededCount(), "Retry succeeded");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void testCancelSkipsPendingItems() throws Exception {
+        ExecutorService pool = Executors.newCachedThreadPool();
+        try {
+            BatchMutationEngine engine = new BatchMutationEngine(1, pool);
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            Batch<Integer> batch = engine.submit("close", range(4), item -> {
+                if (item == 1) {
+                    started.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                }
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS), "First item running");
+            batch.cancel();
+            release.countDown();
+            batch.completion().get(5, TimeUnit.SECONDS);
+            assertEquals(1, batch.getSucceededCount(), "Running item completes");
+            assertEquals(3, batch.getCancelledCount(), "Pending items skipped");
+            assertEquals(Arrays.asList(2, 3, 4), batch.getItems(Outcome.CANCELLED), "Cancelled items listed");
+            assertTrue(batch.retryFailed().isDone(), "Nothing to retry");
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
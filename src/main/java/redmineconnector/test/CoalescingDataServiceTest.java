@@ -0,0 +1,162 @@
+package redmineconnector.test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import redmineconnector.model.Task;
+import redmineconnector.service.CoalescingDataService;
+import redmineconnector.service.DataService;
+
+import static redmineconnector.test.SimpleTestRunner.*;
+
+/**
+ * Tests for CoalescingDataService.
+ */
+public class CoalescingDataServiceTest {
+
+    public static void runTests(SimpleTestRunner runner) {
+        System.out.println("\n=== CoalescingDataService Tests ===");
+
+        runner.run("testConcurrentReadsShareOneRequest", () -> {
+            try {
+                testConcurrentReadsShareOneRequest();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        runner.run("testFailureSharedAndNotRemembered", () -> {
+            try {
+                testFailureSharedAndNotRemembered();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        runner.run("testScopesAreIsolated", () -> {
+            try {
+                testScopesAreIsolated();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /**
+     * DataService whose fetchTaskDetails blocks on {@code gate} and counts its
+     * calls; every other method is unused here.
+     */
+    private static DataService blockingService(AtomicInteger calls, CountDownLatch gate, Exception failure) {
+        return (DataService) Proxy.newProxyInstance(DataService.class.getClassLoader(),
+                new Class<?>[] { DataService.class }, (proxy, method, args) -> {
+                    if (!"fetchTaskDetails".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    calls.incrementAndGet();
+                    gate.await(5, TimeUnit.SECONDS);
+                    if (failure != null) {
+                        throw failure;
+                    }
+                    Task t = new Task();
+                    t.id = (Integer) args[0];
+                    return t;
+                });
+    }
+
+    private static List<Thread> startReaders(CoalescingDataService service, int count, List<Object> results) {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Thread t = new Thread(() -> {
+                Object r;
+                try {
+                    r = service.fetchTaskDetails(42);
+                } catch (Exception e) {
+                    r = e;
+                }
+                synchronized (results) {
+                    results.add(r);
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        return threads;
+    }
+
+    private static void awaitCoalesced(CoalescingDataService service, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (service.getCoalescedCount() < expected && System.currentTimeMillis() < deadline)
+            Thread.sleep(5);
+    }
+
+    private static void testConcurrentReadsShareOneRequest() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch gate = new CountDownLatch(1);
+        CoalescingDataService service = new CoalescingDataService(blockingService(calls, gate, null),
+                "http://share|k");
+        List<Object> results = new ArrayList<>();
+
+        List<Thread> threads = startReaders(service, 5, results);
+        awaitCoalesced(service, 4);
+        gate.countDown();
+        for (Thread t : threads)
+            t.join(2000);
+
+        assertEquals(1, calls.get(), "Only one request should reach the delegate");
+        assertEquals(5, results.size(), "Every caller should get a result");
+        for (Object r : results)
+            assertTrue(r == results.get(0), "All callers should receive the same instance");
+        assertEquals(1L, service.getIssuedCount(), "Issued");
+        assertEquals(4L, service.getCoalescedCount(), "Saved requests");
+        assertEquals(0, CoalescingDataService.getInFlightCount(), "Nothing left in flight");
+    }
+
+    private static void testFailureSharedAndNotRemembered() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch gate = new CountDownLatch(1);
+        Exception failure = new java.io.IOException("HTTP Error 503");
+        CoalescingDataService service = new CoalescingDataService(blockingService(calls, gate, failure),
+                "http://fail|k");
+        List<Object> results = new ArrayList<>();
+
+        List<Thread> threads = startReaders(service, 3, results);
+        awaitCoalesced(service, 2);
+        gate.countDown();
+        for (Thread t : threads)
+            t.join(2000);
+
+        assertEquals(3, results.size(), "Every caller should finish");
+        for (Object r : results)
+            assertTrue(r == failure, "All callers should see the leader's exception: " + r);
+
+        // A failed flight is not cached: the next read goes to the server again
+        try {
+            service.fetchTaskDetails(42);
+        } catch (Exception expected) {
+        }
+        assertEquals(2, calls.get(), "Next read after failure should be issued");
+    }
+
+    private static void testScopesAreIsolated() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch gate = new CountDownLatch(1);
+        DataService delegate = blockingService(calls, gate, null);
+        CoalescingDataService userA = new CoalescingDataService(delegate, "http://same|keyA");
+        CoalescingDataService userB = new CoalescingDataService(delegate, "http://same|keyB");
+        List<Object> results = new ArrayList<>();
+
+        List<Thread> threads = startReaders(userA, 1, results);
+        threads.addAll(startReaders(userB, 1, results));
+        long deadline = System.currentTimeMillis() + 2000;
+        while (calls.get() < 2 && System.currentTimeMillis() < deadline)
+            Thread.sleep(5);
+        gate.countDown();
+        for (Thread t : threads)
+            t.join(2000);
+
+        assertEquals(2, calls.get(), "Different API keys must not share a request");
+        assertTrue(results.get(0) != results.get(1), "Separate results per scope");
+    }
+}
@@ -78,7 +78,7 @@ public class CustomFieldsTest {
         System.out.println("Testing Serialize Custom Fields...");
         Task t = new Task();
         t.subject = "New Task with CF";
-        t.description = "Desc";
+        t.setDescription("Desc");
         t.customFields.add(new CustomField(5, "MyField", "MyValue"));
         t.customFields.add(new CustomField(6, "OtherField", "OtherValue"));
 
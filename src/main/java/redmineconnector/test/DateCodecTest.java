@@ -0,0 +1,73 @@
+package redmineconnector.test;
+
+import java.text.SimpleDateFormat;
+import java.util.TimeZone;
+
+import redmineconnector.util.DateCodec;
+
+import static redmineconnector.test.SimpleTestRunner.*;
+
+/**
+ * Tests for DateCodec.
+ */
+public class DateCodecTest {
+
+    public static void runTests(SimpleTestRunner runner) {
+        System.out.println("\n=== DateCodec Tests ===");
+
+        runner.run("DateCodec - Redmine timestamp formats", () -> {
+            long utc = 1766398530000L; // 2025-12-22T10:15:30Z
+            assertEquals(utc, DateCodec.parseTimestamp("2025-12-22T10:15:30Z", -1), "Standard format");
+            assertEquals(utc + 123, DateCodec.parseTimestamp("2025-12-22T10:15:30.123Z", -1), "Milliseconds");
+            assertEquals(utc + 123, DateCodec.parseTimestamp("2025-12-22T10:15:30.123456Z", -1),
+                    "Extra fraction digits are dropped");
+            assertEquals(utc - 3600_000, DateCodec.parseTimestamp("2025-12-22T10:15:30+01:00", -1), "Offset");
+            assertEquals(utc + 5400_000, DateCodec.parseTimestamp("2025-12-22T10:15:30-0130", -1),
+                    "Negative offset without colon");
+        });
+
+        runner.run("DateCodec - Local timestamps match SimpleDateFormat", () -> {
+            try {
+                SimpleDateFormat local = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
+                assertEquals(local.parse("2025-07-01T08:30:00").getTime(),
+                        DateCodec.parseTimestamp("2025-07-01T08:30:00", -1), "No zone: local time");
+                assertEquals(new SimpleDateFormat("yyyy-MM-dd").parse("2024-02-29").getTime(),
+                        DateCodec.parseTimestamp("2024-02-29", -1), "Date only: local midnight");
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        runner.run("DateCodec - Malformed input returns the fallback", () -> {
+            String[] bad = { null, "", "2025-12-22T", "2025-13-01", "2023-02-29", "2025-12-22T25:00:00Z",
+                    "2025-12-22T10:15:30.Z", "2025-12-22T10:15:30Q", "22/12/2025", "2025-12-22 10:15:30" };
+            for (String s : bad) {
+                assertEquals(-7L, DateCodec.parseTimestamp(s, -7L), "Fallback for " + s);
+            }
+        });
+
+        runner.run("DateCodec - Days round-trip", () -> {
+            assertEquals(0, DateCodec.day(1970, 1, 1), "Epoch");
+            assertEquals(19782, DateCodec.day(2024, 2, 29), "Leap day");
+            assertEquals("2024-02-29", DateCodec.isoDay(19782), "ISO format");
+            assertEquals("29/02/2024", DateCodec.displayDay(19782), "Display format");
+            assertEquals("01/01/0999", DateCodec.displayDay(DateCodec.day(999, 1, 1)), "Padding");
+            for (int day = DateCodec.day(1999, 12, 1); day < DateCodec.day(2001, 3, 1); day++) {
+                assertEquals(day, DateCodec.parseIsoDay(DateCodec.isoDay(day)), "ISO round-trip");
+                assertEquals(day, DateCodec.parseDisplayDay(DateCodec.displayDay(day)), "Display round-trip");
+            }
+            assertEquals(DateCodec.NO_DAY, DateCodec.parseDisplayDay("31/04/2025"), "No 31 April");
+            assertEquals(DateCodec.NO_DAY, DateCodec.parseDisplayDay("1/4/2025"), "Two-digit fields");
+            assertEquals(19782, DateCodec.parseIsoDay("2024-02-29T23:59:59Z"), "Time part ignored");
+        });
+
+        runner.run("DateCodec - Local day of an instant", () -> {
+            long noon = DateCodec.startOfDay(19782) + 12 * 3600_000L;
+            assertEquals(19782, DateCodec.dayOf(noon), "Noon stays in its day");
+            assertEquals(19781, DateCodec.dayOf(DateCodec.startOfDay(19782) - 1), "Previous day");
+            SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
+            sdf.setTimeZone(TimeZone.getDefault());
+            assertEquals(sdf.format(new java.util.Date(noon)), DateCodec.displayDate(noon), "Same as SimpleDateFormat");
+        });
+    }
+}
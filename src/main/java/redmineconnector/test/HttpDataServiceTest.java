@@ -1,8 +1,23 @@
 package redmineconnector.test;
 
+import redmineconnector.http.HttpRequest;
+import redmineconnector.http.HttpResponse;
+import redmineconnector.http.HttpTransport;
+import redmineconnector.http.RetryPolicy;
+import redmineconnector.http.RetryingTransport;
+import redmineconnector.http.TransferListener;
+import redmineconnector.model.Attachment;
 import redmineconnector.model.Task;
 import redmineconnector.service.HttpDataService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Integration tests for HttpDataService using MockHttpServer.
@@ -145,7 +160,7 @@ public class HttpDataServiceTest {
 
                 Task newTask = new Task();
                 newTask.subject = "New Task";
-                newTask.description = "Description";
+                newTask.setDescription("Description");
 
                 int createdId = service.createTask("test-project", newTask);
 
@@ -556,5 +571,212 @@ public class HttpDataServiceTest {
                 mock.stop();
             }
         });
+
+        runner.run("HttpDataService - Parallel pagination by total_count", () -> {
+            final int total = 250;
+            java.util.concurrent.atomic.AtomicInteger calls = new java.util.concurrent.atomic.AtomicInteger();
+            redmineconnector.http.HttpTransport stub = request -> {
+                calls.incrementAndGet();
+                int limit = queryInt(request.getUrl(), "limit");
+                int offset = queryInt(request.getUrl(), "offset");
+                StringBuilder sb = new StringBuilder("{\"issues\":[");
+                for (int i = offset; i < Math.min(offset + limit, total); i++) {
+                    if (i > offset)
+                        sb.append(',');
+                    sb.append("{\"id\":").append(total - i).append(",\"subject\":\"T\"}");
+                }
+                sb.append("],\"total_count\":").append(total).append(",\"offset\":").append(offset)
+                        .append(",\"limit\":").append(limit).append('}');
+                return new redmineconnector.http.HttpResponse(200, request.getUrl(), null,
+                        sb.toString().getBytes("UTF-8"));
+            };
+
+            try {
+                HttpDataService service = new HttpDataService("http://stub.local", "k", null, stub);
+                List<Task> tasks = service.fetchTasks("p", false, 0);
+                SimpleTestRunner.assertEquals(total, tasks.size(), "All issues should be loaded");
+                SimpleTestRunner.assertEquals(3, calls.get(), "One request per page expected");
+                for (int i = 1; i < tasks.size(); i++) {
+                    SimpleTestRunner.assertTrue(tasks.get(i - 1).id > tasks.get(i).id, "Order id:desc must be kept");
+                }
+
+                calls.set(0);
+                List<Task> limited = service.fetchTasks("p", false, 150);
+                SimpleTestRunner.assertEquals(150, limited.size(), "Limit should be honoured");
+                SimpleTestRunner.assertEquals(2, calls.get(), "Only needed pages should be requested");
+            } catch (Exception e) {
+                throw new RuntimeException("Test failed: " + e.getMessage(), e);
+            }
+        });
+
+        runner.run("HttpDataService - Pagination drops duplicates across pages", () -> {
+            // Page 2 repeats the last id of page 1 (issue created while paging)
+            redmineconnector.http.HttpTransport stub = request -> {
+                int offset = queryInt(request.getUrl(), "offset");
+                StringBuilder sb = new StringBuilder("{\"issues\":[");
+                int start = offset == 0 ? 200 : 101;
+                int count = offset == 0 ? 100 : 50;
+                for (int i = 0; i < count; i++) {
+                    if (i > 0)
+                        sb.append(',');
+                    sb.append("{\"id\":").append(start - i).append('}');
+                }
+                sb.append("],\"total_count\":150}");
+                return new redmineconnector.http.HttpResponse(200, request.getUrl(), null,
+                        sb.toString().getBytes("UTF-8"));
+            };
+
+            try {
+                HttpDataService service = new HttpDataService("http://stub.local", "k", null, stub);
+                List<Task> tasks = service.fetchTasks("p", false, 0);
+                SimpleTestRunner.assertEquals(149, tasks.size(), "Duplicated id should be dropped");
+            } catch (Exception e) {
+                throw new RuntimeException("Test failed: " + e.getMessage(), e);
+            }
+        });
+
+        runner.run("HttpDataService - Delta fetch filters by updated_on", () -> {
+            List<String> urls = new java.util.ArrayList<>();
+            redmineconnector.http.HttpTransport stub = request -> {
+                urls.add(request.getUrl());
+                String body = "{\"issues\":[{\"id\":5,\"subject\":\"Changed\",\"updated_on\":\"2024-05-05T09:00:00Z\"}],\"total_count\":1}";
+                return new redmineconnector.http.HttpResponse(200, request.getUrl(), null, body.getBytes("UTF-8"));
+            };
+
+            try {
+                HttpDataService service = new HttpDataService("http://stub.local", "k", null, stub);
+                List<Task> changed = service.fetchTasksUpdatedSince("p", "2024-05-01T00:00:00Z");
+                SimpleTestRunner.assertEquals(1, changed.size(), "One changed task expected");
+                SimpleTestRunner.assertEquals("2024-05-05T09:00:00Z", changed.get(0).updatedOn, "updated_on parsed");
+                SimpleTestRunner.assertTrue(urls.get(0).contains("updated_on=%3E%3D2024-05-01T00%3A00%3A00Z"),
+                        "Filter should be >= mark: " + urls.get(0));
+                SimpleTestRunner.assertTrue(urls.get(0).contains("status_id=*"), "Closed tasks must be included");
+            } catch (Exception e) {
+                throw new RuntimeException("Test failed: " + e.getMessage(), e);
+            }
+        });
+
+        runner.run("HttpDataService - Attachment downloads use the service transport", () -> {
+            List<String> requests = new java.util.ArrayList<>();
+            HttpTransport stub = request -> {
+                requests.add(request.getUrl());
+                return new HttpResponse(200, request.getUrl(), null, "data".getBytes(StandardCharsets.UTF_8));
+            };
+            Path dir = null;
+            try {
+                dir = Files.createTempDirectory("rc-stub");
+                HttpDataService service = new HttpDataService("http://stub.local", "k", null, stub);
+                Attachment att = new Attachment(3, "a.txt", null, "text/plain", 4);
+                byte[] bytes = service.downloadAttachment(att);
+                SimpleTestRunner.assertEquals("data", new String(bytes, StandardCharsets.UTF_8), "In memory");
+                service.downloadAttachmentTo(att, dir.resolve("a.txt"), null);
+                SimpleTestRunner.assertEquals("data", new String(Files.readAllBytes(dir.resolve("a.txt")),
+                        StandardCharsets.UTF_8), "To disk");
+                SimpleTestRunner.assertEquals(2, requests.size(), "Both downloads reach the stub");
+                SimpleTestRunner.assertTrue(requests.get(1).startsWith("http://stub.local/attachments/download/3"),
+                        "Attachment URL: " + requests.get(1));
+            } catch (Exception e) {
+                throw new RuntimeException("Test failed: " + e.getMessage(), e);
+            } finally {
+                deleteTree(dir);
+            }
+        });
+
+        runner.run("HttpDataService - Resume of a replaced attachment starts over (If-Range honoured)", () -> {
+            List<String> ranges = new java.util.ArrayList<>();
+            byte[] result = downloadReplacedAttachment(true, ranges);
+            SimpleTestRunner.assertTrue(Arrays.equals(REPLACED, result), "New version, not a splice of both");
+            SimpleTestRunner.assertEquals(Arrays.asList("null null", "bytes=10- \"v1\""), ranges,
+                    "Resume sends Range with the first validator");
+        });
+
+        runner.run("HttpDataService - Resume of a replaced attachment starts over (If-Range ignored)", () -> {
+            List<String> ranges = new java.util.ArrayList<>();
+            byte[] result = downloadReplacedAttachment(false, ranges);
+            SimpleTestRunner.assertTrue(Arrays.equals(REPLACED, result), "New version, not a splice of both");
+            SimpleTestRunner.assertEquals(Arrays.asList("null null", "bytes=10- \"v1\"", "null null"), ranges,
+                    "A 206 of another version is dropped and the file downloaded again");
+        });
+    }
+
+    private static final byte[] ORIGINAL = "first version of the file".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] REPLACED = "other version, same size!".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Downloads through a stub transport whose first attempt is cut after 10
+     * bytes of {@link #ORIGINAL}; the attachment is {@link #REPLACED} (same
+     * size) before the retry.
+     *
+     * @param honourIfRange whether the stub answers a stale If-Range with the
+     *                      whole new file or, ignoring it, with a 206 tail
+     * @param ranges        receives "Range If-Range" of each attempt
+     */
+    private static byte[] downloadReplacedAttachment(boolean honourIfRange, List<String> ranges) {
+        HttpTransport stub = new HttpTransport() {
+            @Override
+            public HttpResponse execute(HttpRequest request) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public HttpResponse download(HttpRequest request, Path target, TransferListener listener)
+                    throws IOException {
+                String range = request.getHeaders().get("Range");
+                ranges.add(range + " " + request.getHeaders().get("If-Range"));
+                if (ranges.size() == 1) {
+                    listener.onHeaders(response(request, 200, "\"v1\"", null));
+                    Files.write(target, Arrays.copyOf(ORIGINAL, 10));
+                    throw new java.net.SocketException("Connection reset");
+                }
+                if (range != null && !honourIfRange) {
+                    listener.onHeaders(response(request, 206, "\"v2\"",
+                            "bytes 10-" + (REPLACED.length - 1) + "/" + REPLACED.length));
+                    throw new AssertionError("A tail of another version must not be written");
+                }
+                listener.onHeaders(response(request, 200, "\"v2\"", null));
+                Files.write(target, REPLACED);
+                return response(request, 200, "\"v2\"", null);
+            }
+        };
+        Path dir = null;
+        try {
+            dir = Files.createTempDirectory("rc-ifrange");
+            HttpDataService service = new HttpDataService("http://stub.local", "k", null,
+                    new RetryingTransport(stub, new RetryPolicy(3, 0, 0, true)));
+            Path target = dir.resolve("f.bin");
+            service.downloadAttachmentTo(new Attachment(4, "f.bin", null, "application/octet-stream",
+                    REPLACED.length), target, null);
+            return Files.readAllBytes(target);
+        } catch (Exception e) {
+            throw new RuntimeException("Test failed: " + e.getMessage(), e);
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    private static HttpResponse response(HttpRequest request, int status, String etag, String contentRange) {
+        Map<String, List<String>> headers = new java.util.HashMap<>();
+        headers.put("ETag", Collections.singletonList(etag));
+        if (contentRange != null) {
+            headers.put("Content-Range", Collections.singletonList(contentRange));
+        }
+        return new HttpResponse(status, request.getUrl(), headers, null);
+    }
+
+    private static void deleteTree(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (java.util.stream.Stream<Path> files = Files.list(dir)) {
+            for (Path f : (Iterable<Path>) files::iterator)
+                Files.deleteIfExists(f);
+            Files.deleteIfExists(dir);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static int queryInt(String url, String name) {
+        java.util.regex.Matcher m = java.util.regex.Pattern.compile("[?&]" + name + "=(\\d+)").matcher(url);
+        return m.find() ? Integer.parseInt(m.group(1)) : 0;
     }
 }
@@ -0,0 +1,778 @@
+package redmineconnector.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.sun.net.httpserver.HttpServer;
+
+import redmineconnector.http.CancellationToken;
+import redmineconnector.http.CircuitBreaker;
+import redmineconnector.http.CircuitOpenException;
+import redmineconnector.http.HostLimiter;
+import redmineconnector.http.HttpClientPool;
+import redmineconnector.http.HttpMetrics;
+import redmineconnector.http.HttpRequest;
+import redmineconnector.http.HttpResponse;
+import redmineconnector.http.HttpTransport;
+import redmineconnector.http.RequestCancelledException;
+import redmineconnector.http.RetryPolicy;
+import redmineconnector.http.RetryingTransport;
+import redmineconnector.http.TransferListener;
+import redmineconnector.http.UrlConnectionTransport;
+import redmineconnector.model.Task;
+import redmineconnector.service.HttpDataService;
+import redmineconnector.util.JsonParser;
+
+/**
+ * Tests for the pooled HTTP transport layer.
+ */
+public class HttpTransportTest {
+
+    public static void runTests(SimpleTestRunner runner) {
+
+        runner.run("HttpClientPool - Same origin shares transport", () -> {
+            HttpTransport a = HttpClientPool.forUrl("https://redmine.example.org/issues.json?key=x");
+            HttpTransport b = HttpClientPool.forUrl("https://REDMINE.example.org:443/projects/p.json");
+            HttpTransport c = HttpClientPool.forUrl("http://redmine.example.org/issues.json");
+
+            SimpleTestRunner.assertTrue(a == b, "Same scheme/host/port should share one transport");
+            SimpleTestRunner.assertTrue(a != c, "Different scheme should use another transport");
+        });
+
+        runner.run("HttpClientPool - Configure connection limit", () -> {
+            HttpClientPool.configure("https://limits.example.org", 3);
+            UrlConnectionTransport t = (UrlConnectionTransport) HttpClientPool.forUrl("https://limits.example.org");
+            SimpleTestRunner.assertEquals(3, t.getMaxConnections(), "Limit should be applied");
+
+            HttpClientPool.configure("https://limits.example.org", 8);
+            SimpleTestRunner.assertEquals(8, t.getMaxConnections(), "Limit should grow");
+            SimpleTestRunner.assertEquals(0, t.getActiveConnections(), "No connections in use");
+        });
+
+        runner.run("HttpDataService - Uses injected transport", () -> {
+            List<HttpRequest> sent = new ArrayList<>();
+            HttpTransport stub = request -> {
+                sent.add(request);
+                String body = "{\"issues\":[{\"id\":7,\"subject\":\"Stub\"}],\"total_count\":1}";
+                return new HttpResponse(200, request.getUrl(), null, body.getBytes("UTF-8"));
+            };
+
+            HttpDataService service = new HttpDataService("http://stub.local/", "k1", null, stub);
+            try {
+                List<Task> tasks = service.fetchTasks("p", false, 10);
+                SimpleTestRunner.assertEquals(1, tasks.size(), "Should parse one task");
+                SimpleTestRunner.assertEquals(1, sent.size(), "One request expected");
+                SimpleTestRunner.assertEquals("k1", sent.get(0).getApiKey(), "API key should be sent as header");
+                SimpleTestRunner.assertEquals("GET", sent.get(0).getMethod(), "Method should be GET");
+            } catch (Exception e) {
+                throw new RuntimeException("Test failed: " + e.getMessage(), e);
+            }
+        });
+
+        runner.run("HttpResponse - ensureSuccess keeps legacy message", () -> {
+            HttpResponse resp = new HttpResponse(422, "http://x/issues.json", null, "{\"errors\":[]}".getBytes());
+            try {
+                resp.ensureSuccess();
+                throw new AssertionError("Should have thrown");
+            } catch (java.io.IOException e) {
+                SimpleTestRunner.assertTrue(e.getMessage().startsWith("HTTP Error 422 for URL: http://x/issues.json"),
+                        "Unexpected message: " + e.getMessage());
+            }
+        });
+    
+        runner.run("UrlConnectionTransport - gzip responses are decoded and counted", () -> {
+            StringBuilder sb = new StringBuilder("{\"issues\":[");
+            for (int i = 1; i <= 200; i++)
+                sb.append(i > 1 ? "," : "").append("{\"id\":").append(i).append(",\"subject\":\"Tarea repetida\"}");
+            byte[] plain = sb.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+            String[] acceptEncoding = new String[1];
+
+            HttpServer server = null;
+            try {
+                server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+                server.createContext("/issues.json", exchange -> {
+                    acceptEncoding[0] = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+                    ByteArrayOutputStream gz = new ByteArrayOutputStream();
+                    try (GZIPOutputStream out = new GZIPOutputStream(gz)) {
+                        out.write(plain);
+                    }
+                    exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                    exchange.sendResponseHeaders(200, gz.size());
+                    try (OutputStream os = exchange.getResponseBody()) {
+                        gz.writeTo(os);
+                    }
+                });
+                server.start();
+                String base = "http://127.0.0.1:" + server.getAddress().getPort();
+                UrlConnectionTransport t = new UrlConnectionTransport(base, 2, 5000);
+
+                HttpResponse resp = t.execute(HttpRequest.get(base + "/issues.json"));
+                SimpleTestRunner.assertTrue(acceptEncoding[0] != null && acceptEncoding[0].contains("gzip"),
+                        "Accept-Encoding should advertise gzip");
+                SimpleTestRunner.assertEquals(plain.length, resp.getBody().length, "Body should be inflated");
+                SimpleTestRunner.assertEquals(200, JsonParser.parseIssues(resp.getBody()).size(), "Parsed issues");
+                SimpleTestRunner.assertEquals((long) plain.length, t.getBytesReceivedDecoded(), "Decoded bytes");
+                SimpleTestRunner.assertTrue(t.getBytesReceivedWire() < plain.length / 5,
+                        "Wire bytes should be compressed: " + t.getBytesReceivedWire());
+            } catch (java.io.IOException e) {
+                throw new RuntimeException("Test failed: " + e.getMessage(), e);
+            } finally {
+                if (server != null)
+                    server.stop(0);
+            }
+        });
+    
+        runner.run("UrlConnectionTransport - 304 revalidation served from validator cache", () -> {
+            byte[] statuses = "{\"issue_statuses\":[{\"id\":1,\"name\":\"Nuevo\"}]}".getBytes(StandardCharsets.UTF_8);
+            int[] fullResponses = new int[1];
+
+            HttpServer server = null;
+            try {
+                server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+                server.createContext("/issue_statuses.json", exchange -> {
+                    if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                        exchange.sendResponseHeaders(304, -1);
+                        exchange.close();
+                        return;
+                    }
+                    fullResponses[0]++;
+                    exchange.getResponseHeaders().add("ETag", "\"v1\"");
+                    exchange.sendResponseHeaders(200, statuses.length);
+                    try (OutputStream os = exchange.getResponseBody()) {
+                        os.write(statuses);
+                    }
+                });
+                server.start();
+                String base = "http://127.0.0.1:" + server.getAddress().getPort();
+                UrlConnectionTransport t = new UrlConnectionTransport(base, 2, 5000);
+
+                HttpResponse first = t.execute(HttpRequest.get(base + "/issue_statuses.json").revalidate());
+                HttpResponse second = t.execute(HttpRequest.get(base + "/issue_statuses.json").revalidate());
+                HttpResponse plain = t.execute(HttpRequest.get(base + "/issue_statuses.json"));
+
+                SimpleTestRunner.assertTrue(!first.isNotModified(), "First request downloads the body");
+                SimpleTestRunner.assertTrue(second.isNotModified(), "Second request should be a 304 hit");
+                SimpleTestRunner.assertEquals(200, second.getStatus(), "Cached hit is reported as 200");
+                SimpleTestRunner.assertEquals(first.getBodyAsString(), second.getBodyAsString(), "Same body");
+                SimpleTestRunner.assertTrue(!plain.isNotModified(), "Non-revalidating GET is unconditional");
+                SimpleTestRunner.assertEquals(2, fullResponses[0], "Only unconditional requests download");
+                SimpleTestRunner.assertEquals(1L, t.getValidatorCache().getHits(), "One hit");
+                SimpleTestRunner.assertEquals(1L, t.getValidatorCache().getMisses(), "One miss");
+            } catch (java.io.IOException e) {
+                throw new RuntimeException("Test failed: " + e.getMessage(), e);
+            } finally {
+                if (server != null)
+                    server.stop(0);
+            }
+        });
+    
+        runner.run("RetryingTransport - Retries transient failures of idempotent requests", () -> {
+            int[] calls = new int[1];
+            HttpTransport flaky = request -> {
+                calls[0]++;
+                if (calls[0] == 1)
+                    throw new java.net.ConnectException("Connection reset");
+                if (calls[0] == 2) {
+                    java.util.Map<String, List<String>> h = new java.util.HashMap<>();
+                    h.put("Retry-After", java.util.Collections.singletonList("0"));
+                    return new HttpResponse(503, request.getUrl(), h, new byte[0]);
+                }
+                return new HttpResponse(200, request.getUrl(), null, "{}".getBytes());
+            };
+            RetryingTransport t = new RetryingTransport(flaky, new RetryPolicy(3, 5, 20, true));
+            try {
+                HttpResponse resp = t.execute(HttpRequest.get("http://x/issues.json"));
+                SimpleTestRunner.assertEquals(200, resp.getStatus(), "Third attempt should succeed");
+                SimpleTestRunner.assertEquals(3, calls[0], "Three attempts expected");
+                SimpleTestRunner.assertEquals(2L, t.getRetryCount(), "Two retries recorded");
+                SimpleTestRunner.assertEquals(0L, t.getExhaustedCount(), "Nothing exhausted");
+
+                calls[0] = 0;
+                try {
+                    t.execute(HttpRequest.post("http://x/issues.json").jsonBody("{}"));
+                    throw new AssertionError("POST should not be retried");
+                } catch (java.net.ConnectException expected) {
+                    SimpleTestRunner.assertEquals(1, calls[0], "POST is sent once");
+                }
+
+                calls[0] = 0;
+                try {
+                    t.execute(HttpRequest.put("http://x/issues/1.json").jsonBody("{}"));
+                    throw new AssertionError("Plain PUT should not be retried");
+                } catch (java.net.ConnectException expected) {
+                    SimpleTestRunner.assertEquals(1, calls[0], "Non-idempotent PUT is sent once");
+                }
+
+                calls[0] = 0;
+                resp = t.execute(HttpRequest.put("http://x/versions/1.json").jsonBody("{}").idempotent());
+                SimpleTestRunner.assertEquals(200, resp.getStatus(), "Idempotent PUT is retried");
+            } catch (java.io.IOException e) {
+                throw new RuntimeException("Test failed: " + e.getMessage(), e);
+            }
+        });
+
+        runner.run("RetryPolicy - Backoff grows with jitter and Retry-After parsing", () -> {
+            RetryPolicy p = new RetryPolicy(5, 100, 1000, false);
+            for (int i = 0; i < 20; i++) {
+                long d1 = p.backoffMs(1), d3 = p.backoffMs(3), d9 = p.backoffMs(9);
+                SimpleTestRunner.assertTrue(d1 >= 50 && d1 <= 100, "retry 1 in [50,100]: " + d1);
+                SimpleTestRunner.assertTrue(d3 >= 200 && d3 <= 400, "retry 3 in [200,400]: " + d3);
+                SimpleTestRunner.assertTrue(d9 >= 500 && d9 <= 1000, "capped at max: " + d9);
+            }
+            SimpleTestRunner.assertEquals(120_000L, RetryPolicy.parseRetryAfter("120"), "delta-seconds");
+            SimpleTestRunner.assertEquals(-1L, RetryPolicy.parseRetryAfter("soon"), "invalid value");
+            SimpleTestRunner.assertTrue(!p.isRetryable(HttpRequest.put("http://x").idempotent()),
+                    "PUT retries disabled by policy");
+        });
+    
+        runner.run("HostLimiter - Shared per host with observable queue", () -> {
+            HostLimiter a = HostLimiter.forUrl("https://queue.example.org/issues.json", 1);
+            HostLimiter b = HostLimiter.forUrl("http://QUEUE.example.org:8080/");
+            SimpleTestRunner.assertTrue(a == b, "Scheme and port should not split the host budget");
+            a.setLimit(1);
+            try {
+                a.acquire();
+                Thread waiter = new Thread(() -> {
+                    try {
+                        a.acquire();
+                        a.release();
+                    } catch (InterruptedException ignored) {
+                    }
+                });
+                waiter.start();
+                long deadline = System.currentTimeMillis() + 2000;
+                while (a.getQueueDepth() == 0 && System.currentTimeMillis() < deadline)
+                    Thread.sleep(5);
+                SimpleTestRunner.assertEquals(1, a.getQueueDepth(), "Second caller should queue");
+                SimpleTestRunner.assertEquals(1, a.getInFlight(), "One request in flight");
+                a.release();
+                waiter.join(2000);
+                SimpleTestRunner.assertEquals(0, a.getQueueDepth(), "Queue drained");
+                SimpleTestRunner.assertEquals(0, a.getInFlight(), "All permits returned");
+                SimpleTestRunner.assertEquals(1, a.getPeakQueueDepth(), "Peak depth recorded");
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    
+        runner.run("UrlConnectionTransport - Streams downloads to disk with progress and cancellation", () -> {
+            byte[] payload = new byte[300 * 1024];
+            for (int i = 0; i < payload.length; i++)
+                payload[i] = (byte) (i * 31);
+
+            HttpServer server = null;
+            Path dir = null;
+            try {
+                server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+                server.createContext("/attachments/download/1/big.bin", exchange -> {
+                    exchange.sendResponseHeaders(200, payload.length);
+                    try (OutputStream os = exchange.getResponseBody()) {
+                        os.write(payload);
+                    }
+                });
+                server.start();
+                String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/attachments/download/1/big.bin";
+                UrlConnectionTransport t = new UrlConnectionTransport(url, 2, 5000);
+                dir = Files.createTempDirectory("rc-download");
+
+                Path target = dir.resolve("big.bin");
+                long[] last = { -1, -1 };
+                HttpResponse resp = t.download(HttpRequest.get(url), target, (done, total) -> {
+                    last[0] = done;
+                    last[1] = total;
+                });
+                SimpleTestRunner.assertEquals(200, resp.getStatus(), "Status");
+                SimpleTestRunner.assertEquals(0, resp.getBody().length, "Body should not be buffered");
+                SimpleTestRunner.assertTrue(Arrays.equals(payload, Files.readAllBytes(target)), "File content");
+                SimpleTestRunner.assertEquals((long) payload.length, last[0], "Progress should reach the end");
+                SimpleTestRunner.assertEquals((long) payload.length, last[1], "Total from Content-Length");
+
+                Path cancelled = dir.resolve("cancelled.bin");
+                boolean interrupted = false;
+                try {
+                    t.download(HttpRequest.get(url), cancelled, new TransferListener() {
+                        @Override
+                        public void onProgress(long done, long total) {
+                        }
+
+                        @Override
+                        public boolean isCancelled() {
+                            return true;
+                        }
+                    });
+                } catch (InterruptedIOException expected) {
+                    interrupted = true;
+                }
+                SimpleTestRunner.assertTrue(interrupted, "Cancelled download should abort");
+            } catch (java.io.IOException e) {
+                throw new RuntimeException("Test failed: " + e.getMessage(), e);
+            } finally {
+                if (server != null)
+                    server.stop(0);
+                if (dir != null) {
+                    try (java.util.stream.Stream<Path> files = Files.list(dir)) {
+                        for (Path f : (Iterable<Path>) files::iterator)
+                            Files.deleteIfExists(f);
+                        Files.deleteIfExists(dir);
+                    } catch (java.io.IOException ignored) {
+                    }
+                }
+            }
+        });
+    
+        runner.run("UrlConnectionTransport - Streams file uploads with fixed length and retries them", () -> {
+            byte[] payload = new byte[200 * 1024];
+            for (int i = 0; i < payload.length; i++)
+                payload[i] = (byte) (i * 7);
+            String[] contentLength = new String[1];
+            byte[][] received = new byte[1][];
+
+            HttpServer server = null;
+            Path file = null;
+            try {
+                server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+                server.createContext("/uploads.json", exchange -> {
+                    contentLength[0] = exchange.getRequestHeaders().getFirst("Content-Length");
+                    ByteArrayOutputStream body = new ByteArrayOutputStream();
+                    byte[] buf = new byte[8192];
+                    int n;
+                    while ((n = exchange.getRequestBody().read(buf)) != -1)
+                        body.write(buf, 0, n);
+                    received[0] = body.toByteArray();
+                    byte[] resp = "{\"upload\":{\"token\":\"7.abc\"}}".getBytes(StandardCharsets.UTF_8);
+                    exchange.sendResponseHeaders(201, resp.length);
+                    try (OutputStream os = exchange.getResponseBody()) {
+                        os.write(resp);
+                    }
+                });
+                server.start();
+                String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/uploads.json";
+                UrlConnectionTransport t = new UrlConnectionTransport(url, 2, 5000);
+                file = Files.createTempFile("rc-upload", ".bin");
+                Files.write(file, payload);
+
+                long[] last = { -1 };
+                HttpResponse resp = t.execute(HttpRequest.post(url).body(file, "application/octet-stream")
+                        .progress((done, total) -> last[0] = done));
+                SimpleTestRunner.assertEquals(201, resp.getStatus(), "Status");
+                SimpleTestRunner.assertEquals(String.valueOf(payload.length), contentLength[0],
+                        "Fixed Content-Length from file size");
+                SimpleTestRunner.assertTrue(Arrays.equals(payload, received[0]), "Uploaded content");
+                SimpleTestRunner.assertEquals((long) payload.length, last[0], "Progress should reach the end");
+                SimpleTestRunner.assertEquals((long) payload.length, t.getBytesSentWire(), "Sent bytes counted");
+
+                RetryPolicy noPuts = new RetryPolicy(2, 0, 0, false);
+                SimpleTestRunner.assertTrue(noPuts.isRetryable(HttpRequest.post(url).body(file, null).idempotent()),
+                        "Idempotent upload POST should be retryable");
+                SimpleTestRunner.assertTrue(!noPuts.isRetryable(HttpRequest.post(url).jsonBody("{}")),
+                        "Plain POST must not be retried");
+
+                int[] attempts = { 0 };
+                Path source = file;
+                HttpTransport flaky = request -> {
+                    attempts[0]++;
+                    SimpleTestRunner.assertTrue(request.getBodyFile() == source, "Same file reopened on retry");
+                    if (attempts[0] == 1)
+                        throw new java.net.ConnectException("Connection reset");
+                    return new HttpResponse(201, url, null, "{}".getBytes(StandardCharsets.UTF_8));
+                };
+                new RetryingTransport(flaky, noPuts).execute(HttpRequest.post(url).body(file, null).idempotent());
+                SimpleTestRunner.assertEquals(2, attempts[0], "Upload retried once");
+            } catch (java.io.IOException e) {
+                throw new RuntimeException("Test failed: " + e.getMessage(), e);
+            } finally {
+                if (server != null)
+                    server.stop(0);
+                if (file != null) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (java.io.IOException ignored) {
+                    }
+                }
+            }
+        });
+    
+        runner.run("UrlConnectionTransport - Streams JSON bodies with fixed length", () -> {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < 20000; i++)
+                text.append("h1. Línea ").append(i).append(" \"cita\" \u0001 \uD83D\uDE00\n");
+            String content = text.toString();
+            String[] contentLength = new String[2];
+            byte[][] received = new byte[2][];
+
+            HttpServer server = null;
+            try {
+                server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+                server.createContext("/wiki.json", exchange -> {
+                    int i = "gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding")) ? 1 : 0;
+                    contentLength[i] = exchange.getRequestHeaders().getFirst("Content-Length");
+                    ByteArrayOutputStream body = new ByteArrayOutputStream();
+                    byte[] buf = new byte[8192];
+                    int n;
+                    while ((n = exchange.getRequestBody().read(buf)) != -1)
+                        body.write(buf, 0, n);
+                    received[i] = body.toByteArray();
+                    exchange.sendResponseHeaders(204, -1);
+                    exchange.close();
+                });
+                server.start();
+                String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/wiki.json";
+                UrlConnectionTransport t = new UrlConnectionTransport(url, 2, 5000);
+
+                HttpResponse resp = t.execute(HttpRequest.put(url).jsonBody(JsonParser.wikiPageBody(content, "c")));
+                SimpleTestRunner.assertEquals(204, resp.getStatus(), "Status");
+                SimpleTestRunner.assertEquals(String.valueOf(received[0].length), contentLength[0],
+                        "Fixed Content-Length from the measured body");
+                byte[] expected = JsonParser.serializeWikiPage(content, "c").getBytes(StandardCharsets.UTF_8);
+                SimpleTestRunner.assertTrue(Arrays.equals(expected, received[0]), "Streamed body");
+                SimpleTestRunner.assertEquals(content,
+                        JsonParser.parseWikiPageContent(received[0]).text, "Text survives the round trip");
+                SimpleTestRunner.assertEquals((long) expected.length, t.getBytesSentWire(), "Sent bytes counted");
+
+                t.setCompressRequests(true);
+                t.execute(HttpRequest.put(url).jsonBody(JsonParser.wikiPageBody(content, "c")));
+                SimpleTestRunner.assertEquals(String.valueOf(received[1].length), contentLength[1],
+                        "Fixed Content-Length of the compressed body");
+                ByteArrayOutputStream inflated = new ByteArrayOutputStream();
+                try (GZIPInputStream in = new GZIPInputStream(new java.io.ByteArrayInputStream(received[1]))) {
+                    byte[] buf = new byte[8192];
+                    int n;
+                    while ((n = in.read(buf)) != -1)
+                        inflated.write(buf, 0, n);
+                }
+                SimpleTestRunner.assertTrue(Arrays.equals(expected, inflated.toByteArray()), "Compressed body");
+
+                t.setCompressRequests(false);
+                byte[] small = JsonParser.serializeWikiPage("h1. Corta", "c").getBytes(StandardCharsets.UTF_8);
+                for (int i = 0; i < 2; i++) {
+                    t.execute(HttpRequest.put(url).jsonBody(JsonParser.wikiPageBody("h1. Corta", "c")));
+                    SimpleTestRunner.assertTrue(Arrays.equals(small, received[0]), "Reused buffer holds only this body");
+                }
+            } catch (java.io.IOException e) {
+                throw new RuntimeException("Test failed: " + e.getMessage(), e);
+            } finally {
+                if (server != null)
+                    server.stop(0);
+            }
+        });
+
+        runner.run("HttpDataService - Interrupted download resumes with Range", () -> {
+            byte[] payload = new byte[256 * 1024];
+            for (int i = 0; i < payload.length; i++)
+                payload[i] = (byte) (i * 13);
+            List<String> ranges = new ArrayList<>();
+            List<String> ifRanges = new ArrayList<>();
+
+            HttpServer server = null;
+            Path dir = null;
+            try {
+                server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+                server.createContext("/attachments/download/9/big.zip", exchange -> {
+                    String range = exchange.getRequestHeaders().getFirst("Range");
+                    ranges.add(String.valueOf(range));
+                    ifRanges.add(String.valueOf(exchange.getRequestHeaders().getFirst("If-Range")));
+                    exchange.getResponseHeaders().add("ETag", "\"big-1\"");
+                    if (range == null) {
+                        // First attempt dies half way through the body
+                        exchange.sendResponseHeaders(200, payload.length);
+                        OutputStream os = exchange.getResponseBody();
+                        os.write(payload, 0, payload.length / 2);
+                        os.flush();
+                        exchange.close();
+                        return;
+                    }
+                    int start = Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+                    exchange.getResponseHeaders().add("Content-Range",
+                            "bytes " + start + "-" + (payload.length - 1) + "/" + payload.length);
+                    exchange.sendResponseHeaders(206, payload.length - start);
+                    try (OutputStream os = exchange.getResponseBody()) {
+                        os.write(payload, start, payload.length - start);
+                    }
+                });
+                server.start();
+                String base = "http://127.0.0.1:" + server.getAddress().getPort();
+                HttpDataService service = new HttpDataService(base, "k", null,
+                        new RetryingTransport(HttpClientPool.forUrl(base), new RetryPolicy(2, 0, 0, true)));
+                dir = Files.createTempDirectory("rc-resume");
+                Path target = dir.resolve("big.zip");
+                redmineconnector.model.Attachment att = new redmineconnector.model.Attachment(9, "big.zip",
+                        base + "/attachments/download/9/big.zip", "application/zip", payload.length);
+
+                service.downloadAttachmentTo(att, target, null);
+
+                SimpleTestRunner.assertEquals(2, ranges.size(), "One interrupted attempt and one resume");
+                SimpleTestRunner.assertEquals("null", ranges.get(0), "First attempt asks for everything");
+                SimpleTestRunner.assertTrue(ranges.get(1).startsWith("bytes=") && !ranges.get(1).equals("bytes=0-"),
+                        "Resume should ask for the missing tail: " + ranges.get(1));
+                SimpleTestRunner.assertEquals("\"big-1\"", ifRanges.get(1), "Resume is conditional on the ETag");
+                SimpleTestRunner.assertTrue(Arrays.equals(payload, Files.readAllBytes(target)), "Reassembled file");
+                SimpleTestRunner.assertTrue(!Files.exists(dir.resolve("big.zip.part")), ".part renamed");
+            } catch (Exception e) {
+                throw new RuntimeException("Test failed: " + e.getMessage(), e);
+            } finally {
+                if (server != null)
+                    server.stop(0);
+                if (dir != null) {
+                    try (java.util.stream.Stream<Path> files = Files.list(dir)) {
+                        for (Path f : (Iterable<Path>) files::iterator)
+                            Files.deleteIfExists(f);
+                        Files.deleteIfExists(dir);
+                    } catch (java.io.IOException ignored) {
+                    }
+                }
+            }
+        });
+    
+        runner.run("CircuitBreaker - Opens after failures, probes and closes", () -> {
+            CircuitBreaker cb = new CircuitBreaker("http://cb.example.org:80", 2, 50, 1000);
+            List<CircuitBreaker.State> events = new ArrayList<>();
+            cb.addListener(events::add);
+            try {
+                for (int i = 0; i < 2; i++) {
+                    cb.acquire();
+                    cb.recordFailure();
+                    cb.release();
+                }
+                SimpleTestRunner.assertEquals(CircuitBreaker.State.OPEN, cb.getState(), "Opened after threshold");
+                boolean rejected = false;
+                try {
+                    cb.acquire();
+                } catch (CircuitOpenException expected) {
+                    rejected = true;
+                }
+                SimpleTestRunner.assertTrue(rejected, "Requests fail fast while open");
+                SimpleTestRunner.assertTrue(!RetryPolicy.isRetryableException(new CircuitOpenException("x", 0)),
+                        "Fail-fast errors are never retried");
+
+                Thread.sleep(70);
+                cb.acquire(); // this thread becomes the probe
+                SimpleTestRunner.assertEquals(CircuitBreaker.State.HALF_OPEN, cb.getState(), "Probing");
+                boolean[] otherRejected = { false };
+                Thread other = new Thread(() -> {
+                    try {
+                        cb.acquire();
+                    } catch (CircuitOpenException expected) {
+                        otherRejected[0] = true;
+                    }
+                });
+                other.start();
+                other.join(1000);
+                SimpleTestRunner.assertTrue(otherRejected[0], "Only one probe at a time");
+                cb.recordSuccess();
+                cb.release();
+                SimpleTestRunner.assertEquals(CircuitBreaker.State.CLOSED, cb.getState(), "Closed by probe");
+                SimpleTestRunner.assertEquals(3, events.size(), "OPEN, HALF_OPEN, CLOSED published: " + events);
+                SimpleTestRunner.assertEquals(2L, cb.getRejectedCount(), "Rejected requests counted");
+            } catch (Exception e) {
+                throw new RuntimeException("Test failed: " + e.getMessage(), e);
+            }
+        });
+    
+        runner.run("UrlConnectionTransport - Unreachable server fails fast once the circuit opens", () -> {
+            try {
+                int port;
+                try (java.net.ServerSocket s = new java.net.ServerSocket(0, 1, java.net.InetAddress.getByName("127.0.0.1"))) {
+                    port = s.getLocalPort();
+                }
+                String base = "http://127.0.0.1:" + port;
+                UrlConnectionTransport t = new UrlConnectionTransport(base, 2, 2000);
+                int refused = 0;
+                for (int i = 0; i < redmineconnector.util.AppConstants.CIRCUIT_FAILURE_THRESHOLD; i++) {
+                    try {
+                        t.execute(HttpRequest.get(base + "/issues.json"));
+                    } catch (java.net.ConnectException expected) {
+                        refused++;
+                    }
+                }
+                SimpleTestRunner.assertEquals(redmineconnector.util.AppConstants.CIRCUIT_FAILURE_THRESHOLD, refused,
+                        "Connection refused until the threshold");
+                SimpleTestRunner.assertEquals(CircuitBreaker.State.OPEN, t.getCircuitBreaker().getState(), "Open");
+                HttpMetrics.Endpoint endpoint = HttpMetrics.global().getEndpoint("GET /issues.json");
+                long failures = endpoint.getFailureCount();
+                long start = System.currentTimeMillis();
+                boolean fast = false;
+                try {
+                    t.execute(HttpRequest.get(base + "/issues.json"));
+                } catch (CircuitOpenException expected) {
+                    fast = System.currentTimeMillis() - start < 100;
+                }
+                SimpleTestRunner.assertTrue(fast, "Request should fail fast without connecting");
+                SimpleTestRunner.assertEquals(failures + 1, endpoint.getFailureCount(),
+                        "Rejected request recorded in the metrics");
+            } catch (Exception e) {
+                throw new RuntimeException("Test failed: " + e.getMessage(), e);
+            }
+        });
+
+        runner.run("HttpMetrics - Endpoint templates", () -> {
+            SimpleTestRunner.assertEquals("/issues.json",
+                    HttpMetrics.templateOf("http://h/issues.json?project_id=x&limit=100"), "Issues list");
+            SimpleTestRunner.assertEquals("/issues/{id}.json",
+                    HttpMetrics.templateOf("https://h:8443/issues/123.json?include=journals"), "Issue detail");
+            SimpleTestRunner.assertEquals("/projects/{project}/memberships.json",
+                    HttpMetrics.templateOf("http://h/projects/my-proj/memberships.json?limit=100"), "Memberships");
+            SimpleTestRunner.assertEquals("/projects/{project}/wiki/index.json",
+                    HttpMetrics.templateOf("http://h/projects/p/wiki/index.json"), "Wiki index");
+            SimpleTestRunner.assertEquals("/projects/{project}/wiki/{page}/revisions.json",
+                    HttpMetrics.templateOf("http://h/projects/p/wiki/Start%20Page/revisions.json"), "Wiki history");
+            SimpleTestRunner.assertEquals("/attachments/download/{id}/{file}",
+                    HttpMetrics.templateOf("http://h/attachments/download/9/report.pdf"), "Attachment");
+            SimpleTestRunner.assertEquals("/redmine/uploads.json",
+                    HttpMetrics.templateOf("http://h/redmine/uploads.json?key=k"), "Sub-path install");
+        });
+
+        runner.run("HttpMetrics - Cached URL endpoints, fixed status slots and reset", () -> {
+            HttpMetrics metrics = new HttpMetrics();
+            HttpRequest poll = HttpRequest.get("http://h/issues.json?project_id=p&limit=100");
+            metrics.record(poll, 200, 1_000_000, 10, 0, false);
+            metrics.record(poll, 200, 1_000_000, 10, 0, false);
+            metrics.record(HttpRequest.get("http://h/issues.json?project_id=q"), 999, 1_000_000, 0, 0, false);
+            HttpMetrics.Endpoint e = metrics.getEndpoint("GET /issues.json");
+            SimpleTestRunner.assertEquals(3L, e.getCount(), "Same endpoint for every query string");
+            SimpleTestRunner.assertEquals(Long.valueOf(2), e.getStatusCounts().get(200), "Standard status");
+            SimpleTestRunner.assertEquals(Long.valueOf(1), e.getStatusCounts().get(999), "Non-standard status");
+
+            metrics.reset();
+            metrics.record(poll, 200, 1_000_000, 10, 0, false);
+            SimpleTestRunner.assertEquals(1L, metrics.getEndpoint("GET /issues.json").getCount(),
+                    "A cached URL records into the new period");
+        });
+
+        runner.run("HttpMetrics - Records latency, bytes, status and cache hits per endpoint", () -> {
+            byte[] body = "{\"issue\":{\"id\":7}}".getBytes(StandardCharsets.UTF_8);
+            HttpServer server = null;
+            try {
+                server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+                server.createContext("/issues", exchange -> {
+                    while (exchange.getRequestBody().read() != -1) {
+                        // drain the PUT body
+                    }
+                    if (exchange.getRequestURI().getPath().startsWith("/issues/404")) {
+                        exchange.sendResponseHeaders(404, -1);
+                    } else if ("\"m1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                        exchange.sendResponseHeaders(304, -1);
+                    } else {
+                        exchange.getResponseHeaders().add("ETag", "\"m1\"");
+                        exchange.sendResponseHeaders(200, body.length);
+                        try (OutputStream os = exchange.getResponseBody()) {
+                            os.write(body);
+                        }
+                    }
+                    exchange.close();
+                });
+                server.start();
+                String base = "http://127.0.0.1:" + server.getAddress().getPort();
+                UrlConnectionTransport t = new UrlConnectionTransport(base, 2, 5000);
+                HttpMetrics.global().reset();
+
+                t.execute(HttpRequest.get(base + "/issues/7.json?include=journals").revalidate());
+                t.execute(HttpRequest.get(base + "/issues/7.json?include=journals").revalidate());
+                t.execute(HttpRequest.get(base + "/issues/8.json"));
+                t.execute(HttpRequest.get(base + "/issues/404.json"));
+                t.execute(HttpRequest.put(base + "/issues/8.json").jsonBody("{}"));
+
+                HttpMetrics.Endpoint get = HttpMetrics.global().getEndpoint("GET /issues/{id}.json");
+                SimpleTestRunner.assertNotNull(get, "Endpoint recorded under its template");
+                SimpleTestRunner.assertEquals(4L, get.getCount(), "All GETs counted");
+                SimpleTestRunner.assertEquals(1L, get.getCacheHitCount(), "304 counted as cache hit");
+                SimpleTestRunner.assertEquals(Long.valueOf(2), get.getStatusCounts().get(200), "Two 200");
+                SimpleTestRunner.assertEquals(Long.valueOf(1), get.getStatusCounts().get(304), "One 304");
+                SimpleTestRunner.assertEquals(Long.valueOf(1), get.getStatusCounts().get(404), "One 404");
+                SimpleTestRunner.assertEquals(2L * body.length, get.getBytesIn(), "Body bytes received");
+                SimpleTestRunner.assertTrue(get.percentileNanos(50) > 0, "Latency recorded");
+                SimpleTestRunner.assertTrue(get.percentileNanos(50) <= get.percentileNanos(99), "Ordered");
+                SimpleTestRunner.assertTrue(get.percentileNanos(99) <= get.getMaxNanos(), "Capped at max");
+
+                HttpMetrics.Endpoint put = HttpMetrics.global().getEndpoint("PUT /issues/{id}.json");
+                SimpleTestRunner.assertEquals(2L, put.getBytesOut(), "Request body bytes sent");
+
+                String json = HttpMetrics.global().toJson();
+                SimpleTestRunner.assertTrue(json.contains("\"endpoint\":\"GET /issues/{id}.json\""), json);
+                SimpleTestRunner.assertTrue(json.contains("\"304\":1"), json);
+                Object parsed = JsonParser.parse(json);
+                SimpleTestRunner.assertTrue(parsed instanceof java.util.Map, "Dump is valid JSON");
+            } catch (java.io.IOException e) {
+                throw new RuntimeException("Test failed: " + e.getMessage(), e);
+            } finally {
+                if (server != null)
+                    server.stop(0);
+            }
+        });
+
+        runner.run("CancellationToken - Aborts the in-flight request and skips later ones", () -> {
+            java.util.concurrent.CountDownLatch release = new java.util.concurrent.CountDownLatch(1);
+            java.util.concurrent.atomic.AtomicInteger hits = new java.util.concurrent.atomic.AtomicInteger();
+            HttpServer server = null;
+            try {
+                server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+                server.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
+                server.createContext("/cancel", exchange -> {
+                    hits.incrementAndGet();
+                    try {
+                        release.await(10, java.util.concurrent.TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    exchange.close();
+                });
+                server.start();
+                String base = "http://127.0.0.1:" + server.getAddress().getPort();
+                UrlConnectionTransport t = new UrlConnectionTransport(base, 2, 10000);
+                HttpTransport retrying = new RetryingTransport(t, new RetryPolicy(3, 1000, 5000, false));
+
+                CancellationToken token = new CancellationToken();
+                new Thread(() -> {
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException ignored) {
+                    }
+                    token.cancel();
+                }).start();
+                long start = System.currentTimeMillis();
+                Exception failure = null;
+                CancellationToken.Scope scope = CancellationToken.bind(token);
+                try {
+                    retrying.execute(HttpRequest.get(base + "/cancel/slow.json"));
+                } catch (Exception e) {
+                    failure = e;
+                } finally {
+                    scope.close();
+                }
+                long elapsed = System.currentTimeMillis() - start;
+                SimpleTestRunner.assertTrue(failure instanceof RequestCancelledException, "Cancelled: " + failure);
+                SimpleTestRunner.assertTrue(elapsed < 3000, "Connection aborted, not timed out: " + elapsed + " ms");
+                SimpleTestRunner.assertEquals(1, hits.get(), "Cancelled request is not retried");
+                SimpleTestRunner.assertEquals(CircuitBreaker.State.CLOSED, t.getCircuitBreaker().getState(),
+                        "Cancellation is not a server failure");
+
+                scope = CancellationToken.bind(token);
+                try {
+                    retrying.execute(HttpRequest.get(base + "/cancel/other.json"));
+                    SimpleTestRunner.assertTrue(false, "Request with a cancelled token must fail");
+                } catch (RequestCancelledException expected) {
+                    // not sent
+                } finally {
+                    scope.close();
+                }
+                SimpleTestRunner.assertEquals(1, hits.get(), "Nothing sent after cancellation");
+                SimpleTestRunner.assertTrue(CancellationToken.current() == null, "Binding restored");
+            } catch (java.io.IOException e) {
+                throw new RuntimeException("Test failed: " + e.getMessage(), e);
+            } finally {
+                release.countDown();
+                if (server != null)
+                    server.stop(0);
+            }
+        });
+    }
+}
@@ -1,10 +1,15 @@
 package redmineconnector.test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import redmineconnector.model.Attachment;
+import redmineconnector.model.SimpleEntity;
 import redmineconnector.model.Task;
 import redmineconnector.model.WikiPageDTO;
 import redmineconnector.util.JsonParser;
+import redmineconnector.util.JsonReader;
+import redmineconnector.util.SymbolTable;
 
 public class JsonParserTest {
 
@@ -33,7 +38,7 @@ public class JsonParserTest {
         runner.run("JsonParser.serializeTaskForCreate", () -> {
             Task t = new Task();
             t.subject = "New Feature";
-            t.description = "Desc";
+            t.setDescription("Desc");
             t.priorityId = 2;
             String json = JsonParser.serializeTaskForCreate("1", t);
             SimpleTestRunner.assertTrue(json.contains("\"project_id\":\"1\""), "Missing project_id");
@@ -69,5 +74,238 @@ public class JsonParserTest {
             SimpleTestRunner.assertEquals(1, tasks.size(), "Should skip empty/invalid objects");
             SimpleTestRunner.assertEquals(5, tasks.get(0).id, "Should parse valid object");
         });
+
+        runner.run("JsonParser.parseIssues (streaming binding, full issue)", () -> {
+            String json = "{\"issue\":{\"id\":42,\"project\":{\"id\":3,\"name\":\"P\"},"
+                    + "\"tracker\":{\"id\":1,\"name\":\"Bug\"},\"status\":{\"id\":2,\"name\":\"En curso\",\"is_closed\":false},"
+                    + "\"assigned_to\":null,\"parent\":{\"id\":7,\"subject\":\"Padre\"},"
+                    + "\"subject\":\"Caf\\u00e9 \\\"quoted\\\"\",\"description\":\"l1\\r\\nl2\",\"done_ratio\":30,"
+                    + "\"spent_hours\":1.5,\"created_on\":\"2024-05-01T10:00:00Z\",\"updated_on\":\"2024-05-02T10:00:00Z\","
+                    + "\"custom_fields\":[{\"id\":5,\"name\":\"Multi\",\"multiple\":true,\"value\":[\"a\",\"b\"]},{\"id\":6,\"name\":\"One\",\"value\":\"x\"}],"
+                    + "\"attachments\":[{\"id\":9,\"filename\":\"f.txt\",\"filesize\":12,\"content_type\":\"text/plain\",\"content_url\":\"http://h/f.txt\",\"author\":{\"id\":1}}],"
+                    + "\"journals\":[{\"id\":1,\"user\":{\"id\":1,\"name\":\"Ana\"},\"notes\":\"hola\",\"created_on\":\"2024-05-02T10:00:00Z\",\"details\":[{\"property\":\"attr\"}]}]}}";
+            List<Task> tasks = JsonParser.parseIssues(json);
+            SimpleTestRunner.assertEquals(1, tasks.size(), "One issue expected");
+            Task t = tasks.get(0);
+            SimpleTestRunner.assertEquals(42, t.id, "id");
+            SimpleTestRunner.assertEquals(3, t.projectId, "project id");
+            SimpleTestRunner.assertEquals("En curso", t.status, "status");
+            SimpleTestRunner.assertEquals("", t.assignedTo, "null ref should be empty");
+            SimpleTestRunner.assertEquals("Padre", t.parentName, "parent subject fallback");
+            SimpleTestRunner.assertEquals("Caf\u00e9 \"quoted\"", t.subject, "escapes");
+            SimpleTestRunner.assertEquals("l1\r\nl2", t.getDescription(), "line endings preserved");
+            SimpleTestRunner.assertEquals(30, t.doneRatio, "done ratio");
+            SimpleTestRunner.assertTrue(t.spentHours == 1.5, "spent hours");
+            SimpleTestRunner.assertEquals("2024-05-02T10:00:00Z", t.updatedOn, "updated_on");
+            SimpleTestRunner.assertEquals("[a, b]", t.customFields.get(0).value, "multi-value custom field");
+            SimpleTestRunner.assertEquals("x", t.customFields.get(1).value, "single custom field");
+            SimpleTestRunner.assertEquals("f.txt", t.attachments.get(0).filename, "attachment");
+            SimpleTestRunner.assertEquals("Ana", t.getJournals().get(0).user, "journal user");
+        });
+
+        runner.run("JsonParser.parseIssues (malformed falls back to lenient parser)", () -> {
+            String json = "{\"issues\":[{\"id\":5,\"subject\":\"Ok\"}";
+            List<Task> tasks = JsonParser.parseIssues(json);
+            SimpleTestRunner.assertEquals(1, tasks.size(), "Lenient parser should recover the issue");
+            SimpleTestRunner.assertEquals("Ok", tasks.get(0).subject, "Subject should be parsed");
+        });
+
+        runner.run("JsonReader - skipValue and tokens", () -> {
+            JsonReader r = new JsonReader("{\"a\":{\"x\":[1,2,{\"y\":null}]},\"b\":-3.5e2,\"c\":true,\"d\":\"s\"}");
+            r.beginObject();
+            SimpleTestRunner.assertEquals("a", r.nextName(), "first name");
+            r.skipValue();
+            SimpleTestRunner.assertEquals("b", r.nextName(), "second name");
+            SimpleTestRunner.assertTrue(r.nextDouble() == -350.0, "number with exponent");
+            SimpleTestRunner.assertEquals("c", r.nextName(), "third name");
+            SimpleTestRunner.assertTrue(r.nextBoolean(), "boolean");
+            SimpleTestRunner.assertEquals("d", r.nextName(), "fourth name");
+            SimpleTestRunner.assertEquals("s", r.nextString(), "string");
+            SimpleTestRunner.assertTrue(!r.hasNext(), "object should be exhausted");
+            r.endObject();
+            SimpleTestRunner.assertEquals(JsonReader.Token.END_DOCUMENT, r.peek(), "end of document");
+        });
+
+        runner.run("JsonReader - numbers scanned in place with range checks", () -> {
+            JsonReader r = new JsonReader("[0,-7,5000000000,9223372036854775807,-9223372036854775808,12.9,"
+                    + "-3.5e2,\"42\",null,2147483648,9223372036854775808]");
+            r.beginArray();
+            SimpleTestRunner.assertEquals(0, r.nextInt(), "zero");
+            SimpleTestRunner.assertEquals(-7, r.nextInt(), "negative");
+            SimpleTestRunner.assertEquals(5000000000L, r.nextLong(), "above int range");
+            SimpleTestRunner.assertEquals(Long.MAX_VALUE, r.nextLong(), "long max");
+            SimpleTestRunner.assertEquals(Long.MIN_VALUE, r.nextLong(), "long min");
+            SimpleTestRunner.assertEquals(12, r.nextInt(), "fraction truncated");
+            SimpleTestRunner.assertEquals(-350L, r.nextLong(), "exponent");
+            SimpleTestRunner.assertEquals(42, r.nextInt(), "numeric string");
+            SimpleTestRunner.assertEquals(0, r.nextInt(), "null");
+            boolean rejected = false;
+            try {
+                r.nextInt();
+            } catch (JsonReader.MalformedJsonException e) {
+                rejected = true;
+            }
+            SimpleTestRunner.assertTrue(rejected, "int overflow rejected");
+            rejected = false;
+            try {
+                r.nextLong();
+            } catch (JsonReader.MalformedJsonException e) {
+                rejected = true;
+            }
+            SimpleTestRunner.assertTrue(rejected, "long overflow rejected");
+        });
+
+        runner.run("JsonParser.parseIssues (UTF-8 bytes)", () -> {
+            String json = "{\"issues\":[{\"id\":9,\"subject\":\"Se\u00f1al \u20ac \ud83d\ude80 \\u00e9\\n\","
+                    + "\"status\":{\"id\":1,\"name\":\"Nuevo\"}}],\"total_count\":1}";
+            byte[] body = json.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+            List<Task> tasks = JsonParser.parseIssues(body);
+            SimpleTestRunner.assertEquals(1, tasks.size(), "One issue expected");
+            SimpleTestRunner.assertEquals("Se\u00f1al \u20ac \ud83d\ude80 \u00e9\n", tasks.get(0).subject,
+                    "2/3/4-byte sequences and escapes should decode");
+            SimpleTestRunner.assertEquals("Nuevo", tasks.get(0).status, "ASCII fast path");
+            SimpleTestRunner.assertEquals(1, JsonParser.parseTotalCount(body), "total_count from bytes");
+            SimpleTestRunner.assertEquals(-1, JsonParser.parseTotalCount("{}".getBytes()), "missing total_count");
+        });
+
+        runner.run("JsonParser.parseWikiPageContent (UTF-8 bytes)", () -> {
+            String json = "{\"wiki_page\":{\"title\":\"Inicio\",\"text\":\"h1. Ma\u00f1ana\",\"version\":4,"
+                    + "\"author\":{\"id\":2,\"name\":\"Ana\"},\"updated_on\":\"2024-01-01T00:00:00Z\"},"
+                    + "\"attachments\":[{\"id\":3,\"filename\":\"a.png\",\"filesize\":5368709120}]}";
+            WikiPageDTO page = JsonParser.parseWikiPageContent(json.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            SimpleTestRunner.assertNotNull(page, "Page should be parsed");
+            SimpleTestRunner.assertEquals("h1. Ma\u00f1ana", page.text, "text");
+            SimpleTestRunner.assertEquals("4", page.version, "version");
+            SimpleTestRunner.assertEquals("Ana", page.author, "author");
+            SimpleTestRunner.assertEquals(1, page.attachments.size(), "root attachments fallback");
+            SimpleTestRunner.assertEquals(5368709120L, page.attachments.get(0).filesize, "filesize above 4 GiB");
+        });
+
+        runner.run("JsonParser.serializeTaskChanges (only dirty fields)", () -> {
+            String json = "{\"issues\":[{\"id\":5,\"subject\":\"S\",\"description\":\"Long text\","
+                    + "\"status\":{\"id\":1,\"name\":\"New\"},\"assigned_to\":{\"id\":7,\"name\":\"Ana\"},"
+                    + "\"done_ratio\":10,\"custom_fields\":[{\"id\":3,\"name\":\"CF\",\"value\":\"a\"}]}]}";
+            Task t = JsonParser.parseIssues(json).get(0);
+            SimpleTestRunner.assertTrue(JsonParser.serializeTaskChanges(t) == null, "Unchanged task sends nothing");
+
+            t.statusId = 5;
+            t.doneRatio = 100;
+            t.setDescription("Long text".replace("\n", "\r\n"));
+            String patch = JsonParser.serializeTaskChanges(t);
+            SimpleTestRunner.assertEquals("{\"issue\":{\"status_id\":5,\"done_ratio\":100}}", patch,
+                    "Only status and ratio sent");
+
+            t.assignedToId = 0;
+            t.customFields.get(0).value = "";
+            t.comment = "Closed";
+            patch = JsonParser.serializeTaskChanges(t);
+            SimpleTestRunner.assertTrue(patch.contains("\"assigned_to_id\":\"\""), "Cleared assignee: " + patch);
+            SimpleTestRunner.assertTrue(patch.contains("{\"id\":3,\"value\":\"\"}"), "Cleared custom field");
+            SimpleTestRunner.assertTrue(patch.contains("\"notes\":\"Closed\""), "Note always sent");
+            SimpleTestRunner.assertTrue(!patch.contains("description") && !patch.contains("subject"),
+                    "Description not re-sent");
+
+            t.markClean();
+            t.comment = "";
+            SimpleTestRunner.assertTrue(JsonParser.serializeTaskChanges(t) == null, "Clean after save");
+
+            Task fresh = new Task();
+            fresh.subject = "X";
+            SimpleTestRunner.assertTrue(JsonParser.serializeTaskChanges(fresh).contains("\"subject\":\"X\""),
+                    "No baseline: full payload");
+        });
+
+        runner.run("JsonParser.parseIssues (shared symbols)", () -> {
+            String issue = "{\"id\":%d,\"subject\":\"S%d\",\"status\":{\"id\":1,\"name\":\"En curso\"},"
+                    + "\"assigned_to\":{\"id\":7,\"name\":\"Jos\\u00e9 P\u00e9rez\"},"
+                    + "\"custom_fields\":[{\"id\":3,\"name\":\"Entorno\",\"value\":\"PRE\"},"
+                    + "{\"id\":4,\"name\":\"Ref\",\"value\":\"libre\"}]}";
+            String json = "{\"issues\":[" + String.format(issue, 1, 1) + "," + String.format(issue, 2, 2) + "]}";
+            SymbolTable symbols = new SymbolTable("test");
+            symbols.addCustomFields(java.util.Arrays.asList(
+                    new redmineconnector.model.CustomFieldDefinition(3, "Entorno", "list", false),
+                    new redmineconnector.model.CustomFieldDefinition(4, "Ref", "string", false)));
+            List<Task> fromText = JsonParser.parseIssues(json, symbols);
+            List<Task> fromBytes = JsonParser.parseIssues(json.getBytes(StandardCharsets.UTF_8), symbols);
+            // Truncated: the lenient tree parser takes over
+            List<Task> fromTree = JsonParser.parseIssues(json.substring(0, json.length() - 2), symbols);
+
+            SimpleTestRunner.assertEquals("En curso", fromBytes.get(1).status, "Value preserved");
+            SimpleTestRunner.assertEquals("Jos\u00e9 P\u00e9rez", fromBytes.get(1).assignedTo, "Escapes and UTF-8 decoded");
+            for (List<Task> tasks : java.util.Arrays.asList(fromText, fromBytes)) {
+                for (Task t : tasks) {
+                    SimpleTestRunner.assertTrue(t.status == fromText.get(0).status, "Status shared");
+                    SimpleTestRunner.assertTrue(t.assignedTo == fromText.get(0).assignedTo, "Assignee shared");
+                    SimpleTestRunner.assertTrue(t.customFields.get(0).name == fromText.get(0).customFields.get(0).name,
+                            "Custom field name shared");
+                    SimpleTestRunner.assertTrue(t.customFields.get(0).value == fromText.get(0).customFields.get(0).value,
+                            "List field value shared");
+                    SimpleTestRunner.assertTrue(t == fromText.get(0)
+                            || t.customFields.get(1).value != fromText.get(0).customFields.get(1).value,
+                            "Free-text value not interned");
+                }
+            }
+            SimpleTestRunner.assertEquals(2, fromTree.size(), "Tree parser recovers the issues");
+            SimpleTestRunner.assertTrue(fromTree.get(0).status == fromText.get(0).status, "Tree parser shares too");
+            SimpleTestRunner.assertTrue(fromTree.get(1).customFields.get(0).value == fromText.get(0).customFields.get(0).value,
+                    "Tree parser shares custom field values");
+            SimpleTestRunner.assertTrue(fromTree.get(1).customFields.get(1).value != fromText.get(0).customFields.get(1).value,
+                    "Tree parser skips free-text values");
+            SimpleTestRunner.assertEquals(5, symbols.size(), "One symbol per distinct name and list value");
+            SimpleTestRunner.assertTrue(symbols.getHitCount() >= 20, "Repeats reuse the symbol: " + symbols);
+            SimpleTestRunner.assertTrue(symbols.getSavedBytes() > 0, "Saved heap reported");
+            SimpleTestRunner.assertTrue(JsonParser.parseIssues(json).get(0).status != fromText.get(0).status,
+                    "No table: values as parsed");
+        });
+
+        runner.run("JsonParser - Metadata names shared with the issues", () -> {
+            SymbolTable symbols = new SymbolTable("test");
+            List<SimpleEntity> statuses = JsonParser.parseEntities(
+                    "{\"issue_statuses\":[{\"id\":1,\"name\":\"Nueva\"},{\"id\":2,\"name\":\"Cerrada\",\"is_closed\":true}]}",
+                    "issue_statuses", symbols);
+            List<SimpleEntity> users = JsonParser.parseMembers(
+                    "{\"memberships\":[{\"user\":{\"id\":7,\"name\":\"Ana\"}}]}", symbols);
+            Task t = JsonParser.parseIssues("{\"issues\":[{\"id\":1,\"status\":{\"id\":2,\"name\":\"Cerrada\"},"
+                    + "\"assigned_to\":{\"id\":7,\"name\":\"Ana\"}}]}", symbols).get(0);
+            SimpleTestRunner.assertTrue(statuses.get(1).isClosed, "is_closed kept");
+            SimpleTestRunner.assertTrue(t.status == statuses.get(1).name, "Status name shared");
+            SimpleTestRunner.assertTrue(t.assignedTo == users.get(0).name, "User name shared");
+        });
+
+        runner.run("JsonParser.parseIssues (lazy description and journals)", () -> {
+            String json = "{\"issue\":{\"id\":9,\"subject\":\"S\",\"description\":\"Caf\u00e9\\n\\\"ok\\\"\","
+                    + "\"journals\":[{\"user\":{\"id\":1,\"name\":\"Ana\"},\"notes\":\"n1\"}],\"attachments\":[]}}";
+            Task t = JsonParser.parseIssues(json.getBytes(StandardCharsets.UTF_8)).get(0);
+            SimpleTestRunner.assertTrue(t.isDescriptionDeferred(), "Description kept encoded");
+            SimpleTestRunner.assertTrue(t.attachments == java.util.Collections.<Attachment>emptyList(), "Shared empty list");
+            SimpleTestRunner.assertTrue(t.changesets.isEmpty() && t.pendingUploads.isEmpty(), "Empty defaults");
+            SimpleTestRunner.assertTrue(JsonParser.serializeTaskChanges(t) == null, "Deferred description unchanged");
+
+            SimpleTestRunner.assertEquals("Caf\u00e9\n\"ok\"", t.getDescription(), "Decoded on first read");
+            SimpleTestRunner.assertTrue(!t.isDescriptionDeferred(), "Decoded once");
+            SimpleTestRunner.assertEquals("Ana", t.getJournals().get(0).user, "Journals decoded on first read");
+            SimpleTestRunner.assertTrue(JsonParser.serializeTaskChanges(t) == null, "Decoding is not a change");
+            String baseline = t.getBaseline().getDescription();
+            SimpleTestRunner.assertTrue(baseline == t.getBaseline().getDescription(), "Baseline decoded once");
+
+            t.setDescription("Changed");
+            SimpleTestRunner.assertTrue(JsonParser.serializeTaskChanges(t).contains("\"description\":\"Changed\""),
+                    "Edited description sent");
+
+            try {
+                Task lazy = JsonParser.parseIssues(json).get(0);
+                java.io.ByteArrayOutputStream bos = new java.io.ByteArrayOutputStream();
+                try (java.io.ObjectOutputStream out = new java.io.ObjectOutputStream(bos)) {
+                    out.writeObject(lazy);
+                }
+                Task copy = (Task) new java.io.ObjectInputStream(new java.io.ByteArrayInputStream(bos.toByteArray()))
+                        .readObject();
+                SimpleTestRunner.assertEquals("Caf\u00e9\n\"ok\"", copy.getDescription(), "Serialized decoded");
+                SimpleTestRunner.assertEquals(1, copy.getJournals().size(), "Journals serialized");
+                SimpleTestRunner.assertTrue(JsonParser.serializeTaskChanges(copy) == null, "Baseline serialized");
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
     }
 }
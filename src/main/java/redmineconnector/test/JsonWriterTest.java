@@ -0,0 +1,83 @@
+package redmineconnector.test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import redmineconnector.model.Task;
+import redmineconnector.util.JsonParser;
+import redmineconnector.util.JsonWriter;
+
+import static redmineconnector.test.SimpleTestRunner.*;
+
+/**
+ * Tests for JsonWriter and the payloads written with it.
+ */
+public class JsonWriterTest {
+
+    public static void runTests(SimpleTestRunner runner) {
+        System.out.println("\n=== JsonWriter Tests ===");
+
+        runner.run("JsonWriter - Structure and separators", () -> {
+            String json = JsonWriter.toString(w -> w.beginObject()
+                    .name("a").value(1)
+                    .name("b").beginArray().value("x").value(2.5).value(true).beginObject().endObject().endArray()
+                    .name("c").value((String) null)
+                    .endObject());
+            assertEquals("{\"a\":1,\"b\":[\"x\",2.5,true,{}],\"c\":\"\"}", json, "Commas and colons");
+        });
+
+        runner.run("JsonWriter - Escapes control characters in one pass", () -> {
+            String raw = "q\"b\\s/\b\f\n\r\t\u0000\u001f\u007f";
+            String expected = "q\\\"b\\\\s/\\b\\f\\n\\r\\t\\u0000\\u001f\u007f";
+            assertEquals(expected, JsonParser.escapeJsonString(raw), "escapeJsonString");
+            assertEquals("\"" + expected + "\"", JsonWriter.toString(w -> w.value(raw)), "Writer");
+            String plain = "Nada que escapar: ñ €";
+            assertTrue(JsonParser.escapeJsonString(plain) == plain, "Clean text is not copied");
+        });
+
+        runner.run("JsonWriter - UTF-8 output matches String.getBytes", () -> {
+            String text = "a ñ € 😀 \uD800x \uDC00";
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                JsonWriter.write(w -> w.value(text), out);
+                byte[] expected = ("\"" + text + "\"").getBytes(StandardCharsets.UTF_8);
+                assertTrue(Arrays.equals(expected, out.toByteArray()), "Surrogate pairs and lone surrogates");
+                assertEquals((long) expected.length, JsonWriter.measure(w -> w.value(text)), "Measured length");
+            } catch (java.io.IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        runner.run("JsonWriter - Large values round-trip through the parser", () -> {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 5000; i++) {
+                sb.append("línea ").append(i).append(" \"x\" \\ \u0002\t🚀\n");
+            }
+            String text = sb.toString();
+            String json = JsonParser.serializeWikiPage(text, "Cambio");
+            Map<?, ?> page = (Map<?, ?>) ((Map<?, ?>) JsonParser.parse(json)).get("wiki_page");
+            assertEquals(text, page.get("text"), "Text");
+            assertEquals("Cambio", page.get("comments"), "Comment");
+        });
+
+        runner.run("JsonParser - Payloads written with JsonWriter", () -> {
+            Task t = new Task();
+            t.subject = "S \"1\"";
+            t.setDescription("D\n");
+            t.priorityId = 2;
+            t.doneRatio = 30;
+            assertEquals("{\"issue\":{\"subject\":\"S \\\"1\\\"\",\"description\":\"D\\n\",\"priority_id\":2,"
+                    + "\"assigned_to_id\":\"\",\"fixed_version_id\":\"\",\"done_ratio\":30}}",
+                    JsonParser.serializeTaskForUpdate(t), "Task update clears assignee and version");
+            assertEquals("{\"time_entry\":{\"issue_id\":7,\"spent_on\":\"2025-01-02\",\"hours\":1.5,"
+                    + "\"activity_id\":9,\"comments\":\"ok\"}}",
+                    JsonParser.serializeTimeEntry(7, "2025-01-02", 1.5, 0, 9, "ok"), "Time entry");
+            assertEquals("{\"wiki_page\":{\"text\":\"T\",\"version\":3,\"uploads\":[{\"token\":\"1.a\","
+                    + "\"filename\":\"a \\\"b\\\".png\",\"content_type\":\"image/png\"}],\"comments\":\"c\"}}",
+                    JsonWriter.toString(JsonParser.wikiAttachmentBody("T", 3, "1.a", "a \"b\".png", "image/png", "c")),
+                    "Wiki attachment escapes the file name");
+        });
+    }
+}
@@ -0,0 +1,159 @@
+package redmineconnector.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import redmineconnector.util.RequestScheduler;
+import redmineconnector.util.RequestScheduler.Lane;
+
+import static redmineconnector.test.SimpleTestRunner.*;
+
+/**
+ * Tests for RequestScheduler.
+ */
+public class RequestSchedulerTest {
+
+    public static void runTests(SimpleTestRunner runner) {
+        System.out.println("\n=== RequestScheduler Tests ===");
+
+        runner.run("testHigherLanesJumpTheQueue", () -> {
+            try {
+                testHigherLanesJumpTheQueue();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        runner.run("testWaitingJobsAge", () -> {
+            try {
+                testWaitingJobsAge();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        runner.run("testLowLanesLeaveReservedThreads", () -> {
+            try {
+                testLowLanesLeaveReservedThreads();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        runner.run("testFailingJobDoesNotKillWorker", () -> {
+            try {
+                testFailingJobDoesNotKillWorker();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /** Occupies the only worker until the returned latch is released. */
+    private static CountDownLatch block(RequestScheduler scheduler, Lane lane) throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        scheduler.execute(lane, () -> {
+            running.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS), "Blocking job should start");
+        return release;
+    }
+
+    private static void testHigherLanesJumpTheQueue() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler("test-order", 1, 0, 60_000);
+        try {
+            CountDownLatch release = block(scheduler, Lane.INTERACTIVE);
+            List<Lane> order = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch done = new CountDownLatch(5);
+            for (Lane lane : new Lane[] { Lane.BACKGROUND, Lane.BULK, Lane.PREFETCH, Lane.INTERACTIVE,
+                    Lane.REFRESH }) {
+                scheduler.execute(lane, () -> {
+                    order.add(lane);
+                    done.countDown();
+                });
+            }
+            assertEquals(1, scheduler.getQueueDepth(Lane.BULK), "Bulk job queued");
+            release.countDown();
+            assertTrue(done.await(5, TimeUnit.SECONDS), "All jobs should run");
+            List<Lane> expected = new ArrayList<>();
+            Collections.addAll(expected, Lane.INTERACTIVE, Lane.REFRESH, Lane.PREFETCH, Lane.BULK, Lane.BACKGROUND);
+            assertEquals(expected, order, "Jobs run by lane, not by arrival");
+            assertEquals(0, scheduler.getQueueDepth(Lane.BULK), "Queue drained");
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    private static void testWaitingJobsAge() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler("test-aging", 1, 0, 20);
+        try {
+            CountDownLatch release = block(scheduler, Lane.INTERACTIVE);
+            List<Lane> order = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch done = new CountDownLatch(2);
+            scheduler.execute(Lane.BACKGROUND, () -> {
+                order.add(Lane.BACKGROUND);
+                done.countDown();
+            });
+            // Four lanes of aging (80 ms) put the old background job ahead
+            Thread.sleep(200);
+            scheduler.execute(Lane.INTERACTIVE, () -> {
+                order.add(Lane.INTERACTIVE);
+                done.countDown();
+            });
+            release.countDown();
+            assertTrue(done.await(5, TimeUnit.SECONDS), "Both jobs should run");
+            assertEquals(Lane.BACKGROUND, order.get(0), "Aged job runs first");
+            assertTrue(scheduler.getMaxWaitMs(Lane.BACKGROUND) >= 200, "Wait time recorded");
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    private static void testLowLanesLeaveReservedThreads() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler("test-reserved", 2, 1, 60_000);
+        try {
+            CountDownLatch releaseBulk = block(scheduler, Lane.BULK);
+            CountDownLatch secondBulk = new CountDownLatch(1);
+            scheduler.execute(Lane.BULK, secondBulk::countDown);
+            CompletableFuture<String> interactive = CompletableFuture.supplyAsync(() -> "ok",
+                    scheduler.executor(Lane.INTERACTIVE));
+
+            assertEquals("ok", interactive.get(5, TimeUnit.SECONDS), "Interactive uses the reserved thread");
+            assertTrue(!secondBulk.await(100, TimeUnit.MILLISECONDS), "Second bulk job must wait");
+            assertEquals(1, scheduler.getRunning(Lane.BULK), "One bulk job running");
+            assertEquals(1, scheduler.getQueueDepth(Lane.BULK), "One bulk job queued");
+
+            releaseBulk.countDown();
+            assertTrue(secondBulk.await(5, TimeUnit.SECONDS), "Second bulk job runs after the first");
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    private static void testFailingJobDoesNotKillWorker() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler("test-failure", 1, 0, 60_000);
+        try {
+            scheduler.execute(Lane.REFRESH, () -> {
+                throw new IllegalStateException("boom");
+            });
+            CompletableFuture<Integer> next = CompletableFuture.supplyAsync(() -> 42,
+                    scheduler.executor(Lane.REFRESH));
+            assertEquals(42, next.get(5, TimeUnit.SECONDS).intValue(), "Worker survives a failing job");
+            // The count is updated right after the job returns
+            long deadline = System.currentTimeMillis() + 5000;
+            while (scheduler.getCompletedCount(Lane.REFRESH) < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(2L, scheduler.getCompletedCount(Lane.REFRESH), "Both jobs counted");
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+}
@@ -10,6 +10,7 @@ public class RunAllTests {
         // Original tests
         JsonParserTest.runTests(runner);
         TaskTest.runTests(runner);
+        TaskManagerTest.runTests(runner);
         StyleConfigTest.runTests(runner);
         ConnectionConfigTest.runTests(runner);
 
@@ -17,6 +18,11 @@ public class RunAllTests {
         AsyncDataServiceTest.runTests(runner);
         CacheServiceTest.runTests(runner);
         CachedDataServiceTest.runTests(runner);
+        CoalescingDataServiceTest.runTests(runner);
+        RequestSchedulerTest.runTests(runner);
+        BatchMutationEngineTest.runTests(runner);
+        DateCodecTest.runTests(runner);
+        JsonWriterTest.runTests(runner);
         SecurityUtilsTest.runTests(runner);
 
         // Phase 5 - Day 1: Critical Utilities
@@ -28,6 +34,7 @@ public class RunAllTests {
         // Phase 5 - Day 3: HttpDataService Integration
         System.out.println("\n=== Phase 5: Day 3 Tests ===");
         HttpDataServiceTest.runTests(runner);
+        HttpTransportTest.runTests(runner);
 
         // Phase 5 - Day 2: Models
         System.out.println("\n=== Phase 5: Day 2 Tests ===");
@@ -0,0 +1,100 @@
+package redmineconnector.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import redmineconnector.model.Task;
+import redmineconnector.ui.TaskManager;
+
+/**
+ * Tests for TaskManager classification and delta-sync merging.
+ */
+public class TaskManagerTest {
+
+    private static Task task(int id, String status, String updatedOn) {
+        Task t = new Task();
+        t.id = id;
+        t.subject = "Task " + id;
+        t.status = status;
+        t.updatedOn = updatedOn;
+        return t;
+    }
+
+    public static void runTests(SimpleTestRunner runner) {
+
+        runner.run("TaskManager - Full sync records high-water mark", () -> {
+            TaskManager tm = new TaskManager();
+            List<Task> tasks = Arrays.asList(task(3, "New", "2024-05-01T10:00:00Z"),
+                    task(2, "New", "2024-05-03T08:00:00Z"), task(1, "New", "2024-04-01T00:00:00Z"));
+            tm.recordFullSync("p", tasks, false);
+
+            SimpleTestRunner.assertEquals("2024-05-03T08:00:00Z", tm.getSyncMark("p"), "Mark should be newest");
+            SimpleTestRunner.assertTrue(tm.canDeltaSync("p", false, 60_000L), "Delta should be possible");
+            SimpleTestRunner.assertTrue(!tm.canDeltaSync("p", true, 60_000L), "Closed toggle requires full load");
+            SimpleTestRunner.assertTrue(!tm.canDeltaSync("other", false, 60_000L), "Unknown project needs full load");
+        });
+
+        runner.run("TaskManager - mergeDelta updates, adds and removes", () -> {
+            TaskManager tm = new TaskManager();
+            List<Task> initial = new ArrayList<>(Arrays.asList(task(3, "New", "2024-05-01T10:00:00Z"),
+                    task(2, "New", "2024-05-02T10:00:00Z"), task(1, "New", "2024-04-01T00:00:00Z")));
+            tm.classifyTasks(initial, true);
+            tm.recordFullSync("p", initial, false);
+
+            List<Task> changed = Arrays.asList(task(4, "New", "2024-05-05T09:00:00Z"),
+                    task(2, "In Progress", "2024-05-05T08:00:00Z"), task(1, "Closed", "2024-05-04T00:00:00Z"));
+            TaskManager.SyncResult result = tm.mergeDelta("p", changed, t -> !"Closed".equals(t.status), 0);
+            List<Task> merged = result.getTasks();
+
+            SimpleTestRunner.assertEquals(3, merged.size(), "One added, one removed");
+            SimpleTestRunner.assertEquals(4, merged.get(0).id, "Order should be id desc");
+            SimpleTestRunner.assertEquals("In Progress", merged.get(2).status, "Changed task should be replaced");
+            SimpleTestRunner.assertEquals("2024-05-02T10:00:00Z", tm.getSyncMark("p"),
+                    "Mark should wait for the commit");
+            tm.classifyTasks(merged, true);
+            tm.commitSync(result);
+            SimpleTestRunner.assertEquals("2024-05-05T09:00:00Z", tm.getSyncMark("p"), "Mark should advance");
+        });
+
+        runner.run("TaskManager - mergeDelta keeps the configured limit", () -> {
+            TaskManager tm = new TaskManager();
+            List<Task> initial = new ArrayList<>(Arrays.asList(task(3, "New", "2024-05-01T10:00:00Z"),
+                    task(2, "New", "2024-05-02T10:00:00Z")));
+            tm.classifyTasks(initial, true);
+            tm.recordFullSync("p", initial, false);
+
+            List<Task> changed = Arrays.asList(task(5, "New", "2024-05-05T09:00:00Z"),
+                    task(4, "New", "2024-05-05T08:00:00Z"));
+            List<Task> merged = tm.mergeDelta("p", changed, t -> true, 3).getTasks();
+            SimpleTestRunner.assertEquals(3, merged.size(), "Trimmed to the limit");
+            SimpleTestRunner.assertEquals(3, merged.get(2).id, "Newest tasks are kept");
+        });
+
+        runner.run("TaskManager - Probe detects tasks that left the project", () -> {
+            TaskManager tm = new TaskManager();
+            List<Task> initial = new ArrayList<>(Arrays.asList(task(30, "New", "2024-05-01T10:00:00Z"),
+                    task(20, "New", "2024-05-02T10:00:00Z"), task(10, "New", "2024-04-01T00:00:00Z")));
+            tm.classifyTasks(initial, true);
+            tm.recordFullSync("p", initial, false);
+            TaskManager.SyncResult merged = tm.mergeDelta("p", new ArrayList<>(), t -> true, 0);
+
+            SimpleTestRunner.assertEquals(2, TaskManager.probeIndex(merged), "Last position probed");
+            SimpleTestRunner.assertTrue(TaskManager.matchesProbe(merged, new int[] { 3, 10 }, 0), "Unchanged");
+            // #20 moved to another project: one task less, nothing at the third position
+            SimpleTestRunner.assertTrue(!TaskManager.matchesProbe(merged, new int[] { 2, 0 }, 0), "Moved out");
+            // Capped at 3: the server has more, and its third task must be ours
+            SimpleTestRunner.assertTrue(TaskManager.matchesProbe(merged, new int[] { 10, 10 }, 3), "Capped list");
+            // #20 moved out of a capped list: an older task takes the third position
+            SimpleTestRunner.assertTrue(!TaskManager.matchesProbe(merged, new int[] { 9, 5 }, 3),
+                    "Capped list with a task moved out");
+        });
+
+        runner.run("TaskManager - resetSync forces full load", () -> {
+            TaskManager tm = new TaskManager();
+            tm.recordFullSync("p", Arrays.asList(task(1, "New", "2024-05-01T10:00:00Z")), false);
+            tm.resetSync();
+            SimpleTestRunner.assertTrue(!tm.canDeltaSync("p", false, 60_000L), "Reset should drop marks");
+        });
+    }
+}
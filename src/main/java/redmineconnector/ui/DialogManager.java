@@ -223,14 +223,13 @@ public class DialogManager {
             }
         }
 
-        dialog.onUpload(file -> {
+        dialog.onUpload((file, listener) -> {
             try {
-                byte[] data = java.nio.file.Files.readAllBytes(file.toPath());
                 String mime = java.nio.file.Files.probeContentType(file.toPath());
                 if (mime == null)
                     mime = "application/octet-stream";
                 controller.log("Subiendo archivo desde diálogo: " + file.getName());
-                String token = controller.getService().uploadFile(data, mime);
+                String token = controller.getService().uploadFile(file.toPath(), mime, listener);
                 return new UploadToken(token, file.getName(), mime);
             } catch (Exception ex) {
                 throw new RuntimeException(ex.getMessage());
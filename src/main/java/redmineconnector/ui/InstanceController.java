@@ -18,16 +18,20 @@ import javax.swing.JDialog;
 import javax.swing.SwingUtilities;
 import javax.swing.SwingWorker;
 
+import redmineconnector.util.AppConstants;
+import redmineconnector.util.RequestScheduler;
 import redmineconnector.util.SwingWorkerFactory;
 import redmineconnector.util.LoggerUtil;
 
 import redmineconnector.config.ConfigManager;
 import redmineconnector.config.ConnectionConfig;
 import redmineconnector.config.StyleConfig;
+import redmineconnector.http.CancellationToken;
 import redmineconnector.model.SimpleEntity;
 import redmineconnector.model.Task;
 import redmineconnector.service.DataService;
 import redmineconnector.service.AsyncDataService;
+import redmineconnector.service.BatchMutationEngine;
 import redmineconnector.service.HttpDataService;
 
 import redmineconnector.ui.dialogs.HelpDialog;
@@ -85,6 +89,10 @@ import redmineconnector.util.I18n;
  *     │ CachedDataService │ ← Decorador de Caché
  *     └────┬──────────────┘
  *          │
+ *     ┌────▼──────────────────┐
+ *     │ CoalescingDataService │ ← Fusión de peticiones simultáneas
+ *     └────┬──────────────────┘
+ *          │
  *     ┌────▼────────┐
  *     │ HttpDataService │ ← Cliente HTTP Real
  *     └─────────────┘
@@ -134,6 +142,9 @@ public class InstanceController {
     private final InstanceView view;
     private DataService service;
     private AsyncDataService asyncService;
+    private redmineconnector.service.CoalescingDataService coalescingService;
+    private redmineconnector.http.CircuitBreaker circuitBreaker;
+    private final Consumer<redmineconnector.http.CircuitBreaker.State> circuitListener = this::onCircuitStateChanged;
 
     private final MetadataManager metadataManager;
     private final TaskManager taskManager;
@@ -141,7 +152,16 @@ public class InstanceController {
     private final Consumer<String> logger;
 
     private javax.swing.Timer autoRefreshTimer;
-    private boolean metadataLoaded = false;
+    // Read by refresh stages outside refreshCommitLock
+    private volatile boolean metadataLoaded = false;
+    /** Metadata components loaded by stage 2 of a refresh */
+    private static final String[] METADATA_TYPES = { "users", "trackers", "priorities", "statuses", "categories",
+            "versions", "activities" };
+    // Token of the latest refresh; starting a new one cancels the previous
+    private final java.util.concurrent.atomic.AtomicReference<CancellationToken> currentRefresh =
+            new java.util.concurrent.atomic.AtomicReference<>();
+    private final Object refreshCommitLock = new Object();
+    private Consumer<BatchMutationEngine.Batch<?>> batchMonitor;
     private boolean isFirstLoad = true;
 
     // Helpers
@@ -222,27 +242,55 @@ public class InstanceController {
     }
 
     private void initService() {
-        // Core HTTP Service
-        DataService httpService = new HttpDataService(config.url, config.apiKey, msg -> log(msg));
-
-        // Caching Layer (Wraps HTTP Service)
+        // New service (possibly another server/project): next refresh is a full load
+        taskManager.resetSync();
+
+        // Shared HTTP transport for this server (keep-alive, per-host limit)
+        redmineconnector.http.HttpClientPool.configure(config.url, config.maxConnections, config.gzipRequests);
+
+        // Circuit breaker of the server drives offline mode (re-subscribe: URL may change)
+        if (circuitBreaker != null)
+            circuitBreaker.removeListener(circuitListener);
+        circuitBreaker = redmineconnector.http.CircuitBreaker.forUrl(config.url);
+        circuitBreaker.addListener(circuitListener);
+        if (config.warmUp)
+            redmineconnector.http.HttpClientPool.warmUpAsync(config.url);
+
+        // Core HTTP Service (transient failures retried with backoff)
+        redmineconnector.http.RetryPolicy retryPolicy = new redmineconnector.http.RetryPolicy(config.retryAttempts,
+                config.retryDelayMs, config.retryDelayMs * 16L, config.retryPuts);
+        DataService httpService = new HttpDataService(config.url, config.apiKey, msg -> log(msg),
+                new redmineconnector.http.RetryingTransport(
+                        redmineconnector.http.HttpClientPool.forUrl(config.url), retryPolicy));
+
+        // Single-flight Layer: identical concurrent reads (also from other tabs on
+        // the same server and user) share one request
+        this.coalescingService = new redmineconnector.service.CoalescingDataService(httpService,
+                config.url + "|" + config.apiKey);
+
+        // Caching Layer (Wraps Coalescing Service)
         redmineconnector.service.CacheService simpleCache = new redmineconnector.service.SimpleCacheService();
         redmineconnector.service.CachedDataService cachedService = new redmineconnector.service.CachedDataService(
-                httpService, simpleCache);
+                coalescingService, simpleCache);
 
         // Async Wrapper (Wraps Cached Service), available for future SwingWorker
         // replacement
-        this.asyncService = new redmineconnector.service.AsyncDataService(cachedService);
+        this.asyncService = new redmineconnector.service.AsyncDataService(cachedService,
+                redmineconnector.service.AsyncDataService.ThreadMode.parse(config.asyncThreads),
+                RequestScheduler.Lane.REFRESH);
 
         // Controller uses cached service by default
         this.service = cachedService;
 
         // Initialize Custom Fields Cache (Load known fields for this instance)
         redmineconnector.service.CustomFieldsCache.load(config.url);
+        // List-type fields known from a previous session: only their values are interned
+        redmineconnector.util.SymbolTable.forUrl(config.url)
+                .addCustomFields(redmineconnector.service.CustomFieldsCache.getDefinitions(config.url));
 
         // Trigger background learning: scan recent tasks to find custom fields
         // This is useful if the user lacks permissions to fetch /custom_fields.json
-        SwingWorkerFactory.executeAsync(
+        SwingWorkerFactory.executeAsync(RequestScheduler.Lane.BACKGROUND,
                 () -> {
                     try {
                         // Fetch last 50 tasks to learn schema
@@ -323,7 +371,7 @@ public class InstanceController {
                         log(I18n.format("controller.log.double_click", t.id));
                         view.setLoading(true);
 
-                        SwingWorkerFactory.executeAsync(
+                        SwingWorkerFactory.executeAsync(RequestScheduler.Lane.INTERACTIVE,
                                 () -> {
                                     try {
                                         return service.fetchTaskDetails(t.id);
@@ -397,7 +445,7 @@ public class InstanceController {
 
     public void onRefresh() {
         log(I18n.get("controller.log.refresh"));
-        refreshData();
+        refreshData(true);
     }
 
     public void onCreate() {
@@ -502,165 +550,280 @@ public class InstanceController {
         viewManager.setOnSyncMatch(callback);
     }
 
+    /**
+     * Receptor de los lotes de escritura de esta pestaña (la barra de progreso
+     * de la ventana principal).
+     */
+    public void setBatchMonitor(Consumer<BatchMutationEngine.Batch<?>> monitor) {
+        this.batchMonitor = monitor;
+    }
+
+    void trackBatch(BatchMutationEngine.Batch<?> batch) {
+        if (batchMonitor != null)
+            batchMonitor.accept(batch);
+    }
+
     public void refreshData() {
+        refreshData(false);
+    }
+
+    /**
+     * Refresca tareas y metadatos.
+     * <p>
+     * Gana el último refresco: cada uno lleva su propio
+     * {@link CancellationToken} y al iniciar uno nuevo se cancela el anterior,
+     * lo que aborta sus peticiones HTTP en curso. Los resultados de un refresco
+     * superado se descartan antes de tocar el TaskManager o el EDT.
+     * <p>
+     * Tareas y metadatos son etapas independientes, cada una con su plazo
+     * ({@link AppConstants#REFRESH_TASKS_DEADLINE_MS},
+     * {@link AppConstants#REFRESH_METADATA_DEADLINE_MS}): la tabla se pinta en
+     * cuanto llegan las tareas y los filtros se completan cuando llegan los
+     * metadatos. Un metadato que falla o vence conserva su último valor
+     * conocido; solo un fallo de las tareas pasa la vista a modo offline.
+     * 
+     * @param forceFull true para recargar la lista completa aunque sea posible una
+     *                  sincronización incremental (delta)
+     */
+    public void refreshData(boolean forceFull) {
         Task selected = view.getSelectedTask();
         int selectedId = selected != null ? selected.id : -1;
         view.setLoading(true);
         log(I18n.get("controller.log.refresh_start"));
 
-        // Load tasks (always)
-        java.util.concurrent.CompletableFuture<List<Task>> tasksFuture = asyncService.fetchTasksAsync(config.projectId,
-                config.showClosed, config.limit);
-
-        // Metadata futures (only if not loaded)
-        java.util.concurrent.CompletableFuture<List<SimpleEntity>> usersFuture = metadataLoaded
-                ? java.util.concurrent.CompletableFuture.completedFuture(metadataManager.getUsers())
-                : asyncService.fetchMetadataAsync("users", config.projectId);
-        java.util.concurrent.CompletableFuture<List<SimpleEntity>> trackersFuture = metadataLoaded
-                ? java.util.concurrent.CompletableFuture.completedFuture(metadataManager.getTrackers())
-                : asyncService.fetchMetadataAsync("trackers", config.projectId);
-        java.util.concurrent.CompletableFuture<List<SimpleEntity>> prioritiesFuture = metadataLoaded
-                ? java.util.concurrent.CompletableFuture.completedFuture(metadataManager.getPriorities())
-                : asyncService.fetchMetadataAsync("priorities", config.projectId);
-        java.util.concurrent.CompletableFuture<List<SimpleEntity>> statusesFuture = metadataLoaded
-                ? java.util.concurrent.CompletableFuture.completedFuture(metadataManager.getStatuses())
-                : asyncService.fetchMetadataAsync("statuses", config.projectId);
-        java.util.concurrent.CompletableFuture<List<SimpleEntity>> categoriesFuture = metadataLoaded
-                ? java.util.concurrent.CompletableFuture.completedFuture(metadataManager.getCategories())
-                : asyncService.fetchMetadataAsync("categories", config.projectId);
-        java.util.concurrent.CompletableFuture<List<SimpleEntity>> versionsFuture = metadataLoaded
-                ? java.util.concurrent.CompletableFuture.completedFuture(metadataManager.getVersions())
-                : asyncService.fetchMetadataAsync("versions", config.projectId);
-        java.util.concurrent.CompletableFuture<List<SimpleEntity>> activitiesFuture = metadataLoaded
-                ? java.util.concurrent.CompletableFuture.completedFuture(metadataManager.getActivities())
-                : asyncService.fetchMetadataAsync("activities", config.projectId);
-        java.util.concurrent.CompletableFuture<SimpleEntity> currentUserFuture = (metadataLoaded
-                && metadataManager.getCurrentUser() != null)
-                        ? java.util.concurrent.CompletableFuture.completedFuture(metadataManager.getCurrentUser())
-                        : asyncService.fetchCurrentUserAsync().exceptionally(e -> null);
-
-        // Wait for all
-        java.util.concurrent.CompletableFuture.allOf(tasksFuture, usersFuture, trackersFuture, prioritiesFuture,
-                statusesFuture, categoriesFuture, versionsFuture, activitiesFuture, currentUserFuture).thenRun(() -> {
-                    try {
-                        List<SimpleEntity> users = usersFuture.join();
-                        List<SimpleEntity> trackers = trackersFuture.join();
-                        List<SimpleEntity> priorities = prioritiesFuture.join();
-                        List<SimpleEntity> statuses = statusesFuture.join();
-                        List<SimpleEntity> categories = categoriesFuture.join();
-                        List<SimpleEntity> versions = versionsFuture.join();
-                        List<SimpleEntity> activities = activitiesFuture.join();
-                        SimpleEntity currentUser = currentUserFuture.join();
-                        List<Task> rawTasks = tasksFuture.join();
-
-                        metadataManager.setMetadata(users, trackers, priorities, statuses, categories, versions,
-                                activities);
-                        metadataManager.setCurrentUser(currentUser);
-                        metadataLoaded = true;
-
-                        if (currentUser != null) {
-                            log(I18n.format("controller.debug.user", currentUser.name, currentUser.id));
-                        }
-                        log(I18n.format("controller.debug.metadata", rawTasks.size()));
+        CancellationToken token = new CancellationToken();
+        CancellationToken superseded = currentRefresh.getAndSet(token);
+        if (superseded != null) {
+            superseded.cancel();
+        }
+        AsyncDataService refreshService = asyncService.withCancellation(token);
+
+        // Load tasks (always): delta since the last mark when possible, full
+        // reload otherwise (first load, closed toggle, periodic reconcile)
+        java.util.concurrent.CompletableFuture<TaskManager.SyncResult> tasksFuture = !forceFull && config.deltaSync
+                && taskManager.canDeltaSync(config.projectId, config.showClosed, config.fullSyncMinutes * 60_000L)
+                        ? fetchTasksDelta(config.projectId, refreshService, token)
+                        : fetchTasksFull(config.projectId, refreshService, token);
+
+        // Stage 1: bind the table as soon as the tasks arrive
+        AsyncDataService.withDeadline(tasksFuture, AppConstants.REFRESH_TASKS_DEADLINE_MS).thenAccept(sync -> {
+            List<Task> effectiveTasks;
+            synchronized (refreshCommitLock) {
+                if (token.isCancelled()) {
+                    LoggerUtil.logDebug("InstanceController", "Superseded refresh dropped");
+                    return;
+                }
+                List<Task> rawTasks = sync.getTasks();
+                log(I18n.format("controller.debug.metadata", rawTasks.size()));
+                taskManager.classifyTasks(rawTasks, config.includeEpics);
+                // The mark only moves with the list it describes
+                taskManager.commitSync(sync);
+                effectiveTasks = taskManager.getCurrentTasks();
+                metadataManager.enrichMetadataFromTasks(effectiveTasks);
+            }
 
-                        taskManager.classifyTasks(rawTasks, config.includeEpics);
-                        List<Task> effectiveTasks = taskManager.getCurrentTasks();
-                        metadataManager.enrichMetadataFromTasks(effectiveTasks);
+            javax.swing.SwingUtilities.invokeLater(() -> {
+                if (token.isCancelled()) {
+                    return;
+                }
+                try {
+                    view.bindData(effectiveTasks);
+                    applyFilters();
 
-                        // Process metadata on EDT
-                        javax.swing.SwingUtilities.invokeLater(() -> {
+                    if (selectedId != -1) {
+                        for (int i = 0; i < view.table.getRowCount(); i++) {
                             try {
-                                List<SimpleEntity> cats = categories != null ? categories : new ArrayList<>();
-                                Set<Integer> catIds = cats.stream().map(c -> c.id).collect(Collectors.toSet());
-                                for (Task t : effectiveTasks) {
-                                    if (t.categoryId > 0 && t.category != null && !t.category.isEmpty()
-                                            && !catIds.contains(t.categoryId)) {
-                                        cats.add(new SimpleEntity(t.categoryId, t.category));
-                                        catIds.add(t.categoryId);
-                                    }
-                                }
-                                cats.sort(Comparator.comparing(c -> c.name));
-
-                                List<SimpleEntity> stats = statuses != null ? statuses : new ArrayList<>();
-                                Set<Integer> statIds = stats.stream().map(s -> s.id).collect(Collectors.toSet());
-                                for (Task t : effectiveTasks) {
-                                    if (t.statusId > 0 && t.status != null && !t.status.isEmpty()
-                                            && !statIds.contains(t.statusId)) {
-                                        stats.add(new SimpleEntity(t.statusId, t.status));
-                                        statIds.add(t.statusId);
-                                    }
-                                }
-                                stats.sort(Comparator.comparing(s -> s.name));
-
-                                if (versions != null)
-                                    versions.sort(Comparator.comparing(v -> v.name));
-                                if (activities != null)
-                                    activities.sort(Comparator.comparing(a -> a.name));
-
-                                List<SimpleEntity> activeStatuses = new ArrayList<>();
-                                Set<Integer> activeIds = new HashSet<>();
-                                for (Task t : effectiveTasks) {
-                                    if (t.statusId > 0 && activeIds.add(t.statusId)) {
-                                        activeStatuses.add(new SimpleEntity(t.statusId, t.status));
-                                    }
-                                }
-                                activeStatuses.sort(Comparator.comparing(s -> s.name));
-
-                                if (users != null) {
-                                    users.sort((a, b) -> a.name.compareToIgnoreCase(b.name));
-                                }
-
-                                if (currentUser != null) {
-                                    view.setCurrentUser(currentUser);
+                                Task t = view.model.getTaskAt(view.table.convertRowIndexToModel(i));
+                                if (t.id == selectedId) {
+                                    view.table.setRowSelectionInterval(i, i);
+                                    break;
                                 }
+                            } catch (Exception ignored) {
+                            }
+                        }
+                    }
 
-                                view.bindData(effectiveTasks);
-                                view.updateMultiSelectors(trackers, users, activeStatuses, cats);
+                    log(I18n.format("controller.log.sync_count", effectiveTasks.size()));
+                    checkNotifications(effectiveTasks);
+                    viewManager.setOffline(false);
+                    view.setOfflineMode(false);
+                    view.setLoading(false);
 
-                                if (selectedId != -1) {
-                                    for (int i = 0; i < view.table.getRowCount(); i++) {
-                                        try {
-                                            Task t = view.model.getTaskAt(view.table.convertRowIndexToModel(i));
-                                            if (t.id == selectedId) {
-                                                view.table.setRowSelectionInterval(i, i);
-                                                break;
-                                            }
-                                        } catch (Exception ignored) {
-                                        }
-                                    }
-                                }
+                    // Notify peers that my data has changed (so they can update clone status
+                    // indicators)
+                    notifyPeersOfUpdate();
+                } catch (Exception e) {
+                    view.setLoading(false);
+                    notificationService.showError(I18n.format("controller.error.process", e.getMessage()), e);
+                }
+            });
+        }).exceptionally(e -> {
+            if (token.isCancelled()) {
+                return null;
+            }
+            javax.swing.SwingUtilities.invokeLater(() -> {
+                view.setLoading(false);
+                viewManager.setOffline(true);
+                view.setOfflineMode(true);
+                log("Aviso: No se pudo refrescar. Usando datos en caché (Modo Offline)");
+            });
+            return null;
+        });
 
-                                log(I18n.format("controller.log.sync_count", effectiveTasks.size()));
-                                checkNotifications(effectiveTasks);
-                                view.setOfflineMode(false);
-                                view.setLoading(false);
-
-                                // Notify peers that my data has changed (so they can update clone status
-                                // indicators)
-                                notifyPeersOfUpdate();
-                            } catch (Exception e) {
-                                view.setLoading(false);
-                                notificationService.showError(I18n.format("controller.error.process", e.getMessage()),
-                                        e);
+        // Stage 2: metadata (only if not loaded), each call on its own deadline and
+        // applied on the EDT as soon as it arrives
+        java.util.concurrent.atomic.AtomicBoolean degraded = new java.util.concurrent.atomic.AtomicBoolean();
+        List<java.util.concurrent.CompletableFuture<Void>> stages = new ArrayList<>();
+        for (String type : METADATA_TYPES) {
+            List<SimpleEntity> lastKnown;
+            synchronized (refreshCommitLock) {
+                lastKnown = metadataManager.getMetadata(type);
+            }
+            stages.add(fetchMetadataStage(refreshService, token, type, lastKnown, degraded)
+                    .thenAcceptAsync(values -> {
+                        synchronized (refreshCommitLock) {
+                            if (token.isCancelled()) {
+                                return;
                             }
-                        });
-                    } catch (Exception e) {
-                        javax.swing.SwingUtilities.invokeLater(() -> {
-                            view.setLoading(false);
-                            view.setOfflineMode(true);
-                            log("Aviso: No se pudo refrescar. Usando datos en caché (Modo Offline)");
-                        });
+                            metadataManager.setMetadata(type, values);
+                            metadataManager.enrichMetadataFromTasks(taskManager.getCurrentTasks());
+                        }
+                        applyFilters();
+                    }, javax.swing.SwingUtilities::invokeLater));
+        }
+        SimpleEntity knownUser = metadataManager.getCurrentUser();
+        stages.add(((metadataLoaded && knownUser != null)
+                ? java.util.concurrent.CompletableFuture.completedFuture(knownUser)
+                : AsyncDataService.withDeadline(refreshService.fetchCurrentUserAsync(),
+                        AppConstants.REFRESH_METADATA_DEADLINE_MS).exceptionally(e -> knownUser))
+                .thenAcceptAsync(currentUser -> {
+                    synchronized (refreshCommitLock) {
+                        if (token.isCancelled()) {
+                            return;
+                        }
+                        metadataManager.setCurrentUser(currentUser);
+                    }
+                    if (currentUser != null) {
+                        log(I18n.format("controller.debug.user", currentUser.name, currentUser.id));
+                        view.setCurrentUser(currentUser);
+                    }
+                }, javax.swing.SwingUtilities::invokeLater));
+
+        java.util.concurrent.CompletableFuture.allOf(stages.toArray(new java.util.concurrent.CompletableFuture<?>[0]))
+                .thenRun(() -> {
+                    synchronized (refreshCommitLock) {
+                        if (!token.isCancelled()) {
+                            // Retry the fallen-back components on the next refresh
+                            metadataLoaded = !degraded.get();
+                        }
                     }
                 }).exceptionally(e -> {
-                    javax.swing.SwingUtilities.invokeLater(() -> {
-                        view.setLoading(false);
-                        view.setOfflineMode(true);
-                        log("Aviso: No se pudo refrescar. Usando datos en caché (Modo Offline)");
-                    });
+                    LoggerUtil.logError("InstanceController", "Failed to apply metadata: " + e.getMessage());
                     return null;
                 });
     }
 
+    /**
+     * Metadato de un refresco con plazo propio. Si falla o vence devuelve el
+     * último valor conocido (lista vacía si nunca se cargó) y marca el
+     * refresco como degradado; si ya está cargado no se pide.
+     */
+    private java.util.concurrent.CompletableFuture<List<SimpleEntity>> fetchMetadataStage(
+            AsyncDataService refreshService, CancellationToken token, String type, List<SimpleEntity> lastKnown,
+            java.util.concurrent.atomic.AtomicBoolean degraded) {
+        if (metadataLoaded) {
+            return java.util.concurrent.CompletableFuture.completedFuture(lastKnown);
+        }
+        return AsyncDataService.withDeadline(refreshService.fetchMetadataAsync(type, config.projectId),
+                AppConstants.REFRESH_METADATA_DEADLINE_MS).exceptionally(e -> {
+                    degraded.set(true);
+                    if (!token.isCancelled()) {
+                        Throwable cause = e.getCause() != null ? e.getCause() : e;
+                        log(I18n.format("controller.log.metadata_fallback", type, cause.getMessage()));
+                    }
+                    return lastKnown != null ? lastKnown : new ArrayList<>();
+                });
+    }
+
+    /**
+     * Rellena los filtros con los metadatos conocidos y las tareas actuales.
+     * Se llama en el EDT tras cada etapa del refresco.
+     */
+    private void applyFilters() {
+        List<SimpleEntity> trackers;
+        List<SimpleEntity> users;
+        List<SimpleEntity> activeStatuses;
+        List<SimpleEntity> categories;
+        SimpleEntity currentUser;
+        synchronized (refreshCommitLock) {
+            trackers = copyOf(metadataManager.getTrackers());
+            users = copyOf(metadataManager.getUsers());
+            categories = copyOf(metadataManager.getCategories());
+            activeStatuses = metadataManager.getActiveStatuses(taskManager.getCurrentTasks());
+            currentUser = metadataManager.getCurrentUser();
+        }
+        if (currentUser != null) {
+            view.setCurrentUser(currentUser);
+        }
+        view.updateMultiSelectors(trackers, users, activeStatuses, categories);
+    }
+
+    private static List<SimpleEntity> copyOf(List<SimpleEntity> list) {
+        return list != null ? new ArrayList<>(list) : new ArrayList<>();
+    }
+
+    private java.util.concurrent.CompletableFuture<TaskManager.SyncResult> fetchTasksFull(String pid,
+            AsyncDataService refreshService, CancellationToken token) {
+        boolean showClosed = config.showClosed;
+        return refreshService.fetchTasksAsync(pid, showClosed, config.limit).thenApply(tasks -> {
+            ensureCurrent(token);
+            return taskManager.fullSync(pid, tasks, showClosed);
+        });
+    }
+
+    private java.util.concurrent.CompletableFuture<TaskManager.SyncResult> fetchTasksDelta(String pid,
+            AsyncDataService refreshService, CancellationToken token) {
+        String mark = taskManager.getSyncMark(pid);
+        boolean showClosed = config.showClosed;
+        int limit = config.limit;
+        return refreshService.fetchTasksUpdatedSinceAsync(pid, mark).thenApply(changed -> {
+            synchronized (refreshCommitLock) {
+                ensureCurrent(token);
+                log(I18n.format("controller.log.delta_sync", changed.size(), mark));
+                // Closed tasks leave the list when closed tasks are hidden
+                return taskManager.mergeDelta(pid, changed, t -> showClosed || !isClosedStatus(t.status),
+                        limit);
+            }
+        }).thenCompose(merged -> refreshService
+                .fetchTaskListProbeAsync(pid, showClosed, TaskManager.probeIndex(merged)).thenApply(probe -> {
+                    // Tasks moved to another project or deleted are missing from the delta
+                    ensureCurrent(token);
+                    if (TaskManager.matchesProbe(merged, probe, limit)) {
+                        return merged;
+                    }
+                    log(I18n.get("controller.log.delta_mismatch"));
+                    return null;
+                })).handle((merged, e) -> {
+            if (e == null && merged != null)
+                return java.util.concurrent.CompletableFuture.completedFuture(merged);
+            ensureCurrent(token);
+            if (e != null) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                log(I18n.format("controller.log.delta_fallback", cause.getMessage()));
+            }
+            return fetchTasksFull(pid, refreshService, token);
+        }).thenCompose(f -> f);
+    }
+
+    /**
+     * Interrumpe la cadena de un refresco superado por otro más reciente.
+     */
+    private static void ensureCurrent(CancellationToken token) {
+        if (token.isCancelled()) {
+            throw new java.util.concurrent.CancellationException("Refresh superseded");
+        }
+    }
+
     private void notifyPeersOfUpdate() {
         if (viewManager.getPeers() != null) {
             for (InstanceController peer : viewManager.getPeers()) {
@@ -1027,7 +1190,7 @@ public class InstanceController {
                 KeyboardShortcutManager.CommonShortcuts.REFRESH,
                 () -> {
                     log(I18n.get("controller.log.shortcut.refresh"));
-                    refreshData();
+                    refreshData(true);
                 });
 
         // Find (Focus Search)
@@ -1049,23 +1212,24 @@ public class InstanceController {
                     if (selected != null) {
                         log("Atajo Enter: Abriendo tarea #" + selected.id);
                         view.setLoading(true);
-                        new SwingWorker<Task, Void>() {
-                            @Override
-                            protected Task doInBackground() throws Exception {
-                                return service.fetchTaskDetails(selected.id);
-                            }
+                        RequestScheduler.shared().execute(RequestScheduler.Lane.INTERACTIVE,
+                                new SwingWorker<Task, Void>() {
+                                    @Override
+                                    protected Task doInBackground() throws Exception {
+                                        return service.fetchTaskDetails(selected.id);
+                                    }
 
-                            @Override
-                            protected void done() {
-                                view.setLoading(false);
-                                try {
-                                    openCreateDialog(get());
-                                } catch (Exception ex) {
-                                    log("Aviso: No se cargaron detalles completos. " + ex.getMessage());
-                                    openCreateDialog(selected);
-                                }
-                            }
-                        }.execute();
+                                    @Override
+                                    protected void done() {
+                                        view.setLoading(false);
+                                        try {
+                                            openCreateDialog(get());
+                                        } catch (Exception ex) {
+                                            log("Aviso: No se cargaron detalles completos. " + ex.getMessage());
+                                            openCreateDialog(selected);
+                                        }
+                                    }
+                                });
                     }
                 });
 
@@ -1120,6 +1284,10 @@ public class InstanceController {
         return asyncService;
     }
 
+    public redmineconnector.service.CoalescingDataService getCoalescingService() {
+        return coalescingService;
+    }
+
     public String getTitle() {
         return viewManager.getTitle();
     }
@@ -1164,7 +1332,7 @@ public class InstanceController {
 
     public void partialRefresh(int taskId) {
         view.setLoading(true);
-        SwingWorkerFactory.executeAsync(
+        SwingWorkerFactory.executeAsync(RequestScheduler.Lane.REFRESH,
                 () -> {
                     try {
                         return service.fetchTaskDetails(taskId);
@@ -1183,10 +1351,36 @@ public class InstanceController {
 
     }
 
+    /**
+     * Reacciona a los cambios del circuit breaker del servidor: con el circuito
+     * abierto la vista pasa a modo offline y las peticiones fallan al instante;
+     * cuando una sonda vuelve a obtener respuesta se sale del modo offline y se
+     * refrescan los datos.
+     */
+    private void onCircuitStateChanged(redmineconnector.http.CircuitBreaker.State state) {
+        javax.swing.SwingUtilities.invokeLater(() -> {
+            if (state == redmineconnector.http.CircuitBreaker.State.OPEN && !viewManager.isOffline()) {
+                viewManager.setOffline(true);
+                view.setOfflineMode(true);
+                log(I18n.get("controller.log.circuit.open"));
+            } else if (state == redmineconnector.http.CircuitBreaker.State.CLOSED && viewManager.isOffline()) {
+                viewManager.setOffline(false);
+                view.setOfflineMode(false);
+                log(I18n.get("controller.log.circuit.closed"));
+                refreshData();
+            }
+        });
+    }
+
     /**
      * Shuts down the controller and its services.
      */
     public void shutdown() {
+        if (circuitBreaker != null)
+            circuitBreaker.removeListener(circuitListener);
+        CancellationToken refresh = currentRefresh.getAndSet(null);
+        if (refresh != null)
+            refresh.cancel();
         asyncService.shutdown();
     }
 
@@ -1211,8 +1405,8 @@ public class InstanceController {
         long now = System.currentTimeMillis();
         for (Task task : tasks) {
             // Only notify about tasks assigned to current user
-            if (task.assignedToId == currentUser.id && task.createdOn != null) {
-                long timeSinceCreation = now - task.createdOn.getTime();
+            if (task.assignedToId == currentUser.id && task.createdOn != 0) {
+                long timeSinceCreation = now - task.createdOn;
                 // If created in last hour, notify (tracking prevents duplicates)
                 if (timeSinceCreation > 0 && timeSinceCreation < oneHour) {
                     // Check if user is the author (created by themselves)
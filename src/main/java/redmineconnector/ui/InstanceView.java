@@ -17,9 +17,7 @@ import java.awt.event.MouseEvent;
 import java.awt.datatransfer.StringSelection;
 import javax.swing.SwingUtilities;
 import java.net.URI;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -42,6 +40,7 @@ import javax.swing.SwingConstants;
 import javax.swing.table.TableColumn;
 import javax.swing.table.TableRowSorter;
 import javax.swing.SwingWorker;
+import redmineconnector.util.DateCodec;
 import redmineconnector.util.I18n;
 import redmineconnector.model.Attachment;
 import javax.swing.JComboBox;
@@ -517,7 +516,7 @@ public class InstanceView extends JPanel {
         miCopySubDesc.addActionListener(e -> {
             Task t = getSelectedTask();
             if (t != null) {
-                String text = t.subject + "\n\n" + (t.description != null ? t.description : "");
+                String text = t.subject + "\n\n" + (t.getDescription() != null ? t.getDescription() : "");
                 copyToClip(text);
             }
         });
@@ -821,9 +820,9 @@ public class InstanceView extends JPanel {
                             for (int i = 0; i < model.getRowCount(); i++) {
                                 Task t = model.getTaskAt(i);
                                 if (t.id == taskId) {
-                                    t.journals = fullTask.journals;
+                                    t.setJournals(fullTask.getJournals());
                                     t.attachments = fullTask.attachments;
-                                    t.description = fullTask.description;
+                                    t.setDescription(fullTask.getDescription());
                                     t.isFullDetails = true;
                                     break;
                                 }
@@ -835,7 +834,8 @@ public class InstanceView extends JPanel {
                     }
                 }
             };
-            worker.execute();
+            redmineconnector.util.RequestScheduler.shared()
+                    .execute(redmineconnector.util.RequestScheduler.Lane.INTERACTIVE, worker);
         } else {
             // Already has full details, update immediately
             quickViewPanel.updateTask(selectedTask);
@@ -898,7 +898,7 @@ public class InstanceView extends JPanel {
         p.add(new JLabel(I18n.get("task.form.label.time_date")), g);
         g.gridx = 3;
         JPanel dateP = new JPanel(new BorderLayout());
-        txtTimeDate.setText(new SimpleDateFormat("dd/MM/yyyy").format(new Date()));
+        txtTimeDate.setText(DateCodec.displayDay(DateCodec.today()));
         JButton btnPick = new JButton("📅");
         btnPick.addActionListener(e -> {
             DatePickerPopup popup = new DatePickerPopup(d -> txtTimeDate.setText(d));
@@ -961,8 +961,10 @@ public class InstanceView extends JPanel {
             try {
                 double h = Double.parseDouble(txtTimeHours.getText().replace(",", "."));
                 String dStr = txtTimeDate.getText().trim();
-                Date d = new SimpleDateFormat("dd/MM/yyyy").parse(dStr);
-                String isoDate = new SimpleDateFormat("yyyy-MM-dd").format(d);
+                int day = DateCodec.parseDisplayDay(dStr);
+                if (day == DateCodec.NO_DAY)
+                    throw new java.text.ParseException("Unparseable date: \"" + dStr + "\"", 0);
+                String isoDate = DateCodec.isoDay(day);
                 SimpleEntity user = (SimpleEntity) cbTimeUser.getSelectedItem();
                 int uid = user != null ? user.id : 0;
                 SimpleEntity act = (SimpleEntity) cbActivity.getSelectedItem();
@@ -1114,45 +1116,23 @@ public class InstanceView extends JPanel {
         addMultiFilter(fs, filtersPanel.getMsCategory(), 5); // Corrected from 8 to 5
         addAssignmentFilter(fs, filtersPanel.getMsAssigned(), 7); // Corrected from 6 to 7
 
-        final boolean isFromValid = dFrom.matches("\\d{2}/\\d{2}/\\d{4}");
-        final boolean isToValid = dTo.matches("\\d{2}/\\d{2}/\\d{4}");
+        // Parsed once per filter pass; rows are compared as local days, so 'To'
+        // includes the whole day
+        final int fromDay = DateCodec.parseDisplayDay(dFrom);
+        final int toDay = DateCodec.parseDisplayDay(dTo);
 
-        if (isFromValid || isToValid) {
+        if (fromDay != DateCodec.NO_DAY || toDay != DateCodec.NO_DAY) {
             fs.add(new RowFilter<Object, Object>() {
 
                 @Override
                 public boolean include(Entry<?, ?> entry) {
-                    try {
-                        Date taskDate = (Date) entry.getValue(10); // "Fecha" (CreatedOn) is col 10
-                        if (taskDate == null)
-                            return false;
-                        SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
-                        Date d1 = isFromValid ? sdf.parse(dFrom) : null;
-                        Date d2 = isToValid ? sdf.parse(dTo) : null;
-
-                        // Debug log for first few rows just to see? No, avoiding flood. But logging
-                        // valid dates once:
-                        // if (controller != null) controller.log("Filtrando fecha tarea: " + taskDate);
-
-                        if (d1 != null && taskDate.before(d1))
-                            return false;
-                        // For 'To', we should include the whole day, so check against next day or just
-                        // careful comparison
-                        // If d2 is 22/12/2025 00:00, and task is 22/12/2025 10:00, it might fail check
-                        // if we don't adjust
-                        if (d2 != null) {
-                            java.util.Calendar cal = java.util.Calendar.getInstance();
-                            cal.setTime(d2);
-                            cal.set(java.util.Calendar.HOUR_OF_DAY, 23);
-                            cal.set(java.util.Calendar.MINUTE, 59);
-                            cal.set(java.util.Calendar.SECOND, 59);
-                            if (taskDate.after(cal.getTime()))
-                                return false;
-                        }
-                        return true;
-                    } catch (Exception e) {
+                    Object v = entry.getValue(TaskTableModel.COL_CREATED);
+                    if (!(v instanceof Long) || (Long) v == 0)
                         return false;
-                    }
+                    int day = DateCodec.dayOf((Long) v);
+                    if (fromDay != DateCodec.NO_DAY && day < fromDay)
+                        return false;
+                    return toDay == DateCodec.NO_DAY || day <= toDay;
                 }
 
             });
@@ -28,6 +28,7 @@ import javax.swing.border.EmptyBorder;
 import javax.swing.BorderFactory;
 
 import redmineconnector.config.ConfigManager;
+import redmineconnector.service.BatchMutationEngine;
 
 import redmineconnector.ui.theme.ThemeConfig;
 import redmineconnector.ui.theme.ThemeManager;
@@ -54,6 +55,9 @@ public class MainFrame extends JFrame {
     private JTabbedPane tabbedPane;
     private JMenuBar menuBar;
     private final javax.swing.JProgressBar progressBar = new javax.swing.JProgressBar(0, 100);
+    private final JButton btnCancelBatch = new JButton(redmineconnector.util.I18n.get("main.batch.cancel"));
+    // Batch writes shown in the progress bar (EDT only)
+    private final List<BatchMutationEngine.Batch<?>> activeBatches = new ArrayList<>();
 
     public MainFrame() {
         super(APP_TITLE);
@@ -151,7 +155,15 @@ public class MainFrame extends JFrame {
         progressBar.setVisible(false);
         progressBar.setStringPainted(true);
         progressBar.setPreferredSize(new Dimension(Integer.MAX_VALUE, 20));
-        footer.add(progressBar);
+        btnCancelBatch.setVisible(false);
+        btnCancelBatch.addActionListener(e -> {
+            activeBatches.forEach(BatchMutationEngine.Batch::cancel);
+            btnCancelBatch.setEnabled(false);
+        });
+        JPanel progressRow = new JPanel(new BorderLayout(5, 0));
+        progressRow.add(progressBar, BorderLayout.CENTER);
+        progressRow.add(btnCancelBatch, BorderLayout.EAST);
+        footer.add(progressRow);
 
         add(footer, BorderLayout.SOUTH);
 
@@ -193,6 +205,7 @@ public class MainFrame extends JFrame {
         for (InstanceController c : controllers) {
             c.setPeers(controllers);
             c.setOnSyncMatch(found -> updateTabHeader(c, found));
+            c.setBatchMonitor(this::trackBatch);
         }
     }
 
@@ -419,6 +432,10 @@ public class MainFrame extends JFrame {
         JMenuItem miViewLog = new JMenuItem("📋 " + redmineconnector.util.I18n.get("main.menu.view.log"));
         miViewLog.addActionListener(e -> logPanel.expandLog());
         mView.add(miViewLog);
+
+        JMenuItem miNetDiag = new JMenuItem("📶 " + redmineconnector.util.I18n.get("main.menu.view.network"));
+        miNetDiag.addActionListener(e -> new redmineconnector.ui.dialogs.NetworkDiagnosticsDialog(this).setVisible(true));
+        mView.add(miNetDiag);
         menuBar.add(mView);
 
         // Dynamic Client Menus
@@ -712,6 +729,43 @@ public class MainFrame extends JFrame {
         SwingUtilities.invokeLater(() -> progressBar.setVisible(false));
     }
 
+    /**
+     * Shows the progress of a batch write of any tab in the progress bar, with
+     * a button that cancels the pending items. Several batches at once are
+     * shown as their sum.
+     */
+    private void trackBatch(BatchMutationEngine.Batch<?> batch) {
+        SwingUtilities.invokeLater(() -> {
+            activeBatches.add(batch);
+            updateBatchProgress();
+        });
+        batch.addListener(b -> SwingUtilities.invokeLater(this::updateBatchProgress));
+    }
+
+    private void updateBatchProgress() {
+        int done = 0;
+        int total = 0;
+        int failed = 0;
+        for (BatchMutationEngine.Batch<?> b : activeBatches) {
+            done += b.getCompleted();
+            total += b.getTotal();
+            failed += b.getFailedCount();
+        }
+        if (done >= total) {
+            activeBatches.clear();
+            btnCancelBatch.setVisible(false);
+            progressBar.setVisible(false);
+            return;
+        }
+        String label = activeBatches.get(activeBatches.size() - 1).getLabel();
+        showProgress(redmineconnector.util.I18n.format("main.batch.progress", label, done, total, failed),
+                done * 100 / total);
+        if (!btnCancelBatch.isVisible()) {
+            btnCancelBatch.setEnabled(true);
+            btnCancelBatch.setVisible(true);
+        }
+    }
+
     public void logToGlobal(String msg) {
         logToGlobal("System", msg);
     }
@@ -34,6 +34,60 @@ public class MetadataManager {
         this.loaded = true;
     }
 
+    /**
+     * Sets one component, named as in {@code DataService.fetchMetadata}
+     * ({@code "users"}, {@code "trackers"}, ...), as soon as it arrives.
+     */
+    public void setMetadata(String type, List<SimpleEntity> values) {
+        switch (type) {
+            case "users":
+                users = values;
+                break;
+            case "trackers":
+                trackers = values;
+                break;
+            case "priorities":
+                priorities = values;
+                break;
+            case "statuses":
+                statuses = values;
+                break;
+            case "categories":
+                categories = values;
+                break;
+            case "versions":
+                versions = values;
+                break;
+            case "activities":
+                activities = values;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown metadata type: " + type);
+        }
+    }
+
+    /** Component set by {@link #setMetadata(String, List)}, or null. */
+    public List<SimpleEntity> getMetadata(String type) {
+        switch (type) {
+            case "users":
+                return users;
+            case "trackers":
+                return trackers;
+            case "priorities":
+                return priorities;
+            case "statuses":
+                return statuses;
+            case "categories":
+                return categories;
+            case "versions":
+                return versions;
+            case "activities":
+                return activities;
+            default:
+                throw new IllegalArgumentException("Unknown metadata type: " + type);
+        }
+    }
+
     public boolean isLoaded() {
         return loaded;
     }
@@ -73,6 +127,12 @@ public class MetadataManager {
     }
 
     public void enrichMetadataFromTasks(List<Task> tasks) {
+        // Tasks may arrive before the metadata of the first refresh
+        if (categories == null)
+            categories = new java.util.ArrayList<>();
+        if (statuses == null)
+            statuses = new java.util.ArrayList<>();
+
         // Add missing categories
         java.util.Set<Integer> catIds = categories.stream().map(c -> c.id).collect(java.util.stream.Collectors.toSet());
         for (Task t : tasks) {
@@ -1,9 +1,13 @@
 package redmineconnector.ui;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 import redmineconnector.model.Task;
 
 /**
@@ -16,6 +20,41 @@ public class TaskManager {
     private final Set<Integer> knownTaskIds = new HashSet<>();
     private final Set<Integer> pinnedTaskIds = new HashSet<>();
 
+    // Delta sync state: highest updated_on seen per project, and last full load
+    private final Map<String, String> syncMarks = new HashMap<>();
+    private long lastFullSync = 0;
+    private boolean lastFullSyncClosed = false;
+
+    /**
+     * Task list fetched by a refresh, with the sync state to record once the
+     * list is committed ({@link #commitSync}). Recording it earlier would let a
+     * dropped refresh move the mark past changes that never reached the table.
+     */
+    public static final class SyncResult {
+        private final String projectId;
+        private final List<Task> tasks;
+        private final String mark;
+        private final boolean full;
+        private final boolean showClosed;
+
+        SyncResult(String projectId, List<Task> tasks, String mark, boolean full, boolean showClosed) {
+            this.projectId = projectId;
+            this.tasks = tasks;
+            this.mark = mark;
+            this.full = full;
+            this.showClosed = showClosed;
+        }
+
+        /** Raw task list, to be passed to {@link TaskManager#classifyTasks}. */
+        public List<Task> getTasks() {
+            return tasks;
+        }
+
+        public boolean isFull() {
+            return full;
+        }
+    }
+
     public boolean isEpic(Task t) {
         if (t == null)
             return false;
@@ -103,6 +142,122 @@ public class TaskManager {
         return news;
     }
 
+    // --- Delta sync ---
+
+    /**
+     * Returns the high-water {@code updated_on} mark of a project, or null if it
+     * has never been fully loaded.
+     */
+    public synchronized String getSyncMark(String projectId) {
+        return syncMarks.get(projectId);
+    }
+
+    /**
+     * True when a delta refresh is possible: the project has a mark, the last
+     * full load used the same closed-tasks setting, and the reconcile interval
+     * has not elapsed.
+     */
+    public synchronized boolean canDeltaSync(String projectId, boolean showClosed, long fullSyncIntervalMs) {
+        String mark = syncMarks.get(projectId);
+        return mark != null && !mark.isEmpty() && lastFullSyncClosed == showClosed
+                && System.currentTimeMillis() - lastFullSync < fullSyncIntervalMs;
+    }
+
+    /**
+     * Full load of a project; once committed, its mark is reset to the newest
+     * {@code updated_on} of the loaded tasks.
+     */
+    public SyncResult fullSync(String projectId, List<Task> tasks, boolean showClosed) {
+        return new SyncResult(projectId, tasks, maxUpdatedOn(tasks, null), true, showClosed);
+    }
+
+    /**
+     * Records the sync state of a refresh whose list has just been committed
+     * with {@link #classifyTasks}.
+     */
+    public synchronized void commitSync(SyncResult result) {
+        syncMarks.put(result.projectId, result.mark);
+        if (result.full) {
+            lastFullSync = System.currentTimeMillis();
+            lastFullSyncClosed = result.showClosed;
+        }
+    }
+
+    /** Records a full load of a project at once (tests, cache restore). */
+    public void recordFullSync(String projectId, List<Task> tasks, boolean showClosed) {
+        commitSync(fullSync(projectId, tasks, showClosed));
+    }
+
+    public synchronized void resetSync() {
+        syncMarks.clear();
+        lastFullSync = 0;
+    }
+
+    /**
+     * Merges tasks changed since the last mark into the loaded list.
+     * <p>
+     * Changed tasks replace their previous version; new ones are added. Tasks
+     * rejected by {@code keep} (e.g. closed while closed tasks are hidden) are
+     * removed. The result keeps the server order (id descending) and is trimmed
+     * to {@code limit} tasks, as a full load would be. The project's mark
+     * advances to the newest change when the result is committed.
+     *
+     * @param limit maximum number of tasks; &lt;= 0 means all
+     * @return the merged raw task list and its mark
+     */
+    public synchronized SyncResult mergeDelta(String projectId, List<Task> changed, Predicate<Task> keep,
+            int limit) {
+        Map<Integer, Task> byId = new LinkedHashMap<>();
+        for (Task t : allLoadedTasks)
+            byId.put(t.id, t);
+        for (Task t : changed) {
+            if (keep.test(t))
+                byId.put(t.id, t);
+            else
+                byId.remove(t.id);
+        }
+        List<Task> merged = new ArrayList<>(byId.values());
+        merged.sort((a, b) -> Integer.compare(b.id, a.id));
+        if (limit > 0 && merged.size() > limit) {
+            merged = new ArrayList<>(merged.subList(0, limit));
+        }
+        return new SyncResult(projectId, merged, maxUpdatedOn(changed, syncMarks.get(projectId)), false, false);
+    }
+
+    /**
+     * Position to probe with {@code DataService.fetchTaskListProbe} to check a
+     * merged list: its last task.
+     */
+    public static int probeIndex(SyncResult merged) {
+        return Math.max(merged.tasks.size() - 1, 0);
+    }
+
+    /**
+     * True if {@code merged} still is the list a full load would return: the
+     * server reports as many tasks (or more, when the list is capped at
+     * {@code limit}) and the same id at {@link #probeIndex}. A task moved to
+     * another project or deleted, which a delta does not report, breaks one of
+     * them.
+     *
+     * @param probe {@code {total_count, id}} from the server
+     */
+    public static boolean matchesProbe(SyncResult merged, int[] probe, int limit) {
+        int size = merged.tasks.size();
+        int lastId = size == 0 ? 0 : merged.tasks.get(size - 1).id;
+        boolean capped = limit > 0 && size == limit;
+        return (probe[0] == size || capped && probe[0] > size) && probe[1] == lastId;
+    }
+
+    private static String maxUpdatedOn(List<Task> tasks, String current) {
+        // Redmine timestamps are ISO-8601 UTC, so string order is time order
+        String max = current != null ? current : "";
+        for (Task t : tasks) {
+            if (t.updatedOn != null && t.updatedOn.compareTo(max) > 0)
+                max = t.updatedOn;
+        }
+        return max;
+    }
+
     public void clearTasks() {
         allLoadedTasks.clear();
         currentTasks.clear();
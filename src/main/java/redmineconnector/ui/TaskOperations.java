@@ -1,7 +1,6 @@
 package redmineconnector.ui;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -15,6 +14,7 @@ import redmineconnector.model.Task;
 import redmineconnector.model.CustomField;
 import redmineconnector.model.CustomFieldDefinition;
 import redmineconnector.model.UploadToken;
+import redmineconnector.service.BatchMutationEngine;
 import redmineconnector.service.DataService;
 import redmineconnector.service.CustomFieldsCache;
 
@@ -24,6 +24,15 @@ import redmineconnector.service.CustomFieldsCache;
  * para desacoplar la lógica del InstanceController.
  */
 public class TaskOperations {
+    /**
+     * Carril masivo del planificador para operaciones en abanico (migración y
+     * descarga de adjuntos): no ocupa los hilos reservados a las peticiones
+     * interactivas y cede la cola ante ellas; el límite real de peticiones
+     * simultáneas por servidor lo impone {@code HostLimiter}.
+     */
+    private static final java.util.concurrent.Executor FANOUT_EXECUTOR = redmineconnector.util.RequestScheduler
+            .shared().executor(redmineconnector.util.RequestScheduler.Lane.BULK);
+
     private final InstanceController controller;
     private final InstanceView view;
     private final DataService service;
@@ -64,14 +73,20 @@ public class TaskOperations {
                         // Descargar y subir en paralelo
                         return java.util.concurrent.CompletableFuture.supplyAsync(() -> {
                             try {
-                                byte[] data = src.downloadAttachment(att);
-                                String token = service.uploadFile(data, att.contentType);
-                                return new UploadToken(token, att.filename, att.contentType);
+                                // Pasa por un fichero temporal en vez de retener el adjunto en memoria
+                                java.nio.file.Path tmp = java.nio.file.Files.createTempFile("redmine-att-", ".tmp");
+                                try {
+                                    src.downloadAttachmentTo(att, tmp, progressLogger(att.filename));
+                                    String token = service.uploadFile(tmp, att.contentType, null);
+                                    return new UploadToken(token, att.filename, att.contentType);
+                                } finally {
+                                    java.nio.file.Files.deleteIfExists(tmp);
+                                }
                             } catch (Exception e) {
                                 controller.log(I18n.format("op.log.attach.error", att.filename, e.getMessage()));
                                 throw new RuntimeException(e);
                             }
-                        });
+                        }, FANOUT_EXECUTOR);
                     })
                     .collect(java.util.stream.Collectors.toList());
 
@@ -82,7 +97,7 @@ public class TaskOperations {
                             .map(java.util.concurrent.CompletableFuture::join)
                             .collect(java.util.stream.Collectors.toList()))
                     .thenApply(tokens -> {
-                        t.pendingUploads.addAll(tokens);
+                        t.addPendingUploads(tokens);
                         return t;
                     })
                     .thenCompose(task -> {
@@ -235,15 +250,15 @@ public class TaskOperations {
 
                     // Corregir referencias a imágenes en la descripción
                     if (clonedTask.attachments != null && !clonedTask.attachments.isEmpty()) {
-                        clonedTask.description = redmineconnector.util.DescriptionHelper.fixClonedDescription(
-                                clonedTask.description, clonedTask.attachments, config.attachmentFormat);
+                        clonedTask.setDescription(redmineconnector.util.DescriptionHelper.fixClonedDescription(
+                                clonedTask.getDescription(), clonedTask.attachments, config.attachmentFormat));
                     }
 
                     // [MOD] Append Notes (Journals) from the original task
-                    if (originalTask.journals != null && !originalTask.journals.isEmpty()) {
+                    if (originalTask.getJournals() != null && !originalTask.getJournals().isEmpty()) {
                         StringBuilder notesBuilder = new StringBuilder();
                         boolean hasNotes = false;
-                        for (redmineconnector.model.Journal j : originalTask.journals) {
+                        for (redmineconnector.model.Journal j : originalTask.getJournals()) {
                             if (j.notes != null && !j.notes.trim().isEmpty()) {
                                 if (!hasNotes) {
                                     notesBuilder.append("\n\n--- Historial de Notas ---\n");
@@ -255,8 +270,8 @@ public class TaskOperations {
                             }
                         }
                         if (hasNotes) {
-                            clonedTask.description = (clonedTask.description == null ? "" : clonedTask.description)
-                                    + notesBuilder.toString();
+                            String desc = clonedTask.getDescription();
+                            clonedTask.setDescription((desc == null ? "" : desc) + notesBuilder.toString());
                         }
                     }
 
@@ -500,10 +515,10 @@ public class TaskOperations {
                             pw.println(I18n.format("op.file.details.status", full.status));
                             pw.println(I18n.format("op.file.details.assigned", full.assignedTo));
                             pw.println(I18n.get("op.file.details.desc") + "\n"
-                                    + (full.description != null ? full.description : ""));
+                                    + (full.getDescription() != null ? full.getDescription() : ""));
                             pw.println("\n" + I18n.get("op.file.details.history"));
-                            if (full.journals != null && !full.journals.isEmpty()) {
-                                for (redmineconnector.model.Journal j : full.journals) {
+                            if (full.getJournals() != null && !full.getJournals().isEmpty()) {
+                                for (redmineconnector.model.Journal j : full.getJournals()) {
                                     if (j.notes != null && !j.notes.trim().isEmpty()) {
                                         pw.println("----------------------------------------");
                                         pw.println(j.user + " (" + j.createdOn + "):");
@@ -525,31 +540,34 @@ public class TaskOperations {
                                     .map(att -> java.util.concurrent.CompletableFuture.runAsync(() -> {
                                         try {
                                             controller.log(I18n.format("op.log.download.attach", att.filename));
-                                            byte[] data = service.downloadAttachment(att);
-
-                                            // Validación básica de contenido binario
-                                            if (data.length > 0 && data.length < 5000) {
-                                                String start = new String(data, 0, Math.min(data.length, 100))
-                                                        .toLowerCase();
-                                                if (start.contains("<!doctype html") || start.contains("<html")) {
-                                                    throw new Exception(
-                                                            "El servidor devolvió una página HTML en lugar del archivo (posible error de permisos o login).");
-                                                }
-                                            }
-
                                             String safeFileName = att.filename == null ? "adjunto_" + att.id
                                                     : att.filename;
                                             safeFileName = safeFileName.replaceAll("[^a-zA-Z0-9.-]", "_");
+                                            File dest = new File(attDir, safeFileName);
+                                            // Ya descargado en una pasada anterior; si quedó a medias
+                                            // (.part), downloadAttachmentTo reanuda con Range
+                                            if (att.filesize > 0 && dest.length() == att.filesize) {
+                                                controller.log(I18n.format("op.log.download.attach.skip",
+                                                        att.filename));
+                                                return;
+                                            }
+
+                                            // Directo a disco: el adjunto nunca se carga entero en memoria
+                                            service.downloadAttachmentTo(att, dest.toPath(),
+                                                    progressLogger(att.filename));
 
-                                            try (FileOutputStream fos = new FileOutputStream(
-                                                    new File(attDir, safeFileName))) {
-                                                fos.write(data);
+                                            // Validación básica de contenido binario
+                                            if (dest.length() > 0 && dest.length() < 5000
+                                                    && looksLikeHtml(dest.toPath())) {
+                                                dest.delete();
+                                                throw new Exception(
+                                                        "El servidor devolvió una página HTML en lugar del archivo (posible error de permisos o login).");
                                             }
                                         } catch (Exception ex) {
                                             controller.log(I18n.format("op.log.download.attach.error", att.filename,
                                                     ex.getMessage()));
                                         }
-                                    }))
+                                    }, FANOUT_EXECUTOR))
                                     .collect(java.util.stream.Collectors.toList());
 
                             // Esperar a todos los adjuntos
@@ -575,14 +593,40 @@ public class TaskOperations {
                 () -> view.setLoading(false));
     }
 
+    /**
+     * Registra el progreso de descargas grandes (cada 10%, solo ficheros de
+     * más de 1 MB para no saturar el log).
+     */
+    private redmineconnector.http.TransferListener progressLogger(String filename) {
+        final int[] lastDecile = { 0 };
+        return (done, total) -> {
+            if (total < 1024 * 1024)
+                return;
+            int decile = (int) (done * 10 / total);
+            if (decile > lastDecile[0] && decile < 10) {
+                lastDecile[0] = decile;
+                controller.log(I18n.format("op.log.download.progress", filename, decile * 10));
+            }
+        };
+    }
+
+    private static boolean looksLikeHtml(java.nio.file.Path file) {
+        byte[] head = new byte[100];
+        try (java.io.InputStream in = java.nio.file.Files.newInputStream(file)) {
+            int n = in.read(head);
+            String start = n > 0 ? new String(head, 0, n).toLowerCase() : "";
+            return start.contains("<!doctype html") || start.contains("<html");
+        } catch (java.io.IOException e) {
+            return false;
+        }
+    }
+
     public void performBulkUpdate(int[] rows, SimpleEntity s, SimpleEntity p, SimpleEntity a, SimpleEntity cat,
             SimpleEntity v, Integer doneRatio, String note) {
         view.setLoading(true);
         controller.log(I18n.format("op.log.bulk.start", rows.length));
 
-        // Crear lista de futuros de actualización (ejecución paralela)
-        java.util.List<java.util.concurrent.CompletableFuture<String>> updateFutures = new java.util.ArrayList<>();
-
+        java.util.List<Task> toUpdate = new java.util.ArrayList<>(rows.length);
         for (int r : rows) {
             Task t = view.model.getTaskAt(view.table.convertRowIndexToModel(r));
 
@@ -614,47 +658,13 @@ public class TaskOperations {
                 t.comment = note;
             }
 
-            // Crear actualización asíncrona para esta tarea
-            final Task taskToUpdate = t;
-            java.util.concurrent.CompletableFuture<String> updateFuture = java.util.concurrent.CompletableFuture
-                    .supplyAsync(() -> {
-                        try {
-                            service.updateTask(taskToUpdate);
-                            taskToUpdate.comment = ""; // reset
-                            return I18n.format("op.res.bulk.updated", taskToUpdate.id);
-                        } catch (Exception e) {
-                            return I18n.format("op.res.bulk.error", taskToUpdate.id, e.getMessage());
-                        }
-                    });
-
-            updateFutures.add(updateFuture);
+            toUpdate.add(t);
         }
 
-        // Esperar a que TODAS las actualizaciones se completen
-        java.util.concurrent.CompletableFuture.allOf(
-                updateFutures.toArray(new java.util.concurrent.CompletableFuture[0])).thenRun(() -> {
-                    // Loguear todos los resultados
-                    updateFutures.forEach(future -> {
-                        try {
-                            String result = future.join();
-                            controller.log(result);
-                        } catch (Exception e) {
-                            controller.log("Error: " + e.getMessage());
-                        }
-                    });
-
-                    javax.swing.SwingUtilities.invokeLater(() -> {
-                        view.setLoading(false);
-                        controller.refreshData();
-                        controller.log(I18n.get("op.msg.bulk.complete"));
-                    });
-                }).exceptionally(e -> {
-                    javax.swing.SwingUtilities.invokeLater(() -> {
-                        view.setLoading(false);
-                        controller.log(I18n.format("op.log.bulk.error", e.getMessage()));
-                    });
-                    return null;
-                });
+        runUpdateBatch(I18n.get("op.batch.bulk"), toUpdate, batch -> {
+            refreshAfter(batch);
+            controller.log(I18n.get("op.msg.bulk.complete"));
+        });
     }
 
     public void performMultiClose(java.util.List<Task> tasks, SimpleEntity version, SimpleEntity selectedStatus,
@@ -684,11 +694,6 @@ public class TaskOperations {
         // usually, but this is "Close", so it should probably set a status.
         // But original code allowed null.
 
-        java.util.List<java.util.concurrent.CompletableFuture<String>> updateFutures = new java.util.ArrayList<>();
-
-        // Capture success for twin notification safely
-        java.util.List<Task> successfullyClosed = java.util.Collections.synchronizedList(new java.util.ArrayList<>());
-
         for (Task t : tasks) {
             // Aplicar cambios para Multi-Close
             if (closedStatus != null) {
@@ -727,47 +732,18 @@ public class TaskOperations {
                 t.targetVersion = version.name;
             }
             t.comment = I18n.get("version.msg.multiclose_note");
-
-            final Task taskToUpdate = t;
-            java.util.concurrent.CompletableFuture<String> updateFuture = java.util.concurrent.CompletableFuture
-                    .supplyAsync(() -> {
-                        try {
-                            service.updateTask(taskToUpdate);
-                            taskToUpdate.comment = "";
-                            successfullyClosed.add(taskToUpdate);
-                            return I18n.format("op.res.bulk.updated", taskToUpdate.id);
-                        } catch (Exception e) {
-                            return I18n.format("op.res.bulk.error", taskToUpdate.id, e.getMessage());
-                        }
-                    });
-            updateFutures.add(updateFuture);
         }
 
-        java.util.concurrent.CompletableFuture.allOf(
-                updateFutures.toArray(new java.util.concurrent.CompletableFuture[0])).thenRun(() -> {
-                    updateFutures.forEach(future -> {
-                        try {
-                            controller.log(future.join());
-                        } catch (Exception ignored) {
-                        }
-                    });
-
-                    javax.swing.SwingUtilities.invokeLater(() -> {
-                        view.setLoading(false);
-                        controller.refreshData();
-                        controller.log(I18n.get("op.msg.multiclose.complete"));
+        runUpdateBatch(I18n.get("op.batch.multiclose"), tasks, batch -> {
+            refreshAfter(batch);
+            controller.log(I18n.get("op.msg.multiclose.complete"));
 
-                        if (!successfullyClosed.isEmpty()) {
-                            controller.handleTwinClosures(new java.util.ArrayList<>(successfullyClosed));
-                        }
-                    });
-                }).exceptionally(e -> {
-                    javax.swing.SwingUtilities.invokeLater(() -> {
-                        view.setLoading(false);
-                        controller.log(I18n.format("op.log.multiclose.error", e.getMessage()));
-                    });
-                    return null;
-                });
+            // Only the tasks closed in this round (a retry reports its own)
+            java.util.List<Task> successfullyClosed = batch.getItems(BatchMutationEngine.Outcome.SUCCEEDED);
+            if (!successfullyClosed.isEmpty()) {
+                controller.handleTwinClosures(successfullyClosed);
+            }
+        });
     }
 
     public void performTwinClosure(java.util.List<Task> twins, SimpleEntity version, SimpleEntity status,
@@ -796,7 +772,6 @@ public class TaskOperations {
             }
         }
 
-        java.util.List<java.util.concurrent.CompletableFuture<String>> futures = new java.util.ArrayList<>();
         for (Task t : twins) {
             if (termStatus != null) {
                 t.statusId = termStatus.id;
@@ -836,53 +811,77 @@ public class TaskOperations {
                 t.targetVersion = version.name;
             }
             t.comment = I18n.format("twin.msg.note", source.getTitle());
-
-            final Task taskToUpdate = t;
-            futures.add(java.util.concurrent.CompletableFuture.supplyAsync(() -> {
-                try {
-                    service.updateTask(taskToUpdate);
-                    taskToUpdate.comment = "";
-                    return I18n.format("op.res.bulk.updated", taskToUpdate.id);
-                } catch (Exception e) {
-                    return I18n.format("op.res.bulk.error", taskToUpdate.id, e.getMessage());
-                }
-            }));
         }
 
-        java.util.concurrent.CompletableFuture.allOf(futures.toArray(new java.util.concurrent.CompletableFuture[0]))
-                .thenRun(() -> {
-                    futures.forEach(f -> {
-                        try {
-                            controller.log(f.join());
-                        } catch (Exception e) {
-                        }
-                    });
+        runUpdateBatch(I18n.get("op.batch.twins"), twins, batch -> {
+            refreshAfter(batch);
+            controller.log("Sincronización completada.");
 
-                    // Capture closed twins BEFORE refresh to avoid race conditions
-                    java.util.List<Task> closedTwins = new java.util.ArrayList<>(twins);
-
-                    javax.swing.SwingUtilities.invokeLater(() -> {
-                        view.setLoading(false);
-                        controller.refreshData();
-                        controller.log("Sincronización completada.");
-
-                        // User Feedback: Option 1 & 3 (Toast + Beep)
-                        int closedCount = closedTwins.size();
-                        String msg = "Cierre sincronizado completado con éxito (" + closedCount + " tareas).";
-                        notifications.showSuccess(msg);
-                        java.awt.Toolkit.getDefaultToolkit().beep();
-
-                        // Trigger bidirectional sync: check if status checks are needed?
-                        // FIX: Do NOT recursive trigger handleTwinClosures, as this causes loop
-                        // (A->B->C->B...)
-                        // The source has already notified all peers. We are a leaf node here.
-                        /*
-                         * if (!closedTwins.isEmpty()) {
-                         * controller.log("Verificando cierre bidireccional en instancia de origen...");
-                         * controller.handleTwinClosures(closedTwins);
-                         * }
-                         */
-                    });
-                });
+            // User Feedback: Option 1 & 3 (Toast + Beep)
+            int closedCount = batch.getSucceededCount();
+            if (closedCount > 0) {
+                String msg = "Cierre sincronizado completado con éxito (" + closedCount + " tareas).";
+                notifications.showSuccess(msg);
+                java.awt.Toolkit.getDefaultToolkit().beep();
+            }
+
+            // Trigger bidirectional sync: check if status checks are needed?
+            // FIX: Do NOT recursive trigger handleTwinClosures, as this causes loop
+            // (A->B->C->B...)
+            // The source has already notified all peers. We are a leaf node here.
+        });
+    }
+
+    /**
+     * Guarda las tareas con el {@link BatchMutationEngine} del servidor
+     * (concurrencia acotada, en el carril masivo). El lote se muestra en la
+     * barra de progreso de la ventana, que permite cancelarlo; al terminar se
+     * registra el resultado de cada tarea, se llama a {@code onFinished} en el
+     * EDT y, si alguna falló, se ofrece reintentar solo las fallidas.
+     */
+    private void runUpdateBatch(String label, java.util.List<Task> tasks,
+            java.util.function.Consumer<BatchMutationEngine.Batch<Task>> onFinished) {
+        watchBatch(BatchMutationEngine.forServer(config.url).submit(label, tasks, t -> {
+            service.updateTask(t);
+            t.comment = ""; // reset
+        }), onFinished);
+    }
+
+    /**
+     * Refresca tras un lote. Los cambios se aplican sobre las tareas de la
+     * tabla antes de enviarlos, y un refresco incremental solo trae lo que el
+     * servidor cambió: si alguna tarea falló o se canceló, se recarga la lista
+     * completa para que no conserve valores que no se guardaron.
+     */
+    private void refreshAfter(BatchMutationEngine.Batch<Task> batch) {
+        controller.refreshData(batch.getFailedCount() > 0 || batch.getCancelledCount() > 0);
+    }
+
+    private void watchBatch(BatchMutationEngine.Batch<Task> batch,
+            java.util.function.Consumer<BatchMutationEngine.Batch<Task>> onFinished) {
+        controller.trackBatch(batch);
+        batch.completion().thenAccept(b -> javax.swing.SwingUtilities.invokeLater(() -> {
+            for (BatchMutationEngine.ItemResult<Task> r : b.getResults()) {
+                if (r.getOutcome() == BatchMutationEngine.Outcome.SUCCEEDED) {
+                    controller.log(I18n.format("op.res.bulk.updated", r.getItem().id));
+                } else if (r.getOutcome() == BatchMutationEngine.Outcome.FAILED) {
+                    controller.log(I18n.format("op.res.bulk.error", r.getItem().id, r.getError().getMessage()));
+                } else {
+                    controller.log(I18n.format("op.res.bulk.cancelled", r.getItem().id));
+                }
+            }
+            controller.log(I18n.format("op.log.batch.summary", b.getLabel(), b.getSucceededCount(),
+                    b.getFailedCount(), b.getCancelledCount()));
+            view.setLoading(false);
+            onFinished.accept(b);
+
+            if (b.getFailedCount() > 0 && javax.swing.JOptionPane.showConfirmDialog(view,
+                    I18n.format("op.msg.batch.retry", b.getFailedCount(), b.getTotal()),
+                    I18n.get("op.msg.batch.retry.title"),
+                    javax.swing.JOptionPane.YES_NO_OPTION) == javax.swing.JOptionPane.YES_OPTION) {
+                view.setLoading(true);
+                watchBatch(b.retryFailed(), onFinished);
+            }
+        }));
     }
 }
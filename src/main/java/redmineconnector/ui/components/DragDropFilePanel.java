@@ -14,6 +14,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
 
+import redmineconnector.http.TransferListener;
+import redmineconnector.util.I18n;
+
 /**
  * Panel que permite arrastrar y soltar archivos.
  * Muestra una zona visual de drop y lista de archivos seleccionados.
@@ -26,6 +29,10 @@ public class DragDropFilePanel extends JPanel {
     private JLabel dropZoneLabel;
     private final Consumer<List<File>> onFilesChanged;
 
+    private final JProgressBar uploadBar = new JProgressBar(0, 100);
+    private final JPanel uploadPanel = new JPanel(new BorderLayout(5, 0));
+    private volatile boolean uploadCancelled;
+
     private static final Color DROP_ZONE_NORMAL = new Color(240, 248, 255);
     private static final Color DROP_ZONE_HOVER = new Color(220, 240, 255);
     private static final Color DROP_ZONE_BORDER = new Color(100, 149, 237);
@@ -46,9 +53,13 @@ public class DragDropFilePanel extends JPanel {
         // Lista de archivos
         JPanel fileListPanel = createFileListPanel();
 
+        // Barra de progreso de subida (oculta hasta que se sube algo)
+        JPanel progressPanel = createUploadPanel();
+
         // Añadir componentes
         add(dropZone, BorderLayout.NORTH);
         add(fileListPanel, BorderLayout.CENTER);
+        add(progressPanel, BorderLayout.SOUTH);
 
         // Configurar clipboard paste
         setupClipboardPaste();
@@ -91,6 +102,70 @@ public class DragDropFilePanel extends JPanel {
         return dropZone;
     }
 
+    /**
+     * Crea la fila con la barra de progreso y el botón de cancelar subida.
+     */
+    private JPanel createUploadPanel() {
+        uploadBar.setStringPainted(true);
+        JButton btnCancel = new JButton(I18n.get("dragdrop.upload.cancel"));
+        btnCancel.addActionListener(e -> uploadCancelled = true);
+        uploadPanel.add(uploadBar, BorderLayout.CENTER);
+        uploadPanel.add(btnCancel, BorderLayout.EAST);
+        uploadPanel.setVisible(false);
+        return uploadPanel;
+    }
+
+    /**
+     * Muestra la barra de progreso para la subida de un archivo y devuelve el
+     * listener que la actualiza y que informa de la cancelación. Se puede
+     * llamar desde cualquier hilo.
+     */
+    public TransferListener startUpload(File file) {
+        String name = file.getName();
+        SwingUtilities.invokeLater(() -> {
+            uploadBar.setValue(0);
+            uploadBar.setString(name);
+            uploadPanel.setVisible(true);
+            revalidate();
+        });
+        return new TransferListener() {
+            private int lastPercent = -1;
+
+            @Override
+            public void onProgress(long transferred, long total) {
+                int percent = total > 0 ? (int) (transferred * 100 / total) : 0;
+                if (percent != lastPercent) {
+                    lastPercent = percent;
+                    SwingUtilities.invokeLater(() -> {
+                        uploadBar.setValue(percent);
+                        uploadBar.setString(name + " - " + percent + "%");
+                    });
+                }
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return uploadCancelled;
+            }
+        };
+    }
+
+    /**
+     * Indica si el usuario ha pulsado cancelar durante la tanda de subidas.
+     */
+    public boolean isUploadCancelled() {
+        return uploadCancelled;
+    }
+
+    /**
+     * Oculta la barra de progreso al terminar la tanda de subidas.
+     */
+    public void finishUpload() {
+        uploadCancelled = false;
+        uploadPanel.setVisible(false);
+        revalidate();
+    }
+
     /**
      * Configura el sistema de drag & drop.
      */
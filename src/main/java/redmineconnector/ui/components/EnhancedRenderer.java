@@ -6,8 +6,6 @@ import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import javax.swing.BorderFactory;
 import javax.swing.Icon;
 import javax.swing.JComponent;
@@ -15,10 +13,10 @@ import javax.swing.JProgressBar;
 import javax.swing.JTable;
 import javax.swing.table.DefaultTableCellRenderer;
 import redmineconnector.config.StyleConfig;
+import redmineconnector.util.DateCodec;
 
 public class EnhancedRenderer extends DefaultTableCellRenderer {
     StyleConfig styles;
-    SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
     JProgressBar progressBar = new JProgressBar(0, 100);
     private int mouseRow = -1;
     private java.util.function.Predicate<Integer> pinChecker;
@@ -49,8 +47,8 @@ public class EnhancedRenderer extends DefaultTableCellRenderer {
             return progressBar;
         }
         Component comp = super.getTableCellRendererComponent(t, v, sel, foc, r, c);
-        if (v instanceof Date)
-            setValue(sdf.format((Date) v));
+        if (v instanceof Long) // Creation date, epoch millis
+            setValue((Long) v != 0 ? DateCodec.displayDate((Long) v) : "");
         if (v instanceof Double)
             setValue(String.format("%.2f", (Double) v));
 
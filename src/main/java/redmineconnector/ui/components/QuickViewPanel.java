@@ -46,6 +46,7 @@ import redmineconnector.service.ImageCacheService;
 import redmineconnector.config.StyleConfig;
 import redmineconnector.ui.InstanceController;
 import redmineconnector.util.I18n;
+import redmineconnector.util.RequestScheduler;
 import redmineconnector.util.TextileConverter;
 
 /**
@@ -316,17 +317,18 @@ public class QuickViewPanel extends JPanel {
         StringBuilder sb = new StringBuilder(
                 "<html><body style='font-family:Segoe UI; font-size:10px; background-color:")
                 .append(bgColor).append("; color:").append(textColor).append(";'>");
-        if (t.journals != null && !t.journals.isEmpty()) {
+        List<Journal> journals = t.getJournals();
+        if (journals != null && !journals.isEmpty()) {
             int count = 0;
             if (sortNotesNewestFirst) {
-                for (int i = t.journals.size() - 1; i >= 0 && count < 3; i--) {
-                    appendJournalHtml(sb, t.journals.get(i));
+                for (int i = journals.size() - 1; i >= 0 && count < 3; i--) {
+                    appendJournalHtml(sb, journals.get(i));
                     count++;
                 }
             } else {
-                int startIdx = Math.max(0, t.journals.size() - 3);
-                for (int i = startIdx; i < t.journals.size() && count < 3; i++) {
-                    appendJournalHtml(sb, t.journals.get(i));
+                int startIdx = Math.max(0, journals.size() - 3);
+                for (int i = startIdx; i < journals.size() && count < 3; i++) {
+                    appendJournalHtml(sb, journals.get(i));
                     count++;
                 }
             }
@@ -340,7 +342,7 @@ public class QuickViewPanel extends JPanel {
     }
 
     private void renderDescription(Task t) {
-        if (t.description == null || t.description.isEmpty()) {
+        if (t.getDescription() == null || t.getDescription().isEmpty()) {
             txtQuickDesc.setText("");
             return;
         }
@@ -351,7 +353,7 @@ public class QuickViewPanel extends JPanel {
                 "<html><body style='font-family:Segoe UI; font-size:12px; background-color:")
                 .append(bgColor).append("; color:").append(textColor).append(";'>");
 
-        String descWithPlaceholders = replaceRedmineImageMarkup(t.description);
+        String descWithPlaceholders = replaceRedmineImageMarkup(t.getDescription());
         // Use TextileConverter.convertToHtml (it handles basic markup). 
         // If content is Markdown, it might look slightly off or raw, 
         // but images will be preserved by placeholders.
@@ -509,7 +511,7 @@ public class QuickViewPanel extends JPanel {
         if (toDownload.isEmpty())
             return;
 
-        new SwingWorker<Boolean, String>() {
+        RequestScheduler.shared().execute(RequestScheduler.Lane.PREFETCH, new SwingWorker<Boolean, String>() {
             @Override
             protected Boolean doInBackground() throws Exception {
                 boolean any = false;
@@ -519,9 +521,10 @@ public class QuickViewPanel extends JPanel {
                         if (cache.getCachedImage(att.filename) != null)
                             continue;
 
-                        byte[] data = dataService.downloadAttachment(att);
-                        if (data != null && data.length > 0) {
-                            cache.saveImage(att.filename, data);
+                        // Streamed into the cache file; no byte[] copy of the image
+                        java.io.File target = cache.cacheFileFor(att.filename);
+                        dataService.downloadAttachmentTo(att, target.toPath(), null);
+                        if (target.length() > 0) {
                             any = true;
                         }
                     } catch (Exception ignored) {
@@ -540,7 +543,7 @@ public class QuickViewPanel extends JPanel {
                 } catch (Exception e) {
                 }
             }
-        }.execute();
+        });
     }
 
     private void updateAttachmentPreview() {
@@ -569,7 +572,7 @@ public class QuickViewPanel extends JPanel {
             // Download if not cached (and save to cache)
             lblPreview.setText("Cargando preview...");
             lblPreview.setIcon(null);
-            new SwingWorker<ImageIcon, Void>() {
+            RequestScheduler.shared().execute(RequestScheduler.Lane.INTERACTIVE, new SwingWorker<ImageIcon, Void>() {
                 @Override
                 protected ImageIcon doInBackground() throws Exception {
                     if (controller == null)
@@ -599,7 +602,7 @@ public class QuickViewPanel extends JPanel {
                         lblPreview.setText("Fallo: " + e.getMessage());
                     }
                 }
-            }.execute();
+            });
 
         } else {
             lblPreview.setIcon(null);
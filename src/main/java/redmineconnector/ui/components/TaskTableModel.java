@@ -6,6 +6,9 @@ import javax.swing.table.AbstractTableModel;
 import redmineconnector.model.Task;
 
 public class TaskTableModel extends AbstractTableModel {
+    /** Creation date column: epoch millis as {@code Long}, 0 if unknown */
+    public static final int COL_CREATED = 10;
+
     String[] cols = { "ID", "Asunto", "Estado", "Prioridad", "Tipo", "Cat.", "Versión", "Asignado", "Horas", "%",
             "Fecha" };
     public List<Task> data = new ArrayList<>();
@@ -63,8 +66,8 @@ public class TaskTableModel extends AbstractTableModel {
                 return Double.class;
             case 9:
                 return Integer.class;
-            case 10:
-                return java.util.Date.class;
+            case COL_CREATED:
+                return Long.class;
             case 11:
                 return Boolean.class;
             default:
@@ -96,7 +99,7 @@ public class TaskTableModel extends AbstractTableModel {
                 return t.spentHours;
             case 9:
                 return t.doneRatio;
-            case 10:
+            case COL_CREATED:
                 return t.createdOn;
             case 11:
                 return pinChecker != null && pinChecker.test(t.id);
@@ -12,9 +12,12 @@ import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.ListSelectionModel;
 import javax.swing.table.TableColumnModel;
+import javax.swing.table.TableModel;
 import javax.swing.table.TableRowSorter;
+import javax.swing.table.TableStringConverter;
 
 import redmineconnector.config.StyleConfig;
+import redmineconnector.util.DateCodec;
 
 public class TaskTablePanel extends JPanel {
     private JTable table;
@@ -69,6 +72,17 @@ public class TaskTablePanel extends JPanel {
         table = new ThemeTable(model);
         sorter = new TableRowSorter<>(model);
         table.setRowSorter(sorter);
+        // Text filters see the created date as shown, not as epoch millis
+        sorter.setStringConverter(new TableStringConverter() {
+            @Override
+            public String toString(TableModel m, int row, int column) {
+                Object v = m.getValueAt(row, column);
+                if (column == TaskTableModel.COL_CREATED && v instanceof Long) {
+                    return (Long) v != 0 ? DateCodec.displayDate((Long) v) : "";
+                }
+                return v == null ? "" : v.toString();
+            }
+        });
 
         // Setup table properties
         table.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
@@ -81,7 +95,7 @@ public class TaskTablePanel extends JPanel {
         table.setDefaultRenderer(Integer.class, renderer);
         table.setDefaultRenderer(String.class, renderer);
         table.setDefaultRenderer(Double.class, renderer);
-        table.setDefaultRenderer(java.util.Date.class, renderer);
+        table.setDefaultRenderer(Long.class, renderer);
         table.setDefaultRenderer(Boolean.class, renderer);
 
         // Add mouse motion for hover effects
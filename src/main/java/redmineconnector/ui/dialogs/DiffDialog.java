@@ -68,8 +68,9 @@ public class DiffDialog extends JDialog {
         addRow(mainPanel, I18n.get("diff.field.assigned"), local.assignedTo, remote.assignedTo, g);
         addRow(mainPanel, I18n.get("diff.field.category"), local.category, remote.category, g);
         addRow(mainPanel, I18n.get("diff.field.version"), local.targetVersion, remote.targetVersion, g);
-        addRow(mainPanel, I18n.get("diff.field.date"), local.createdOn != null ? sdf.format(local.createdOn) : "",
-                remote.createdOn != null ? sdf.format(remote.createdOn) : "", g);
+        addRow(mainPanel, I18n.get("diff.field.date"),
+                local.createdOn != 0 ? sdf.format(new java.util.Date(local.createdOn)) : "",
+                remote.createdOn != 0 ? sdf.format(new java.util.Date(remote.createdOn)) : "", g);
 
         g.gridy++;
         g.gridx = 0;
@@ -77,15 +78,15 @@ public class DiffDialog extends JDialog {
         mainPanel.add(new JLabel(I18n.get("diff.label.desc")), g);
         g.gridy++;
         JPanel descPanel = new JPanel(new GridLayout(1, 2, 10, 0));
-        JTextArea t1 = new JTextArea(local.description);
+        JTextArea t1 = new JTextArea(local.getDescription());
         t1.setLineWrap(true);
         t1.setEditable(false);
         t1.setBackground(new Color(250, 250, 250));
-        JTextArea t2 = new JTextArea(remote.description);
+        JTextArea t2 = new JTextArea(remote.getDescription());
         t2.setLineWrap(true);
         t2.setEditable(false);
         t2.setBackground(new Color(250, 250, 250));
-        if (!Objects.equals(local.description, remote.description)) {
+        if (!Objects.equals(local.getDescription(), remote.getDescription())) {
             t2.setBackground(new Color(255, 230, 230));
         }
         JScrollPane s1 = new JScrollPane(t1);
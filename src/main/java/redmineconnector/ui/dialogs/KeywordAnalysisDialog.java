@@ -131,9 +131,9 @@ public class KeywordAnalysisDialog extends JDialog {
         for (Task t : tasks) {
             StringBuilder sb = new StringBuilder();
             sb.append(t.subject != null ? t.subject : "").append(" ");
-            sb.append(t.description != null ? t.description : "").append(" ");
-            if (t.journals != null) {
-                for (Journal j : t.journals) {
+            sb.append(t.getDescription() != null ? t.getDescription() : "").append(" ");
+            if (t.getJournals() != null) {
+                for (Journal j : t.getJournals()) {
                     sb.append(j.notes != null ? j.notes : "").append(" ");
                 }
             }
@@ -0,0 +1,167 @@
+package redmineconnector.ui.dialogs;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Window;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JFileChooser;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.Timer;
+import javax.swing.table.DefaultTableModel;
+
+import redmineconnector.http.CircuitBreaker;
+import redmineconnector.http.HostLimiter;
+import redmineconnector.http.HttpMetrics;
+import redmineconnector.service.CoalescingDataService;
+import redmineconnector.ui.UIHelper;
+import redmineconnector.util.I18n;
+import redmineconnector.util.LoggerUtil;
+import redmineconnector.util.RequestScheduler;
+import redmineconnector.util.SymbolTable;
+
+/**
+ * Live view of {@link HttpMetrics}: latency percentiles, traffic, status codes,
+ * retries and cache hits per Redmine endpoint, plus the state of the per-host
+ * connection limiters, circuit breakers and {@link RequestScheduler} lanes, and
+ * the heap saved by the {@link SymbolTable} of each server.
+ * Refreshed every two seconds while open; the data can be exported as JSON.
+ */
+public class NetworkDiagnosticsDialog extends JDialog {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int REFRESH_MS = 2000;
+
+    private final DefaultTableModel model;
+    private final JLabel lblHosts = new JLabel();
+    private final Timer timer;
+
+    public NetworkDiagnosticsDialog(Window owner) {
+        super(owner, I18n.get("netdiag.title"), ModalityType.MODELESS);
+        setSize(1000, 450);
+        setLocationRelativeTo(owner);
+        setLayout(new BorderLayout(5, 5));
+        // Closing with the title bar must also stop the refresh timer
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        UIHelper.addEscapeListener(this);
+
+        model = new DefaultTableModel(new Object[] { I18n.get("netdiag.col.endpoint"),
+                I18n.get("netdiag.col.count"), I18n.get("netdiag.col.failures"), "p50 ms", "p95 ms", "p99 ms",
+                I18n.get("netdiag.col.max"), I18n.get("netdiag.col.in"), I18n.get("netdiag.col.out"),
+                I18n.get("netdiag.col.status"), I18n.get("netdiag.col.retries"),
+                I18n.get("netdiag.col.cache") }, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+
+            @Override
+            public Class<?> getColumnClass(int column) {
+                return column == 0 || column == 9 ? String.class : Number.class;
+            }
+        };
+        JTable table = new JTable(model);
+        table.setAutoCreateRowSorter(true);
+        table.getColumnModel().getColumn(0).setPreferredWidth(280);
+        table.getColumnModel().getColumn(9).setPreferredWidth(140);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        lblHosts.setBorder(BorderFactory.createEmptyBorder(5, 8, 0, 8));
+        add(lblHosts, BorderLayout.NORTH);
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton btnReset = new JButton(I18n.get("netdiag.btn.reset"));
+        btnReset.addActionListener(e -> {
+            HttpMetrics.global().reset();
+            refresh();
+        });
+        JButton btnExport = new JButton(I18n.get("netdiag.btn.export"));
+        btnExport.addActionListener(e -> exportJson());
+        JButton btnClose = new JButton(I18n.get("netdiag.btn.close"));
+        btnClose.addActionListener(e -> dispose());
+        buttons.add(btnReset);
+        buttons.add(btnExport);
+        buttons.add(btnClose);
+        add(buttons, BorderLayout.SOUTH);
+
+        timer = new Timer(REFRESH_MS, e -> refresh());
+        timer.start();
+        refresh();
+    }
+
+    private void refresh() {
+        model.setRowCount(0);
+        for (HttpMetrics.Endpoint e : HttpMetrics.global().getEndpoints()) {
+            String statuses = e.getStatusCounts().entrySet().stream()
+                    .map(s -> s.getKey() + "×" + s.getValue()).collect(Collectors.joining(" "));
+            model.addRow(new Object[] { e.getKey(), e.getCount(), e.getFailureCount(),
+                    ms(e.percentileNanos(50)), ms(e.percentileNanos(95)), ms(e.percentileNanos(99)),
+                    ms(e.getMaxNanos()), kb(e.getBytesIn()), kb(e.getBytesOut()), statuses, e.getRetryCount(),
+                    e.getCacheHitCount() });
+        }
+
+        StringBuilder hosts = new StringBuilder("<html>");
+        for (Map.Entry<String, HostLimiter> h : HostLimiter.all().entrySet()) {
+            HostLimiter l = h.getValue();
+            hosts.append(I18n.format("netdiag.host", h.getKey(), l.getInFlight(), l.getLimit(), l.getQueueDepth(),
+                    l.getPeakQueueDepth(), l.getTotalWaitMs())).append("<br>");
+        }
+        for (CircuitBreaker b : CircuitBreaker.all().values()) {
+            hosts.append(I18n.format("netdiag.circuit", b.getOrigin(), b.getState(), b.getOpenCount(),
+                    b.getRejectedCount())).append("<br>");
+        }
+        RequestScheduler scheduler = RequestScheduler.shared();
+        for (RequestScheduler.Lane lane : RequestScheduler.Lane.values()) {
+            hosts.append(I18n.format("netdiag.lane", lane, scheduler.getQueueDepth(lane), scheduler.getRunning(lane),
+                    scheduler.getCompletedCount(lane), scheduler.getMeanWaitMs(lane), scheduler.getMaxWaitMs(lane)))
+                    .append("<br>");
+        }
+        for (SymbolTable s : SymbolTable.all().values()) {
+            hosts.append(I18n.format("netdiag.symbols", s.getName(), s.size(), s.getHitCount(), s.getLookupCount(),
+                    s.getSavedBytes() / 1024)).append("<br>");
+        }
+        hosts.append(I18n.format("netdiag.inflight", CoalescingDataService.getInFlightCount())).append("</html>");
+        lblHosts.setText(hosts.toString());
+    }
+
+    private static double ms(long nanos) {
+        return Math.round(nanos / 100_000.0) / 10.0;
+    }
+
+    private static double kb(long bytes) {
+        return Math.round(bytes / 102.4) / 10.0;
+    }
+
+    private void exportJson() {
+        JFileChooser fc = new JFileChooser();
+        fc.setSelectedFile(new File("http_metrics.json"));
+        if (fc.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+            try {
+                Files.write(fc.getSelectedFile().toPath(),
+                        HttpMetrics.global().toJson().getBytes(StandardCharsets.UTF_8));
+                JOptionPane.showMessageDialog(this, I18n.get("netdiag.msg.exported"));
+            } catch (Exception ex) {
+                LoggerUtil.logError("NetworkDiagnosticsDialog", "Failed to export metrics", ex);
+                JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void dispose() {
+        timer.stop();
+        super.dispose();
+    }
+}
@@ -49,7 +49,9 @@ import redmineconnector.model.TimeEntry;
 import redmineconnector.model.VersionDTO;
 import redmineconnector.service.DataService;
 import redmineconnector.ui.UIHelper;
+import redmineconnector.util.DateCodec;
 import redmineconnector.util.I18n;
+import redmineconnector.util.RequestScheduler;
 
 public class ReportsDialog extends JDialog {
     private final DataService service;
@@ -268,15 +270,16 @@ public class ReportsDialog extends JDialog {
         btnGenerate.setEnabled(false);
         setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
 
-        new SwingWorker<List<Object>, Void>() {
+        RequestScheduler.shared().execute(RequestScheduler.Lane.BULK, new SwingWorker<List<Object>, Void>() {
             @Override
             protected List<Object> doInBackground() throws Exception {
-                SimpleDateFormat sdfUI = new SimpleDateFormat("dd/MM/yyyy");
-                SimpleDateFormat sdfAPI = new SimpleDateFormat("yyyy-MM-dd");
-                Date dateStart = sdfUI.parse(d1);
-                Date dateEnd = sdfUI.parse(d2);
-                String apiD1 = sdfAPI.format(dateStart);
-                String apiD2 = sdfAPI.format(dateEnd);
+                int dayStart = DateCodec.parseDisplayDay(d1);
+                int dayEnd = DateCodec.parseDisplayDay(d2);
+                if (dayStart == DateCodec.NO_DAY || dayEnd == DateCodec.NO_DAY) {
+                    throw new java.text.ParseException("Unparseable date: \"" + d1 + "\" / \"" + d2 + "\"", 0);
+                }
+                String apiD1 = DateCodec.isoDay(dayStart);
+                String apiD2 = DateCodec.isoDay(dayEnd);
 
                 List<TimeEntry> entries = service.fetchTimeEntries(projectId, apiD1, apiD2);
 
@@ -292,15 +295,9 @@ public class ReportsDialog extends JDialog {
 
                 for (VersionDTO v : allVersions) {
                     if ("closed".equalsIgnoreCase(v.status)) {
-                        Date vDate = null;
-                        if (v.dueDate != null && v.dueDate.length() >= 10) {
-                            try {
-                                vDate = sdfAPI.parse(v.dueDate.substring(0, 10));
-                            } catch (Exception ignored) {
-                            }
-                        }
-                        if (vDate != null && !vDate.before(dateStart) && !vDate.after(dateEnd)) {
-                            cal.setTime(vDate);
+                        int vDay = DateCodec.parseIsoDay(v.dueDate);
+                        if (vDay != DateCodec.NO_DAY && vDay >= dayStart && vDay <= dayEnd) {
+                            cal.setTimeInMillis(DateCodec.startOfDay(vDay));
                             int year = cal.get(Calendar.YEAR);
                             int week = cal.get(Calendar.WEEK_OF_YEAR);
                             if (cal.get(Calendar.MONTH) == Calendar.JANUARY && week >= 52) {
@@ -373,7 +370,7 @@ public class ReportsDialog extends JDialog {
                 btnGenerate.setEnabled(true);
                 setCursor(Cursor.getDefaultCursor());
             }
-        }.execute();
+        });
     }
 
     // Field to store targets per column index
@@ -11,10 +11,8 @@ import java.awt.GridLayout;
 import java.awt.Polygon;
 import java.awt.RenderingHints;
 import java.awt.Window;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,6 +40,7 @@ import javax.swing.table.DefaultTableModel;
 
 import redmineconnector.model.Task;
 import redmineconnector.ui.UIHelper;
+import redmineconnector.util.DateCodec;
 import redmineconnector.util.I18n;
 
 public class StatisticsDialog extends JDialog {
@@ -72,9 +71,10 @@ public class StatisticsDialog extends JDialog {
                 .count();
         double totalHours = tasks.stream().mapToDouble(t -> t.spentHours).sum();
         double avgDone = tasks.isEmpty() ? 0 : tasks.stream().mapToInt(t -> t.doneRatio).average().orElse(0);
+        long now = System.currentTimeMillis();
         long avgAge = tasks.isEmpty() ? 0
                 : (long) tasks.stream()
-                        .mapToLong(t -> (new Date().getTime() - t.createdOn.getTime()) / (1000 * 3600 * 24))
+                        .mapToLong(t -> (now - t.createdOn) / (1000 * 3600 * 24))
                         .average().orElse(0);
 
         JPanel header = new JPanel(new GridLayout(1, 5, 5, 0));
@@ -193,10 +193,9 @@ public class StatisticsDialog extends JDialog {
         p.setBorder(new EmptyBorder(10, 10, 10, 10));
         p.add(new JLabel(I18n.get("stats.timeline.intro")), BorderLayout.NORTH);
         Map<String, Integer> counts = new TreeMap<>();
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM");
         for (Task t : tasks) {
-            if (t.createdOn != null) {
-                String k = sdf.format(t.createdOn);
+            if (t.createdOn != 0) {
+                String k = DateCodec.isoDate(t.createdOn).substring(0, 7); // yyyy-MM
                 counts.put(k, counts.getOrDefault(k, 0) + 1);
             }
         }
@@ -60,6 +60,7 @@ import redmineconnector.model.Journal;
 import redmineconnector.model.SimpleEntity;
 import redmineconnector.model.Task;
 import redmineconnector.model.UploadToken;
+import redmineconnector.http.TransferListener;
 import redmineconnector.ui.UIHelper;
 import redmineconnector.ui.components.SearchableComboBox;
 // import redmineconnector.ui.components.DragDropTextArea; - Removed
@@ -76,7 +77,11 @@ public class TaskFormDialog extends JDialog {
     }
 
     public interface UploadHandler {
-        UploadToken upload(File f) throws Exception;
+        UploadToken upload(File f, TransferListener listener) throws Exception;
+
+        default UploadToken upload(File f) throws Exception {
+            return upload(f, TransferListener.NONE);
+        }
     }
 
     public interface DownloadHandler {
@@ -111,6 +116,7 @@ public class TaskFormDialog extends JDialog {
     JTextField txtTimeHours = new JTextField(5);
     JTextField txtTimeComment = new JTextField(20);
     JButton btnLogTime = new JButton(I18n.get("task.form.btn.log_time"));
+    JButton btnSave = new JButton(I18n.get("task.form.btn.save_changes"));
 
     // Custom Fields support
     JPanel pCustomFields = new JPanel(new GridBagLayout());
@@ -437,19 +443,18 @@ public class TaskFormDialog extends JDialog {
         centerContainer.add(form, BorderLayout.NORTH);
         centerContainer.add(tabs, BorderLayout.CENTER);
 
-        JButton b = new JButton(I18n.get("task.form.btn.save_changes"));
-        b.setPreferredSize(new Dimension(130, 30));
-        b.addActionListener(e -> {
-            b.setEnabled(false); // Prevent double click
+        btnSave.setPreferredSize(new Dimension(130, 30));
+        btnSave.addActionListener(e -> {
+            btnSave.setEnabled(false); // Prevent double click
             String subject = txtSubject.getText().trim();
             if (subject.isEmpty()) {
-                b.setEnabled(true); // Re-enable if validation fails
+                btnSave.setEnabled(true); // Re-enable if validation fails
                 JOptionPane.showMessageDialog(this, I18n.get("task.form.error.subject_empty"),
                         I18n.get("notification.title.warn"), JOptionPane.WARNING_MESSAGE);
                 return;
             }
             loadedTask.subject = subject;
-            loadedTask.description = txtDesc.getText();
+            loadedTask.setDescription(txtDesc.getText());
             String rawComment = txtComment.getText();
             // Normalize line endings to prevent duplication on Windows
             if (rawComment != null) {
@@ -515,7 +520,7 @@ public class TaskFormDialog extends JDialog {
             dispose();
         });
         JPanel bottomP = new JPanel();
-        bottomP.add(b);
+        bottomP.add(btnSave);
 
         // Wrap center container in ScrollPane to ensure buttons are aways visible even
         // on small screens
@@ -596,30 +601,13 @@ public class TaskFormDialog extends JDialog {
                 return;
             }
 
-            for (File f : files) {
-                try {
-                    LoggerUtil.logDebug("TaskFormDialog", "Uploading file: " + f.getName());
-                    UploadToken token = uploadHandler.upload(f);
-                    if (token != null) {
-                        loadedTask.pendingUploads.add(token);
-                        attachmentModel.addElement(token);
-                        LoggerUtil.logDebug("TaskFormDialog", "File uploaded successfully: " + f.getName());
-                    } else {
-                        LoggerUtil.logError("TaskFormDialog",
-                                "Upload handler returned null token for file: " + f.getName(), null);
-                    }
-                } catch (Exception ex) {
-                    LoggerUtil.logError("TaskFormDialog", "Error uploading file: " + f.getName(), ex);
-                    String errorMsg = ex.getMessage();
-                    if (errorMsg == null || errorMsg.trim().isEmpty()) {
-                        errorMsg = ex.getClass().getSimpleName();
-                    }
-                    JOptionPane.showMessageDialog(this,
-                            I18n.format("task.form.msg.upload.error", f.getName(), errorMsg));
-                }
+            if (files.isEmpty()) {
+                return;
             }
-            // Limpiar el panel después de subir (sin notificar para evitar recursión)
+            // Limpiar el panel antes de subir (sin notificar para evitar recursión);
+            // el progreso se muestra en la barra del panel
             dragDropFilePanel.clearSilently();
+            uploadDroppedFiles(files);
         });
 
         // Limitar altura del drag&drop para dar más espacio a los archivos existentes
@@ -686,6 +674,63 @@ public class TaskFormDialog extends JDialog {
         return p;
     }
 
+    /**
+     * Sube en segundo plano los archivos soltados, en streaming desde disco, con
+     * la barra de progreso del panel y la opción de cancelar. Guardar queda
+     * deshabilitado hasta que terminan, para no perder los adjuntos en curso.
+     */
+    private void uploadDroppedFiles(List<File> files) {
+        btnSave.setEnabled(false);
+        new SwingWorker<Void, UploadToken>() {
+            @Override
+            protected Void doInBackground() {
+                for (File f : files) {
+                    if (dragDropFilePanel.isUploadCancelled()) {
+                        break;
+                    }
+                    try {
+                        LoggerUtil.logDebug("TaskFormDialog", "Uploading file: " + f.getName());
+                        UploadToken token = uploadHandler.upload(f, dragDropFilePanel.startUpload(f));
+                        if (token != null) {
+                            publish(token);
+                            LoggerUtil.logDebug("TaskFormDialog", "File uploaded successfully: " + f.getName());
+                        } else {
+                            LoggerUtil.logError("TaskFormDialog",
+                                    "Upload handler returned null token for file: " + f.getName(), null);
+                        }
+                    } catch (Exception ex) {
+                        if (dragDropFilePanel.isUploadCancelled()) {
+                            LoggerUtil.logDebug("TaskFormDialog", "Upload cancelled: " + f.getName());
+                            break;
+                        }
+                        LoggerUtil.logError("TaskFormDialog", "Error uploading file: " + f.getName(), ex);
+                        String errorMsg = ex.getMessage();
+                        if (errorMsg == null || errorMsg.trim().isEmpty()) {
+                            errorMsg = ex.getClass().getSimpleName();
+                        }
+                        String msg = I18n.format("task.form.msg.upload.error", f.getName(), errorMsg);
+                        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(TaskFormDialog.this, msg));
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            protected void process(List<UploadToken> tokens) {
+                for (UploadToken token : tokens) {
+                    loadedTask.addPendingUpload(token);
+                    attachmentModel.addElement(token);
+                }
+            }
+
+            @Override
+            protected void done() {
+                dragDropFilePanel.finishUpload();
+                btnSave.setEnabled(true);
+            }
+        }.execute();
+    }
+
     private JPanel createTimePanel() {
         JPanel wrapper = new JPanel(new BorderLayout());
         JPanel p = new JPanel(new GridBagLayout());
@@ -823,10 +868,7 @@ public class TaskFormDialog extends JDialog {
                         LoggerUtil.logDebug("TaskFormDialog", "Upload successful, token: " + token.token);
 
                         // Add to task's pending uploads
-                        if (task.pendingUploads == null) {
-                            task.pendingUploads = new java.util.ArrayList<>();
-                        }
-                        task.pendingUploads.add(token);
+                        task.addPendingUpload(token);
                         LoggerUtil.logDebug("TaskFormDialog",
                                 "Added to pending uploads. Total: " + task.pendingUploads.size());
 
@@ -858,7 +900,7 @@ public class TaskFormDialog extends JDialog {
             String descWithImages = getDescriptionTextWithImageReferences();
             LoggerUtil.logDebug("TaskFormDialog", "Description with images markup: " + descWithImages);
             if (descWithImages != null) {
-                task.description = descWithImages;
+                task.setDescription(descWithImages);
             }
 
             LoggerUtil.logDebug("TaskFormDialog", "Final task comment: " + task.comment);
@@ -1229,7 +1271,7 @@ public class TaskFormDialog extends JDialog {
 
         // Set description AFTER configuring attachments to allow inline image
         // resolution
-        txtDesc.setText(t.description);
+        txtDesc.setText(t.getDescription());
 
         // Limpiar placeholders de imágenes anteriores
         imagePlaceholders.clear();
@@ -1401,7 +1443,7 @@ public class TaskFormDialog extends JDialog {
                 LoggerUtil.logDebug("TaskFormDialog", "Image pre-download completed");
 
                 // ✅ NUEVO: Refrescar el historial para que las imágenes se muestren inline
-                if (loadedTask != null && loadedTask.journals != null && !loadedTask.journals.isEmpty()) {
+                if (loadedTask != null && loadedTask.getJournals() != null && !loadedTask.getJournals().isEmpty()) {
                     LoggerUtil.logDebug("TaskFormDialog", "Refreshing history to show downloaded images");
                     SwingUtilities.invokeLater(() -> {
                         // Regenerar solo el HTML del historial (no todo el formulario)
@@ -1465,13 +1507,10 @@ public class TaskFormDialog extends JDialog {
                               publish("Migrando: " + att.filename + "...");
                               redmineconnector.util.LoggerUtil.logDebug("TaskFormDialog", "Downloading source attachment: " + att.filename);
                               
-                              byte[] data = sourceDataService.downloadAttachment(att);
-                              if(data == null || data.length == 0) continue;
-                              
+                              // Streamed straight to the temp file, never buffered whole in memory
                               File tempFile = new File(tempDir, att.filename);
-                              try(java.io.FileOutputStream fos = new java.io.FileOutputStream(tempFile)) {
-                                  fos.write(data);
-                              }
+                              sourceDataService.downloadAttachmentTo(att, tempFile.toPath(), null);
+                              if(tempFile.length() == 0) continue;
                               
                               redmineconnector.util.LoggerUtil.logDebug("TaskFormDialog", "Uploading to target: " + att.filename);
                               
@@ -1484,7 +1523,7 @@ public class TaskFormDialog extends JDialog {
                               if(token != null) {
                                   // Modifying model must be on EDT
                                   SwingUtilities.invokeLater(() -> {
-                                      loadedTask.pendingUploads.add(token);
+                                      loadedTask.addPendingUpload(token);
                                       attachmentModel.addElement(token);
                                       // Force refresh of description if it contains inline images
                                       txtDesc.refreshImages();
@@ -1789,12 +1828,12 @@ public class TaskFormDialog extends JDialog {
     private void refreshHistory(Task t) {
         StringBuilder sb = new StringBuilder(
                 "<html><body style='font-family:Segoe UI; font-size:11px;'><div style='width:720px; max-width:720px; overflow-wrap:anywhere;'>");
-        if (t.journals != null && !t.journals.isEmpty()) {
+        if (t.getJournals() != null && !t.getJournals().isEmpty()) {
             // Iterate in correct order based on sort preference
             if (sortNotesNewestFirst) {
                 // Newest first: iterate in reverse
-                for (int i = t.journals.size() - 1; i >= 0; i--) {
-                    Journal j = t.journals.get(i);
+                for (int i = t.getJournals().size() - 1; i >= 0; i--) {
+                    Journal j = t.getJournals().get(i);
                     if (j.notes != null && !j.notes.trim().isEmpty()) {
                         sb.append(
                                 "<div style='background-color:#EFEFEF; padding:4px; border-bottom:1px solid #CCC;'><b>")
@@ -1831,7 +1870,7 @@ public class TaskFormDialog extends JDialog {
                 }
             } else {
                 // Oldest first: iterate normally
-                for (Journal j : t.journals) {
+                for (Journal j : t.getJournals()) {
                     if (j.notes != null && !j.notes.trim().isEmpty()) {
                         sb.append(
                                 "<div style='background-color:#EFEFEF; padding:4px; border-bottom:1px solid #CCC;'><b>")
@@ -355,7 +355,7 @@ public class WikiManagerDialog extends JDialog {
 
             // Chain operations: Upload File -> Upload Attachment -> Fetch Updated Content
             java.util.concurrent.CompletableFuture<WikiPageDTO> uploadFlow = asyncService
-                    .uploadFileAsync(readFile(file), getContentType(file))
+                    .uploadFileAsync(file.toPath(), getContentType(file), null)
                     .thenCompose(token -> {
                         String text = currentPage != null ? currentPage.text : "";
                         int version = currentPage != null ? Integer.parseInt(currentPage.version) : 0;
@@ -383,14 +383,6 @@ public class WikiManagerDialog extends JDialog {
         }
     }
 
-    private byte[] readFile(java.io.File file) {
-        try {
-            return java.nio.file.Files.readAllBytes(file.toPath());
-        } catch (Exception e) {
-            throw new RuntimeException("Error leyendo archivo", e);
-        }
-    }
-
     private String getContentType(java.io.File file) {
         try {
             String type = java.nio.file.Files.probeContentType(file.toPath());
@@ -773,7 +765,7 @@ public class WikiManagerDialog extends JDialog {
             // Chain uploads
             List<java.util.concurrent.CompletableFuture<Void>> futures = new ArrayList<>();
             for (java.io.File file : imagesToUpload) {
-                futures.add(asyncService.uploadFileAsync(readFile(file), getContentType(file))
+                futures.add(asyncService.uploadFileAsync(file.toPath(), getContentType(file), null)
                         .thenCompose(token -> asyncService.uploadWikiAttachmentAsync(
                                 projectId,
                                 title, // Use the title we just saved
@@ -23,12 +23,11 @@ package redmineconnector.util;
  * // HTTP batch operations
  * List&lt;Task&gt; tasks = fetchTasks(project, false, AppConstants.DEFAULT_FETCH_BATCH_SIZE);
  * 
- * // Thread pool configuration
- * ThreadPoolExecutor executor = new ThreadPoolExecutor(
- *         AppConstants.ASYNC_CORE_POOL_SIZE,
- *         AppConstants.ASYNC_MAX_POOL_SIZE,
- *         AppConstants.THREAD_KEEP_ALIVE_SEC, TimeUnit.SECONDS,
- *         new LinkedBlockingQueue&lt;&gt;());
+ * // Scheduler configuration
+ * RequestScheduler scheduler = new RequestScheduler("Export",
+ *         AppConstants.SCHEDULER_THREADS,
+ *         AppConstants.SCHEDULER_RESERVED_THREADS,
+ *         AppConstants.SCHEDULER_AGING_MS);
  * </pre>
  * 
  * <h2>Implementation References:</h2>
@@ -38,7 +37,18 @@ package redmineconnector.util;
  * fetchTimeEntries(), fetchClosedTasks()</li>
  * <li>{@code MAX_BULK_BATCH_SIZE} - Used in:
  * HttpDataService.fetchTasksByIds()</li>
- * <li>{@code ASYNC_*_POOL_SIZE} - Used in: AsyncDataService constructor</li>
+ * <li>{@code MAX_PARALLEL_PAGE_REQUESTS} - Used in:
+ * HttpDataService.fetchAllPages()</li>
+ * <li>{@code DEFAULT_MAX_CONNECTIONS_PER_HOST} - Used in: HttpClientPool
+ * (JDK keep-alive cache size)</li>
+ * <li>{@code MAX_CONCURRENT_REQUESTS} - Used in: HostLimiter.forUrl(),
+ * HttpClientPool.forUrl()</li>
+ * <li>{@code CIRCUIT_*} - Used in: CircuitBreaker.forUrl()</li>
+ * <li>{@code BATCH_MAX_CONCURRENCY_PER_SERVER} - Used in:
+ * BatchMutationEngine.forServer()</li>
+ * <li>{@code SCHEDULER_*} - Used in: RequestScheduler.shared()</li>
+ * <li>{@code REFRESH_*_DEADLINE_MS} - Used in:
+ * InstanceController.refreshData()</li>
  * <li>{@code MAX_SUBJECT_DISPLAY_LENGTH} - Used in:
  * TaskOperations.downloadTasksWithProgress()</li>
  * </ul>
@@ -67,12 +77,27 @@ public final class AppConstants {
     /** Default HTTP timeout in milliseconds (30 seconds) */
     public static final int HTTP_TIMEOUT_MS = 30 * 1000;
 
+    /** Deadline for the task list stage of a refresh; past it the view goes offline */
+    public static final long REFRESH_TASKS_DEADLINE_MS = 90 * 1000;
+
+    /** Deadline for each metadata call of a refresh; past it the last known value is kept */
+    public static final long REFRESH_METADATA_DEADLINE_MS = 10 * 1000;
+
     /** Default batch size for fetching tasks */
     public static final int DEFAULT_FETCH_BATCH_SIZE = 100;
 
     /** Maximum batch size for bulk operations */
     public static final int MAX_BULK_BATCH_SIZE = 50;
 
+    /** Maximum pages of one paginated listing fetched in parallel */
+    public static final int MAX_PARALLEL_PAGE_REQUESTS = 4;
+
+    /** Idle keep-alive connections kept per Redmine host */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 6;
+
+    /** Interval between full task reloads when delta sync is enabled (minutes) */
+    public static final int DEFAULT_FULL_SYNC_INTERVAL_MIN = 30;
+
     // ==================== UI Configuration ====================
 
     /** Default refresh interval in minutes */
@@ -166,15 +191,27 @@ public final class AppConstants {
     /** Minimum password/API key length */
     public static final int MIN_API_KEY_LENGTH = 16;
 
-    /** Maximum concurrent HTTP requests */
+    /** Maximum concurrent HTTP requests per Redmine host (all tabs together) */
     public static final int MAX_CONCURRENT_REQUESTS = 5;
 
+    /** Batch write items in flight per Redmine host; below MAX_CONCURRENT_REQUESTS */
+    public static final int BATCH_MAX_CONCURRENCY_PER_SERVER = 3;
+
     /** Retry attempts for failed operations */
     public static final int MAX_RETRY_ATTEMPTS = 3;
 
     /** Retry delay in milliseconds */
     public static final int RETRY_DELAY_MS = 1000;
 
+    /** Consecutive network failures that open a server's circuit breaker */
+    public static final int CIRCUIT_FAILURE_THRESHOLD = 3;
+
+    /** First wait before probing a server whose circuit is open */
+    public static final long CIRCUIT_OPEN_MS = 5 * 1000;
+
+    /** Upper bound for the (doubling) wait between probes */
+    public static final long CIRCUIT_MAX_OPEN_MS = 60 * 1000;
+
     // ==================== Export Configuration ====================
 
     /** CSV field separator */
@@ -188,14 +225,14 @@ public final class AppConstants {
 
     // ==================== Thread Pool Configuration ====================
 
-    /** Core thread pool size for async operations */
-    public static final int ASYNC_CORE_POOL_SIZE = 3;
+    /** Worker threads of the shared RequestScheduler */
+    public static final int SCHEDULER_THREADS = 10;
 
-    /** Maximum thread pool size */
-    public static final int ASYNC_MAX_POOL_SIZE = 10;
+    /** Scheduler threads that prefetch, bulk and background jobs may not use */
+    public static final int SCHEDULER_RESERVED_THREADS = 2;
 
-    /** Thread keep-alive time in seconds */
-    public static final int THREAD_KEEP_ALIVE_SEC = 60;
+    /** Queue wait that promotes a scheduled job by one priority lane */
+    public static final long SCHEDULER_AGING_MS = 2000;
 
     // ==================== Color Constants ====================
 
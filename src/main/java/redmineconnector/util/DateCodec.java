@@ -0,0 +1,302 @@
+package redmineconnector.util;
+
+import java.util.TimeZone;
+
+/**
+ * Parsing and formatting of the dates exchanged with Redmine and shown in the
+ * UI, without {@code SimpleDateFormat}.
+ *
+ * <p>
+ * Accepted timestamps, as sent by the different Redmine versions and plugins:
+ *
+ * <ul>
+ * <li>{@code 2025-12-22T10:15:30Z} (standard);</li>
+ * <li>{@code 2025-12-22T10:15:30.123Z} (milliseconds, any number of fraction
+ * digits);</li>
+ * <li>{@code 2025-12-22T10:15:30+01:00} (explicit offset);</li>
+ * <li>{@code 2025-12-22T10:15:30} (no zone: local time);</li>
+ * <li>{@code 2025-12-22} (date only: local midnight).</li>
+ * </ul>
+ *
+ * <p>
+ * Parsing is a single pass over the characters: no exceptions for the
+ * fallbacks and no allocation. Dates are handled as epoch milliseconds or as
+ * <em>days</em> (days since 1970-01-01 in the local zone), which is what the
+ * filters and statistics compare. Formatted days are cached, so a table
+ * repainting thousands of date cells reuses the same strings. Every method is
+ * thread-safe.
+ *
+ * @author Redmine Connector Team
+ * @version 1.0
+ */
+public final class DateCodec {
+
+    /** Returned by the day parsers for malformed input. */
+    public static final int NO_DAY = Integer.MIN_VALUE;
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    /** Zone of the UI; {@code TimeZone.getDefault()} clones on every call. */
+    private static final TimeZone ZONE = TimeZone.getDefault();
+
+    /** Formatted days, indexed by {@code day & MASK}. */
+    private static final Formatted[] CACHE = new Formatted[1024];
+    private static final int MASK = CACHE.length - 1;
+
+    /** Immutable, so it is safely shared through the racy cache array. */
+    private static final class Formatted {
+        final int day;
+        final String iso;
+        final String display;
+
+        Formatted(int day) {
+            this.day = day;
+            int[] ymd = civil(day);
+            StringBuilder sb = new StringBuilder(10);
+            pad(sb, ymd[0], 4).append('-');
+            pad(sb, ymd[1], 2).append('-');
+            pad(sb, ymd[2], 2);
+            this.iso = sb.toString();
+            sb.setLength(0);
+            pad(sb, ymd[2], 2).append('/');
+            pad(sb, ymd[1], 2).append('/');
+            pad(sb, ymd[0], 4);
+            this.display = sb.toString();
+        }
+    }
+
+    private DateCodec() {
+    }
+
+    // --- Parsing ---
+
+    /**
+     * Parses a Redmine timestamp or date.
+     *
+     * @param s        text, may be null
+     * @param fallback returned when {@code s} is null, empty or malformed
+     * @return epoch milliseconds
+     */
+    public static long parseTimestamp(CharSequence s, long fallback) {
+        if (s == null) {
+            return fallback;
+        }
+        int n = s.length();
+        if (n < 10) {
+            return fallback;
+        }
+        int day = isoDayOf(s);
+        if (day == NO_DAY) {
+            return fallback;
+        }
+        if (n == 10) {
+            return startOfDay(day);
+        }
+        if (n < 19 || s.charAt(10) != 'T' || s.charAt(13) != ':' || s.charAt(16) != ':') {
+            return fallback;
+        }
+        int hh = digits(s, 11, 2);
+        int mm = digits(s, 14, 2);
+        int ss = digits(s, 17, 2);
+        if (hh < 0 || hh > 23 || mm < 0 || mm > 59 || ss < 0 || ss > 60) {
+            return fallback;
+        }
+        int i = 19;
+        int millis = 0;
+        if (i < n && s.charAt(i) == '.') {
+            int scale = 100;
+            int start = ++i;
+            while (i < n && isDigit(s.charAt(i))) {
+                millis += (s.charAt(i) - '0') * scale;
+                scale /= 10;
+                i++;
+            }
+            if (i == start) {
+                return fallback;
+            }
+        }
+        long fields = day * MILLIS_PER_DAY + ((hh * 60L + mm) * 60 + ss) * 1000 + millis;
+        if (i == n) {
+            return fields - localOffset(fields);
+        }
+        char z = s.charAt(i);
+        if ((z == 'Z' || z == 'z') && i + 1 == n) {
+            return fields;
+        }
+        if (z != '+' && z != '-') {
+            return fallback;
+        }
+        int oh = digits(s, i + 1, 2);
+        int om;
+        if (n == i + 6 && s.charAt(i + 3) == ':') {
+            om = digits(s, i + 4, 2);
+        } else if (n == i + 5) {
+            om = digits(s, i + 3, 2);
+        } else if (n == i + 3) {
+            om = 0;
+        } else {
+            return fallback;
+        }
+        if (oh < 0 || oh > 18 || om < 0 || om > 59) {
+            return fallback;
+        }
+        long offset = (oh * 60L + om) * 60 * 1000;
+        return z == '+' ? fields - offset : fields + offset;
+    }
+
+    /**
+     * Day of a {@code yyyy-MM-dd} date; anything after the tenth character
+     * (a time part) is ignored.
+     *
+     * @return the day, or {@link #NO_DAY}
+     */
+    public static int parseIsoDay(CharSequence s) {
+        return s == null || s.length() < 10 ? NO_DAY : isoDayOf(s);
+    }
+
+    /**
+     * Day of a {@code dd/MM/yyyy} date, the format of the date fields of the
+     * UI.
+     *
+     * @return the day, or {@link #NO_DAY}
+     */
+    public static int parseDisplayDay(CharSequence s) {
+        if (s == null || s.length() != 10 || s.charAt(2) != '/' || s.charAt(5) != '/') {
+            return NO_DAY;
+        }
+        return day(digits(s, 6, 4), digits(s, 3, 2), digits(s, 0, 2));
+    }
+
+    private static int isoDayOf(CharSequence s) {
+        if (s.charAt(4) != '-' || s.charAt(7) != '-') {
+            return NO_DAY;
+        }
+        return day(digits(s, 0, 4), digits(s, 5, 2), digits(s, 8, 2));
+    }
+
+    /** Value of {@code len} decimal digits at {@code from}, or -1. */
+    private static int digits(CharSequence s, int from, int len) {
+        if (from + len > s.length()) {
+            return -1;
+        }
+        int v = 0;
+        for (int i = from; i < from + len; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            v = v * 10 + (c - '0');
+        }
+        return v;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // --- Days ---
+
+    /**
+     * Day of a calendar date.
+     *
+     * @return the day, or {@link #NO_DAY} if the date does not exist
+     */
+    public static int day(int year, int month, int dayOfMonth) {
+        if (year < 0 || month < 1 || month > 12 || dayOfMonth < 1 || dayOfMonth > lengthOfMonth(year, month)) {
+            return NO_DAY;
+        }
+        // Days from civil, H. Hinnant
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + dayOfMonth - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    /** {year, month, dayOfMonth} of a day. */
+    private static int[] civil(int day) {
+        int z = day + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int doe = z - era * 146097;
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int d = doy - (153 * mp + 2) / 5 + 1;
+        int m = mp < 10 ? mp + 3 : mp - 9;
+        return new int[] { yoe + era * 400 + (m <= 2 ? 1 : 0), m, d };
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /** Local day of an instant. */
+    public static int dayOf(long millis) {
+        return (int) Math.floorDiv(millis + ZONE.getOffset(millis), MILLIS_PER_DAY);
+    }
+
+    /** Today, in the local zone. */
+    public static int today() {
+        return dayOf(System.currentTimeMillis());
+    }
+
+    /** Local midnight of a day, as epoch milliseconds. */
+    public static long startOfDay(int day) {
+        long fields = day * MILLIS_PER_DAY;
+        return fields - localOffset(fields);
+    }
+
+    /** Offset of the local zone for local wall-clock fields read as UTC. */
+    private static int localOffset(long fields) {
+        return ZONE.getOffset(fields - ZONE.getOffset(fields));
+    }
+
+    // --- Formatting ---
+
+    /** {@code yyyy-MM-dd} of a day (the Redmine API format). */
+    public static String isoDay(int day) {
+        return formatted(day).iso;
+    }
+
+    /** {@code dd/MM/yyyy} of a day (the UI format). */
+    public static String displayDay(int day) {
+        return formatted(day).display;
+    }
+
+    /** {@code yyyy-MM-dd} of the local day of an instant. */
+    public static String isoDate(long millis) {
+        return isoDay(dayOf(millis));
+    }
+
+    /** {@code dd/MM/yyyy} of the local day of an instant. */
+    public static String displayDate(long millis) {
+        return displayDay(dayOf(millis));
+    }
+
+    private static Formatted formatted(int day) {
+        Formatted f = CACHE[day & MASK];
+        if (f == null || f.day != day) {
+            f = new Formatted(day);
+            CACHE[day & MASK] = f;
+        }
+        return f;
+    }
+
+    private static StringBuilder pad(StringBuilder sb, int value, int width) {
+        for (int p = width == 4 ? 1000 : 10; p > 1 && value < p; p /= 10) {
+            sb.append('0');
+        }
+        return sb.append(value);
+    }
+}
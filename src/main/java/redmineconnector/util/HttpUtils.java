@@ -1,151 +1,126 @@
 package redmineconnector.util;
 
-import java.io.BufferedReader;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
-import java.util.stream.Collectors;
-
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import redmineconnector.http.HttpClientPool;
+import redmineconnector.http.HttpRequest;
+import redmineconnector.http.HttpResponse;
+import redmineconnector.http.HttpTransport;
+import redmineconnector.http.TransferListener;
+
+/**
+ * Static HTTP helpers. Calls not given a transport are routed through the
+ * pooled transport of the target server ({@link HttpClientPool}), so
+ * connections are reused between calls.
+ */
 public class HttpUtils {
-    private static final int TIMEOUT = 30000; // 30 seconds for slow connections
-
-    static {
-        trustAllCertificates();
-    }
-
-    private static void trustAllCertificates() {
-        try {
-            javax.net.ssl.TrustManager[] trustAllCerts = new javax.net.ssl.TrustManager[] {
-                    new javax.net.ssl.X509TrustManager() {
-                        public java.security.cert.X509Certificate[] getAcceptedIssuers() {
-                            return null;
-                        }
-
-                        public void checkClientTrusted(java.security.cert.X509Certificate[] certs, String authType) {
-                        }
-
-                        public void checkServerTrusted(java.security.cert.X509Certificate[] certs, String authType) {
-                        }
-                    }
-            };
-            javax.net.ssl.SSLContext sc = javax.net.ssl.SSLContext.getInstance("SSL");
-            sc.init(null, trustAllCerts, new java.security.SecureRandom());
-            javax.net.ssl.HttpsURLConnection.setDefaultSSLSocketFactory(sc.getSocketFactory());
-            javax.net.ssl.HttpsURLConnection.setDefaultHostnameVerifier((hostname, session) -> true);
-        } catch (Exception e) {
-            redmineconnector.util.LoggerUtil.logError("HttpUtils",
-                    "Failed to configure SSL trust manager", e);
-        }
-    }
 
     public static String get(String urlStr) throws Exception {
-        return request(urlStr, "GET", null, null, null);
+        return request(HttpRequest.get(urlStr));
     }
 
     public static String get(String urlStr, String apiKey) throws Exception {
-        return request(urlStr, "GET", apiKey, null, null);
+        return request(HttpRequest.get(urlStr).apiKey(apiKey));
     }
 
     public static String post(String urlStr, String apiKey, String json, boolean isAi) throws Exception {
-        return request(urlStr, "POST", apiKey, json, "application/json");
+        return request(HttpRequest.post(urlStr).apiKey(apiKey).jsonBody(json));
     }
 
     public static String put(String urlStr, String apiKey, String json) throws Exception {
-        return request(urlStr, "PUT", apiKey, json, "application/json");
+        return request(HttpRequest.put(urlStr).apiKey(apiKey).jsonBody(json));
     }
 
     public static String delete(String urlStr, String apiKey) throws Exception {
-        return request(urlStr, "DELETE", apiKey, null, null);
+        return request(HttpRequest.delete(urlStr).apiKey(apiKey));
     }
 
     public static String postBinary(String urlStr, byte[] data, String contentType, String apiKey) throws Exception {
-        HttpURLConnection conn = (HttpURLConnection) new URL(urlStr).openConnection();
-        conn.setConnectTimeout(TIMEOUT);
-        conn.setReadTimeout(TIMEOUT);
-        conn.setRequestMethod("POST");
-        conn.setDoOutput(true);
-        conn.setRequestProperty("Content-Type", contentType != null ? contentType : "application/octet-stream");
-        conn.setRequestProperty("Accept", "application/json");
-        if (apiKey != null && !apiKey.isEmpty()) {
-            conn.setRequestProperty("X-Redmine-API-Key", apiKey);
-        }
-        conn.setRequestProperty("Content-Length", String.valueOf(data.length));
-        try (OutputStream os = conn.getOutputStream()) {
-            os.write(data);
-        }
-        return readResponse(conn);
+        return request(HttpRequest.post(urlStr).apiKey(apiKey)
+                .header("Accept", "application/json")
+                .body(data, contentType != null ? contentType : "application/octet-stream"));
     }
 
     public static byte[] downloadBytes(String urlStr, String apiKey) throws Exception {
-        HttpURLConnection conn = (HttpURLConnection) new URL(urlStr).openConnection();
-        conn.setConnectTimeout(TIMEOUT);
-        conn.setReadTimeout(TIMEOUT);
-        if (apiKey != null && !apiKey.isEmpty()) {
-            conn.setRequestProperty("X-Redmine-API-Key", apiKey);
-        }
-        conn.setRequestProperty("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
-        conn.setRequestProperty("Accept", "*/*");
-        conn.setInstanceFollowRedirects(true);
-        int status = conn.getResponseCode();
+        return downloadBytes(HttpClientPool.forUrl(urlStr), urlStr, apiKey);
+    }
+
+    /**
+     * {@link #downloadBytes(String, String)} through the given transport, so its
+     * decorators (retries, circuit breaker, metrics) see the download.
+     */
+    public static byte[] downloadBytes(HttpTransport transport, String urlStr, String apiKey) throws Exception {
+        HttpResponse resp = transport.execute(HttpRequest.get(urlStr).apiKey(apiKey)
+                .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
+                .header("Accept", "*/*"));
+        int status = resp.getStatus();
 
         // Handle potential redirects manually to preserve headers if automatic follow
-        // fails to keep them
-        if (status >= 300 && status < 400) {
-            String newUrl = conn.getHeaderField("Location");
+        // fails to keep them (e.g. http -> https)
+        if (resp.isRedirect()) {
+            String newUrl = resp.getHeader("Location");
             if (newUrl != null)
-                return downloadBytes(newUrl, apiKey);
+                return downloadBytes(transport, newUrl, apiKey);
         }
 
         if (status >= 400) {
             throw new IOException("Server returned HTTP " + status + " for URL: " + urlStr);
         }
-        try (InputStream is = conn.getInputStream()) {
-            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-            int nRead;
-            byte[] data = new byte[4096];
-            while ((nRead = is.read(data, 0, data.length)) != -1) {
-                buffer.write(data, 0, nRead);
-            }
-            return buffer.toByteArray();
-        }
+        return resp.getBody();
     }
 
-    private static String request(String urlStr, String method, String apiKey, String body, String contentType)
+    /**
+     * Streaming counterpart of {@link #downloadBytes(String, String)}: writes the
+     * body straight to {@code target} with progress and cancellation.
+     */
+    public static void downloadTo(String urlStr, String apiKey, Path target, TransferListener listener)
             throws Exception {
-        URL url = new URL(urlStr);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod(method);
-        conn.setConnectTimeout(TIMEOUT);
-        conn.setReadTimeout(TIMEOUT);
-        if (apiKey != null && !apiKey.isEmpty())
-            conn.setRequestProperty("X-Redmine-API-Key", apiKey);
-        if (contentType != null)
-            conn.setRequestProperty("Content-Type", contentType);
-        if (body != null) {
-            conn.setDoOutput(true);
-            try (OutputStream os = conn.getOutputStream()) {
-                os.write(body.getBytes(StandardCharsets.UTF_8));
-            }
-        }
-        return readResponse(conn);
+        downloadTo(HttpClientPool.forUrl(urlStr), urlStr, apiKey, target, null, listener);
     }
 
-    private static String readResponse(HttpURLConnection conn) throws IOException {
-        int status = conn.getResponseCode();
-        InputStream is = (status >= 200 && status < 300) ? conn.getInputStream() : conn.getErrorStream();
-        if (is == null)
-            throw new IOException("HTTP Error " + status + " (No response body)");
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-            String body = br.lines().collect(Collectors.joining("\n"));
-            if (status >= 400) {
-                throw new IOException("HTTP Error " + status + " for URL: " + conn.getURL() + " - Detalle: " + body);
+    /**
+     * Streams the body to {@code target} through the given transport.
+     *
+     * @param ifRange validator ({@link HttpResponse#getRangeValidator()}) of the
+     *                bytes already in {@code target}, or null to download from
+     *                the start. When given, only the rest is requested with
+     *                {@code Range} and {@code If-Range}: a resource changed since
+     *                then comes back whole as a {@code 200} and rewrites the file
+     * @return the final response, without body
+     */
+    public static HttpResponse downloadTo(HttpTransport transport, String urlStr, String apiKey, Path target,
+            String ifRange, TransferListener listener) throws Exception {
+        long have = ifRange != null && Files.exists(target) ? Files.size(target) : 0;
+        HttpRequest req = HttpRequest.get(urlStr).apiKey(apiKey)
+                .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
+                .header("Accept", "*/*");
+        if (have > 0) {
+            req.header("Range", "bytes=" + have + "-").header("If-Range", ifRange);
+        }
+        HttpResponse resp = transport.download(req, target, listener);
+
+        if (resp.isRedirect()) {
+            String newUrl = resp.getHeader("Location");
+            if (newUrl != null) {
+                return downloadTo(transport, newUrl, apiKey, target, ifRange, listener);
             }
-            return body;
         }
+
+        // The partial file does not match the resource any more: start over
+        if (have > 0 && resp.getStatus() == 416) {
+            Files.delete(target);
+            return downloadTo(transport, urlStr, apiKey, target, null, listener);
+        }
+
+        if (resp.getStatus() >= 400) {
+            throw new IOException("Server returned HTTP " + resp.getStatus() + " for URL: " + urlStr);
+        }
+        return resp;
+    }
+
+    private static String request(HttpRequest request) throws Exception {
+        return HttpClientPool.forUrl(request.getUrl()).execute(request).ensureSuccess().getBodyAsString();
     }
 }
@@ -1,11 +1,12 @@
 package redmineconnector.util;
 
-import java.text.SimpleDateFormat;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import redmineconnector.model.*;
 
@@ -237,6 +238,18 @@ public class JsonParser {
         return 0;
     }
 
+    private static long asLong(Object o) {
+        if (o instanceof Number)
+            return ((Number) o).longValue();
+        if (o instanceof String) {
+            try {
+                return Long.parseLong((String) o);
+            } catch (Exception e) {
+            }
+        }
+        return 0;
+    }
+
     private static double asDouble(Object o) {
         if (o instanceof Number)
             return ((Number) o).doubleValue();
@@ -265,7 +278,51 @@ public class JsonParser {
 
     // --- Domain Parsing Methods ---
 
+    /**
+     * Parses an {@code issues.json} list or a single {@code issue} response.
+     * <p>
+     * Issues are bound directly from a {@link JsonReader} cursor into
+     * {@link Task} objects, without building the intermediate map tree. If the
+     * input is not well-formed, the lenient tree parser is used instead.
+     */
     public static List<Task> parseIssues(String json) {
+        return parseIssues(json, null);
+    }
+
+    /**
+     * Same as {@link #parseIssues(String)}, resolving the names of statuses,
+     * priorities, trackers, users, categories, versions and custom fields
+     * through {@code symbols} (null to keep every value as parsed).
+     */
+    public static List<Task> parseIssues(String json, SymbolTable symbols) {
+        try {
+            return readIssues(new JsonReader(json), symbols);
+        } catch (JsonReader.MalformedJsonException e) {
+            return parseIssuesTree(json, symbols);
+        }
+    }
+
+    /**
+     * Same as {@link #parseIssues(String)} but reads the UTF-8 response body
+     * directly, without first decoding it into a {@code String}.
+     */
+    public static List<Task> parseIssues(byte[] utf8) {
+        return parseIssues(utf8, null);
+    }
+
+    /**
+     * Same as {@link #parseIssues(byte[])}, resolving repeated names through
+     * {@code symbols} (see {@link #parseIssues(String, SymbolTable)}).
+     */
+    public static List<Task> parseIssues(byte[] utf8, SymbolTable symbols) {
+        try {
+            return readIssues(new JsonReader(utf8), symbols);
+        } catch (JsonReader.MalformedJsonException e) {
+            return parseIssuesTree(new String(utf8, StandardCharsets.UTF_8), symbols);
+        }
+    }
+
+    private static List<Task> parseIssuesTree(String json, SymbolTable symbols) {
         List<Task> list = new ArrayList<>();
         Object root = parse(json);
         if (!(root instanceof Map))
@@ -278,7 +335,7 @@ public class JsonParser {
         else if (rootMap.containsKey("issue")) { // Single issue wrapped as issue
             Object single = rootMap.get("issue");
             if (single instanceof Map) {
-                Task t = parseTaskMap(asMap(single));
+                Task t = parseTaskMap(asMap(single), symbols);
                 if (t != null && t.id > 0)
                     list.add(t);
                 return list;
@@ -288,7 +345,7 @@ public class JsonParser {
         if (issues != null) {
             for (Object o : issues) {
                 if (o instanceof Map) {
-                    Task t = parseTaskMap(asMap(o));
+                    Task t = parseTaskMap(asMap(o), symbols);
                     if (t != null && t.id > 0)
                         list.add(t);
                 }
@@ -297,12 +354,399 @@ public class JsonParser {
         return list;
     }
 
-    private static Task parseTaskMap(Map<String, Object> map) {
+    // --- Streaming binding (JsonReader -> model, no intermediate Map tree) ---
+
+    /** Reusable holder for {"id":..,"name":..} references. */
+    private static final class Ref {
+        int id;
+        String name;
+    }
+
+    private static List<Task> readIssues(JsonReader r, SymbolTable symbols) {
+        List<Task> list = new ArrayList<>();
+        if (r.peek() != JsonReader.Token.BEGIN_OBJECT)
+            return list;
+        Ref ref = new Ref();
+        r.beginObject();
+        while (r.hasNext()) {
+            String name = r.nextName();
+            if ("issues".equals(name) && r.peek() == JsonReader.Token.BEGIN_ARRAY) {
+                r.beginArray();
+                while (r.hasNext()) {
+                    Task t = readTaskOrSkip(r, ref, symbols);
+                    if (t != null && t.id > 0)
+                        list.add(t);
+                }
+                r.endArray();
+            } else if ("issue".equals(name) && r.peek() == JsonReader.Token.BEGIN_OBJECT) {
+                Task t = readTask(r, ref, symbols);
+                if (t.id > 0)
+                    list.add(t);
+            } else {
+                r.skipValue();
+            }
+        }
+        r.endObject();
+        return list;
+    }
+
+    private static Task readTaskOrSkip(JsonReader r, Ref ref, SymbolTable symbols) {
+        if (r.peek() != JsonReader.Token.BEGIN_OBJECT) {
+            r.skipValue();
+            return null;
+        }
+        return readTask(r, ref, symbols);
+    }
+
+    private static Task readTask(JsonReader r, Ref ref, SymbolTable symbols) {
+        Task t = new Task();
+        String createdOn = null;
+        r.beginObject();
+        while (r.hasNext()) {
+            String name = r.nextName();
+            switch (name) {
+                case "id":
+                    t.id = r.nextInt();
+                    break;
+                case "subject":
+                    t.subject = str(r);
+                    break;
+                case "description":
+                    // Decoded on first read: list rows rarely show it
+                    if (r.peek() == JsonReader.Token.STRING)
+                        t.setDescription(lazyString(r.nextRaw()));
+                    else
+                        t.setDescription(str(r));
+                    break;
+                case "project":
+                    readRef(r, ref, "name", symbols);
+                    t.projectId = ref.id;
+                    break;
+                case "status":
+                    readRef(r, ref, "name", symbols);
+                    t.status = ref.name;
+                    t.statusId = ref.id;
+                    break;
+                case "priority":
+                    readRef(r, ref, "name", symbols);
+                    t.priority = ref.name;
+                    t.priorityId = ref.id;
+                    break;
+                case "tracker":
+                    readRef(r, ref, "name", symbols);
+                    t.tracker = ref.name;
+                    t.trackerId = ref.id;
+                    break;
+                case "assigned_to":
+                    readRef(r, ref, "name", symbols);
+                    t.assignedTo = ref.name;
+                    t.assignedToId = ref.id;
+                    break;
+                case "category":
+                    readRef(r, ref, "name", symbols);
+                    t.category = ref.name;
+                    t.categoryId = ref.id;
+                    break;
+                case "fixed_version":
+                    readRef(r, ref, "name", symbols);
+                    t.targetVersion = ref.name;
+                    t.targetVersionId = ref.id;
+                    break;
+                case "author":
+                    readRef(r, ref, "name", symbols);
+                    t.author = ref.name;
+                    t.authorId = ref.id;
+                    break;
+                case "parent":
+                    // Parent issues may carry "name" or only "subject"
+                    readRef(r, ref, "subject");
+                    t.parentId = ref.id;
+                    t.parentName = ref.name;
+                    break;
+                case "spent_hours":
+                    t.spentHours = r.nextDouble();
+                    break;
+                case "done_ratio":
+                    t.doneRatio = r.nextInt();
+                    break;
+                case "created_on":
+                    createdOn = str(r);
+                    break;
+                case "updated_on":
+                    t.updatedOn = str(r);
+                    break;
+                case "attachments":
+                    t.attachments = orEmpty(readAttachments(r));
+                    break;
+                case "journals":
+                    t.setJournals(lazyJournals(r.nextRaw()));
+                    break;
+                case "changesets":
+                    t.changesets = orEmpty(readChangesets(r));
+                    break;
+                case "custom_fields":
+                    t.customFields = orEmpty(readCustomFields(r, symbols));
+                    break;
+                default:
+                    r.skipValue();
+            }
+        }
+        r.endObject();
+        t.createdOn = parseCreatedOn(createdOn, t.id);
+        t.markClean();
+        return t;
+    }
+
+    /** Value as string; null and missing values become "" (as asString does). */
+    private static String str(JsonReader r) {
+        String s = r.nextString();
+        return s != null ? s : "";
+    }
+
+    /** Decoder of a string value kept as JSON text. */
+    private static Supplier<String> lazyString(JsonReader.Raw raw) {
+        return () -> {
+            try {
+                return str(raw.reader());
+            } catch (JsonReader.MalformedJsonException e) {
+                LoggerUtil.logError("JsonParser", "Undecodable deferred value: " + e.getMessage());
+                return "";
+            }
+        };
+    }
+
+    /** Decoder of a journals array kept as JSON text. */
+    private static Supplier<List<Journal>> lazyJournals(JsonReader.Raw raw) {
+        return () -> {
+            try {
+                return orEmpty(readJournals(raw.reader()));
+            } catch (JsonReader.MalformedJsonException e) {
+                LoggerUtil.logError("JsonParser", "Undecodable deferred value: " + e.getMessage());
+                return Collections.emptyList();
+            }
+        };
+    }
+
+    /** The shared immutable empty list instead of an empty one. */
+    private static <T> List<T> orEmpty(List<T> list) {
+        return list.isEmpty() ? Collections.<T>emptyList() : list;
+    }
+
+    /** Same as {@link #str(JsonReader)}, resolved through {@code symbols} if any. */
+    private static String sym(JsonReader r, SymbolTable symbols) {
+        String s = symbols != null ? r.nextString(symbols) : r.nextString();
+        return s != null ? s : "";
+    }
+
+    private static String intern(SymbolTable symbols, String s) {
+        return symbols != null ? symbols.intern(s) : s;
+    }
+
+    /**
+     * Reads an {"id":..,"name":..} object into {@code ref}. If the object has no
+     * "name", {@code altName} is used instead. Non-object values reset the ref.
+     */
+    private static void readRef(JsonReader r, Ref ref, String altName) {
+        readRef(r, ref, altName, null);
+    }
+
+    /** Same as {@link #readRef(JsonReader, Ref, String)}; "name" goes through {@code symbols}. */
+    private static void readRef(JsonReader r, Ref ref, String altName, SymbolTable symbols) {
+        ref.id = 0;
+        ref.name = "";
+        if (r.peek() != JsonReader.Token.BEGIN_OBJECT) {
+            r.skipValue();
+            return;
+        }
+        String alt = "";
+        r.beginObject();
+        while (r.hasNext()) {
+            String name = r.nextName();
+            if ("id".equals(name))
+                ref.id = r.nextInt();
+            else if ("name".equals(name))
+                ref.name = sym(r, symbols);
+            else if (altName.equals(name))
+                alt = str(r);
+            else
+                r.skipValue();
+        }
+        r.endObject();
+        if (ref.name.isEmpty())
+            ref.name = alt;
+    }
+
+    private static boolean beginArrayOrSkip(JsonReader r) {
+        if (r.peek() == JsonReader.Token.BEGIN_ARRAY) {
+            r.beginArray();
+            return true;
+        }
+        r.skipValue();
+        return false;
+    }
+
+    private static List<Attachment> readAttachments(JsonReader r) {
+        List<Attachment> result = new ArrayList<>();
+        if (!beginArrayOrSkip(r))
+            return result;
+        while (r.hasNext()) {
+            int id = 0;
+            long size = 0;
+            String filename = "", url = "", type = "";
+            r.beginObject();
+            while (r.hasNext()) {
+                switch (r.nextName()) {
+                    case "id":
+                        id = r.nextInt();
+                        break;
+                    case "filename":
+                        filename = str(r);
+                        break;
+                    case "content_url":
+                        url = str(r);
+                        break;
+                    case "content_type":
+                        type = str(r);
+                        break;
+                    case "filesize":
+                        size = r.nextLong();
+                        break;
+                    default:
+                        r.skipValue();
+                }
+            }
+            r.endObject();
+            result.add(new Attachment(id, filename, url, type, size));
+        }
+        r.endArray();
+        return result;
+    }
+
+    private static List<Journal> readJournals(JsonReader r) {
+        List<Journal> result = new ArrayList<>();
+        if (!beginArrayOrSkip(r))
+            return result;
+        Ref user = new Ref();
+        while (r.hasNext()) {
+            String notes = "", createdOn = "";
+            user.name = "";
+            r.beginObject();
+            while (r.hasNext()) {
+                switch (r.nextName()) {
+                    case "user":
+                        readRef(r, user, "name");
+                        break;
+                    case "notes":
+                        notes = str(r);
+                        break;
+                    case "created_on":
+                        createdOn = str(r);
+                        break;
+                    default:
+                        r.skipValue();
+                }
+            }
+            r.endObject();
+            result.add(new Journal(user.name, notes, createdOn));
+        }
+        r.endArray();
+        return result;
+    }
+
+    private static List<Changeset> readChangesets(JsonReader r) {
+        List<Changeset> result = new ArrayList<>();
+        if (!beginArrayOrSkip(r))
+            return result;
+        Ref user = new Ref();
+        while (r.hasNext()) {
+            String revision = "", comments = "", committedOn = "";
+            user.name = "";
+            r.beginObject();
+            while (r.hasNext()) {
+                switch (r.nextName()) {
+                    case "revision":
+                        revision = str(r);
+                        break;
+                    case "user":
+                        readRef(r, user, "name");
+                        break;
+                    case "comments":
+                        comments = str(r);
+                        break;
+                    case "committed_on":
+                        committedOn = str(r);
+                        break;
+                    default:
+                        r.skipValue();
+                }
+            }
+            r.endObject();
+            result.add(new Changeset(revision, user.name, comments, committedOn));
+        }
+        r.endArray();
+        return result;
+    }
+
+    private static List<redmineconnector.model.CustomField> readCustomFields(JsonReader r, SymbolTable symbols) {
+        List<redmineconnector.model.CustomField> result = new ArrayList<>();
+        if (!beginArrayOrSkip(r))
+            return result;
+        while (r.hasNext()) {
+            int id = 0;
+            String name = "", value = "";
+            r.beginObject();
+            while (r.hasNext()) {
+                switch (r.nextName()) {
+                    case "id":
+                        id = r.nextInt();
+                        break;
+                    case "name":
+                        name = sym(r, symbols);
+                        break;
+                    case "value":
+                        value = readCustomFieldValue(r, symbols != null && symbols.isListField(id) ? symbols : null,
+                                symbols);
+                        break;
+                    default:
+                        r.skipValue();
+                }
+            }
+            r.endObject();
+            result.add(new redmineconnector.model.CustomField(id, name, value));
+        }
+        r.endArray();
+        return result;
+    }
+
+    /**
+     * Multi-value custom fields arrive as arrays; they are rendered as
+     * "[a, b]" like the tree parser does (List.toString()). A single value is
+     * interned only through {@code listSymbols} (the table when the field is a
+     * list-type one); arrays come from list-type fields only and always are.
+     */
+    private static String readCustomFieldValue(JsonReader r, SymbolTable listSymbols, SymbolTable symbols) {
+        if (r.peek() != JsonReader.Token.BEGIN_ARRAY)
+            return sym(r, listSymbols);
+        StringBuilder sb = new StringBuilder("[");
+        r.beginArray();
+        while (r.hasNext()) {
+            if (sb.length() > 1)
+                sb.append(", ");
+            if (r.peek() == JsonReader.Token.BEGIN_OBJECT || r.peek() == JsonReader.Token.BEGIN_ARRAY)
+                r.skipValue();
+            else
+                sb.append(r.nextString());
+        }
+        r.endArray();
+        return intern(symbols, sb.append(']').toString());
+    }
+
+    private static Task parseTaskMap(Map<String, Object> map, SymbolTable symbols) {
         try {
             Task t = new Task();
             t.id = asInt(map.get("id"));
             t.subject = asString(map.get("subject"));
-            t.description = asString(map.get("description"));
+            t.setDescription(asString(map.get("description")));
 
             Map<String, Object> project = asMap(map.get("project"));
             t.projectId = asInt(project.get("id"));
@@ -359,41 +803,34 @@ public class JsonParser {
             t.spentHours = asDouble(map.get("spent_hours"));
             t.doneRatio = asInt(map.get("done_ratio"));
 
-            String createdOn = asString(map.get("created_on"));
-            if (createdOn == null || createdOn.isEmpty()) {
-                t.createdOn = new Date();
-            } else {
-                try {
-                    // Try standard Redmine format first
-                    t.createdOn = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'").parse(createdOn);
-                } catch (Exception e1) {
-                    try {
-                        // Try format with milliseconds (some plugins/versions adds this)
-                        t.createdOn = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").parse(createdOn);
-                    } catch (Exception e2) {
-                        try {
-                            // Try format without Z (local time fallback)
-                            t.createdOn = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").parse(createdOn);
-                        } catch (Exception e3) {
-                            try {
-                                // Try simple date (YYYY-MM-DD)
-                                t.createdOn = new SimpleDateFormat("yyyy-MM-dd").parse(createdOn);
-                            } catch (Exception e4) {
-                                redmineconnector.util.LoggerUtil.logError("JsonParser",
-                                        "Unparseable date: '" + createdOn + "' for task " + t.id, e1);
-                                t.createdOn = new Date(); // Fallback to now
-                            }
-                        }
+            t.updatedOn = asString(map.get("updated_on"));
+
+            t.createdOn = parseCreatedOn(asString(map.get("created_on")), t.id);
+
+            // Sub-collections
+            t.attachments = orEmpty(parseAttachmentsList(asList(map.get("attachments"))));
+            t.setJournals(orEmpty(parseJournalsList(asList(map.get("journals")))));
+            t.changesets = orEmpty(parseChangesetsList(asList(map.get("changesets"))));
+            t.customFields = orEmpty(parseCustomFieldsList(asList(map.get("custom_fields"))));
+            if (symbols != null) {
+                t.status = symbols.intern(t.status);
+                t.priority = symbols.intern(t.priority);
+                t.tracker = symbols.intern(t.tracker);
+                t.assignedTo = symbols.intern(t.assignedTo);
+                t.category = symbols.intern(t.category);
+                t.targetVersion = symbols.intern(t.targetVersion);
+                t.author = symbols.intern(t.author);
+                List<Object> rawFields = asList(map.get("custom_fields"));
+                for (int i = 0; i < t.customFields.size(); i++) {
+                    redmineconnector.model.CustomField cf = t.customFields.get(i);
+                    cf.name = symbols.intern(cf.name);
+                    if (symbols.isListField(cf.id) || asMap(rawFields.get(i)).get("value") instanceof List) {
+                        cf.value = symbols.intern(cf.value);
                     }
                 }
             }
 
-            // Sub-collections
-            t.attachments = parseAttachmentsList(asList(map.get("attachments")));
-            t.journals = parseJournalsList(asList(map.get("journals")));
-            t.changesets = parseChangesetsList(asList(map.get("changesets")));
-            t.customFields = parseCustomFieldsList(asList(map.get("custom_fields")));
-
+            t.markClean();
             return t;
         } catch (Exception e) {
             redmineconnector.util.LoggerUtil.logError("JsonParser",
@@ -402,6 +839,18 @@ public class JsonParser {
         }
     }
 
+    private static long parseCreatedOn(String createdOn, int taskId) {
+        long now = System.currentTimeMillis();
+        if (createdOn == null || createdOn.isEmpty())
+            return now;
+        long millis = DateCodec.parseTimestamp(createdOn, Long.MIN_VALUE);
+        if (millis == Long.MIN_VALUE) {
+            LoggerUtil.logError("JsonParser", "Unparseable date: '" + createdOn + "' for task " + taskId);
+            return now; // Fallback to now
+        }
+        return millis;
+    }
+
     public static List<Attachment> parseAttachments(String json) {
         Object root = parse(json);
         List<Object> list = null;
@@ -419,7 +868,7 @@ public class JsonParser {
                     asString(m.get("filename")),
                     asString(m.get("content_url")),
                     asString(m.get("content_type")),
-                    asInt(m.get("filesize"))));
+                    asLong(m.get("filesize"))));
         }
         return result;
     }
@@ -468,6 +917,14 @@ public class JsonParser {
     }
 
     public static List<SimpleEntity> parseEntities(String json, String key) {
+        return parseEntities(json, key, null);
+    }
+
+    /**
+     * Same as {@link #parseEntities(String, String)}, with the names resolved
+     * through {@code symbols}: the issues parsed later share them.
+     */
+    public static List<SimpleEntity> parseEntities(String json, String key, SymbolTable symbols) {
         List<SimpleEntity> l = new ArrayList<>();
         Object root = parse(json);
         if (root instanceof Map) {
@@ -475,7 +932,7 @@ public class JsonParser {
             for (Object o : list) {
                 Map<String, Object> m = asMap(o);
                 int id = asInt(m.get("id"));
-                String name = asString(m.get("name"));
+                String name = intern(symbols, asString(m.get("name")));
                 // Check is_closed in logic or property? Original verified global string or
                 // local content.
                 // Here we just check property if present.
@@ -489,6 +946,11 @@ public class JsonParser {
     }
 
     public static List<SimpleEntity> parseProjectTrackers(String json) {
+        return parseProjectTrackers(json, null);
+    }
+
+    /** Same as {@link #parseProjectTrackers(String)}, names through {@code symbols}. */
+    public static List<SimpleEntity> parseProjectTrackers(String json, SymbolTable symbols) {
         List<SimpleEntity> l = new ArrayList<>();
         Object root = parse(json);
         if (root instanceof Map) {
@@ -501,7 +963,7 @@ public class JsonParser {
                     for (Object o : list) {
                         Map<String, Object> m = asMap(o);
                         int id = asInt(m.get("id"));
-                        String name = asString(m.get("name"));
+                        String name = intern(symbols, asString(m.get("name")));
                         if (id > 0 && !name.isEmpty())
                             l.add(new SimpleEntity(id, name));
                     }
@@ -512,6 +974,11 @@ public class JsonParser {
     }
 
     public static List<SimpleEntity> parseOpenVersions(String json) {
+        return parseOpenVersions(json, null);
+    }
+
+    /** Same as {@link #parseOpenVersions(String)}, names through {@code symbols}. */
+    public static List<SimpleEntity> parseOpenVersions(String json, SymbolTable symbols) {
         List<SimpleEntity> l = new ArrayList<>();
         Object root = parse(json);
         if (root instanceof Map) {
@@ -521,7 +988,7 @@ public class JsonParser {
                 String status = asString(m.get("status"));
                 boolean isClosed = "closed".equalsIgnoreCase(status);
                 if ("open".equalsIgnoreCase(status)) {
-                    l.add(new SimpleEntity(asInt(m.get("id")), asString(m.get("name")), isClosed));
+                    l.add(new SimpleEntity(asInt(m.get("id")), intern(symbols, asString(m.get("name"))), isClosed));
                 }
             }
         }
@@ -550,6 +1017,11 @@ public class JsonParser {
     }
 
     public static List<SimpleEntity> parseMembers(String json) {
+        return parseMembers(json, null);
+    }
+
+    /** Same as {@link #parseMembers(String)}, names through {@code symbols}. */
+    public static List<SimpleEntity> parseMembers(String json, SymbolTable symbols) {
         List<SimpleEntity> l = new ArrayList<>();
         Object root = parse(json);
         if (root instanceof Map) {
@@ -558,7 +1030,7 @@ public class JsonParser {
                 Map<String, Object> m = asMap(o);
                 Map<String, Object> user = asMap(m.get("user"));
                 int uid = asInt(user.get("id"));
-                String uname = asString(user.get("name"));
+                String uname = intern(symbols, asString(user.get("name")));
                 if (uid > 0 && !uname.isEmpty())
                     l.add(new SimpleEntity(uid, uname));
             }
@@ -589,6 +1061,72 @@ public class JsonParser {
         return list;
     }
 
+    /**
+     * Streaming variant of {@link #parseTimeEntries(String)} over the raw UTF-8
+     * response body.
+     */
+    public static List<TimeEntry> parseTimeEntries(byte[] utf8) {
+        try {
+            return readTimeEntries(new JsonReader(utf8));
+        } catch (JsonReader.MalformedJsonException e) {
+            return parseTimeEntries(new String(utf8, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static List<TimeEntry> readTimeEntries(JsonReader r) {
+        List<TimeEntry> list = new ArrayList<>();
+        if (r.peek() != JsonReader.Token.BEGIN_OBJECT)
+            return list;
+        Ref ref = new Ref();
+        r.beginObject();
+        while (r.hasNext()) {
+            if (!"time_entries".equals(r.nextName())) {
+                r.skipValue();
+                continue;
+            }
+            if (!beginArrayOrSkip(r))
+                continue;
+            while (r.hasNext()) {
+                int id = 0, issueId = 0;
+                String issueName = "", user = "", spentOn = "", comments = "";
+                double hours = 0;
+                r.beginObject();
+                while (r.hasNext()) {
+                    switch (r.nextName()) {
+                        case "id":
+                            id = r.nextInt();
+                            break;
+                        case "issue":
+                            readRef(r, ref, "name");
+                            issueId = ref.id;
+                            issueName = ref.name;
+                            break;
+                        case "user":
+                            readRef(r, ref, "name");
+                            user = ref.name;
+                            break;
+                        case "hours":
+                            hours = r.nextDouble();
+                            break;
+                        case "spent_on":
+                            spentOn = str(r);
+                            break;
+                        case "comments":
+                            comments = str(r);
+                            break;
+                        default:
+                            r.skipValue();
+                    }
+                }
+                r.endObject();
+                list.add(new TimeEntry(id, issueId, issueName, user, hours, spentOn, comments));
+            }
+            r.endArray();
+        }
+        r.endObject();
+        return list;
+    }
+
     public static List<WikiPageDTO> parseWikiPagesIndex(String json) {
         List<WikiPageDTO> list = new ArrayList<>();
         Object root = parse(json);
@@ -631,6 +1169,78 @@ public class JsonParser {
         return dto;
     }
 
+    /**
+     * Streaming variant of {@link #parseWikiPageContent(String)} over the raw
+     * UTF-8 response body. Wiki pages are the largest text payloads the client
+     * downloads, so the page text is decoded exactly once.
+     */
+    public static WikiPageDTO parseWikiPageContent(byte[] utf8) {
+        try {
+            return readWikiPage(new JsonReader(utf8));
+        } catch (JsonReader.MalformedJsonException e) {
+            return parseWikiPageContent(new String(utf8, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static WikiPageDTO readWikiPage(JsonReader r) {
+        if (r.peek() != JsonReader.Token.BEGIN_OBJECT)
+            return null;
+        WikiPageDTO dto = null;
+        List<Attachment> rootAttachments = null;
+        Ref ref = new Ref();
+        r.beginObject();
+        while (r.hasNext()) {
+            String name = r.nextName();
+            if ("wiki_page".equals(name) && r.peek() == JsonReader.Token.BEGIN_OBJECT) {
+                String title = "", text = "", updatedOn = "", author = "";
+                int version = 0;
+                List<Attachment> attachments = new ArrayList<>();
+                boolean empty = true;
+                r.beginObject();
+                while (r.hasNext()) {
+                    empty = false;
+                    switch (r.nextName()) {
+                        case "title":
+                            title = str(r);
+                            break;
+                        case "text":
+                            text = str(r);
+                            break;
+                        case "version":
+                            version = r.nextInt();
+                            break;
+                        case "updated_on":
+                            updatedOn = str(r);
+                            break;
+                        case "author":
+                            readRef(r, ref, "name");
+                            author = ref.name;
+                            break;
+                        case "attachments":
+                            attachments = readAttachments(r);
+                            break;
+                        default:
+                            r.skipValue();
+                    }
+                }
+                r.endObject();
+                if (!empty) {
+                    dto = new WikiPageDTO(title, text, String.valueOf(version), updatedOn, author);
+                    dto.attachments = attachments;
+                }
+            } else if ("attachments".equals(name)) {
+                rootAttachments = readAttachments(r);
+            } else {
+                r.skipValue();
+            }
+        }
+        r.endObject();
+        // Fallback: Check root for attachments if not found in wiki_page
+        if (dto != null && dto.attachments.isEmpty() && rootAttachments != null)
+            dto.attachments = rootAttachments;
+        return dto;
+    }
+
     public static List<WikiVersionDTO> parseWikiHistory(String json) {
         List<WikiVersionDTO> list = new ArrayList<>();
         Object root = parse(json);
@@ -710,6 +1320,75 @@ public class JsonParser {
         return "";
     }
 
+    /**
+     * Reads the {@code total_count} of a paginated Redmine response without
+     * parsing the whole document. Redmine writes it after the items array, so the
+     * last occurrence is the root-level one.
+     *
+     * @return total count, or -1 if the response has none
+     */
+    public static int parseTotalCount(String json) {
+        if (json == null)
+            return -1;
+        int idx = json.lastIndexOf("\"total_count\"");
+        if (idx < 0)
+            return -1;
+        int pos = json.indexOf(':', idx + 13);
+        if (pos < 0)
+            return -1;
+        pos++;
+        while (pos < json.length() && Character.isWhitespace(json.charAt(pos)))
+            pos++;
+        int start = pos;
+        while (pos < json.length() && Character.isDigit(json.charAt(pos)))
+            pos++;
+        if (pos == start)
+            return -1;
+        try {
+            return Integer.parseInt(json.substring(start, pos));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Byte-level variant of {@link #parseTotalCount(String)}: scans the UTF-8
+     * body backwards for the key, which is ASCII, so no decoding is needed.
+     *
+     * @return total count, or -1 if the response has none
+     */
+    public static int parseTotalCount(byte[] utf8) {
+        if (utf8 == null)
+            return -1;
+        byte[] key = TOTAL_COUNT_KEY;
+        int idx = -1;
+        outer: for (int i = utf8.length - key.length; i >= 0; i--) {
+            for (int k = 0; k < key.length; k++) {
+                if (utf8[i + k] != key[k])
+                    continue outer;
+            }
+            idx = i;
+            break;
+        }
+        if (idx < 0)
+            return -1;
+        int pos = idx + key.length;
+        while (pos < utf8.length && utf8[pos] != ':')
+            pos++;
+        pos++;
+        while (pos < utf8.length && (utf8[pos] == ' ' || utf8[pos] == '\t' || utf8[pos] == '\n' || utf8[pos] == '\r'))
+            pos++;
+        long value = 0;
+        int start = pos;
+        while (pos < utf8.length && utf8[pos] >= '0' && utf8[pos] <= '9' && value <= Integer.MAX_VALUE)
+            value = value * 10 + (utf8[pos++] - '0');
+        if (pos == start || value > Integer.MAX_VALUE)
+            return -1;
+        return (int) value;
+    }
+
+    private static final byte[] TOTAL_COUNT_KEY = "\"total_count\"".getBytes(StandardCharsets.US_ASCII);
+
     // --- Compatible String-based Helpers (Now using Parser internally) ---
 
     /**
@@ -739,51 +1418,186 @@ public class JsonParser {
         return 0.0;
     }
 
-    // --- Serialization (Builders) ---
-    // Kept as is, but make sure they don't depend on removed methods.
+    // --- Serialization ---
+    // Payloads are written with JsonWriter, which escapes and encodes each
+    // string in one pass. The Body variants are sent with
+    // HttpRequest.jsonBody(Body) and never exist as a whole in memory.
 
+    /**
+     * {@code text} escaped for a JSON string literal, without the quotes. Text
+     * that needs no escaping is returned as is.
+     */
     public static String escapeJsonString(String text) {
         if (text == null)
             return "";
-        return text.replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\b", "\\b")
-                .replace("\f", "\\f")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
+        if (!JsonWriter.needsEscape(text))
+            return text;
+        return JsonWriter.escape(text, new StringBuilder(text.length() + 16)).toString();
     }
 
-    // Kept older escape for compatibility if needed internally, but mapped to new
-    // one
-    private static String escape(String s) {
-        return escapeJsonString(s);
-        // Original was simpler, but full escape is safer.
+    public static String serializeWikiPage(String content, String comment) {
+        return JsonWriter.toString(wikiPageBody(content, comment));
     }
 
-    public static String serializeWikiPage(String content, String comment) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("{\"wiki_page\":{");
-        sb.append("\"text\":\"").append(escape(content)).append("\"");
-        if (comment != null && !comment.trim().isEmpty()) {
-            sb.append(",\"comments\":\"").append(escape(comment)).append("\"");
-        }
-        sb.append("}}");
-        return sb.toString();
+    /** Streamed {@link #serializeWikiPage(String, String)} payload. */
+    public static JsonWriter.Body wikiPageBody(String content, String comment) {
+        return w -> {
+            w.beginObject().name("wiki_page").beginObject();
+            w.name("text").value(content);
+            if (comment != null && !comment.trim().isEmpty()) {
+                w.name("comments").value(comment);
+            }
+            w.endObject().endObject();
+        };
+    }
+
+    /**
+     * Wiki page update that attaches an uploaded file. {@code version} is the
+     * version being replaced, for Redmine's conflict check.
+     */
+    public static JsonWriter.Body wikiAttachmentBody(String text, int version, String token, String filename,
+            String contentType, String comment) {
+        return w -> {
+            w.beginObject().name("wiki_page").beginObject();
+            w.name("text").value(text);
+            w.name("version").value(version);
+            w.name("uploads").beginArray().beginObject()
+                    .name("token").value(token)
+                    .name("filename").value(filename)
+                    .name("content_type").value(contentType)
+                    .endObject().endArray();
+            w.name("comments").value(comment);
+            w.endObject().endObject();
+        };
     }
 
     public static String serializeTaskForCreate(String pid, Task t) {
-        return buildJson(pid, t, false);
+        return JsonWriter.toString(taskBody(pid, t, false));
     }
 
     public static String serializeTaskForUpdate(Task t) {
-        return buildJson(null, t, true);
+        return JsonWriter.toString(taskBody(null, t, true));
+    }
+
+    /**
+     * Minimal update payload: only the fields that differ from the
+     * {@link Task.Baseline} taken when the task was loaded, plus the note and
+     * the pending uploads. Unchanged fields are left out, so a bulk status
+     * change does not re-upload every description nor overwrite fields edited
+     * meanwhile by someone else. A field cleared locally is sent as
+     * {@code ""}. Tasks without a baseline get the full
+     * {@link #serializeTaskForUpdate(Task)} payload.
+     *
+     * @return the payload, or null if there is nothing to send
+     */
+    public static String serializeTaskChanges(Task t) {
+        Task.Baseline b = t.getBaseline();
+        if (b == null) {
+            return serializeTaskForUpdate(t);
+        }
+        StringBuilder sb = new StringBuilder("{\"issue\":{");
+        if (!sameText(b.subject, t.subject)) {
+            quoted(field(sb, "subject"), t.subject);
+        }
+        // A description still in its parsed form cannot have changed
+        if (!t.isDescriptionDeferred() && !sameText(b.getDescription(), t.getDescription())) {
+            quoted(field(sb, "description"), t.getDescription());
+        }
+        // Trackers, statuses and priorities cannot be cleared
+        if (t.priorityId > 0 && t.priorityId != b.priorityId) {
+            field(sb, "priority_id").append(t.priorityId);
+        }
+        if (t.trackerId > 0 && t.trackerId != b.trackerId) {
+            field(sb, "tracker_id").append(t.trackerId);
+        }
+        if (t.statusId > 0 && t.statusId != b.statusId) {
+            field(sb, "status_id").append(t.statusId);
+        }
+        idChange(sb, "assigned_to_id", b.assignedToId, t.assignedToId);
+        idChange(sb, "category_id", b.categoryId, t.categoryId);
+        idChange(sb, "fixed_version_id", b.targetVersionId, t.targetVersionId);
+        idChange(sb, "parent_issue_id", b.parentId, t.parentId);
+        if (t.doneRatio != b.doneRatio) {
+            field(sb, "done_ratio").append(t.doneRatio);
+        }
+        if (t.customFields != null) {
+            boolean firstCf = true;
+            for (redmineconnector.model.CustomField cf : t.customFields) {
+                String old = b.customFields.get(cf.id);
+                if (sameText(old, cf.value)) {
+                    continue;
+                }
+                if (firstCf) {
+                    field(sb, "custom_fields").append('[');
+                    firstCf = false;
+                } else {
+                    sb.append(',');
+                }
+                quoted(sb.append("{\"id\":").append(cf.id).append(",\"value\":"), cf.value).append('}');
+            }
+            if (!firstCf) {
+                sb.append(']');
+            }
+        }
+        if (t.comment != null && !t.comment.trim().isEmpty()) {
+            quoted(field(sb, "notes"), t.comment);
+        }
+        if (t.pendingUploads != null && !t.pendingUploads.isEmpty()) {
+            field(sb, "uploads").append('[');
+            for (int i = 0; i < t.pendingUploads.size(); i++) {
+                UploadToken ut = t.pendingUploads.get(i);
+                quoted(sb.append(i > 0 ? "," : "").append("{\"token\":"), ut.token);
+                quoted(sb.append(",\"filename\":"), ut.filename);
+                quoted(sb.append(",\"content_type\":"), ut.contentType).append('}');
+            }
+            sb.append(']');
+        }
+        if (sb.charAt(sb.length() - 1) == '{') {
+            return null;
+        }
+        return sb.append("}}").toString();
+    }
+
+    private static StringBuilder field(StringBuilder sb, String name) {
+        if (sb.charAt(sb.length() - 1) != '{') {
+            sb.append(',');
+        }
+        return sb.append('"').append(name).append("\":");
+    }
+
+    /** Appends {@code s} as a JSON string; null is written as {@code ""}. */
+    private static StringBuilder quoted(StringBuilder sb, String s) {
+        sb.append('"');
+        if (s != null) {
+            JsonWriter.escape(s, sb);
+        }
+        return sb.append('"');
+    }
+
+    private static void idChange(StringBuilder sb, String name, int before, int now) {
+        int a = Math.max(before, 0);
+        int b = Math.max(now, 0);
+        if (a == b) {
+            return;
+        }
+        if (b > 0) {
+            field(sb, name).append(b);
+        } else {
+            field(sb, name).append("\"\"");
+        }
+    }
+
+    /** Null-safe text comparison that ignores line ending differences. */
+    private static boolean sameText(String a, String b) {
+        String x = a == null ? "" : a;
+        String y = b == null ? "" : b;
+        return x.equals(y) || x.replace("\r", "").equals(y.replace("\r", ""));
     }
 
     public static String serializeVersion(String name, String status, String startDate, String dueDate) {
         StringBuilder sb = new StringBuilder();
         sb.append("{\"version\":{");
-        sb.append("\"name\":\"").append(escape(name)).append("\",");
+        quoted(sb.append("\"name\":"), name).append(',');
         sb.append("\"status\":\"").append(status).append("\"");
         if (startDate != null && !startDate.trim().isEmpty()) {
             sb.append(",\"start_date\":\"").append(startDate).append("\"");
@@ -797,146 +1611,86 @@ public class JsonParser {
 
     public static String serializeTimeEntry(int issueId, String date, double hours, int userId, int activityId,
             String comment) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("{\"time_entry\":{");
-        sb.append("\"issue_id\":").append(issueId);
-        sb.append(",\"spent_on\":\"").append(date).append("\"");
-        sb.append(",\"hours\":").append(hours);
-        if (userId > 0)
-            sb.append(",\"user_id\":").append(userId);
-        if (activityId > 0)
-            sb.append(",\"activity_id\":").append(activityId);
-        if (comment != null && !comment.trim().isEmpty())
-            sb.append(",\"comments\":\"").append(escape(comment)).append("\"");
-        sb.append("}}");
-        return sb.toString();
+        return JsonWriter.toString(timeEntryBody(issueId, date, hours, userId, activityId, comment));
     }
 
-    private static String buildJson(String pid, Task t, boolean update) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("{\"issue\":{");
-        boolean firstField = true;
-
-        if (pid != null) {
-            sb.append("\"project_id\":\"").append(pid).append("\"");
-            firstField = false;
-        }
-
-        if (!firstField)
-            sb.append(",");
-        sb.append("\"subject\":\"").append(escape(t.subject)).append("\"");
-        firstField = false;
-
-        if (!firstField)
-            sb.append(",");
-        sb.append("\"description\":\"").append(escape(t.description)).append("\"");
-        firstField = false;
-
-        if (t.priorityId > 0) {
-            if (!firstField)
-                sb.append(",");
-            sb.append("\"priority_id\":").append(t.priorityId);
-            firstField = false;
-        }
-        if (t.trackerId > 0) {
-            if (!firstField)
-                sb.append(",");
-            sb.append("\"tracker_id\":").append(t.trackerId);
-            firstField = false;
-        }
-        if (t.statusId > 0) {
-            if (!firstField)
-                sb.append(",");
-            sb.append("\"status_id\":").append(t.statusId);
-            firstField = false;
-        }
-
-        if (t.assignedToId > 0) {
-            if (!firstField)
-                sb.append(",");
-            sb.append("\"assigned_to_id\":").append(t.assignedToId);
-            firstField = false;
-        } else if (update) {
-            if (!firstField)
-                sb.append(",");
-            sb.append("\"assigned_to_id\":\"\"");
-            firstField = false;
-        }
-
-        if (t.categoryId > 0) {
-            if (!firstField)
-                sb.append(",");
-            sb.append("\"category_id\":").append(t.categoryId);
-            firstField = false;
-        }
-
-        if (t.targetVersionId > 0) {
-            if (!firstField)
-                sb.append(",");
-            sb.append("\"fixed_version_id\":").append(t.targetVersionId);
-            firstField = false;
-        } else if (update) {
-            if (!firstField)
-                sb.append(",");
-            sb.append("\"fixed_version_id\":\"\"");
-            firstField = false;
-        }
-
-        if (t.parentId > 0) {
-            if (!firstField)
-                sb.append(",");
-            sb.append("\"parent_issue_id\":").append(t.parentId);
-            firstField = false;
-        }
-
-        if (t.comment != null && !t.comment.trim().isEmpty()) {
-            if (!firstField)
-                sb.append(",");
-            sb.append("\"notes\":\"").append(escape(t.comment)).append("\"");
-            firstField = false;
-        }
-
-        if (!firstField)
-            sb.append(",");
-        sb.append("\"done_ratio\":").append(t.doneRatio);
-        firstField = false;
+    /** Streamed {@link #serializeTimeEntry} payload. */
+    public static JsonWriter.Body timeEntryBody(int issueId, String date, double hours, int userId, int activityId,
+            String comment) {
+        return w -> {
+            w.beginObject().name("time_entry").beginObject();
+            w.name("issue_id").value(issueId);
+            w.name("spent_on").value(date);
+            w.name("hours").value(hours);
+            if (userId > 0)
+                w.name("user_id").value(userId);
+            if (activityId > 0)
+                w.name("activity_id").value(activityId);
+            if (comment != null && !comment.trim().isEmpty())
+                w.name("comments").value(comment);
+            w.endObject().endObject();
+        };
+    }
 
-        if (t.pendingUploads != null && !t.pendingUploads.isEmpty()) {
-            if (!firstField)
-                sb.append(",");
-            sb.append("\"uploads\":[");
-            for (int i = 0; i < t.pendingUploads.size(); i++) {
-                UploadToken ut = t.pendingUploads.get(i);
-                sb.append(i > 0 ? "," : "").append("{\"token\":\"").append(ut.token).append("\",\"filename\":\"")
-                        .append(ut.filename).append("\",\"content_type\":\"").append(ut.contentType).append("\"}");
+    /**
+     * Full issue payload: every field for a create ({@code pid} set), or for
+     * an update of a task without baseline. On update, an unassigned task and
+     * a task without version send {@code ""} to clear the field.
+     */
+    public static JsonWriter.Body taskBody(String pid, Task t, boolean update) {
+        return w -> {
+            w.beginObject().name("issue").beginObject();
+            if (pid != null)
+                w.name("project_id").value(pid);
+            w.name("subject").value(t.subject);
+            w.name("description").value(t.getDescription());
+            if (t.priorityId > 0)
+                w.name("priority_id").value(t.priorityId);
+            if (t.trackerId > 0)
+                w.name("tracker_id").value(t.trackerId);
+            if (t.statusId > 0)
+                w.name("status_id").value(t.statusId);
+            if (t.assignedToId > 0)
+                w.name("assigned_to_id").value(t.assignedToId);
+            else if (update)
+                w.name("assigned_to_id").value("");
+            if (t.categoryId > 0)
+                w.name("category_id").value(t.categoryId);
+            if (t.targetVersionId > 0)
+                w.name("fixed_version_id").value(t.targetVersionId);
+            else if (update)
+                w.name("fixed_version_id").value("");
+            if (t.parentId > 0)
+                w.name("parent_issue_id").value(t.parentId);
+            if (t.comment != null && !t.comment.trim().isEmpty())
+                w.name("notes").value(t.comment);
+            w.name("done_ratio").value(t.doneRatio);
+
+            if (t.pendingUploads != null && !t.pendingUploads.isEmpty()) {
+                w.name("uploads").beginArray();
+                for (UploadToken ut : t.pendingUploads) {
+                    w.beginObject()
+                            .name("token").value(ut.token)
+                            .name("filename").value(ut.filename)
+                            .name("content_type").value(ut.contentType)
+                            .endObject();
+                }
+                w.endArray();
             }
-            sb.append("]");
-        }
 
-        // Custom Fields Serialization
-        if (t.customFields != null && !t.customFields.isEmpty()) {
-            if (!firstField)
-                sb.append(",");
-            sb.append("\"custom_fields\":[");
-            boolean firstCf = true;
-            for (redmineconnector.model.CustomField cf : t.customFields) {
-                if (cf.value == null || cf.value.trim().isEmpty()) {
-                    continue;
+            // Custom fields without value are left untouched
+            if (t.customFields != null && !t.customFields.isEmpty()) {
+                w.name("custom_fields").beginArray();
+                for (redmineconnector.model.CustomField cf : t.customFields) {
+                    if (cf.value == null || cf.value.trim().isEmpty()) {
+                        continue;
+                    }
+                    w.beginObject().name("id").value(cf.id).name("value").value(cf.value).endObject();
                 }
-                if (!firstCf)
-                    sb.append(",");
-                sb.append("{");
-                sb.append("\"id\":").append(cf.id).append(",");
-                sb.append("\"value\":\"").append(escape(cf.value)).append("\"");
-                sb.append("}");
-                firstCf = false;
+                w.endArray();
             }
-            sb.append("]");
-            firstField = false;
-        }
-
-        sb.append("}}");
-        return sb.toString();
+            w.endObject().endObject();
+        };
     }
 
     public static List<SimpleEntity> parseAllowedStatuses(String json) {
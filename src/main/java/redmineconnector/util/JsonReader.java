@@ -0,0 +1,683 @@
+package redmineconnector.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Token-level pull reader (cursor) over a JSON document.
+ *
+ * <p>
+ * Unlike {@link JsonParser#parse(String)}, which materializes the whole
+ * document as a tree of {@code HashMap}/{@code ArrayList} and boxed numbers,
+ * this reader walks the input once and lets the caller bind values straight
+ * into model objects. Values that are not needed are skipped without being
+ * allocated.
+ *
+ * <pre>
+ * JsonReader r = new JsonReader(json);
+ * r.beginObject();
+ * while (r.hasNext()) {
+ *     String name = r.nextName();
+ *     if ("id".equals(name))
+ *         id = r.nextInt();
+ *     else
+ *         r.skipValue();
+ * }
+ * r.endObject();
+ * </pre>
+ *
+ * <p>
+ * The input can be a {@code String} or the raw UTF-8 bytes of an HTTP response.
+ * In the byte form the reader decodes UTF-8 itself while scanning: structural
+ * characters are ASCII, so only string values are decoded, and strings that are
+ * pure ASCII without escapes are built straight from the byte range. No
+ * intermediate {@code String} of the whole body is ever created.
+ *
+ * <p>
+ * The reader is strict about structure: malformed input raises
+ * {@link MalformedJsonException} so callers can fall back to the lenient tree
+ * parser. Instances are not thread-safe.
+ *
+ * @author Redmine Connector Team
+ * @version 1.0
+ */
+public final class JsonReader {
+
+    /** Kind of the next token in the stream. */
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    /** Thrown when the input is not well-formed JSON. */
+    public static class MalformedJsonException extends IllegalStateException {
+        private static final long serialVersionUID = 1L;
+
+        public MalformedJsonException(String message) {
+            super(message);
+        }
+    }
+
+    // Scope of the innermost open container
+    private static final int EMPTY_ARRAY = 1;
+    private static final int NONEMPTY_ARRAY = 2;
+    private static final int EMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int NONEMPTY_OBJECT = 5;
+    private static final int EMPTY_DOCUMENT = 6;
+    private static final int NONEMPTY_DOCUMENT = 7;
+
+    // Exactly one of in / bytes is set
+    private final String in;
+    private final byte[] bytes;
+    private final int len;
+    private int pos;
+
+    private int[] stack = new int[32];
+    private int stackSize = 0;
+
+    /** Token found by the last {@link #peek()} and not yet consumed, or null. */
+    private Token peeked;
+
+    private StringBuilder scratch;
+
+    public JsonReader(String json) {
+        this.in = json != null ? json : "";
+        this.bytes = null;
+        this.len = in.length();
+        push(EMPTY_DOCUMENT);
+    }
+
+    /**
+     * Reader over UTF-8 encoded bytes (e.g. an HTTP response body).
+     */
+    public JsonReader(byte[] utf8) {
+        this(utf8, 0, utf8 != null ? utf8.length : 0);
+    }
+
+    public JsonReader(byte[] utf8, int offset, int length) {
+        this.in = null;
+        this.bytes = utf8 != null ? utf8 : new byte[0];
+        this.pos = offset;
+        this.len = offset + length;
+        // Skip UTF-8 BOM
+        if (length >= 3 && (bytes[pos] & 0xFF) == 0xEF && (bytes[pos + 1] & 0xFF) == 0xBB
+                && (bytes[pos + 2] & 0xFF) == 0xBF)
+            pos += 3;
+        push(EMPTY_DOCUMENT);
+    }
+
+    // --- Structure ---
+
+    public void beginObject() {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+        peeked = null;
+    }
+
+    public void endObject() {
+        expect(Token.END_OBJECT);
+        stackSize--;
+        peeked = null;
+    }
+
+    public void beginArray() {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+        peeked = null;
+    }
+
+    public void endArray() {
+        expect(Token.END_ARRAY);
+        stackSize--;
+        peeked = null;
+    }
+
+    /**
+     * True if the current object or array has more elements.
+     */
+    public boolean hasNext() {
+        Token t = peek();
+        return t != Token.END_OBJECT && t != Token.END_ARRAY && t != Token.END_DOCUMENT;
+    }
+
+    /**
+     * Returns the kind of the next token without consuming it.
+     */
+    public Token peek() {
+        if (peeked == null)
+            peeked = doPeek();
+        return peeked;
+    }
+
+    private Token doPeek() {
+        int scope = stack[stackSize - 1];
+        if (scope == EMPTY_ARRAY) {
+            stack[stackSize - 1] = NONEMPTY_ARRAY;
+        } else if (scope == NONEMPTY_ARRAY) {
+            int c = nextNonWhitespace();
+            if (c == ']') {
+                return Token.END_ARRAY;
+            }
+            if (c != ',')
+                throw syntaxError("Expected ',' or ']'");
+        } else if (scope == EMPTY_OBJECT || scope == NONEMPTY_OBJECT) {
+            stack[stackSize - 1] = DANGLING_NAME;
+            int c = nextNonWhitespace();
+            if (scope == NONEMPTY_OBJECT) {
+                if (c == '}')
+                    return Token.END_OBJECT;
+                if (c != ',')
+                    throw syntaxError("Expected ',' or '}'");
+                c = nextNonWhitespace();
+            } else if (c == '}') {
+                return Token.END_OBJECT;
+            }
+            if (c != '"')
+                throw syntaxError("Expected name");
+            return Token.NAME;
+        } else if (scope == DANGLING_NAME) {
+            stack[stackSize - 1] = NONEMPTY_OBJECT;
+            if (nextNonWhitespace() != ':')
+                throw syntaxError("Expected ':'");
+        } else if (scope == EMPTY_DOCUMENT) {
+            stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+        } else if (scope == NONEMPTY_DOCUMENT) {
+            if (nextNonWhitespace() == -1)
+                return Token.END_DOCUMENT;
+            throw syntaxError("Unexpected data after document");
+        }
+
+        int c = nextNonWhitespace();
+        switch (c) {
+            case ']':
+                if (scope == EMPTY_ARRAY)
+                    return Token.END_ARRAY;
+                throw syntaxError("Unexpected ']'");
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case '"':
+                return Token.STRING;
+            case 't':
+            case 'f':
+                pos--;
+                return Token.BOOLEAN;
+            case 'n':
+                pos--;
+                return Token.NULL;
+            case -1:
+                throw syntaxError("Unexpected end of input");
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    pos--;
+                    return Token.NUMBER;
+                }
+                throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    // --- Values ---
+
+    public String nextName() {
+        expect(Token.NAME);
+        peeked = null;
+        return readString();
+    }
+
+    /**
+     * Returns a string value. Numbers and booleans are returned as their literal
+     * text, null as {@code null}.
+     */
+    public String nextString() {
+        Token t = peek();
+        peeked = null;
+        switch (t) {
+            case STRING:
+                return readString();
+            case NUMBER:
+                return readNumberLiteral();
+            case BOOLEAN:
+                return readBoolean() ? "true" : "false";
+            case NULL:
+                readNull();
+                return null;
+            default:
+                peeked = t;
+                throw syntaxError("Expected a string but was " + t);
+        }
+    }
+
+    /**
+     * Same as {@link #nextString()}, resolved through {@code symbols}: a string
+     * value without escapes (and, in byte mode, pure ASCII) is looked up in the
+     * input itself, so a value already in the table is returned without
+     * allocating.
+     */
+    public String nextString(SymbolTable symbols) {
+        if (peek() != Token.STRING)
+            return symbols.intern(nextString());
+        peeked = null;
+        int start = pos;
+        for (int i = start; i < len; i++) {
+            int c = at(i);
+            if (c == '"') {
+                pos = i + 1;
+                return bytes != null ? symbols.intern(bytes, start, i) : symbols.intern(in, start, i);
+            }
+            if (c == '\\' || (c >= 0x80 && bytes != null))
+                break;
+        }
+        return symbols.intern(readString());
+    }
+
+    /**
+     * Returns a number value; null is 0. A number literal is scanned in place
+     * from the input, without building its text. A fraction is truncated; a
+     * value outside the {@code long} range raises
+     * {@link MalformedJsonException}. Strings and booleans are read leniently
+     * (0 if not numeric).
+     */
+    public long nextLong() {
+        Token t = peek();
+        if (t == Token.NULL) {
+            nextNull();
+            return 0;
+        }
+        if (t != Token.NUMBER) {
+            return parseLong(nextString());
+        }
+        peeked = null;
+        int start = pos;
+        boolean negative = at(pos) == '-';
+        int i = negative ? pos + 1 : pos;
+        int digits = i;
+        // Accumulated as a negative number so that Long.MIN_VALUE fits
+        long value = 0;
+        for (; i < len; i++) {
+            int c = at(i);
+            if (c < '0' || c > '9')
+                break;
+            int d = c - '0';
+            if (value < Long.MIN_VALUE / 10 || (value == Long.MIN_VALUE / 10 && d > 8))
+                throw syntaxError("Number out of range");
+            value = value * 10 - d;
+        }
+        if (i == digits)
+            throw syntaxError("Invalid number");
+        if (i < len && at(i) == '.') {
+            do {
+                i++;
+            } while (i < len && at(i) >= '0' && at(i) <= '9');
+        }
+        if (i < len && (at(i) == 'e' || at(i) == 'E')) {
+            // Rare: let the exponent be applied by Double
+            pos = start;
+            return toLong(Double.parseDouble(readNumberLiteral()));
+        }
+        pos = i;
+        if (pos < len && isNumberChar(at(pos)))
+            throw syntaxError("Invalid number");
+        if (!negative) {
+            if (value == Long.MIN_VALUE)
+                throw syntaxError("Number out of range");
+            value = -value;
+        }
+        return value;
+    }
+
+    /**
+     * Same as {@link #nextLong()}; a value outside the {@code int} range raises
+     * {@link MalformedJsonException} instead of being truncated.
+     */
+    public int nextInt() {
+        long value = nextLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+            throw syntaxError("Integer out of range: " + value);
+        return (int) value;
+    }
+
+    public double nextDouble() {
+        Token t = peek();
+        if (t == Token.NULL) {
+            nextNull();
+            return 0.0;
+        }
+        String s = nextString();
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+
+    public boolean nextBoolean() {
+        Token t = peek();
+        peeked = null;
+        if (t == Token.BOOLEAN)
+            return readBoolean();
+        peeked = t;
+        String s = nextString();
+        return "true".equalsIgnoreCase(s);
+    }
+
+    public void nextNull() {
+        expect(Token.NULL);
+        peeked = null;
+        readNull();
+    }
+
+    /**
+     * Skips the next value, including nested objects and arrays, without
+     * allocating it.
+     */
+    public void skipValue() {
+        int depth = 0;
+        do {
+            Token t = peek();
+            switch (t) {
+                case BEGIN_OBJECT:
+                    beginObject();
+                    depth++;
+                    break;
+                case BEGIN_ARRAY:
+                    beginArray();
+                    depth++;
+                    break;
+                case END_OBJECT:
+                    endObject();
+                    depth--;
+                    break;
+                case END_ARRAY:
+                    endArray();
+                    depth--;
+                    break;
+                case NAME:
+                    peeked = null;
+                    skipString();
+                    break;
+                case STRING:
+                    peeked = null;
+                    skipString();
+                    break;
+                case NUMBER:
+                    peeked = null;
+                    skipNumber();
+                    break;
+                case BOOLEAN:
+                    peeked = null;
+                    readBoolean();
+                    break;
+                case NULL:
+                    peeked = null;
+                    readNull();
+                    break;
+                default:
+                    throw syntaxError("Unexpected end of input");
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * Skips the next value and returns a copy of its JSON text, to be decoded
+     * later (or never) with {@link Raw#reader()}. Lets callers defer large
+     * values that are rarely read.
+     */
+    public Raw nextRaw() {
+        Token t = peek();
+        // peek() consumed the opening character of strings and containers
+        int start = t == Token.STRING || t == Token.BEGIN_OBJECT || t == Token.BEGIN_ARRAY ? pos - 1 : pos;
+        skipValue();
+        return bytes != null ? new Raw(Arrays.copyOfRange(bytes, start, pos)) : new Raw(in.substring(start, pos));
+    }
+
+    /**
+     * JSON text of one value, detached from the document it was read from:
+     * the UTF-8 bytes or the characters, as in the source.
+     */
+    public static final class Raw {
+        private final byte[] utf8;
+        private final String text;
+
+        Raw(byte[] utf8) {
+            this.utf8 = utf8;
+            this.text = null;
+        }
+
+        Raw(String text) {
+            this.utf8 = null;
+            this.text = text;
+        }
+
+        /** New reader positioned before the value. */
+        public JsonReader reader() {
+            return utf8 != null ? new JsonReader(utf8) : new JsonReader(text);
+        }
+
+        /** Size of the JSON text, in bytes or characters. */
+        public int length() {
+            return utf8 != null ? utf8.length : text.length();
+        }
+    }
+
+    // --- Low level scanning ---
+
+    private void expect(Token expected) {
+        Token t = peek();
+        if (t != expected)
+            throw syntaxError("Expected " + expected + " but was " + t);
+    }
+
+    private void push(int scope) {
+        if (stackSize == stack.length) {
+            int[] bigger = new int[stackSize * 2];
+            System.arraycopy(stack, 0, bigger, 0, stackSize);
+            stack = bigger;
+        }
+        stack[stackSize++] = scope;
+    }
+
+    /** Character (String source) or unsigned byte (UTF-8 source) at index i. */
+    private int at(int i) {
+        return bytes != null ? bytes[i] & 0xFF : in.charAt(i);
+    }
+
+    private boolean matches(String literal) {
+        if (pos + literal.length() > len)
+            return false;
+        for (int i = 0; i < literal.length(); i++) {
+            if (at(pos + i) != literal.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    private String slice(int start, int end) {
+        // Only used for ASCII ranges in byte mode
+        return bytes != null ? new String(bytes, start, end - start, StandardCharsets.ISO_8859_1)
+                : in.substring(start, end);
+    }
+
+    private int nextNonWhitespace() {
+        while (pos < len) {
+            int c = at(pos++);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t')
+                return c;
+        }
+        return -1;
+    }
+
+    /**
+     * Reads a string body; the opening quote has already been consumed. Strings
+     * without escapes (and, in byte mode, pure ASCII) are returned as a single
+     * slice of the input.
+     */
+    private String readString() {
+        int start = pos;
+        while (pos < len) {
+            int c = at(pos);
+            if (c == '"') {
+                String s = slice(start, pos);
+                pos++;
+                return s;
+            }
+            if (c == '\\' || (c >= 0x80 && bytes != null))
+                break;
+            pos++;
+        }
+        StringBuilder sb = scratch != null ? scratch : (scratch = new StringBuilder(64));
+        sb.setLength(0);
+        if (bytes != null) {
+            for (int i = start; i < pos; i++)
+                sb.append((char) bytes[i]);
+        } else {
+            sb.append(in, start, pos);
+        }
+        while (pos < len) {
+            int c = at(pos++);
+            if (c == '"')
+                return sb.toString();
+            if (c == '\\') {
+                if (pos >= len)
+                    break;
+                sb.append(readEscape());
+            } else if (c >= 0x80 && bytes != null) {
+                appendUtf8(sb, c);
+            } else {
+                sb.append((char) c);
+            }
+        }
+        throw syntaxError("Unterminated string");
+    }
+
+    /**
+     * Decodes one UTF-8 sequence whose lead byte {@code b0} has been consumed.
+     * Invalid sequences become U+FFFD; 4-byte sequences become a surrogate pair.
+     */
+    private void appendUtf8(StringBuilder sb, int b0) {
+        int need;
+        int cp;
+        if ((b0 & 0xE0) == 0xC0) {
+            need = 1;
+            cp = b0 & 0x1F;
+        } else if ((b0 & 0xF0) == 0xE0) {
+            need = 2;
+            cp = b0 & 0x0F;
+        } else if ((b0 & 0xF8) == 0xF0) {
+            need = 3;
+            cp = b0 & 0x07;
+        } else {
+            sb.append('\uFFFD');
+            return;
+        }
+        for (int i = 0; i < need; i++) {
+            if (pos >= len || (bytes[pos] & 0xC0) != 0x80) {
+                sb.append('\uFFFD');
+                return;
+            }
+            cp = (cp << 6) | (bytes[pos++] & 0x3F);
+        }
+        sb.appendCodePoint(Character.isValidCodePoint(cp) ? cp : 0xFFFD);
+    }
+
+    private char readEscape() {
+        int c = at(pos++);
+        switch (c) {
+            case 'n':
+                return '\n';
+            case 't':
+                return '\t';
+            case 'r':
+                return '\r';
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'u':
+                if (pos + 4 > len)
+                    throw syntaxError("Unterminated escape");
+                int v = 0;
+                for (int i = 0; i < 4; i++) {
+                    int d = Character.digit(at(pos++), 16);
+                    if (d < 0)
+                        throw syntaxError("Invalid \\u escape");
+                    v = (v << 4) | d;
+                }
+                return (char) v;
+            default:
+                // '"', '\\', '/' and lenient unknown escapes
+                return (char) c;
+        }
+    }
+
+    private void skipString() {
+        while (pos < len) {
+            int c = at(pos++);
+            if (c == '"')
+                return;
+            if (c == '\\')
+                pos++;
+        }
+        throw syntaxError("Unterminated string");
+    }
+
+    private String readNumberLiteral() {
+        int start = pos;
+        skipNumber();
+        return slice(start, pos);
+    }
+
+    private void skipNumber() {
+        while (pos < len && isNumberChar(at(pos)))
+            pos++;
+    }
+
+    private static boolean isNumberChar(int c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+    }
+
+    private boolean readBoolean() {
+        if (matches("true")) {
+            pos += 4;
+            return true;
+        }
+        if (matches("false")) {
+            pos += 5;
+            return false;
+        }
+        throw syntaxError("Invalid literal");
+    }
+
+    private void readNull() {
+        if (!matches("null"))
+            throw syntaxError("Invalid literal");
+        pos += 4;
+    }
+
+    private long parseLong(String s) {
+        if (s == null || s.isEmpty())
+            return 0;
+        try {
+            return Long.parseLong(s);
+        } catch (NumberFormatException e) {
+            double d;
+            try {
+                d = Double.parseDouble(s);
+            } catch (NumberFormatException e2) {
+                return 0;
+            }
+            return toLong(d);
+        }
+    }
+
+    /** Truncates {@code d}, which must be within the {@code long} range. */
+    private long toLong(double d) {
+        if (Double.isNaN(d) || d >= 0x1p63 || d < -0x1p63)
+            throw syntaxError("Number out of range");
+        return (long) d;
+    }
+
+    private MalformedJsonException syntaxError(String message) {
+        return new MalformedJsonException(message + " at position " + pos);
+    }
+}
@@ -0,0 +1,311 @@
+package redmineconnector.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming JSON writer: escapes and encodes to UTF-8 in a single pass over
+ * each string, straight into an {@link OutputStream}.
+ *
+ * <pre>
+ * JsonWriter w = new JsonWriter(out);
+ * w.beginObject().name("wiki_page").beginObject()
+ *         .name("text").value(content)
+ *         .endObject().endObject().flush();
+ * </pre>
+ *
+ * <p>
+ * Commas and colons are placed by the writer. Strings are escaped as they are
+ * copied: quotes, backslashes and every control character below 0x20 are
+ * escaped, surrogate pairs become one 4-byte UTF-8 sequence and a lone
+ * surrogate is written as {@code ?}, as {@code String.getBytes} does. No
+ * escaped copy nor byte array of the text is ever built, so a large wiki page
+ * goes to the connection without being duplicated in memory.
+ *
+ * <p>
+ * Request payloads are described by a {@link Body}, which
+ * {@link redmineconnector.http.HttpRequest#jsonBody(Body)} sends without
+ * buffering. Instances are not thread-safe.
+ *
+ * @author Redmine Connector Team
+ * @version 1.0
+ */
+public final class JsonWriter {
+
+    /**
+     * Writes a whole JSON document. It may be called more than once (length
+     * measurement, retries) and must write the same document every time.
+     */
+    public interface Body {
+        void writeTo(JsonWriter w) throws IOException;
+    }
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final OutputStream out;
+    private final byte[] buf = new byte[8192];
+    private int pos;
+
+    // One flag per open object/array: nothing written in it yet
+    private boolean[] empty = new boolean[16];
+    private int depth;
+    private boolean afterName;
+
+    public JsonWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    // --- Bodies ---
+
+    /** Writes {@code body} to {@code out} and flushes it (the stream stays open). */
+    public static void write(Body body, OutputStream out) throws IOException {
+        JsonWriter w = new JsonWriter(out);
+        body.writeTo(w);
+        w.flush();
+    }
+
+    /** UTF-8 length of {@code body}, computed without keeping the bytes. */
+    public static long measure(Body body) throws IOException {
+        long[] count = new long[1];
+        write(body, new OutputStream() {
+            @Override
+            public void write(int b) {
+                count[0]++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                count[0] += len;
+            }
+        });
+        return count[0];
+    }
+
+    /** {@code body} as a string (tests, logs, small payloads). */
+    public static String toString(Body body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try {
+            write(body, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    // --- Structure ---
+
+    public JsonWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    public JsonWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    public JsonWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    /** Member name; the next call writes its value. */
+    public JsonWriter name(String name) throws IOException {
+        separate();
+        string(name);
+        put((byte) ':');
+        afterName = true;
+        return this;
+    }
+
+    // --- Values ---
+
+    /** String value; null is written as {@code ""}, as Redmine expects to clear a field. */
+    public JsonWriter value(CharSequence s) throws IOException {
+        separate();
+        string(s == null ? "" : s);
+        return this;
+    }
+
+    public JsonWriter value(long n) throws IOException {
+        separate();
+        ascii(Long.toString(n));
+        return this;
+    }
+
+    public JsonWriter value(double d) throws IOException {
+        if (Double.isNaN(d) || Double.isInfinite(d)) {
+            throw new IllegalArgumentException("Not a JSON number: " + d);
+        }
+        separate();
+        ascii(Double.toString(d));
+        return this;
+    }
+
+    public JsonWriter value(boolean b) throws IOException {
+        separate();
+        ascii(b ? "true" : "false");
+        return this;
+    }
+
+    /** Sends the buffered bytes to the stream. */
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    // --- Escaping ---
+
+    /**
+     * Appends {@code s} escaped for a JSON string literal (without the
+     * quotes), in one pass.
+     */
+    public static StringBuilder escape(CharSequence s, StringBuilder sb) {
+        for (int i = 0, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            String esc = shortEscape(c);
+            if (esc != null) {
+                sb.append(esc);
+            } else if (c < 0x20) {
+                sb.append("\\u00").append((char) HEX[c >> 4]).append((char) HEX[c & 0xF]);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb;
+    }
+
+    /** True if {@link #escape(CharSequence, StringBuilder)} would change {@code s}. */
+    public static boolean needsEscape(CharSequence s) {
+        for (int i = 0, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x20 || c == '"' || c == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String shortEscape(char c) {
+        switch (c) {
+            case '"':
+                return "\\\"";
+            case '\\':
+                return "\\\\";
+            case '\b':
+                return "\\b";
+            case '\f':
+                return "\\f";
+            case '\n':
+                return "\\n";
+            case '\r':
+                return "\\r";
+            case '\t':
+                return "\\t";
+            default:
+                return null;
+        }
+    }
+
+    // --- Internals ---
+
+    private JsonWriter open(char bracket) throws IOException {
+        separate();
+        put((byte) bracket);
+        if (++depth == empty.length) {
+            boolean[] grown = new boolean[depth * 2];
+            System.arraycopy(empty, 0, grown, 0, depth);
+            empty = grown;
+        }
+        empty[depth] = true;
+        return this;
+    }
+
+    private JsonWriter close(char bracket) throws IOException {
+        if (depth == 0 || afterName) {
+            throw new IllegalStateException("Unbalanced '" + bracket + "'");
+        }
+        depth--;
+        put((byte) bracket);
+        return this;
+    }
+
+    /** Comma before a member or element, except the first one. */
+    private void separate() throws IOException {
+        if (afterName) {
+            afterName = false;
+        } else if (depth > 0) {
+            if (empty[depth]) {
+                empty[depth] = false;
+            } else {
+                put((byte) ',');
+            }
+        }
+    }
+
+    private void string(CharSequence s) throws IOException {
+        put((byte) '"');
+        for (int i = 0, n = s.length(); i < n; i++) {
+            if (pos + 6 > buf.length) {
+                drain();
+            }
+            char c = s.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                buf[pos++] = (byte) c;
+            } else if (c < 0x80) {
+                String esc = shortEscape(c);
+                if (esc != null) {
+                    buf[pos++] = '\\';
+                    buf[pos++] = (byte) esc.charAt(1);
+                } else {
+                    buf[pos++] = '\\';
+                    buf[pos++] = 'u';
+                    buf[pos++] = '0';
+                    buf[pos++] = '0';
+                    buf[pos++] = HEX[c >> 4];
+                    buf[pos++] = HEX[c & 0xF];
+                }
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xC0 | c >> 6);
+                buf[pos++] = (byte) (0x80 | c & 0x3F);
+            } else if (!Character.isSurrogate(c)) {
+                buf[pos++] = (byte) (0xE0 | c >> 12);
+                buf[pos++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buf[pos++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buf[pos++] = (byte) (0xF0 | cp >> 18);
+                buf[pos++] = (byte) (0x80 | cp >> 12 & 0x3F);
+                buf[pos++] = (byte) (0x80 | cp >> 6 & 0x3F);
+                buf[pos++] = (byte) (0x80 | cp & 0x3F);
+            } else {
+                buf[pos++] = '?';
+            }
+        }
+        put((byte) '"');
+    }
+
+    private void ascii(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            put((byte) s.charAt(i));
+        }
+    }
+
+    private void put(byte b) throws IOException {
+        if (pos == buf.length) {
+            drain();
+        }
+        buf[pos++] = b;
+    }
+
+    private void drain() throws IOException {
+        if (pos > 0) {
+            out.write(buf, 0, pos);
+            pos = 0;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package redmineconnector.util;
+
+import java.util.Comparator;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Worker pool with priority lanes for background work (Redmine requests and
+ * the processing around them).
+ *
+ * <p>
+ * Jobs wait in a single queue ordered by lane and arrival, so a task the user
+ * just opened ({@link Lane#INTERACTIVE}) jumps ahead of queued refreshes,
+ * prefetches, reports and learning scans. Running jobs are never interrupted:
+ * lower lanes are preempted at the queue only.
+ *
+ * <ul>
+ * <li><b>Aging</b> - every {@link AppConstants#SCHEDULER_AGING_MS} waited moves
+ * a job up by one lane, so a steady stream of interactive work cannot starve
+ * background jobs.</li>
+ * <li><b>Reserved threads</b> - {@link Lane#PREFETCH}, {@link Lane#BULK} and
+ * {@link Lane#BACKGROUND} together never occupy the last
+ * {@link AppConstants#SCHEDULER_RESERVED_THREADS} threads, so an interactive
+ * request finds a free thread even while a long report is running.</li>
+ * </ul>
+ *
+ * <pre>
+ * RequestScheduler.shared().execute(Lane.INTERACTIVE, swingWorker);
+ * CompletableFuture.supplyAsync(supplier, RequestScheduler.shared().executor(Lane.BULK));
+ * </pre>
+ *
+ * <p>
+ * Queue depth, running jobs and wait times are kept per lane for
+ * diagnostics.
+ *
+ * @author Redmine Connector Team
+ * @version 1.0
+ */
+public final class RequestScheduler {
+
+    /** Lanes from highest to lowest priority. */
+    public enum Lane {
+        /** The user is waiting for the result (opening a task, a preview). */
+        INTERACTIVE,
+        /** Manual and automatic refresh of the task list and metadata. */
+        REFRESH,
+        /** Speculative loads (QuickView images). */
+        PREFETCH,
+        /** Bulk operations and reports. */
+        BULK,
+        /** Housekeeping nobody is waiting for (custom field learning). */
+        BACKGROUND;
+
+        boolean isLow() {
+            return ordinal() >= PREFETCH.ordinal();
+        }
+    }
+
+    private static final Comparator<Job> ORDER = (a, b) -> a.rank != b.rank ? Long.compare(a.rank, b.rank)
+            : Long.compare(a.seq, b.seq);
+
+    private static final class Holder {
+        static final RequestScheduler SHARED = new RequestScheduler("RequestScheduler",
+                AppConstants.SCHEDULER_THREADS, AppConstants.SCHEDULER_RESERVED_THREADS,
+                AppConstants.SCHEDULER_AGING_MS);
+    }
+
+    private static final class Job {
+        final Runnable task;
+        final Lane lane;
+        final long enqueued;
+        final long rank;
+        final long seq;
+
+        Job(Runnable task, Lane lane, long enqueued, long rank, long seq) {
+            this.task = task;
+            this.lane = lane;
+            this.enqueued = enqueued;
+            this.rank = rank;
+            this.seq = seq;
+        }
+    }
+
+    private final String name;
+    private final int maxLowRunning;
+    private final long agingNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final TreeSet<Job> queue = new TreeSet<>(ORDER);
+    private long seq;
+    private int lowRunning;
+    private boolean shutdown;
+
+    // Per-lane statistics, guarded by lock
+    private final int[] queued = new int[Lane.values().length];
+    private final int[] running = new int[Lane.values().length];
+    private final long[] completed = new long[Lane.values().length];
+    private final long[] waitNanos = new long[Lane.values().length];
+    private final long[] maxWaitNanos = new long[Lane.values().length];
+
+    /**
+     * Standalone scheduler (tests); the application uses {@link #shared()}.
+     *
+     * @param name            thread name prefix
+     * @param threads         worker threads
+     * @param reservedThreads threads the low lanes may not use
+     * @param agingMs         wait that promotes a job by one lane
+     */
+    public RequestScheduler(String name, int threads, int reservedThreads, long agingMs) {
+        this.name = name;
+        int n = Math.max(1, threads);
+        this.maxLowRunning = Math.max(1, n - Math.max(0, reservedThreads));
+        this.agingNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, agingMs));
+        for (int i = 1; i <= n; i++) {
+            Thread t = new Thread(this::work, name + "-" + i);
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    /** Scheduler shared by the whole application. */
+    public static RequestScheduler shared() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * Queues {@code task} in {@code lane}.
+     *
+     * @throws RejectedExecutionException after {@link #shutdown()}
+     */
+    public void execute(Lane lane, Runnable task) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new RejectedExecutionException(name + " is shut down");
+            }
+            queue.add(new Job(task, lane, now, now + lane.ordinal() * agingNanos, seq++));
+            queued[lane.ordinal()]++;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Executor view of one lane, for {@code CompletableFuture.supplyAsync}.
+     */
+    public Executor executor(Lane lane) {
+        return task -> execute(lane, task);
+    }
+
+    private void work() {
+        while (true) {
+            Job job;
+            lock.lock();
+            try {
+                while ((job = next()) == null) {
+                    if (shutdown) {
+                        return;
+                    }
+                    available.awaitUninterruptibly();
+                }
+                queue.remove(job);
+                int l = job.lane.ordinal();
+                queued[l]--;
+                running[l]++;
+                if (job.lane.isLow()) {
+                    lowRunning++;
+                }
+                long wait = System.nanoTime() - job.enqueued;
+                waitNanos[l] += wait;
+                maxWaitNanos[l] = Math.max(maxWaitNanos[l], wait);
+            } finally {
+                lock.unlock();
+            }
+            try {
+                job.task.run();
+            } catch (Throwable t) {
+                LoggerUtil.logError("RequestScheduler", job.lane + " job failed: " + t);
+            } finally {
+                // Do not leak a cancellation into the next job
+                Thread.interrupted();
+                lock.lock();
+                try {
+                    int l = job.lane.ordinal();
+                    running[l]--;
+                    completed[l]++;
+                    if (job.lane.isLow()) {
+                        lowRunning--;
+                        available.signal();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /** Best job that may run now; the low lanes are skipped when at their cap. */
+    private Job next() {
+        boolean lowAllowed = lowRunning < maxLowRunning;
+        for (Job job : queue) {
+            if (lowAllowed || !job.lane.isLow()) {
+                return job;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stops the workers once the queue is empty; further jobs are rejected.
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Jobs waiting in {@code lane}. */
+    public int getQueueDepth(Lane lane) {
+        lock.lock();
+        try {
+            return queued[lane.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Jobs of {@code lane} currently running. */
+    public int getRunning(Lane lane) {
+        lock.lock();
+        try {
+            return running[lane.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Jobs of {@code lane} finished since start. */
+    public long getCompletedCount(Lane lane) {
+        lock.lock();
+        try {
+            return completed[lane.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Mean time jobs of {@code lane} waited in the queue. */
+    public long getMeanWaitMs(Lane lane) {
+        lock.lock();
+        try {
+            int l = lane.ordinal();
+            long started = completed[l] + running[l];
+            return started == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(waitNanos[l] / started);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Longest time a job of {@code lane} waited in the queue. */
+    public long getMaxWaitMs(Lane lane) {
+        lock.lock();
+        try {
+            return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos[lane.ordinal()]);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -151,6 +151,25 @@ public class SwingWorkerFactory {
         createWorker(backgroundTask, onSuccess, onError).execute();
     }
 
+    /**
+     * Crea y ejecuta un SwingWorker en un carril del {@link RequestScheduler}
+     * compartido en lugar del pool FIFO de SwingWorker.
+     * 
+     * @param <T>            Tipo de resultado
+     * @param lane           Prioridad de la tarea
+     * @param backgroundTask Tarea en background
+     * @param onSuccess      Callback de éxito
+     * @param onError        Callback de error
+     */
+    public static <T> void executeAsync(
+            RequestScheduler.Lane lane,
+            Supplier<T> backgroundTask,
+            Consumer<T> onSuccess,
+            Consumer<Exception> onError) {
+
+        RequestScheduler.shared().execute(lane, createWorker(backgroundTask, onSuccess, onError));
+    }
+
     /**
      * Crea y ejecuta un SwingWorker con manejo de error por defecto.
      * 
@@ -0,0 +1,283 @@
+package redmineconnector.util;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import redmineconnector.model.CustomFieldDefinition;
+
+/**
+ * Canonical instances of the short strings that repeat across parsed issues:
+ * status, priority, tracker, user, category and version names, custom field
+ * names and enumeration values.
+ *
+ * <p>
+ * A server has a few dozen such values but a project listing repeats them in
+ * every one of its thousands of issues, and every tab on the same server holds
+ * its own copy of the listing. {@link JsonParser} resolves them through the
+ * table of the server, so all tasks share one {@code String} per value.
+ * {@link JsonReader#nextString(SymbolTable)} looks plain values up straight in
+ * the input buffer, so a repeated value does not even allocate a temporary
+ * copy.
+ *
+ * <pre>
+ * List&lt;Task&gt; tasks = JsonParser.parseIssues(body, SymbolTable.forUrl(baseUrl));
+ * </pre>
+ *
+ * <p>
+ * Custom field values are interned only for the fields registered with
+ * {@link #addCustomFields(Collection)} as taking their values from a fixed set,
+ * and for multi-valued fields: free-text values would fill the table with
+ * strings that never repeat. Only values up to {@link #MAX_LENGTH} characters
+ * are kept, and at most {@link #MAX_SYMBOLS} of them; past that, values are
+ * returned as they are.
+ * The heap saved is estimated from the strings not retained (see
+ * {@link #getSavedBytes()}) and shown in the network diagnostics. Instances are
+ * thread-safe.
+ *
+ * @author Redmine Connector Team
+ * @version 1.0
+ */
+public final class SymbolTable {
+
+    /** Longer values are not interned (subjects, free text). */
+    public static final int MAX_LENGTH = 64;
+
+    /** Symbols kept per table. */
+    public static final int MAX_SYMBOLS = 8192;
+
+    /** Custom field formats whose values come from a fixed set. */
+    private static final Set<String> LIST_FORMATS = new HashSet<>(
+            Arrays.asList("list", "enumeration", "user", "version", "bool"));
+
+    /** Header of a String plus its backing array, 64-bit JVM, compressed oops. */
+    private static final int STRING_OVERHEAD = 40;
+
+    private static final Map<String, SymbolTable> TABLES = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final Set<Integer> listFields = ConcurrentHashMap.newKeySet();
+
+    // Open addressing, linear probing; guarded by this
+    private String[] slots = new String[256];
+    private int size;
+    private long lookups;
+    private long hits;
+    private long savedBytes;
+
+    /**
+     * Standalone table (tests); the application uses {@link #forUrl(String)}.
+     */
+    public SymbolTable(String name) {
+        this.name = name;
+    }
+
+    /** Table shared by every parser reading from the host of {@code url}. */
+    public static SymbolTable forUrl(String url) {
+        return TABLES.computeIfAbsent(hostOf(url), SymbolTable::new);
+    }
+
+    /** All known tables by host name (for diagnostics). */
+    public static Map<String, SymbolTable> all() {
+        return Collections.unmodifiableMap(new TreeMap<>(TABLES));
+    }
+
+    private static String hostOf(String url) {
+        try {
+            return new URL(url).getHost().toLowerCase();
+        } catch (Exception e) {
+            return url != null ? url.toLowerCase() : "";
+        }
+    }
+
+    /**
+     * Registers the custom fields of {@code defs} whose format takes values from
+     * a fixed set (list, enumeration, user, version, bool).
+     */
+    public void addCustomFields(Collection<CustomFieldDefinition> defs) {
+        for (CustomFieldDefinition def : defs) {
+            if (def.type != null && LIST_FORMATS.contains(def.type)) {
+                listFields.add(def.id);
+            }
+        }
+    }
+
+    /** True if custom field {@code id} was registered as a list-type field. */
+    public boolean isListField(int id) {
+        return listFields.contains(id);
+    }
+
+    /**
+     * Canonical instance of {@code s}.
+     *
+     * @return the instance already in the table, or {@code s} itself
+     */
+    public String intern(String s) {
+        if (s == null || s.isEmpty() || s.length() > MAX_LENGTH) {
+            return s;
+        }
+        synchronized (this) {
+            lookups++;
+            int mask = slots.length - 1;
+            for (int i = s.hashCode() & mask;; i = (i + 1) & mask) {
+                String cur = slots[i];
+                if (cur == null) {
+                    add(i, s);
+                    return s;
+                }
+                if (cur.equals(s)) {
+                    hit(cur);
+                    return cur;
+                }
+            }
+        }
+    }
+
+    /**
+     * Canonical instance of the characters {@code [start, end)} of
+     * {@code src}; a new string is created only for a value not seen yet.
+     */
+    String intern(String src, int start, int end) {
+        if (end - start > MAX_LENGTH) {
+            return src.substring(start, end);
+        }
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + src.charAt(i);
+        }
+        synchronized (this) {
+            lookups++;
+            int mask = slots.length - 1;
+            for (int i = h & mask;; i = (i + 1) & mask) {
+                String cur = slots[i];
+                if (cur == null) {
+                    String s = src.substring(start, end);
+                    add(i, s);
+                    return s;
+                }
+                if (cur.length() == end - start && cur.regionMatches(0, src, start, end - start)) {
+                    hit(cur);
+                    return cur;
+                }
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #intern(String, int, int)} for a pure ASCII range of UTF-8
+     * bytes.
+     */
+    String intern(byte[] src, int start, int end) {
+        if (end - start > MAX_LENGTH) {
+            return new String(src, start, end - start, StandardCharsets.ISO_8859_1);
+        }
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + src[i];
+        }
+        synchronized (this) {
+            lookups++;
+            int mask = slots.length - 1;
+            for (int i = h & mask;; i = (i + 1) & mask) {
+                String cur = slots[i];
+                if (cur == null) {
+                    String s = new String(src, start, end - start, StandardCharsets.ISO_8859_1);
+                    add(i, s);
+                    return s;
+                }
+                if (sameAscii(cur, src, start, end)) {
+                    hit(cur);
+                    return cur;
+                }
+            }
+        }
+    }
+
+    private static boolean sameAscii(String s, byte[] src, int start, int end) {
+        if (s.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) != src[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void hit(String s) {
+        hits++;
+        savedBytes += STRING_OVERHEAD + s.length();
+    }
+
+    /** Stores {@code s} in free slot {@code i}, unless the table is full. */
+    private void add(int i, String s) {
+        if (size >= MAX_SYMBOLS) {
+            return;
+        }
+        slots[i] = s;
+        if (++size * 2 > slots.length) {
+            String[] old = slots;
+            slots = new String[old.length * 2];
+            int mask = slots.length - 1;
+            for (String cur : old) {
+                if (cur != null) {
+                    int j = cur.hashCode() & mask;
+                    while (slots[j] != null) {
+                        j = (j + 1) & mask;
+                    }
+                    slots[j] = cur;
+                }
+            }
+        }
+    }
+
+    /** Host name, or the name given to a standalone table. */
+    public String getName() {
+        return name;
+    }
+
+    /** Distinct values held. */
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long getLookupCount() {
+        return lookups;
+    }
+
+    /** Lookups answered with an existing instance. */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Estimated heap not retained thanks to the table: one string header and
+     * backing array per hit. It counts every parse, so values of listings that
+     * were later dropped are included.
+     */
+    public synchronized long getSavedBytes() {
+        return savedBytes;
+    }
+
+    /** Drops every symbol and counter (tests, diagnostics reset). */
+    public synchronized void clear() {
+        slots = new String[256];
+        size = 0;
+        lookups = 0;
+        hits = 0;
+        savedBytes = 0;
+    }
+
+    @Override
+    public String toString() {
+        return name + " [" + size() + " symbols, " + getHitCount() + " hits]";
+    }
+}